@@ -17,6 +17,11 @@ public class AuditAppenderException extends AuditLoggingException {
         this.appender = appender;
     }
 
+    public AuditAppenderException(LogAppenders appender, String message, Throwable cause) {
+        super(message, cause);
+        this.appender = appender;
+    }
+
     public LogAppenders getAppender() {
         return appender;
     }
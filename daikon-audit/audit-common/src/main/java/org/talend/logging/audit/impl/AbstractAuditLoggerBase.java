@@ -9,21 +9,19 @@ import org.talend.logging.audit.LogLevel;
 /**
  *
  */
-public abstract class AbstractAuditLoggerBase implements AuditLoggerBase {
+public abstract class AbstractAuditLoggerBase implements AuditLoggerBase, AutoCloseable {
 
-    private static String formatMessage(String message, Map<String, String> mdcContext) {
-        if (mdcContext == null) {
-            return message;
-        }
+    private volatile AsyncAuditDispatcher asyncDispatcher;
 
-        String formattedMessage = message;
-        for (Map.Entry<String, String> entry : mdcContext.entrySet()) {
-            formattedMessage = formattedMessage.replace('{' + entry.getKey() + '}', entry.getValue());
+    private static String formatMessage(AuditEventSnapshot event, Map<String, String> mdcContext) {
+        if (mdcContext == null) {
+            return event.getMessage();
         }
-        return formattedMessage;
+        final MessageTemplate template = event.getMessageTemplate();
+        return (template != null ? template : MessageTemplate.of(event.getMessage())).render(mdcContext);
     }
 
-    public void log(LogLevel level, String category, Context context, Throwable throwable, String message) {
+    private static String normalizeCategory(String category) {
         if (category == null) {
             throw new IllegalArgumentException("category cannot be null");
         }
@@ -32,35 +30,104 @@ public abstract class AbstractAuditLoggerBase implements AuditLoggerBase {
         if (categoryNormalized.isEmpty()) {
             throw new IllegalArgumentException("category cannot be empty or blank");
         }
+        return categoryNormalized;
+    }
+
+    public void log(LogLevel level, String category, Context context, Throwable throwable, String message) {
+        String categoryNormalized = normalizeCategory(category);
 
         String actualMessage = message == null && throwable != null ? throwable.getMessage() : message;
         if (actualMessage == null) {
             throw new IllegalArgumentException("message cannot be null");
         }
 
-        logInternal(level, categoryNormalized, context, throwable, actualMessage);
+        logInternal(level, categoryNormalized, context, throwable, actualMessage, null);
+    }
+
+    /**
+     * Log an event with a message, rendered with the template parsed once by event definition (not looked up in the
+     * bounded cache of {@link MessageTemplate#of(String)}).
+     */
+    public void log(EventDefinition event, Context context, Throwable throwable) {
+        final MessageTemplate template = event.getMessageTemplate();
+        if (template == null) {
+            throw new IllegalArgumentException("message cannot be null");
+        }
+        logInternal(event.getLogLevel(), normalizeCategory(event.getCategory()), context, throwable, template.getMessage(),
+                template);
     }
 
-    private void logInternal(LogLevel level, String category, Context context, Throwable throwable, String message) {
+    private void logInternal(LogLevel level, String category, Context context, Throwable throwable, String message,
+            MessageTemplate template) {
         // creating copy of passed context to be able to modify it
         Context actualContext = context == null ? ContextBuilder.emptyContext() : ContextBuilder.create(context).build();
-        Map<String, String> enrichedContext = getEnricher().enrich(category, actualContext);
+
+        final AsyncAuditDispatcher dispatcher = asyncDispatcher;
+        if (dispatcher != null) {
+            // logged on dispatcher thread, so caller logging context is captured now.
+            final AuditEventSnapshot event = new AuditEventSnapshot(level, category, actualContext,
+                    getLogger().getCopyOfContextMap(), throwable, message, template);
+            if (dispatcher.submit(event)) {
+                return;
+            }
+        }
+        logEvent(new AuditEventSnapshot(level, category, actualContext, null, throwable, message, template));
+    }
+
+    /**
+     * Enrich event context and send event to backend.
+     */
+    protected void logEvent(AuditEventSnapshot event) {
+        Map<String, String> enrichedContext = getEnricher().enrich(event.getCategory(), event.getContext());
 
         final AbstractBackend logger = getLogger();
         final Map<String, String> oldContext = logger.getCopyOfContextMap();
-        final Map<String, String> completeContext = logger.setNewContext(oldContext, enrichedContext);
+        final Map<String, String> baseContext = event.getCallerContext() == null ? oldContext : event.getCallerContext();
+        final Map<String, String> completeContext = logger.setNewContext(baseContext, enrichedContext);
         try {
             if (logger.enableMessageFormat()) {
-                message = formatMessage(message, completeContext);
-                logger.log(category, level, message, throwable);
+                String message = formatMessage(event, completeContext);
+                logger.log(event.getCategory(), event.getLevel(), message, event.getThrowable());
             } else {
-                logger.log(category, level, throwable);
+                logger.log(event.getCategory(), event.getLevel(), event.getThrowable());
             }
         } finally {
             logger.resetContext(oldContext);
         }
     }
 
+    /**
+     * Switch to asynchronous logging if {@link AuditConfiguration#ASYNC} is set: events are then logged by batches on a
+     * dedicated thread (see {@link AsyncAuditDispatcher}).
+     */
+    protected void configureAsync(AuditConfigurationMap config) {
+        if (AuditConfiguration.ASYNC.getBoolean(config)) {
+            asyncDispatcher = new AsyncAuditDispatcher(this::logEvent, () -> getLogger().flush(),
+                    AuditConfiguration.ASYNC_QUEUE_SIZE.getInteger(config),
+                    AuditConfiguration.ASYNC_BATCH_SIZE.getInteger(config),
+                    AuditConfiguration.ASYNC_OVERFLOW_POLICY.getValue(config, OverflowPolicy.class),
+                    AuditConfiguration.ASYNC_SAMPLE_RATE.getInteger(config));
+        }
+    }
+
+    /**
+     * @return dispatcher of asynchronous mode (for metrics), null if events are logged on caller thread.
+     */
+    public AsyncAuditDispatcher getAsyncDispatcher() {
+        return asyncDispatcher;
+    }
+
+    /**
+     * Stop asynchronous logging, once pending events are logged (next events are logged on caller thread).
+     */
+    @Override
+    public void close() {
+        final AsyncAuditDispatcher dispatcher = asyncDispatcher;
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
     protected abstract AbstractBackend getLogger();
 
     protected abstract ContextEnricher getEnricher();
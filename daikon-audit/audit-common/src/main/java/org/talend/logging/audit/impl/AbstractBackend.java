@@ -31,6 +31,12 @@ public abstract class AbstractBackend {
         log(category, level, "", throwable);
     }
 
+    /**
+     * Called in asynchronous mode after each batch of events, for backends which buffer events.
+     */
+    public void flush() {
+    }
+
     public abstract Map<String, String> getCopyOfContextMap();
 
     public abstract void setContextMap(Map<String, String> newContext);
@@ -0,0 +1,260 @@
+package org.talend.logging.audit.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands audit events over to a dedicated thread.
+ *
+ * Events are put in a bounded lock-free {@link RingBuffer} and the consumer thread drains them by batches,
+ * what to do when buffer is full is given by {@link OverflowPolicy}.
+ * Submitters hold a read lock while they put an event, so that no event is put once the dispatcher is stopped.
+ * Queue depth and lost events are exposed for monitoring.
+ *
+ * Backend exceptions can't be propagated to caller, {@link AuditConfiguration#PROPAGATE_APPENDER_EXCEPTIONS} is ignored:
+ * failed events are counted, the first failure is logged then at most one per {@value #FAILURE_LOG_INTERVAL_MS} ms.
+ */
+public class AsyncAuditDispatcher implements AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private static final long CLOSE_TIMEOUT_MS = 10000L;
+
+    private static final long FAILURE_LOG_INTERVAL_MS = 60000L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncAuditDispatcher.class);
+
+    private final RingBuffer<AuditEventSnapshot> buffer;
+
+    private final Consumer<AuditEventSnapshot> handler;
+
+    private final Runnable batchEnd;
+
+    private final int batchSize;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final int sampleRate;
+
+    private final Thread consumer;
+
+    private final Thread shutdownHook;
+
+    /** read locked by submitters, write locked when stopping */
+    private final StampedLock stopLock = new StampedLock();
+
+    private final AtomicLong overflows = new AtomicLong();
+
+    private final LongAdder processedEvents = new LongAdder();
+
+    private final LongAdder droppedEvents = new LongAdder();
+
+    private final LongAdder failedEvents = new LongAdder();
+
+    private volatile boolean running = true;
+
+    private volatile boolean consumerWaiting;
+
+    /** failures not logged since last logged one (consumer thread only) */
+    private long unloggedFailures;
+
+    private long lastFailureLogNanos;
+
+    private boolean failureLogged;
+
+    /**
+     * @param handler logs one event (called on consumer thread).
+     * @param batchEnd called on consumer thread after each batch.
+     * @param queueSize max number of waiting events (rounded up to a power of 2).
+     * @param batchSize max number of events drained at once.
+     * @param overflowPolicy what to do when queue is full.
+     * @param sampleRate for {@link OverflowPolicy#SAMPLE}, one event out of sampleRate is kept on overflow.
+     */
+    public AsyncAuditDispatcher(Consumer<AuditEventSnapshot> handler, Runnable batchEnd, int queueSize, int batchSize,
+            OverflowPolicy overflowPolicy, int sampleRate) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batch size must be positive");
+        }
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("sample rate must be positive");
+        }
+        this.buffer = new RingBuffer<>(queueSize);
+        this.handler = handler;
+        this.batchEnd = batchEnd;
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = sampleRate;
+
+        this.consumer = new Thread(this::consume, "audit-async-dispatcher");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+
+        // pending audit events are logged before JVM stops.
+        this.shutdownHook = new Thread(this::stop, "audit-async-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * @param event event to log.
+     * @return false if event was not taken because dispatcher is closed (caller should log it itself).
+     */
+    public boolean submit(AuditEventSnapshot event) {
+        final long stamp = stopLock.readLock();
+        try {
+            return running && put(event);
+        } finally {
+            stopLock.unlockRead(stamp);
+        }
+    }
+
+    private boolean put(AuditEventSnapshot event) {
+        if (!buffer.offer(event)) {
+            final boolean wait = overflowPolicy == OverflowPolicy.BLOCK
+                    || (overflowPolicy == OverflowPolicy.SAMPLE && overflows.getAndIncrement() % sampleRate == 0);
+            if (!wait) {
+                droppedEvents.increment();
+                return true;
+            }
+            while (!buffer.offer(event)) {
+                if (!running) {
+                    return false;
+                }
+                wakeUpConsumer();
+                LockSupport.parkNanos(this, FULL_PARK_NANOS);
+            }
+        }
+        wakeUpConsumer();
+        return true;
+    }
+
+    private void wakeUpConsumer() {
+        if (consumerWaiting) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void consume() {
+        final List<AuditEventSnapshot> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                consumerWaiting = true;
+                if (running && buffer.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                consumerWaiting = false;
+                continue;
+            }
+            process(batch);
+        }
+    }
+
+    private void process(List<AuditEventSnapshot> batch) {
+        for (AuditEventSnapshot event : batch) {
+            try {
+                handler.accept(event);
+                processedEvents.increment();
+            } catch (RuntimeException e) {
+                // no caller to propagate to.
+                onFailure("Failure when logging an audit event", e);
+            }
+        }
+        batch.clear();
+        try {
+            batchEnd.run();
+        } catch (RuntimeException e) {
+            onFailure("Failure when flushing audit events", e);
+        }
+    }
+
+    private void onFailure(String message, RuntimeException e) {
+        failedEvents.increment();
+        final long now = System.nanoTime();
+        if (failureLogged && now - lastFailureLogNanos < TimeUnit.MILLISECONDS.toNanos(FAILURE_LOG_INTERVAL_MS)) {
+            unloggedFailures++;
+            return;
+        }
+        LOGGER.error("{} ({} other failures since previous report)", message, unloggedFailures, e);
+        failureLogged = true;
+        lastFailureLogNanos = now;
+        unloggedFailures = 0;
+    }
+
+    /**
+     * Stop taking events and wait for pending ones to be logged.
+     */
+    @Override
+    public void close() {
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // already shutting down.
+        }
+        stop();
+    }
+
+    private synchronized void stop() {
+        running = false;
+        // waits for submitters which saw dispatcher running and may still put an event.
+        stopLock.unlockWrite(stopLock.writeLock());
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!consumer.isAlive()) {
+            // consumer may have stopped before last submitted events were put, log what is left.
+            final List<AuditEventSnapshot> batch = new ArrayList<>(batchSize);
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                process(batch);
+            }
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return number of events waiting in queue.
+     */
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    public int getQueueCapacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * @return number of events dropped because queue was full.
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    /**
+     * @return number of events the backend failed to log.
+     */
+    public long getFailedEvents() {
+        return failedEvents.sum();
+    }
+
+    /**
+     * @return number of events logged.
+     */
+    public long getProcessedEvents() {
+        return processedEvents.sum();
+    }
+}
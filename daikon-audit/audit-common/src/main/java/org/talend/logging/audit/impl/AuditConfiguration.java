@@ -38,12 +38,28 @@ public enum AuditConfiguration {
     APPENDER_HTTP_ASYNC(Boolean.class, Boolean.FALSE),
     APPENDER_HTTP_CONNECT_TIMEOUT(Integer.class, 30000),
     APPENDER_HTTP_READ_TIMEOUT(Integer.class, 60000),
+    APPENDER_HTTP_BATCH_DELAY_MS(Integer.class, 0),
+    APPENDER_HTTP_BATCH_MAX_BYTES(Integer.class, 1048576),
+    APPENDER_HTTP_BATCH_FORMAT(String.class, "ndjson"),
+    APPENDER_HTTP_MAX_RETRIES(Integer.class, 3),
+    APPENDER_HTTP_RETRY_BACKOFF_MS(Integer.class, 100),
     PROPAGATE_APPENDER_EXCEPTIONS(PropagateExceptions.class, PropagateExceptions.NONE),
     BACKEND(Backends.class, Backends.AUTO),
     KAFKA_BOOTSTRAP_SERVERS(String.class, null, true),
     KAFKA_BLOCK_TIMEOUT_MS(Long.class, 60000L),
     KAFKA_TOPIC(String.class, null, true),
-    KAFKA_PARTITION_KEY_NAME(String.class, null, true);
+    KAFKA_PARTITION_KEY_NAME(String.class, null, true),
+    KAFKA_ASYNC(Boolean.class, Boolean.FALSE),
+    KAFKA_ACKS(String.class, "1"),
+    KAFKA_LINGER_MS(Integer.class, 0),
+    KAFKA_BATCH_SIZE(Integer.class, 16384),
+    KAFKA_COMPRESSION_TYPE(String.class, "none"),
+    KAFKA_MAX_IN_FLIGHT(Integer.class, 1000),
+    ASYNC(Boolean.class, Boolean.FALSE),
+    ASYNC_QUEUE_SIZE(Integer.class, 8192),
+    ASYNC_BATCH_SIZE(Integer.class, 256),
+    ASYNC_OVERFLOW_POLICY(OverflowPolicy.class, OverflowPolicy.BLOCK),
+    ASYNC_SAMPLE_RATE(Integer.class, 10);
 
     private static final String PLACEHOLDER_START = "${";
 
@@ -0,0 +1,78 @@
+package org.talend.logging.audit.impl;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.talend.logging.audit.LogLevel;
+
+/**
+ * Immutable copy of an audit event, taken on caller thread so it can be logged later from another thread.
+ */
+public final class AuditEventSnapshot {
+
+    private final LogLevel level;
+
+    private final String category;
+
+    private final Map<String, String> context;
+
+    private final Map<String, String> callerContext;
+
+    private final Throwable throwable;
+
+    private final String message;
+
+    private final MessageTemplate messageTemplate;
+
+    AuditEventSnapshot(LogLevel level, String category, Map<String, String> context, Map<String, String> callerContext,
+            Throwable throwable, String message) {
+        this(level, category, context, callerContext, throwable, message, null);
+    }
+
+    /**
+     * @param context event context (not enriched yet), must not be shared.
+     * @param callerContext copy of logging context (MDC) of caller thread, null to use the one of logging thread.
+     * @param messageTemplate parsed message (of an event definition), null if not parsed yet.
+     */
+    AuditEventSnapshot(LogLevel level, String category, Map<String, String> context, Map<String, String> callerContext,
+            Throwable throwable, String message, MessageTemplate messageTemplate) {
+        this.level = level;
+        this.category = category;
+        this.context = Collections.unmodifiableMap(context);
+        this.callerContext = callerContext == null ? null : Collections.unmodifiableMap(callerContext);
+        this.throwable = throwable;
+        this.message = message;
+        this.messageTemplate = messageTemplate;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public Map<String, String> getContext() {
+        return context;
+    }
+
+    public Map<String, String> getCallerContext() {
+        return callerContext;
+    }
+
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return parsed message, null if not parsed yet.
+     */
+    public MessageTemplate getMessageTemplate() {
+        return messageTemplate;
+    }
+}
@@ -52,12 +52,14 @@ public class DefaultAuditLoggerBase extends AbstractAuditLoggerBase {
         default:
             throw new IllegalArgumentException("Unsupported backend " + backend);
         }
+        configureAsync(config);
     }
 
     public DefaultAuditLoggerBase(AbstractBackend backend, AuditConfigurationMap externalConfig) {
         final AuditConfigurationMap config = new AuditConfigurationMapImpl(externalConfig);
         this.contextEnricher = new ContextEnricher(config);
         this.logger = backend;
+        configureAsync(config);
     }
 
     private static AuditConfigurationMap loadConfig() {
@@ -15,6 +15,8 @@ public class EventDefinition {
 
     private String message;
 
+    private MessageTemplate messageTemplate;
+
     public EventDefinition(String name) {
         this.name = name;
     }
@@ -45,6 +47,14 @@ public class EventDefinition {
 
     public void setMessage(String message) {
         this.message = message;
+        this.messageTemplate = message == null ? null : MessageTemplate.of(message);
+    }
+
+    /**
+     * @return parsed message, null if event has no message.
+     */
+    public MessageTemplate getMessageTemplate() {
+        return messageTemplate;
     }
 
     public void set(String property, String value) {
@@ -58,7 +68,7 @@ public class EventDefinition {
             break;
 
         case "message":
-            message = value;
+            setMessage(value);
             break;
 
         default:
@@ -0,0 +1,110 @@
+package org.talend.logging.audit.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Audit message with <code>{key}</code> placeholders, parsed once and rendered in one pass.
+ *
+ * A placeholder is replaced by the value of its key in context, or kept as is if context has no such key.
+ * Values are not scanned for placeholders.
+ */
+public final class MessageTemplate {
+
+    /** max number of cached templates (messages of simple API can be dynamic) */
+    static final int MAX_CACHE_SIZE = 1024;
+
+    private static final int MAX_REUSED_CAPACITY = 8 * 1024;
+
+    private static final Map<String, MessageTemplate> CACHE = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final String message;
+
+    /** literal texts, texts[i] is before keys[i] */
+    private final String[] texts;
+
+    private final String[] keys;
+
+    private MessageTemplate(String message, String[] texts, String[] keys) {
+        this.message = message;
+        this.texts = texts;
+        this.keys = keys;
+    }
+
+    /**
+     * @return template for message, from cache if already parsed.
+     */
+    public static MessageTemplate of(String message) {
+        MessageTemplate template = CACHE.get(message);
+        if (template == null) {
+            template = parse(message);
+            if (CACHE.size() < MAX_CACHE_SIZE) {
+                CACHE.putIfAbsent(message, template);
+            }
+        }
+        return template;
+    }
+
+    static MessageTemplate parse(String message) {
+        final List<String> texts = new ArrayList<>();
+        final List<String> keys = new ArrayList<>();
+        int textStart = 0;
+        int open = message.indexOf('{');
+        while (open >= 0) {
+            final int close = message.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            final int nextOpen = message.lastIndexOf('{', close);
+            if (nextOpen > open) {
+                // "{a{b}": placeholder is "{b}".
+                open = nextOpen;
+            }
+            texts.add(message.substring(textStart, open));
+            keys.add(message.substring(open + 1, close));
+            textStart = close + 1;
+            open = message.indexOf('{', textStart);
+        }
+        texts.add(message.substring(textStart));
+        return new MessageTemplate(message, texts.toArray(new String[0]), keys.toArray(new String[0]));
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean hasPlaceholders() {
+        return keys.length > 0;
+    }
+
+    /**
+     * @param context values for placeholders (can be null).
+     * @return message with placeholders replaced.
+     */
+    public String render(Map<String, String> context) {
+        if (keys.length == 0 || context == null || context.isEmpty()) {
+            return message;
+        }
+        final StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+        for (int i = 0; i < keys.length; i++) {
+            builder.append(texts[i]);
+            final String value = context.get(keys[i]);
+            if (value == null) {
+                builder.append('{').append(keys[i]).append('}');
+            } else {
+                builder.append(value);
+            }
+        }
+        builder.append(texts[keys.length]);
+        final String answer = builder.toString();
+        if (builder.capacity() > MAX_REUSED_CAPACITY) {
+            BUILDER.remove();
+        }
+        return answer;
+    }
+}
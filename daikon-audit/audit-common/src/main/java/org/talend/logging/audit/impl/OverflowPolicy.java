@@ -0,0 +1,19 @@
+package org.talend.logging.audit.impl;
+
+/**
+ * What to do with an audit event when async queue is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * Caller waits for a free slot (no event lost).
+     */
+    BLOCK,
+    /**
+     * Event is dropped.
+     */
+    DROP,
+    /**
+     * One event out of {@link AuditConfiguration#ASYNC_SAMPLE_RATE} waits for a free slot, others are dropped.
+     */
+    SAMPLE
+}
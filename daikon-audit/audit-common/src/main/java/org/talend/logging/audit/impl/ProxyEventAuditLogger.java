@@ -5,6 +5,8 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.talend.logging.audit.AuditEvent;
 import org.talend.logging.audit.Context;
@@ -16,6 +18,9 @@ public class ProxyEventAuditLogger implements InvocationHandler {
 
     private final AuditLoggerBase auditLoggerBase;
 
+    /** event definitions read from annotations, by interface method */
+    private final Map<Method, EventDefinition> events = new ConcurrentHashMap<>();
+
     public ProxyEventAuditLogger(AuditLoggerBase auditLoggerBase) {
         this.auditLoggerBase = auditLoggerBase;
     }
@@ -80,7 +85,7 @@ public class ProxyEventAuditLogger implements InvocationHandler {
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        EventDefinition event = getEvent(method);
+        EventDefinition event = events.computeIfAbsent(method, ProxyEventAuditLogger::getEvent);
 
         if (event == null) {
             throw new IllegalArgumentException("Unknown event " + method.getName());
@@ -93,7 +98,12 @@ public class ProxyEventAuditLogger implements InvocationHandler {
         Context context = Utils.getSpecificClassParam(allArgs, Context.class);
         Throwable throwable = Utils.getSpecificClassParam(allArgs, Throwable.class);
 
-        auditLoggerBase.log(event.getLogLevel(), event.getCategory(), context, throwable, event.getMessage());
+        if (event.getMessageTemplate() != null && auditLoggerBase instanceof AbstractAuditLoggerBase) {
+            // message parsed once with event definition
+            ((AbstractAuditLoggerBase) auditLoggerBase).log(event, context, throwable);
+        } else {
+            auditLoggerBase.log(event.getLogLevel(), event.getCategory(), context, throwable, event.getMessage());
+        }
         return null;
     }
 }
@@ -0,0 +1,106 @@
+package org.talend.logging.audit.impl;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ *
+ * Each slot has a sequence number telling if it is free for the producer of a given position
+ * or filled for the consumer, so producers only compete on a CAS of the tail position.
+ */
+class RingBuffer<E> {
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> elements;
+
+    private final AtomicLongArray sequences;
+
+    /** next position to fill */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** next position to read (only written by consumer) */
+    private volatile long head;
+
+    RingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        if (size <= 0) {
+            throw new IllegalArgumentException("capacity is too big: " + capacity);
+        }
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if queue is full.
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            final int index = (int) (position & mask);
+            final long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                // slot still used by previous round.
+                return false;
+            } else {
+                // other producer took this position.
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Move available elements to target (consumer thread only).
+     *
+     * @return number of moved elements.
+     */
+    int drainTo(Collection<? super E> target, int max) {
+        long position = head;
+        int count = 0;
+        while (count < max) {
+            final int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            target.add(elements.get(index));
+            elements.lazySet(index, null);
+            // free slot for producer of next round.
+            sequences.set(index, position + mask + 1);
+            position++;
+            count++;
+        }
+        head = position;
+        return count;
+    }
+
+    boolean isEmpty() {
+        final long position = head;
+        return sequences.get((int) (position & mask)) != position + 1;
+    }
+
+    int size() {
+        final long size = tail.get() - head;
+        return (int) Math.max(0L, Math.min(size, capacity()));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
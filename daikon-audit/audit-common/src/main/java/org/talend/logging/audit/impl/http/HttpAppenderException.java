@@ -15,4 +15,8 @@ public class HttpAppenderException extends AuditAppenderException {
     public HttpAppenderException(Throwable cause) {
         super(LogAppenders.HTTP, cause);
     }
+
+    public HttpAppenderException(String message, Throwable cause) {
+        super(LogAppenders.HTTP, message, cause);
+    }
 }
@@ -0,0 +1,263 @@
+package org.talend.logging.audit.impl.http;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Accumulate JSON events for up to a delay or a number of bytes and send them in one bulk request,
+ * as NDJSON (one event per line) or as a JSON array.
+ * Failed bulk requests are retried with exponential backoff. When all retries failed, events of the request are counted as
+ * lost and the failure is thrown (as {@link HttpAppenderException}) by next call to {@link #add}.
+ */
+public class HttpEventBatcher {
+
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    public static final String FORMAT_ARRAY = "array";
+
+    private static final long POLL_TIMEOUT_MS = 100L;
+
+    private static final long STOP_TIMEOUT_MS = 30000L;
+
+    private final BlockingQueue<String> queue;
+
+    private final Consumer<byte[]> bulkSender;
+
+    private final long maxDelayMs;
+
+    private final int maxBytes;
+
+    private final boolean array;
+
+    private final Charset charset;
+
+    private final int maxRetries;
+
+    private final long retryBackoffMs;
+
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    private final AtomicLong batches = new AtomicLong();
+
+    private final AtomicLong batchedEvents = new AtomicLong();
+
+    private final AtomicLong maxBatchSize = new AtomicLong();
+
+    private final AtomicLong latencyNanos = new AtomicLong();
+
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    private final AtomicLong retries = new AtomicLong();
+
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    private final AtomicLong lostEvents = new AtomicLong();
+
+    private final AtomicReference<HttpAppenderException> lastFailure = new AtomicReference<>();
+
+    /**
+     * @param bulkSender sends one bulk payload, throws an exception (as {@link HttpAppenderException}) on failure.
+     * @param queueSize max number of waiting events (not bounded if not positive).
+     * @param maxDelayMs max time an event waits for other events before being sent.
+     * @param maxBytes max payload size of a bulk request (a single bigger event is sent alone).
+     * @param format {@link #FORMAT_NDJSON} or {@link #FORMAT_ARRAY}.
+     * @param charset encoding of events in payloads.
+     * @param maxRetries number of retries of a failed bulk request.
+     * @param retryBackoffMs delay before first retry, doubled for each next one.
+     */
+    public HttpEventBatcher(Consumer<byte[]> bulkSender, int queueSize, long maxDelayMs, int maxBytes, String format,
+            Charset charset, int maxRetries, long retryBackoffMs) {
+        if (!FORMAT_NDJSON.equalsIgnoreCase(format) && !FORMAT_ARRAY.equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unsupported batch format " + format);
+        }
+        this.bulkSender = bulkSender;
+        this.queue = queueSize > 0 ? new LinkedBlockingQueue<>(queueSize) : new LinkedBlockingQueue<>();
+        this.maxDelayMs = maxDelayMs;
+        this.maxBytes = maxBytes;
+        this.array = FORMAT_ARRAY.equalsIgnoreCase(format);
+        this.charset = charset;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMs = retryBackoffMs;
+
+        this.worker = new Thread(this::run, HttpEventBatcher.class.getName() + "-thread");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * @param jsonEvent event to send with next bulk request.
+     * @throws HttpAppenderException if the event can't be queued, or if a bulk request failed since previous call (the
+     * event is queued anyway).
+     */
+    public void add(String jsonEvent) {
+        if (!running) {
+            throw new HttpAppenderException("Http event batcher is stopped");
+        }
+        if (!queue.offer(jsonEvent)) {
+            lostEvents.incrementAndGet();
+            throw new HttpAppenderException("Http event batcher queue is full");
+        }
+        final HttpAppenderException failure = lastFailure.getAndSet(null);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Send pending events and stop.
+     */
+    public void stop() {
+        running = false;
+        try {
+            worker.join(STOP_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream(Math.min(maxBytes, 64 * 1024));
+        String pending = null;
+        while (running || pending != null || !queue.isEmpty()) {
+            try {
+                String event = pending != null ? pending : queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                pending = null;
+                if (event == null) {
+                    continue;
+                }
+                final long start = System.nanoTime();
+                final long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                int count = 0;
+                payload.reset();
+                if (array) {
+                    payload.write('[');
+                }
+                while (event != null) {
+                    final byte[] bytes = trim(event).getBytes(charset);
+                    if (count > 0 && payload.size() + bytes.length + 2 > maxBytes) {
+                        // for next batch.
+                        pending = event;
+                        break;
+                    }
+                    if (count > 0 && array) {
+                        payload.write(',');
+                    }
+                    payload.write(bytes, 0, bytes.length);
+                    if (!array) {
+                        payload.write('\n');
+                    }
+                    count++;
+                    final long remaining = deadline - System.nanoTime();
+                    event = remaining > 0 && running ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                }
+                if (array) {
+                    payload.write(']');
+                }
+                send(payload.toByteArray(), count, start);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void send(byte[] payload, int count, long start) throws InterruptedException {
+        for (int attempt = 0;; attempt++) {
+            try {
+                bulkSender.accept(payload);
+                break;
+            } catch (RuntimeException e) {
+                if (attempt >= maxRetries) {
+                    // reported to next event once counted.
+                    lastFailure.set(new HttpAppenderException(
+                            "Failure when sending a previous bulk request, " + count + " events are lost", e));
+                    failedBatches.incrementAndGet();
+                    lostEvents.addAndGet(count);
+                    return;
+                }
+                retries.incrementAndGet();
+                Thread.sleep(retryBackoffMs << Math.min(attempt, 20));
+            }
+        }
+        final long latency = System.nanoTime() - start;
+        batches.incrementAndGet();
+        batchedEvents.addAndGet(count);
+        maxBatchSize.accumulateAndGet(count, Math::max);
+        latencyNanos.addAndGet(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    private static String trim(String event) {
+        int end = event.length();
+        while (end > 0 && (event.charAt(end - 1) == '\n' || event.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        return end == event.length() ? event : event.substring(0, end);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return number of bulk requests sent.
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * @return number of events sent in bulk requests.
+     */
+    public long getBatchedEventCount() {
+        return batchedEvents.get();
+    }
+
+    public double getAverageBatchSize() {
+        final long count = batches.get();
+        return count == 0 ? 0.0 : (double) batchedEvents.get() / count;
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    /**
+     * @return average time from first event of a batch to its successful send, in ms.
+     */
+    public double getAverageBatchLatencyMs() {
+        final long count = batches.get();
+        return count == 0 ? 0.0 : latencyNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double getMaxBatchLatencyMs() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    public long getFailedBatchCount() {
+        return failedBatches.get();
+    }
+
+    /**
+     * @return number of events not sent (queue full or all retries failed).
+     */
+    public long getLostEventCount() {
+        return lostEvents.get();
+    }
+}
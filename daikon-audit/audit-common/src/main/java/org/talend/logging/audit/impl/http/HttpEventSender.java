@@ -4,6 +4,7 @@ import static java.util.Optional.ofNullable;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
@@ -52,7 +53,7 @@ public class HttpEventSender {
     private int readTimeout;
 
     /**
-     * Encoding used to create the basic token and content-type header, <b>it is not used to encode the event</b>.
+     * Encoding of events, used to create the basic token and content-type header.
      */
     private Charset encoding;
 
@@ -84,6 +85,33 @@ public class HttpEventSender {
      */
     private boolean supportsSystemPropertiesOverride = true;
 
+    /**
+     * If positive, events are sent by bulk requests: an event waits at most this delay in ms for other events.
+     */
+    private int batchDelayMs;
+
+    /**
+     * Max size in bytes of a bulk request.
+     */
+    private int batchMaxBytes = 1024 * 1024;
+
+    /**
+     * Format of bulk requests: <code>ndjson</code> (one event per line) or <code>array</code> (JSON array).
+     */
+    private String batchFormat = HttpEventBatcher.FORMAT_NDJSON;
+
+    /**
+     * Number of retries of a failed bulk request.
+     */
+    private int maxRetries = 3;
+
+    /**
+     * Delay in ms before first retry of a failed bulk request, doubled for each next retry.
+     */
+    private int retryBackoffMs = 100;
+
+    private final AtomicReference<HttpEventBatcher> batcher = new AtomicReference<>();
+
     private String authorization;
 
     private URL connectionFactory;
@@ -108,6 +136,33 @@ public class HttpEventSender {
         this.keepAliveMs = keepAliveMs;
     }
 
+    public void setBatchDelayMs(final int batchDelayMs) {
+        this.batchDelayMs = batchDelayMs;
+    }
+
+    public void setBatchMaxBytes(final int batchMaxBytes) {
+        this.batchMaxBytes = batchMaxBytes;
+    }
+
+    public void setBatchFormat(final String batchFormat) {
+        this.batchFormat = batchFormat;
+    }
+
+    public void setMaxRetries(final int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public void setRetryBackoffMs(final int retryBackoffMs) {
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    /**
+     * @return batcher (for metrics), null if events are not sent by bulk requests.
+     */
+    public HttpEventBatcher getBatcher() {
+        return batcher.get();
+    }
+
     public String getUrl() {
         return url;
     }
@@ -152,7 +207,16 @@ public class HttpEventSender {
         this.encoding = Charset.forName(encoding);
     }
 
+    /**
+     * Send event from a thread pool, or with next bulk request if batching is enabled. In batching mode, failure of a
+     * bulk request (after retries) is thrown by next call.
+     */
     public void sendEventAsync(String jsonEvent) {
+        final HttpEventBatcher eventBatcher = batcher.get();
+        if (eventBatcher != null) {
+            eventBatcher.add(jsonEvent);
+            return;
+        }
         ExecutorService executorService = executor.get();
         if (executorService == null) {
             executorService = new ThreadPoolExecutor(Math.min(coreSize, maxSize), maxSize, keepAliveMs, MILLISECONDS,
@@ -179,13 +243,24 @@ public class HttpEventSender {
         executorService.execute(new LogSender(jsonEvent));
     }
 
+    /**
+     * Send event with one request, or with next bulk request if batching is enabled. In batching mode, failure of a bulk
+     * request (after retries) is thrown by next call.
+     */
     public void sendEvent(String jsonEvent) {
-        HttpURLConnection conn = openConnection();
+        final HttpEventBatcher eventBatcher = batcher.get();
+        if (eventBatcher != null) {
+            eventBatcher.add(jsonEvent);
+            return;
+        }
+        post(jsonEvent.getBytes(encoding), "application/json; charset=" + encoding.name());
+    }
 
-        byte[] payload = jsonEvent.getBytes();
+    private void post(byte[] payload, String contentType) {
+        HttpURLConnection conn = openConnection();
 
         conn.setFixedLengthStreamingMode(payload.length);
-        conn.setRequestProperty("Content-Type", "application/json; charset=" + encoding.name());
+        conn.setRequestProperty("Content-Type", contentType);
 
         try (OutputStream os = conn.getOutputStream()) {
             os.write(payload);
@@ -196,14 +271,29 @@ public class HttpEventSender {
         try {
             int resp = conn.getResponseCode();
             if (resp < 200 || resp >= 300) {
+                consume(conn.getErrorStream());
                 throw new HttpAppenderException(
                         "Error response from server: code=" + resp + ", message=" + conn.getResponseMessage());
             }
+            // response must be fully read for connection to be reused (keep-alive).
+            consume(conn.getInputStream());
         } catch (IOException e) {
             throw new HttpAppenderException(e);
         }
     }
 
+    private static void consume(InputStream response) throws IOException {
+        if (response == null) {
+            return;
+        }
+        try (InputStream in = response) {
+            final byte[] buffer = new byte[1024];
+            while (in.read(buffer) >= 0) {
+                // skip content
+            }
+        }
+    }
+
     protected HttpURLConnection openConnection() {
         try {
             URLConnection conn = connectionFactory.openConnection();
@@ -240,11 +330,26 @@ public class HttpEventSender {
             throw new HttpAppenderException(e);
         }
         openConnection();
+
+        if (batchDelayMs > 0) {
+            final String contentType = (HttpEventBatcher.FORMAT_ARRAY.equalsIgnoreCase(batchFormat) ? "application/json"
+                    : "application/x-ndjson") + "; charset=" + encoding.name();
+            final HttpEventBatcher eventBatcher = new HttpEventBatcher(payload -> post(payload, contentType), queueSize,
+                    batchDelayMs, batchMaxBytes, batchFormat, encoding, maxRetries, retryBackoffMs);
+            if (!batcher.compareAndSet(null, eventBatcher)) {
+                eventBatcher.stop();
+            }
+        }
     }
 
     public void stop() {
+        final HttpEventBatcher eventBatcher = batcher.getAndSet(null);
+        if (eventBatcher != null) {
+            eventBatcher.stop();
+        }
+
         final ExecutorService executorService = executor.get();
-        if (executor.compareAndSet(executorService, null)) {
+        if (executorService != null && executor.compareAndSet(executorService, null)) {
             executorService.shutdown();
 
             try {
@@ -80,6 +80,33 @@ public class AbstractAuditLoggerBaseTest {
         verify(logger);
     }
 
+    @Test
+    @SuppressWarnings({ "unchecked" })
+    public void testLogEventDefinition() {
+        String category = "testCat";
+        Context ctx = ContextBuilder.create("user", "u1").build();
+
+        AbstractBackend logger = mock(AbstractBackend.class);
+        expect(logger.enableMessageFormat()).andReturn(true);
+
+        logger.log(category.toLowerCase(), LogLevel.INFO, "User u1 did it", null);
+        expect(logger.getCopyOfContextMap()).andReturn(new LinkedHashMap<>());
+        expect(logger.setNewContext(anyObject(Map.class), anyObject(Map.class))).andReturn(ctx);
+        logger.resetContext(anyObject(Map.class));
+        expectLastCall();
+        replay(logger);
+
+        TestAuditLoggerBaseTest base = new TestAuditLoggerBaseTest(logger);
+
+        EventDefinition event = new EventDefinition("userAction");
+        event.setCategory(category);
+        event.setLogLevel(LogLevel.INFO);
+        event.setMessage("User {user} did it");
+        base.log(event, ctx, null);
+
+        verify(logger);
+    }
+
     private static class TestAuditLoggerBaseTest extends AbstractAuditLoggerBase {
 
         private final AbstractBackend logger;
@@ -0,0 +1,249 @@
+package org.talend.logging.audit.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.talend.logging.audit.ContextBuilder;
+import org.talend.logging.audit.LogLevel;
+
+public class AsyncAuditDispatcherTest {
+
+    @Test
+    public void testRingBuffer() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        assertTrue(buffer.isEmpty());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        List<Integer> target = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(target, 3));
+        assertTrue(buffer.offer(4));
+        assertEquals(2, buffer.drainTo(target, 10));
+        assertEquals(0, buffer.drainTo(target, 10));
+        assertTrue(buffer.isEmpty());
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), target);
+    }
+
+    @Test
+    public void testAllEventsLoggedWithBlockPolicy() throws InterruptedException {
+        final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        final AsyncAuditDispatcher dispatcher = new AsyncAuditDispatcher(e -> messages.add(e.getMessage()), () -> {
+        }, 16, 4, OverflowPolicy.BLOCK, 1);
+
+        final int threads = 4;
+        final int events = 500;
+        final List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int num = t;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < events; i++) {
+                    assertTrue(dispatcher.submit(event("msg " + num + '-' + i)));
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        dispatcher.close();
+
+        assertEquals(threads * events, messages.size());
+        assertEquals(threads * events, dispatcher.getProcessedEvents());
+        assertEquals(0L, dispatcher.getDroppedEvents());
+        assertEquals(0, dispatcher.getQueueDepth());
+        // events of one producer keep their order.
+        int last = -1;
+        for (String message : messages) {
+            if (message.startsWith("msg 0-")) {
+                int current = Integer.parseInt(message.substring(6));
+                assertTrue(current > last);
+                last = current;
+            }
+        }
+        assertFalse(dispatcher.submit(event("after close")));
+    }
+
+    @Test
+    public void testDropPolicy() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AsyncAuditDispatcher dispatcher = new AsyncAuditDispatcher(e -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }, () -> {
+        }, 4, 1, OverflowPolicy.DROP, 1);
+
+        // consumer is stuck on first event, so queue gets full.
+        for (int i = 0; i < 20; i++) {
+            assertTrue(dispatcher.submit(event("msg " + i)));
+        }
+        assertTrue(dispatcher.getDroppedEvents() >= 20 - 4 - 1);
+        assertTrue(dispatcher.getQueueDepth() > 0);
+        release.countDown();
+        dispatcher.close();
+        assertEquals(20L, dispatcher.getProcessedEvents() + dispatcher.getDroppedEvents());
+    }
+
+    @Test
+    public void testCloseWhileSubmitting() throws InterruptedException {
+        final AsyncAuditDispatcher dispatcher = new AsyncAuditDispatcher(e -> {
+        }, () -> {
+        }, 64, 8, OverflowPolicy.BLOCK, 1);
+
+        final LongAdder accepted = new LongAdder();
+        final CountDownLatch started = new CountDownLatch(4);
+        final List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread producer = new Thread(() -> {
+                started.countDown();
+                while (dispatcher.submit(event("msg"))) {
+                    accepted.increment();
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        started.await();
+        dispatcher.close();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        // events taken by dispatcher are all logged.
+        assertEquals(accepted.sum(), dispatcher.getProcessedEvents());
+        assertEquals(0, dispatcher.getQueueDepth());
+    }
+
+    @Test
+    public void testBackendFailures() {
+        final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        final AsyncAuditDispatcher dispatcher = new AsyncAuditDispatcher(e -> {
+            if (e.getMessage().startsWith("fail")) {
+                throw new IllegalStateException("backend failure");
+            }
+            messages.add(e.getMessage());
+        }, () -> {
+        }, 16, 4, OverflowPolicy.BLOCK, 1);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(dispatcher.submit(event((i % 2 == 0 ? "fail " : "msg ") + i)));
+        }
+        dispatcher.close();
+
+        assertEquals(5L, dispatcher.getFailedEvents());
+        assertEquals(5L, dispatcher.getProcessedEvents());
+        assertEquals(Arrays.asList("msg 1", "msg 3", "msg 5", "msg 7", "msg 9"), messages);
+    }
+
+    @Test
+    public void testAsyncLoggerBase() {
+        final TestBackend backend = new TestBackend();
+        final AuditConfigurationMap config = new AuditConfigurationMapImpl();
+        AuditConfiguration.APPLICATION_NAME.setValue(config, "app", String.class);
+        AuditConfiguration.ASYNC.setValue(config, Boolean.TRUE, Boolean.class);
+        AuditConfiguration.ASYNC_BATCH_SIZE.setValue(config, 2, Integer.class);
+
+        final DefaultAuditLoggerBase base = new DefaultAuditLoggerBase(backend, config);
+        final AsyncAuditDispatcher dispatcher = base.getAsyncDispatcher();
+        assertNotNull(dispatcher);
+
+        // logging context of caller is kept.
+        backend.setContextMap(Collections.singletonMap("requestId", "r1"));
+        for (int i = 0; i < 5; i++) {
+            base.log(LogLevel.INFO, "Activity", ContextBuilder.create("user", "u" + i).build(), null, "{user} did it");
+        }
+        dispatcher.close();
+
+        assertEquals(5, backend.messages.size());
+        assertEquals("u0 did it", backend.messages.get(0));
+        for (Map<String, String> context : backend.contexts) {
+            assertEquals("r1", context.get("requestId"));
+            assertEquals("activity", context.get(EventFields.MDC_CATEGORY));
+        }
+        assertTrue(backend.flushes >= 3);
+
+        // after close, events are logged by caller.
+        base.log(LogLevel.INFO, "activity", null, null, "sync");
+        assertEquals("sync", backend.messages.get(5));
+
+        assertNull(new DefaultAuditLoggerBase(backend, new AuditConfigurationMapImpl()).getAsyncDispatcher());
+    }
+
+    @Test
+    public void testCloseLoggerBase() {
+        final TestBackend backend = new TestBackend();
+        final AuditConfigurationMap config = new AuditConfigurationMapImpl();
+        AuditConfiguration.APPLICATION_NAME.setValue(config, "app", String.class);
+        AuditConfiguration.ASYNC.setValue(config, Boolean.TRUE, Boolean.class);
+
+        final DefaultAuditLoggerBase base = new DefaultAuditLoggerBase(backend, config);
+        base.log(LogLevel.INFO, "activity", null, null, "async");
+        base.close();
+
+        assertFalse(base.getAsyncDispatcher().isRunning());
+        assertEquals(Collections.singletonList("async"), backend.messages);
+        // closing a synchronous logger does nothing.
+        new DefaultAuditLoggerBase(backend, new AuditConfigurationMapImpl()).close();
+    }
+
+    private static AuditEventSnapshot event(String message) {
+        return new AuditEventSnapshot(LogLevel.INFO, "test", new LinkedHashMap<>(), null, null, message);
+    }
+
+    private static class TestBackend extends AbstractBackend {
+
+        private final ThreadLocal<Map<String, String>> mdc = ThreadLocal.withInitial(LinkedHashMap::new);
+
+        private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+
+        private final List<Map<String, String>> contexts = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile int flushes;
+
+        private TestBackend() {
+            super("audit");
+        }
+
+        @Override
+        public void log(String category, LogLevel level, String message, Throwable throwable) {
+            messages.add(message);
+            contexts.add(getCopyOfContextMap());
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public Map<String, String> getCopyOfContextMap() {
+            return new LinkedHashMap<>(mdc.get());
+        }
+
+        @Override
+        public void setContextMap(Map<String, String> newContext) {
+            mdc.set(new LinkedHashMap<>(newContext));
+        }
+    }
+}
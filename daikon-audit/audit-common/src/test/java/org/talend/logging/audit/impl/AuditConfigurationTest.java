@@ -53,6 +53,11 @@ public class AuditConfigurationTest {
         assertEquals(Boolean.FALSE, AuditConfiguration.APPENDER_HTTP_ASYNC.getBoolean(config));
         assertEquals((Integer) 1000, AuditConfiguration.APPENDER_HTTP_CONNECT_TIMEOUT.getInteger(config));
         assertEquals((Integer) 50, AuditConfiguration.APPENDER_HTTP_READ_TIMEOUT.getInteger(config));
+        assertEquals((Integer) 200, AuditConfiguration.APPENDER_HTTP_BATCH_DELAY_MS.getInteger(config));
+        assertEquals((Integer) 65536, AuditConfiguration.APPENDER_HTTP_BATCH_MAX_BYTES.getInteger(config));
+        assertEquals("array", AuditConfiguration.APPENDER_HTTP_BATCH_FORMAT.getString(config));
+        assertEquals((Integer) 5, AuditConfiguration.APPENDER_HTTP_MAX_RETRIES.getInteger(config));
+        assertEquals((Integer) 20, AuditConfiguration.APPENDER_HTTP_RETRY_BACKOFF_MS.getInteger(config));
 
         assertEquals("UTF-16", AuditConfiguration.ENCODING.getString(config));
         assertEquals(Backends.LOGBACK, AuditConfiguration.BACKEND.getValue(config, Backends.class));
@@ -61,5 +66,17 @@ public class AuditConfigurationTest {
         assertEquals("key", AuditConfiguration.KAFKA_PARTITION_KEY_NAME.getString(config));
         assertEquals("localhost:9092", AuditConfiguration.KAFKA_BOOTSTRAP_SERVERS.getString(config));
         assertEquals((Long) 30000L, AuditConfiguration.KAFKA_BLOCK_TIMEOUT_MS.getLong(config));
+        assertEquals(Boolean.TRUE, AuditConfiguration.KAFKA_ASYNC.getBoolean(config));
+        assertEquals("all", AuditConfiguration.KAFKA_ACKS.getString(config));
+        assertEquals((Integer) 20, AuditConfiguration.KAFKA_LINGER_MS.getInteger(config));
+        assertEquals((Integer) 65536, AuditConfiguration.KAFKA_BATCH_SIZE.getInteger(config));
+        assertEquals("lz4", AuditConfiguration.KAFKA_COMPRESSION_TYPE.getString(config));
+        assertEquals((Integer) 500, AuditConfiguration.KAFKA_MAX_IN_FLIGHT.getInteger(config));
+
+        assertEquals(Boolean.FALSE, AuditConfiguration.ASYNC.getBoolean(config));
+        assertEquals((Integer) 1024, AuditConfiguration.ASYNC_QUEUE_SIZE.getInteger(config));
+        assertEquals((Integer) 64, AuditConfiguration.ASYNC_BATCH_SIZE.getInteger(config));
+        assertEquals(OverflowPolicy.SAMPLE, AuditConfiguration.ASYNC_OVERFLOW_POLICY.getValue(config, OverflowPolicy.class));
+        assertEquals((Integer) 5, AuditConfiguration.ASYNC_SAMPLE_RATE.getInteger(config));
     }
 }
@@ -0,0 +1,40 @@
+package org.talend.logging.audit.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class MessageTemplateTest {
+
+    @Test
+    public void testRender() {
+        Map<String, String> context = new LinkedHashMap<>();
+        context.put("user", "testuser");
+        context.put("id", "{user}");
+
+        assertEquals("User testuser logged in", MessageTemplate.parse("User {user} logged in").render(context));
+        assertEquals("testuser/testuser", MessageTemplate.parse("{user}/{user}").render(context));
+        // unknown keys are kept, values are not scanned.
+        assertEquals("{unknown} {user} {atestuser", MessageTemplate.parse("{unknown} {id} {a{user}").render(context));
+        assertEquals("{user", MessageTemplate.parse("{user").render(context));
+        assertEquals("User {user}", MessageTemplate.parse("User {user}").render(null));
+    }
+
+    @Test
+    public void testParseOnce() {
+        MessageTemplate template = MessageTemplate.of("Flow {flow} has failed");
+        assertSame(template, MessageTemplate.of("Flow {flow} has failed"));
+        assertTrue(template.hasPlaceholders());
+        assertFalse(MessageTemplate.of("No placeholder").hasPlaceholders());
+
+        EventDefinition event = new EventDefinition("flowFailed");
+        event.set("message", "Flow {flow} has failed");
+        assertSame(template, event.getMessageTemplate());
+    }
+}
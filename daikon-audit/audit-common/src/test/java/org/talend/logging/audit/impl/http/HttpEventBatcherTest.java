@@ -0,0 +1,183 @@
+package org.talend.logging.audit.impl.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class HttpEventBatcherTest {
+
+    @Test
+    public void testBulkRequests() throws IOException {
+        final List<String> bodies = Collections.synchronizedList(new ArrayList<>());
+        final List<String> contentTypes = Collections.synchronizedList(new ArrayList<>());
+        final HttpServer server = startServer(bodies, contentTypes, new AtomicInteger());
+        try {
+            final HttpEventSender sender = createSender(server);
+            sender.setBatchDelayMs(200);
+            sender.start();
+            assertNotNull(sender.getBatcher());
+
+            for (int i = 0; i < 20; i++) {
+                if (i % 2 == 0) {
+                    sender.sendEvent("{\"id\":" + i + "}\n");
+                } else {
+                    sender.sendEventAsync("{\"id\":" + i + "}");
+                }
+            }
+            final HttpEventBatcher batcher = sender.getBatcher();
+            sender.stop();
+
+            final List<String> events = new ArrayList<>();
+            for (String body : bodies) {
+                assertTrue(body.endsWith("\n"));
+                Collections.addAll(events, body.split("\n"));
+            }
+            assertEquals(20, events.size());
+            assertEquals("{\"id\":0}", events.get(0));
+            assertEquals("{\"id\":19}", events.get(19));
+            assertTrue(bodies.size() < 20);
+            assertTrue(contentTypes.get(0).startsWith("application/x-ndjson"));
+
+            assertEquals(bodies.size(), batcher.getBatchCount());
+            assertEquals(20L, batcher.getBatchedEventCount());
+            assertTrue(batcher.getAverageBatchSize() > 1.0);
+            assertTrue(batcher.getMaxBatchLatencyMs() > 0.0);
+            assertNull(sender.getBatcher());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testArrayFormatAndRetry() throws IOException {
+        final List<String> bodies = Collections.synchronizedList(new ArrayList<>());
+        final List<String> contentTypes = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger failures = new AtomicInteger(1);
+        final HttpServer server = startServer(bodies, contentTypes, failures);
+        try {
+            final HttpEventSender sender = createSender(server);
+            sender.setBatchDelayMs(50);
+            sender.setBatchFormat("array");
+            sender.setBatchMaxBytes(20);
+            sender.setRetryBackoffMs(1);
+            sender.start();
+
+            sender.sendEvent("{\"id\":1}");
+            sender.sendEvent("{\"id\":2}");
+            sender.sendEvent("{\"id\":3}");
+            final HttpEventBatcher batcher = sender.getBatcher();
+            sender.stop();
+
+            // max bytes gives 2 requests, first one sent twice.
+            assertEquals(3, bodies.size());
+            assertEquals("[{\"id\":1},{\"id\":2}]", bodies.get(0));
+            assertEquals("[{\"id\":1},{\"id\":2}]", bodies.get(1));
+            assertEquals("[{\"id\":3}]", bodies.get(2));
+            assertTrue(contentTypes.get(0).startsWith("application/json"));
+            assertEquals(1L, batcher.getRetryCount());
+            assertEquals(0L, batcher.getFailedBatchCount());
+            assertEquals(2L, batcher.getMaxBatchSize());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testEncoding() throws IOException {
+        final List<String> bodies = Collections.synchronizedList(new ArrayList<>());
+        final HttpServer server = startServer(bodies, new ArrayList<>(), new AtomicInteger());
+        try {
+            final HttpEventSender sender = createSender(server);
+            sender.setEncoding("ISO-8859-1");
+            sender.setBatchDelayMs(10);
+            sender.start();
+
+            sender.sendEvent("{\"name\":\"Caf\u00e9\"}");
+            sender.stop();
+
+            assertEquals(Collections.singletonList("{\"name\":\"Caf\u00e9\"}\n"), bodies);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testFailureReportedByNextEvent() throws Exception {
+        final HttpServer server = startServer(new ArrayList<>(), new ArrayList<>(), new AtomicInteger(1));
+        try {
+            final HttpEventSender sender = createSender(server);
+            sender.setBatchDelayMs(10);
+            sender.setMaxRetries(0);
+            sender.start();
+            final HttpEventBatcher batcher = sender.getBatcher();
+
+            sender.sendEvent("{\"id\":1}");
+            for (int i = 0; i < 500 && batcher.getFailedBatchCount() == 0; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(1L, batcher.getLostEventCount());
+
+            final HttpAppenderException failure = assertThrows(HttpAppenderException.class,
+                    () -> sender.sendEvent("{\"id\":2}"));
+            assertTrue(failure.getMessage().contains("1 events are lost"));
+            // failure is reported once, and event sent anyway
+            sender.sendEvent("{\"id\":3}");
+            sender.stop();
+            assertEquals(2L, batcher.getBatchedEventCount());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static HttpEventSender createSender(HttpServer server) {
+        final HttpEventSender sender = new HttpEventSender();
+        sender.setSupportsSystemPropertiesOverride(false);
+        sender.setUrl("http://localhost:" + server.getAddress().getPort() + "/");
+        sender.setEncoding("UTF-8");
+        sender.setConnectTimeout(5000);
+        sender.setReadTimeout(5000);
+        return sender;
+    }
+
+    private static HttpServer startServer(List<String> bodies, List<String> contentTypes, AtomicInteger failures)
+            throws IOException {
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            final String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            final Charset charset = Charset.forName(contentType.substring(contentType.indexOf("charset=") + 8));
+            bodies.add(new String(readAll(exchange.getRequestBody()), charset));
+            contentTypes.add(contentType);
+            final int code = failures.getAndDecrement() > 0 ? 500 : 200;
+            exchange.sendResponseHeaders(code, -1);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
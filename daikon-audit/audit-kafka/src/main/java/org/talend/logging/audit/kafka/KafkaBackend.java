@@ -1,26 +1,51 @@
 package org.talend.logging.audit.kafka;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.talend.logging.audit.LogLevel;
 import org.talend.logging.audit.impl.AbstractBackend;
 import org.talend.logging.audit.impl.AuditConfiguration;
 import org.talend.logging.audit.impl.AuditConfigurationMap;
+import org.talend.logging.audit.impl.PropagateExceptions;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
+/**
+ * Send audit events to a Kafka topic.
+ *
+ * By default each event waits for broker acknowledgment. With {@link AuditConfiguration#KAFKA_ASYNC}, events are sent
+ * without waiting so the producer can batch them: at most {@link AuditConfiguration#KAFKA_MAX_IN_FLIGHT} events wait for
+ * acknowledgment. Failures are reported by send callback: they are counted, the first one is logged then at most one per
+ * {@value #FAILURE_LOG_INTERVAL_MS} ms and, if {@link AuditConfiguration#PROPAGATE_APPENDER_EXCEPTIONS} is {@code all},
+ * the first one is thrown by next call to {@link #log} once its event is sent.
+ * Buffered events are then sent before JVM stops, or on {@link #close()}.
+ */
 public class KafkaBackend extends AbstractBackend {
 
+    private static final long FAILURE_LOG_INTERVAL_MS = 60000L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaBackend.class);
+
     private final KafkaProducer<String, String> kafkaProducer;
 
     private final String kafkaTopic;
@@ -31,7 +56,37 @@ public class KafkaBackend extends AbstractBackend {
 
     private final Long blockTimeoutMs;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean async;
+
+    private final PropagateExceptions propagateExceptions;
+
+    /** bounds number of events sent but not acknowledged yet (async mode) */
+    private final Semaphore inFlight;
+
+    private final int maxInFlight;
+
+    /** first failure not reported to caller yet */
+    private final AtomicReference<Exception> unreportedFailure = new AtomicReference<>();
+
+    /** number of failures not reported to caller yet */
+    private final AtomicLong unreportedFailures = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    /** failures not logged since last logged one (guarded by this) */
+    private long unloggedFailures;
+
+    private long lastFailureLogNanos;
+
+    private boolean failureLogged;
+
+    private final ObjectWriter contextWriter = new ObjectMapper().writerFor(new TypeReference<Map<String, String>>() {
+    });
+
+    private final Callback sendCallback = this::onCompletion;
+
+    /** sends buffered events before JVM stops (async mode), null otherwise */
+    private final Thread shutdownHook;
 
     public KafkaBackend(AuditConfigurationMap config) {
         super(null);
@@ -40,25 +95,58 @@ public class KafkaBackend extends AbstractBackend {
         this.kafkaTopic = config.getString(AuditConfiguration.KAFKA_TOPIC);
         this.partitionKeyName = config.getString(AuditConfiguration.KAFKA_PARTITION_KEY_NAME);
         this.blockTimeoutMs = config.getLong(AuditConfiguration.KAFKA_BLOCK_TIMEOUT_MS);
+        this.async = config.getBoolean(AuditConfiguration.KAFKA_ASYNC);
+        this.maxInFlight = config.getInteger(AuditConfiguration.KAFKA_MAX_IN_FLIGHT);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.propagateExceptions = config.getValue(AuditConfiguration.PROPAGATE_APPENDER_EXCEPTIONS,
+                PropagateExceptions.class);
         Map<String, Object> producerConfig = new HashMap<>();
         producerConfig.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        producerConfig.put(ProducerConfig.ACKS_CONFIG, "1");
+        producerConfig.put(ProducerConfig.ACKS_CONFIG, config.getString(AuditConfiguration.KAFKA_ACKS));
         producerConfig.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, blockTimeoutMs);
+        producerConfig.put(ProducerConfig.LINGER_MS_CONFIG, config.getInteger(AuditConfiguration.KAFKA_LINGER_MS));
+        producerConfig.put(ProducerConfig.BATCH_SIZE_CONFIG, config.getInteger(AuditConfiguration.KAFKA_BATCH_SIZE));
+        producerConfig.put(ProducerConfig.COMPRESSION_TYPE_CONFIG,
+                config.getString(AuditConfiguration.KAFKA_COMPRESSION_TYPE));
         this.kafkaProducer = new KafkaProducer<>(producerConfig, keyValueSerializer, keyValueSerializer);
+
+        if (async) {
+            // events still in producer buffer are sent before JVM stops.
+            this.shutdownHook = new Thread(this::closeProducer, "audit-kafka-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        } else {
+            this.shutdownHook = null;
+        }
     }
 
     public KafkaBackend(KafkaProducer<String, String> kafkaProducer, String kafkaTopic, String partitionKeyName,
             String bootstrapServers, Long blockTimeoutMs) {
+        this(kafkaProducer, kafkaTopic, partitionKeyName, bootstrapServers, blockTimeoutMs, false, 1,
+                PropagateExceptions.ALL);
+    }
+
+    public KafkaBackend(KafkaProducer<String, String> kafkaProducer, String kafkaTopic, String partitionKeyName,
+            String bootstrapServers, Long blockTimeoutMs, boolean async, int maxInFlight,
+            PropagateExceptions propagateExceptions) {
         super(null);
         this.kafkaProducer = kafkaProducer;
         this.kafkaTopic = kafkaTopic;
         this.partitionKeyName = partitionKeyName;
         this.bootstrapServers = bootstrapServers;
         this.blockTimeoutMs = blockTimeoutMs;
+        this.async = async;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.propagateExceptions = propagateExceptions;
+        this.shutdownHook = null;
     }
 
     @Override
     public void log(String category, LogLevel level, String message, Throwable throwable) {
+        if (async) {
+            sendAsync(createRecordFromContext(getCopyOfContextMap()));
+            return;
+        }
         try {
             this.kafkaProducer.send(createRecordFromContext(getCopyOfContextMap())).get(this.blockTimeoutMs,
                     TimeUnit.MILLISECONDS);
@@ -67,17 +155,92 @@ public class KafkaBackend extends AbstractBackend {
         }
     }
 
+    private void sendAsync(ProducerRecord<String, String> record) {
+        try {
+            if (!inFlight.tryAcquire(this.blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                failures.incrementAndGet();
+                throw new RuntimeException(
+                        "Failure when sending the audit log to Kafka, " + maxInFlight + " events are still not acknowledged");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Failure when sending the audit log to Kafka", e);
+        }
+        try {
+            this.kafkaProducer.send(record, sendCallback);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            failures.incrementAndGet();
+            throw new RuntimeException("Failure when sending the audit log to Kafka", e);
+        }
+        // current event is sent, previous failures can be reported.
+        if (propagateExceptions == PropagateExceptions.ALL) {
+            final Exception failure = unreportedFailure.getAndSet(null);
+            if (failure != null) {
+                throw new RuntimeException("Failure when sending previous audit logs to Kafka, "
+                        + unreportedFailures.getAndSet(0) + " events are lost", failure);
+            }
+        }
+    }
+
+    private void onCompletion(RecordMetadata metadata, Exception exception) {
+        inFlight.release();
+        if (exception != null) {
+            failures.incrementAndGet();
+            if (propagateExceptions == PropagateExceptions.ALL) {
+                unreportedFailures.incrementAndGet();
+                unreportedFailure.compareAndSet(null, exception);
+            }
+            logFailure(exception);
+        }
+    }
+
+    private synchronized void logFailure(Exception exception) {
+        final long now = System.nanoTime();
+        if (failureLogged && now - lastFailureLogNanos < TimeUnit.MILLISECONDS.toNanos(FAILURE_LOG_INTERVAL_MS)) {
+            unloggedFailures++;
+            return;
+        }
+        LOGGER.error("Failure when sending an audit log to Kafka ({} other failures since previous report)",
+                unloggedFailures, exception);
+        failureLogged = true;
+        lastFailureLogNanos = now;
+        unloggedFailures = 0;
+    }
+
     private ProducerRecord<String, String> createRecordFromContext(Map<String, String> context) {
         String key = context != null ? context.getOrDefault(this.partitionKeyName, null) : null;
         String value;
         try {
-            value = this.objectMapper.writeValueAsString(context);
+            value = this.contextWriter.writeValueAsString(context);
             return new ProducerRecord<>(this.kafkaTopic, null, System.currentTimeMillis(), key, value);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failure while mapping the audit log to JSON", e);
         }
     }
 
+    /**
+     * Send buffered events and close producer.
+     */
+    public void close() {
+        if (shutdownHook != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // already shutting down.
+            }
+        }
+        closeProducer();
+    }
+
+    private void closeProducer() {
+        try {
+            this.kafkaProducer.flush();
+        } finally {
+            this.kafkaProducer.close(Duration.ofMillis(this.blockTimeoutMs));
+        }
+    }
+
     @Override
     public Map<String, String> getCopyOfContextMap() {
         return MDC.getCopyOfContextMap();
@@ -88,6 +251,20 @@ public class KafkaBackend extends AbstractBackend {
         MDC.setContextMap(newContext);
     }
 
+    /**
+     * @return number of events which could not be sent.
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @return number of events sent and not acknowledged yet (async mode).
+     */
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
     String getKafkaTopic() {
         return kafkaTopic;
     }
@@ -103,4 +280,8 @@ public class KafkaBackend extends AbstractBackend {
     Long getBlockTimeoutMs() {
         return blockTimeoutMs;
     }
+
+    boolean isAsync() {
+        return async;
+    }
 }
@@ -1,21 +1,29 @@
 package org.talend.logging.audit.kafka;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Future;
 
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.talend.logging.audit.LogLevel;
 import org.talend.logging.audit.impl.AuditConfiguration;
+import org.talend.logging.audit.impl.PropagateExceptions;
 
 public class KafkaBackendTest {
 
@@ -29,6 +37,7 @@ public class KafkaBackendTest {
         assertEquals("tenantId", kafkaBackend.getPartitionKeyName());
         assertEquals("localhost:9092", kafkaBackend.getBootstrapServers());
         assertEquals((Long) 30000L, kafkaBackend.getBlockTimeoutMs());
+        assertTrue(kafkaBackend.isAsync());
     }
 
     @Test
@@ -39,6 +48,7 @@ public class KafkaBackendTest {
         assertNull(kafkaBackend.getPartitionKeyName());
         assertEquals("localhost:9092", kafkaBackend.getBootstrapServers());
         assertEquals((Long) 60000L, kafkaBackend.getBlockTimeoutMs());
+        assertFalse(kafkaBackend.isAsync());
     }
 
     @Test
@@ -93,4 +103,88 @@ public class KafkaBackendTest {
         assertEquals(1, copyOfContextMap.size());
         assertEquals("ID1234", eventMap.get("partitionKey"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAsyncLogReportsFailure() {
+        KafkaProducer<String, String> kafkaProducerMock = mock(KafkaProducer.class);
+        Future futureMock = mock(Future.class);
+        kafkaBackend = new KafkaBackend(kafkaProducerMock, "testTopic", "partitionKey", "localhost", 30000L, true, 10,
+                PropagateExceptions.ALL);
+
+        ArgumentCaptor<Callback> captor = ArgumentCaptor.forClass(Callback.class);
+        when(kafkaProducerMock.send(any(ProducerRecord.class), captor.capture())).thenReturn(futureMock);
+        kafkaBackend.log("application security", LogLevel.INFO, "message", null);
+        assertEquals(1, kafkaBackend.getInFlight());
+
+        captor.getValue().onCompletion(null, new IllegalStateException("broker down"));
+        assertEquals(0, kafkaBackend.getInFlight());
+        assertEquals(1L, kafkaBackend.getFailures());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> kafkaBackend.log("application security", LogLevel.INFO, "message", null));
+        assertEquals("broker down", exception.getCause().getMessage());
+        // event is sent before previous failure is reported.
+        verify(kafkaProducerMock, times(2)).send(any(ProducerRecord.class), any(Callback.class));
+        // failure is reported once.
+        kafkaBackend.log("application security", LogLevel.INFO, "message", null);
+        verify(kafkaProducerMock, times(3)).send(any(ProducerRecord.class), any(Callback.class));
+    }
+
+    @Test
+    public void testAsyncLogReportsFirstOfSeveralFailures() {
+        KafkaProducer<String, String> kafkaProducerMock = mock(KafkaProducer.class);
+        Future futureMock = mock(Future.class);
+        kafkaBackend = new KafkaBackend(kafkaProducerMock, "testTopic", "partitionKey", "localhost", 30000L, true, 10,
+                PropagateExceptions.ALL);
+
+        ArgumentCaptor<Callback> captor = ArgumentCaptor.forClass(Callback.class);
+        when(kafkaProducerMock.send(any(ProducerRecord.class), captor.capture())).thenReturn(futureMock);
+        kafkaBackend.log("application security", LogLevel.INFO, "message", null);
+        kafkaBackend.log("application security", LogLevel.INFO, "message", null);
+        captor.getAllValues().get(0).onCompletion(null, new IllegalStateException("broker down"));
+        captor.getAllValues().get(1).onCompletion(null, new IllegalStateException("timeout"));
+        assertEquals(2L, kafkaBackend.getFailures());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> kafkaBackend.log("application security", LogLevel.INFO, "message", null));
+        assertEquals("broker down", exception.getCause().getMessage());
+        assertTrue(exception.getMessage().contains("2 events are lost"));
+    }
+
+    @Test
+    public void testAsyncLogDoesNotPropagateFailure() {
+        KafkaProducer<String, String> kafkaProducerMock = mock(KafkaProducer.class);
+        Future futureMock = mock(Future.class);
+        kafkaBackend = new KafkaBackend(kafkaProducerMock, "testTopic", "partitionKey", "localhost", 30000L, true, 10,
+                PropagateExceptions.NONE);
+
+        ArgumentCaptor<Callback> captor = ArgumentCaptor.forClass(Callback.class);
+        when(kafkaProducerMock.send(any(ProducerRecord.class), captor.capture())).thenReturn(futureMock);
+        kafkaBackend.log("application security", LogLevel.INFO, "message", null);
+        captor.getValue().onCompletion(null, new IllegalStateException("broker down"));
+        captor.getValue().onCompletion(null, new IllegalStateException("broker down"));
+
+        kafkaBackend.log("application security", LogLevel.INFO, "message", null);
+        assertEquals(2L, kafkaBackend.getFailures());
+        verify(kafkaProducerMock, times(2)).send(any(ProducerRecord.class), any(Callback.class));
+    }
+
+    @Test
+    public void testAsyncInFlightWindow() {
+        KafkaProducer<String, String> kafkaProducerMock = mock(KafkaProducer.class);
+        Future futureMock = mock(Future.class);
+        kafkaBackend = new KafkaBackend(kafkaProducerMock, "testTopic", "partitionKey", "localhost", 10L, true, 1,
+                PropagateExceptions.NONE);
+
+        ArgumentCaptor<Callback> captor = ArgumentCaptor.forClass(Callback.class);
+        when(kafkaProducerMock.send(any(ProducerRecord.class), captor.capture())).thenReturn(futureMock);
+        kafkaBackend.log("application security", LogLevel.INFO, "message", null);
+        // first event is not acknowledged yet.
+        assertThrows(RuntimeException.class, () -> kafkaBackend.log("application security", LogLevel.INFO, "message", null));
+
+        captor.getValue().onCompletion(null, null);
+        kafkaBackend.log("application security", LogLevel.INFO, "message", null);
+        assertEquals(1, kafkaBackend.getInFlight());
+        assertEquals(1L, kafkaBackend.getFailures());
+    }
+}
@@ -51,6 +51,26 @@ public class Log4j2HttpAppender extends AbstractAppender {
         sender.setKeepAliveMs(keepAliveMs);
     }
 
+    public void setBatchDelayMs(final int batchDelayMs) {
+        sender.setBatchDelayMs(batchDelayMs);
+    }
+
+    public void setBatchMaxBytes(final int batchMaxBytes) {
+        sender.setBatchMaxBytes(batchMaxBytes);
+    }
+
+    public void setBatchFormat(final String batchFormat) {
+        sender.setBatchFormat(batchFormat);
+    }
+
+    public void setMaxRetries(final int maxRetries) {
+        sender.setMaxRetries(maxRetries);
+    }
+
+    public void setRetryBackoffMs(final int retryBackoffMs) {
+        sender.setRetryBackoffMs(retryBackoffMs);
+    }
+
     public String getUrl() {
         return sender.getUrl();
     }
@@ -204,6 +204,11 @@ public final class LogbackConfigurer {
 
         appender.setConnectTimeout(AuditConfiguration.APPENDER_HTTP_CONNECT_TIMEOUT.getInteger(config));
         appender.setReadTimeout(AuditConfiguration.APPENDER_HTTP_READ_TIMEOUT.getInteger(config));
+        appender.setBatchDelayMs(AuditConfiguration.APPENDER_HTTP_BATCH_DELAY_MS.getInteger(config));
+        appender.setBatchMaxBytes(AuditConfiguration.APPENDER_HTTP_BATCH_MAX_BYTES.getInteger(config));
+        appender.setBatchFormat(AuditConfiguration.APPENDER_HTTP_BATCH_FORMAT.getString(config));
+        appender.setMaxRetries(AuditConfiguration.APPENDER_HTTP_MAX_RETRIES.getInteger(config));
+        appender.setRetryBackoffMs(AuditConfiguration.APPENDER_HTTP_RETRY_BACKOFF_MS.getInteger(config));
         appender.setEncoding(AuditConfiguration.ENCODING.getString(config));
 
         switch (AuditConfiguration.PROPAGATE_APPENDER_EXCEPTIONS.getValue(config, PropagateExceptions.class)) {
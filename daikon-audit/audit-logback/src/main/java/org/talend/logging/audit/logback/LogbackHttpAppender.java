@@ -56,6 +56,26 @@ public class LogbackHttpAppender extends AppenderBase<ILoggingEvent> {
         this.layout = layout;
     }
 
+    public void setBatchDelayMs(final int batchDelayMs) {
+        sender.setBatchDelayMs(batchDelayMs);
+    }
+
+    public void setBatchMaxBytes(final int batchMaxBytes) {
+        sender.setBatchMaxBytes(batchMaxBytes);
+    }
+
+    public void setBatchFormat(final String batchFormat) {
+        sender.setBatchFormat(batchFormat);
+    }
+
+    public void setMaxRetries(final int maxRetries) {
+        sender.setMaxRetries(maxRetries);
+    }
+
+    public void setRetryBackoffMs(final int retryBackoffMs) {
+        sender.setRetryBackoffMs(retryBackoffMs);
+    }
+
     public String getUrl() {
         return sender.getUrl();
     }
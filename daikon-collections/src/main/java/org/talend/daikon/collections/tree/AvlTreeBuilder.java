@@ -10,6 +10,12 @@
  */
 package org.talend.daikon.collections.tree;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import org.talend.daikon.collections.tree.memory.MemoryNode;
@@ -132,10 +138,112 @@ public class AvlTreeBuilder<K extends Comparable<K>, T> {
         if (this.root == null) {
             return null; // no element
         }
+        this.builder.flush();
         final INode<K, T> rootNode = new MemoryNode<>(this.root, 1, limit);
         return new AvlTree<>(rootNode);
     }
 
+    /**
+     * Build immutable AVL Tree from sorted entries (bulk load), with default depth in memory.
+     * 
+     * @param sortedEntries : entries sorted by key.
+     * @return immutable AVL Tree.
+     */
+    public AvlTree<K, T> build(final Iterator<Map.Entry<K, T>> sortedEntries) {
+        return this.build(sortedEntries, 10);
+    }
+
+    /**
+     * Build immutable AVL Tree from sorted entries (bulk load).
+     * Nodes are created bottom-up, when both childs are known, so on file they are written in one sequential pass
+     * (only O(log(n)) nodes of right border are updated at the end, when size of input is known).
+     * Use {@link org.talend.daikon.collections.tree.file.ExternalSorter} for unsorted input.
+     * 
+     * @param sortedEntries : entries sorted by key.
+     * @param limit : depth on this tree where we keep node in memory.
+     * @return immutable AVL Tree.
+     */
+    public AvlTree<K, T> build(final Iterator<Map.Entry<K, T>> sortedEntries, int limit) {
+        if (this.root != null) {
+            throw new IllegalStateException("Bulk load can only be done on empty tree");
+        }
+        // pending entries, each one has a perfect left sub-tree, heights are decreasing from bottom to top.
+        final Deque<PendingNode<K, T>> pendings = new ArrayDeque<>();
+        K previousKey = null;
+        while (sortedEntries.hasNext()) {
+            final Map.Entry<K, T> entry = sortedEntries.next();
+            if (previousKey != null && previousKey.compareTo(entry.getKey()) > 0) {
+                throw new IllegalArgumentException(
+                        "Entries are not sorted, key " + entry.getKey() + " comes after " + previousKey);
+            }
+            previousKey = entry.getKey();
+
+            // merge perfect trees of same height.
+            Node<K, T> tree = null;
+            int height = 0;
+            while (!pendings.isEmpty() && pendings.peek().height == height) {
+                final PendingNode<K, T> pending = pendings.pop();
+                tree = this.builder.build(pending.entry.getKey(), pending.entry::getValue, pending.left, tree);
+                height++;
+            }
+            pendings.push(new PendingNode<>(tree, height, entry));
+        }
+
+        // join remaining pending entries from right to left.
+        Node<K, T> right = null;
+        while (!pendings.isEmpty()) {
+            final PendingNode<K, T> pending = pendings.pop();
+            right = this.join(pending.left, pending.entry, right);
+        }
+        if (right == null) {
+            return null; // no element
+        }
+        this.root = right;
+        this.builder.newRoot(right);
+        return this.build(limit);
+    }
+
+    /**
+     * Join two balanced trees (all left keys <= entry key <= all right keys),
+     * left tree must be perfect and at least as high as right tree.
+     */
+    private Node<K, T> join(final Node<K, T> left, final Map.Entry<K, T> entry, final Node<K, T> right) {
+        final int rightHeight = Node.height(right);
+        if (Node.height(left) <= rightHeight) {
+            return this.builder.build(entry.getKey(), entry::getValue, left, right);
+        }
+        // descend right border of left tree until node of same height than right tree.
+        final List<Node<K, T>> path = new ArrayList<>();
+        Node<K, T> current = left;
+        while (Node.height(current) > rightHeight) {
+            path.add(current);
+            current = current.getChild(1);
+        }
+        Node<K, T> child = this.builder.build(entry.getKey(), entry::getValue, current, right);
+        // update right border (heights grow by one).
+        for (int i = path.size() - 1; i >= 0; i--) {
+            final Node<K, T> parent = path.get(i);
+            parent.setChild(1, child);
+            child = parent;
+        }
+        return left;
+    }
+
+    private static class PendingNode<K extends Comparable<K>, T> {
+
+        private final Node<K, T> left;
+
+        private final int height;
+
+        private final Map.Entry<K, T> entry;
+
+        PendingNode(Node<K, T> left, int height, Map.Entry<K, T> entry) {
+            this.left = left;
+            this.height = height;
+            this.entry = entry;
+        }
+    }
+
     private String checkNode(final Node<K, T> node) {
         final StringBuilder builder = new StringBuilder();
         final K current = node.getKey();
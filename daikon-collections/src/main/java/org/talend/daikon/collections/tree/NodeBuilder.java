@@ -19,4 +19,31 @@ public interface NodeBuilder<K extends Comparable<K>, T> {
     void newRoot(final Node<K, T> root);
 
     Node<K, T> build(final K key, final Supplier<T> data);
+
+    /**
+     * Write pending nodes, called when tree is built.
+     */
+    default void flush() {
+        // nothing pending by default.
+    }
+
+    /**
+     * Build a node whose children are already known (used by bulk load).
+     * 
+     * @param key : node key.
+     * @param data : node data.
+     * @param left : left child (can be null).
+     * @param right : right child (can be null).
+     * @return the new node.
+     */
+    default Node<K, T> build(final K key, final Supplier<T> data, final Node<K, T> left, final Node<K, T> right) {
+        final Node<K, T> node = this.build(key, data);
+        if (left != null) {
+            node.setChild(0, left);
+        }
+        if (right != null) {
+            node.setChild(1, right);
+        }
+        return node;
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2006-2022 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+package org.talend.daikon.collections.tree.file;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * To serialize / deserialize data directly in byte buffers, without intermediate byte array.
+ * When serialized form of keys keeps their order, tree search can compare serialized keys
+ * (see {@link #isBinaryComparable()}) without deserializing them.
+ *
+ * @param <T> : class to serialize.
+ */
+public interface BufferSerializer<T> {
+
+    /**
+     * Write object from current position of target buffer.
+     *
+     * @param object : object to serialize.
+     * @param target : buffer to write in.
+     * @throws BufferOverflowException if target has not enough remaining space (caller retries with bigger buffer).
+     */
+    void serialize(final T object, final ByteBuffer target);
+
+    /**
+     * @param source : buffer with serialized object between position and limit
+     * (buffer can be reused after call, so object must not keep it).
+     * @return object.
+     */
+    T deserialize(final ByteBuffer source);
+
+    /**
+     * @return true if {@link #compare(ByteBuffer, ByteBuffer)} on serialized objects gives same order as compareTo on
+     * objects.
+     */
+    default boolean isBinaryComparable() {
+        return false;
+    }
+
+    /**
+     * Compare serialized objects (between position and limit of buffers), only used if {@link #isBinaryComparable()}.
+     * Default is lexicographic comparison of unsigned bytes.
+     */
+    default int compare(final ByteBuffer first, final ByteBuffer second) {
+        final int mismatch = first.mismatch(second);
+        if (mismatch < 0) {
+            return 0;
+        }
+        if (mismatch >= first.remaining() || mismatch >= second.remaining()) {
+            return first.remaining() - second.remaining();
+        }
+        return Integer.compare(Byte.toUnsignedInt(first.get(first.position() + mismatch)),
+                Byte.toUnsignedInt(second.get(second.position() + mismatch)));
+    }
+
+    /**
+     * Serialize object in buffer, buffer is replaced by bigger one if needed.
+     *
+     * @param serializer : serializer.
+     * @param object : object to serialize.
+     * @param buffer : buffer to reuse.
+     * @return buffer that contains serialized object between 0 and limit (given buffer or a bigger one).
+     */
+    static <T> ByteBuffer write(final BufferSerializer<T> serializer, final T object, final ByteBuffer buffer) {
+        ByteBuffer target = buffer;
+        while (true) {
+            target.clear();
+            try {
+                serializer.serialize(object, target);
+                target.flip();
+                return target;
+            } catch (BufferOverflowException ex) {
+                target = ByteBuffer.allocate(Math.max(16, target.capacity() * 2));
+            }
+        }
+    }
+
+    /**
+     * @param serializer : byte array serializer.
+     * @return buffer serializer that delegates to byte array serializer.
+     */
+    static <T> BufferSerializer<T> of(final Serializer<T> serializer) {
+        return new BufferSerializer<T>() {
+
+            @Override
+            public void serialize(final T object, final ByteBuffer target) {
+                target.put(serializer.serialize(object));
+            }
+
+            @Override
+            public T deserialize(final ByteBuffer source) {
+                final byte[] data = new byte[source.remaining()];
+                source.get(source.position(), data);
+                return serializer.deserialize(data);
+            }
+        };
+    }
+}
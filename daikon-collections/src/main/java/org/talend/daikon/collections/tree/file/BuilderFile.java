@@ -33,8 +33,18 @@ public class BuilderFile<K extends Comparable<K>, T> implements NodeBuilder<K, T
         this.file.newRoot(root);
     }
 
+    @Override
+    public void flush() {
+        this.file.flush();
+    }
+
     @Override
     public Node<K, T> build(K key, Supplier<T> data) {
         return this.file.createNode(key, data.get());
     }
+
+    @Override
+    public Node<K, T> build(K key, Supplier<T> data, Node<K, T> left, Node<K, T> right) {
+        return this.file.createNode(key, data.get(), left, right);
+    }
 }
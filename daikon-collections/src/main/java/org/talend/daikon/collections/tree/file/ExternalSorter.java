@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2006-2022 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+package org.talend.daikon.collections.tree.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * External merge sort of key/value entries, to feed
+ * {@link org.talend.daikon.collections.tree.AvlTreeBuilder#build(Iterator)} with unsorted input.
+ * Entries are sorted in memory by runs of limited size, each run is spilled on a temporary file,
+ * then runs are merged while iterating.
+ * Entries with same key keep insertion order.
+ *
+ * @param <K> class for keys.
+ * @param <T> class for data.
+ */
+public class ExternalSorter<K extends Comparable<K>, T> implements Closeable {
+
+    private final Serializer<K> keySerializer;
+
+    private final Serializer<T> dataSerializer;
+
+    /** max number of entries kept in memory */
+    private final int runSize;
+
+    /** folder for temporary run files */
+    private final Path tempFolder;
+
+    private final List<Map.Entry<K, T>> currentRun = new ArrayList<>();
+
+    private final List<Path> runs = new ArrayList<>();
+
+    private final List<RunReader<K, T>> readers = new ArrayList<>();
+
+    public ExternalSorter(final Serializer<K> keySerializer, final Serializer<T> dataSerializer, final int runSize,
+            final Path tempFolder) {
+        if (runSize <= 0) {
+            throw new IllegalArgumentException("Run size must be positive : " + runSize);
+        }
+        this.keySerializer = keySerializer;
+        this.dataSerializer = dataSerializer;
+        this.runSize = runSize;
+        this.tempFolder = tempFolder;
+    }
+
+    public void add(final K key, final T data) {
+        this.currentRun.add(new AbstractMap.SimpleImmutableEntry<>(key, data));
+        if (this.currentRun.size() >= this.runSize) {
+            this.spill();
+        }
+    }
+
+    /**
+     * @return iterator on all added entries, sorted by key.
+     */
+    public Iterator<Map.Entry<K, T>> sorted() {
+        this.currentRun.sort(Map.Entry.comparingByKey());
+        if (this.runs.isEmpty()) {
+            return this.currentRun.iterator();
+        }
+        if (!this.currentRun.isEmpty()) {
+            this.spill();
+        }
+        final List<Iterator<Map.Entry<K, T>>> iterators = new ArrayList<>(this.runs.size());
+        for (Path run : this.runs) {
+            final RunReader<K, T> reader = new RunReader<>(run, this.keySerializer, this.dataSerializer);
+            this.readers.add(reader);
+            iterators.add(reader);
+        }
+        return new MergeIterator<>(iterators);
+    }
+
+    private void spill() {
+        this.currentRun.sort(Map.Entry.comparingByKey());
+        try {
+            final Path run = Files.createTempFile(this.tempFolder, "run", ".tmp");
+            this.runs.add(run);
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+                for (Map.Entry<K, T> entry : this.currentRun) {
+                    final byte[] keyBytes = this.keySerializer.serialize(entry.getKey());
+                    final byte[] dataBytes = this.dataSerializer.serialize(entry.getValue());
+                    out.writeInt(keyBytes.length);
+                    out.writeInt(dataBytes.length);
+                    out.write(keyBytes);
+                    out.write(dataBytes);
+                }
+            }
+            this.currentRun.clear();
+        } catch (IOException exIO) {
+            throw new UncheckedIOException("Can't spill sorted run : " + exIO.getMessage(), exIO);
+        }
+    }
+
+    /**
+     * Remove temporary files.
+     */
+    @Override
+    public void close() throws IOException {
+        for (RunReader<K, T> reader : this.readers) {
+            reader.close();
+        }
+        this.readers.clear();
+        for (Path run : this.runs) {
+            Files.deleteIfExists(run);
+        }
+        this.runs.clear();
+        this.currentRun.clear();
+    }
+
+    /**
+     * Read entries of a run file.
+     */
+    private static class RunReader<K, T> implements Iterator<Map.Entry<K, T>>, Closeable {
+
+        private final DataInputStream input;
+
+        private final Serializer<K> keySerializer;
+
+        private final Serializer<T> dataSerializer;
+
+        private Map.Entry<K, T> nextEntry;
+
+        RunReader(final Path run, final Serializer<K> keySerializer, final Serializer<T> dataSerializer) {
+            this.keySerializer = keySerializer;
+            this.dataSerializer = dataSerializer;
+            try {
+                this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+            } catch (IOException exIO) {
+                throw new UncheckedIOException("Can't read sorted run : " + exIO.getMessage(), exIO);
+            }
+            this.nextEntry = this.readEntry();
+        }
+
+        private Map.Entry<K, T> readEntry() {
+            try {
+                final int keySize;
+                try {
+                    keySize = this.input.readInt();
+                } catch (EOFException ex) {
+                    this.input.close();
+                    return null;
+                }
+                final int dataSize = this.input.readInt();
+                final byte[] keyBytes = new byte[keySize];
+                this.input.readFully(keyBytes);
+                final byte[] dataBytes = new byte[dataSize];
+                this.input.readFully(dataBytes);
+                return new AbstractMap.SimpleImmutableEntry<>(this.keySerializer.deserialize(keyBytes),
+                        this.dataSerializer.deserialize(dataBytes));
+            } catch (IOException exIO) {
+                throw new UncheckedIOException("Can't read sorted run : " + exIO.getMessage(), exIO);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextEntry != null;
+        }
+
+        @Override
+        public Map.Entry<K, T> next() {
+            if (this.nextEntry == null) {
+                throw new NoSuchElementException();
+            }
+            final Map.Entry<K, T> current = this.nextEntry;
+            this.nextEntry = this.readEntry();
+            return current;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.input.close();
+        }
+    }
+
+    /**
+     * K-way merge of sorted iterators.
+     */
+    private static class MergeIterator<K extends Comparable<K>, T> implements Iterator<Map.Entry<K, T>> {
+
+        private final List<Iterator<Map.Entry<K, T>>> sources;
+
+        /** heads : current entry and index of source (index keeps merge stable) */
+        private final PriorityQueue<Head<K, T>> heads;
+
+        MergeIterator(final List<Iterator<Map.Entry<K, T>>> sources) {
+            this.sources = sources;
+            this.heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                    Comparator.<Head<K, T>, K> comparing((Head<K, T> h) -> h.entry.getKey()).thenComparingInt(h -> h.source));
+            for (int i = 0; i < sources.size(); i++) {
+                this.advance(i);
+            }
+        }
+
+        private void advance(int source) {
+            final Iterator<Map.Entry<K, T>> iterator = this.sources.get(source);
+            if (iterator.hasNext()) {
+                this.heads.add(new Head<>(iterator.next(), source));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.heads.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<K, T> next() {
+            final Head<K, T> head = this.heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            this.advance(head.source);
+            return head.entry;
+        }
+    }
+
+    private static class Head<K, T> {
+
+        private final Map.Entry<K, T> entry;
+
+        private final int source;
+
+        Head(Map.Entry<K, T> entry, int source) {
+            this.entry = entry;
+            this.source = source;
+        }
+    }
+}
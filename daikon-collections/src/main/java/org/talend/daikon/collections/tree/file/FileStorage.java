@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2006-2022 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+package org.talend.daikon.collections.tree.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Positional reads and writes on tree file channel.
+ * With a buffer size > 0, appended bytes are kept in a direct buffer and updates of bytes already on file
+ * are kept in a write-back table (last update wins), both are written on {@link #flush()}
+ * or when buffer (or table) is full. Reads see pending writes.
+ * Not thread safe (caller must lock).
+ */
+class FileStorage {
+
+    /** max size of an update kept in write-back table */
+    static final int MAX_UPDATE_SIZE = 64;
+
+    private final FileChannel channel;
+
+    /** buffer for appended bytes, null for direct writes */
+    private final ByteBuffer appendBuffer;
+
+    /** pending updates on file, by position */
+    private final TreeMap<Long, byte[]> updates = new TreeMap<>();
+
+    private final int maxUpdates;
+
+    /** length of file on disk (without pending appended bytes) */
+    private long flushedLength;
+
+    private ByteBuffer readBuffer = ByteBuffer.allocate(1024);
+
+    FileStorage(final FileChannel channel, final int bufferSize) throws IOException {
+        this.channel = channel;
+        this.flushedLength = channel.size();
+        if (bufferSize > 0) {
+            this.appendBuffer = ByteBuffer.allocateDirect(bufferSize);
+            this.maxUpdates = Math.max(1024, bufferSize / MAX_UPDATE_SIZE);
+        } else {
+            this.appendBuffer = null;
+            this.maxUpdates = 0;
+        }
+    }
+
+    /**
+     * @return length of file, pending bytes included.
+     */
+    long length() {
+        if (this.appendBuffer == null) {
+            return this.flushedLength;
+        }
+        return this.flushedLength + this.appendBuffer.position();
+    }
+
+    /**
+     * Add bytes at end of file.
+     *
+     * @param bytes : bytes between position and limit.
+     * @return position of bytes in file.
+     */
+    long append(final ByteBuffer bytes) throws IOException {
+        final long position = this.length();
+        if (this.appendBuffer != null && bytes.remaining() > this.appendBuffer.remaining()) {
+            this.flushAppended();
+        }
+        if (this.appendBuffer != null && bytes.remaining() <= this.appendBuffer.remaining()) {
+            this.appendBuffer.put(bytes);
+        } else {
+            this.flushedLength += this.writeFully(bytes, position);
+        }
+        return position;
+    }
+
+    /**
+     * Replace bytes already written.
+     *
+     * @param position : position in file.
+     * @param bytes : new bytes between position and limit.
+     */
+    void write(final long position, final ByteBuffer bytes) throws IOException {
+        if (this.appendBuffer == null || bytes.remaining() > MAX_UPDATE_SIZE) {
+            this.flush();
+            this.writeFully(bytes, position);
+        } else if (position >= this.flushedLength) {
+            // still in append buffer.
+            this.appendBuffer.put((int) (position - this.flushedLength), bytes, bytes.position(), bytes.remaining());
+        } else {
+            final byte[] update = new byte[bytes.remaining()];
+            bytes.get(bytes.position(), update);
+            this.updates.put(position, update);
+            if (this.updates.size() >= this.maxUpdates) {
+                this.flushUpdates();
+            }
+        }
+    }
+
+    /**
+     * Read bytes.
+     *
+     * @param position : position in file.
+     * @param length : number of bytes.
+     * @return buffer with bytes between 0 and limit, valid until next call.
+     */
+    ByteBuffer read(final long position, final int length) throws IOException {
+        if (this.readBuffer.capacity() < length) {
+            this.readBuffer = ByteBuffer.allocate(Math.max(length, this.readBuffer.capacity() * 2));
+        }
+        final ByteBuffer target = this.readBuffer;
+        target.clear();
+        target.limit(length);
+
+        // part on file.
+        final int onFile = (int) Math.max(0L, Math.min(length, this.flushedLength - position));
+        target.limit(onFile);
+        while (target.hasRemaining()) {
+            if (this.channel.read(target, position + target.position()) < 0) {
+                throw new IOException("Unexpected end of file at " + (position + target.position()));
+            }
+        }
+        target.limit(length);
+        // part in append buffer.
+        if (onFile < length) {
+            final int start = (int) (position + onFile - this.flushedLength);
+            target.put(onFile, this.appendBuffer, start, length - onFile);
+        }
+        // pending updates.
+        if (!this.updates.isEmpty()) {
+            for (Map.Entry<Long, byte[]> update : this.updates.subMap(position - MAX_UPDATE_SIZE, position + length).entrySet()) {
+                final byte[] bytes = update.getValue();
+                final long start = Math.max(position, update.getKey());
+                final long end = Math.min(position + length, update.getKey() + bytes.length);
+                if (start < end) {
+                    target.put((int) (start - position), bytes, (int) (start - update.getKey()), (int) (end - start));
+                }
+            }
+        }
+        target.position(0);
+        return target;
+    }
+
+    /**
+     * Write pending bytes on file.
+     */
+    void flush() throws IOException {
+        this.flushAppended();
+        this.flushUpdates();
+    }
+
+    private void flushAppended() throws IOException {
+        if (this.appendBuffer != null && this.appendBuffer.position() > 0) {
+            this.appendBuffer.flip();
+            this.flushedLength += this.writeFully(this.appendBuffer, this.flushedLength);
+            this.appendBuffer.clear();
+        }
+    }
+
+    private void flushUpdates() throws IOException {
+        // sorted by position.
+        for (Map.Entry<Long, byte[]> update : this.updates.entrySet()) {
+            this.writeFully(ByteBuffer.wrap(update.getValue()), update.getKey());
+        }
+        this.updates.clear();
+    }
+
+    private int writeFully(final ByteBuffer bytes, final long position) throws IOException {
+        final int size = bytes.remaining();
+        int written = 0;
+        while (written < size) {
+            written += this.channel.write(bytes, position + written);
+        }
+        return size;
+    }
+}
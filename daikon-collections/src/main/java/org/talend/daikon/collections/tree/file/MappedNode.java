@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2006-2022 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+package org.talend.daikon.collections.tree.file;
+
+import org.talend.daikon.collections.tree.INode;
+
+/**
+ * Immutable node read from a {@link MappedNodeFile}.
+ * Children and data are decoded only when asked.
+ *
+ * @param <K> class for node keys.
+ * @param <T> class for node data.
+ */
+public class MappedNode<K extends Comparable<K>, T> implements INode<K, T> {
+
+    private final MappedNodeFile<K, T> file;
+
+    private final long startPos;
+
+    private final K key;
+
+    private final long startData;
+
+    private final int dataSize;
+
+    MappedNode(final MappedNodeFile<K, T> file, final long startPos, final K key, final long startData, final int dataSize) {
+        this.file = file;
+        this.startPos = startPos;
+        this.key = key;
+        this.startData = startData;
+        this.dataSize = dataSize;
+    }
+
+    @Override
+    public K getKey() {
+        return this.key;
+    }
+
+    @Override
+    public T getData() {
+        return this.file.readData(this.startData, this.dataSize);
+    }
+
+    @Override
+    public INode<K, T> getChild(int num) {
+        final long childPos = num == 0 ? this.file.leftChild(this.startPos) : this.file.rightChild(this.startPos);
+        if (childPos <= 0L) {
+            return null;
+        }
+        return this.file.getNode(childPos);
+    }
+
+    @Override
+    public INode<K, T> get(final K item) {
+        if (this.key.compareTo(item) == 0) {
+            return this;
+        }
+        return this.file.search(this.startPos, item);
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2006-2022 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+package org.talend.daikon.collections.tree.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.talend.daikon.collections.tree.AvlTree;
+import org.talend.daikon.collections.tree.INode;
+import org.talend.daikon.collections.tree.memory.MemoryNode;
+
+/**
+ * Read only access to a tree file written by {@link NodeFile}.
+ * File is mapped in memory (see {@link FileChannel#map}) and nodes are decoded with absolute reads,
+ * so there is no lock and no seek : any number of threads can search the tree at the same time.
+ * Keys and data are deserialized from slices of mapped file, and if key serializer is binary comparable, search compares
+ * serialized keys without deserializing them.
+ * File must not be modified once mapped.
+ *
+ * @param <K> class for node keys.
+ * @param <T> class for node data.
+ */
+public class MappedNodeFile<K extends Comparable<K>, T> implements Closeable {
+
+    /** a mapped buffer can't exceed 2Go, so big files are split in segments */
+    private static final int SEGMENT_SHIFT = 30;
+
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer[] segments;
+
+    private final long size;
+
+    private final BufferSerializer<K> keySerializer;
+
+    private final BufferSerializer<T> dataSerializer;
+
+    public MappedNodeFile(final Path path, final Serializer<K> keySerializer, final Serializer<T> dataSerializer) {
+        this(path, BufferSerializer.of(keySerializer), BufferSerializer.of(dataSerializer));
+    }
+
+    public MappedNodeFile(final Path path, final BufferSerializer<K> keySerializer, final BufferSerializer<T> dataSerializer) {
+        this.keySerializer = keySerializer;
+        this.dataSerializer = dataSerializer;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = this.channel.size();
+            final int nbeSegments = (int) ((this.size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+            this.segments = new MappedByteBuffer[nbeSegments];
+            for (int i = 0; i < nbeSegments; i++) {
+                final long start = ((long) i) << SEGMENT_SHIFT;
+                this.segments[i] = this.channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can't map tree file " + path + " : " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Build immutable AVL Tree on mapped file.
+     *
+     * @param limit : depth on this tree where we keep node in memory.
+     * @return immutable AVL Tree (null for empty file).
+     */
+    public AvlTree<K, T> build(int limit) {
+        final INode<K, T> root = this.findRoot();
+        if (root == null) {
+            return null;
+        }
+        return new AvlTree<>(new MemoryNode<>(root, 1, limit));
+    }
+
+    public AvlTree<K, T> build() {
+        return this.build(10);
+    }
+
+    public INode<K, T> findRoot() {
+        if (this.size == 0L) {
+            return null;
+        }
+        return this.getNode(this.readLong(NodeFile.ROOT_POS));
+    }
+
+    INode<K, T> getNode(final long startPos) {
+        final int keySize = this.keySize(startPos);
+        final int dataSize = this.readInt(startPos + Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES);
+        final long startKey = startPos + NodeFile.NODE_HEADER_SIZE;
+        final K key = this.keySerializer.deserialize(this.slice(startKey, keySize));
+        return new MappedNode<>(this, startPos, key, startKey + keySize, dataSize);
+    }
+
+    /**
+     * Search key in sub-tree.
+     *
+     * @param startPos : position of sub-tree root.
+     * @param item : searched key.
+     * @return node for this key (null if not found).
+     */
+    INode<K, T> search(final long startPos, final K item) {
+        if (!this.keySerializer.isBinaryComparable()) {
+            INode<K, T> current = this.getNode(startPos);
+            while (current != null) {
+                final int comp = current.getKey().compareTo(item);
+                if (comp == 0) {
+                    return current;
+                }
+                current = current.getChild(comp > 0 ? 0 : 1);
+            }
+            return null;
+        }
+        final ByteBuffer searched = BufferSerializer.write(this.keySerializer, item, ByteBuffer.allocate(64));
+        long pos = startPos;
+        while (pos > 0L) {
+            final ByteBuffer key = this.slice(pos + NodeFile.NODE_HEADER_SIZE, this.keySize(pos));
+            final int comp = this.keySerializer.compare(key, searched);
+            if (comp == 0) {
+                return this.getNode(pos);
+            }
+            pos = comp > 0 ? this.leftChild(pos) : this.rightChild(pos);
+        }
+        return null;
+    }
+
+    private int keySize(final long startPos) {
+        return this.readInt(startPos + Integer.BYTES + Long.BYTES + Long.BYTES);
+    }
+
+    long leftChild(final long startPos) {
+        return this.readLong(startPos + Integer.BYTES);
+    }
+
+    long rightChild(final long startPos) {
+        return this.readLong(startPos + Integer.BYTES + Long.BYTES);
+    }
+
+    T readData(final long startData, final int dataSize) {
+        return this.dataSerializer.deserialize(this.slice(startData, dataSize));
+    }
+
+    private int readInt(final long pos) {
+        final MappedByteBuffer segment = this.segments[(int) (pos >>> SEGMENT_SHIFT)];
+        final int index = (int) (pos & SEGMENT_MASK);
+        if (index + Integer.BYTES <= segment.limit()) {
+            return segment.getInt(index);
+        }
+        final byte[] bytes = this.readBytes(pos, Integer.BYTES);
+        return ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+    }
+
+    private long readLong(final long pos) {
+        final MappedByteBuffer segment = this.segments[(int) (pos >>> SEGMENT_SHIFT)];
+        final int index = (int) (pos & SEGMENT_MASK);
+        if (index + Long.BYTES <= segment.limit()) {
+            return segment.getLong(index);
+        }
+        return (((long) this.readInt(pos)) << 32) | (this.readInt(pos + Integer.BYTES) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return view on mapped file (or copy if bytes cross segments).
+     */
+    private ByteBuffer slice(final long pos, final int length) {
+        final MappedByteBuffer segment = this.segments[(int) (pos >>> SEGMENT_SHIFT)];
+        final int index = (int) (pos & SEGMENT_MASK);
+        if (index + length <= segment.limit()) {
+            return segment.slice(index, length);
+        }
+        return ByteBuffer.wrap(this.readBytes(pos, length));
+    }
+
+    /**
+     * Copy bytes from mapped file (may cross segments).
+     * Absolute get doesn't change buffer position, so it's thread safe.
+     */
+    private byte[] readBytes(final long pos, final int length) {
+        final byte[] data = new byte[length];
+        int done = 0;
+        while (done < length) {
+            final long current = pos + done;
+            final MappedByteBuffer segment = this.segments[(int) (current >>> SEGMENT_SHIFT)];
+            final int index = (int) (current & SEGMENT_MASK);
+            final int toCopy = Math.min(length - done, segment.limit() - index);
+            segment.get(index, data, done, toCopy);
+            done += toCopy;
+        }
+        return data;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
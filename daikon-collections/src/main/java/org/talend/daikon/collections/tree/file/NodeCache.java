@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2006-2022 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+package org.talend.daikon.collections.tree.file;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.talend.daikon.collections.tree.Node;
+
+/**
+ * LRU cache for nodes and data read by a {@link NodeFile}, limited by an estimated size in bytes
+ * (serialized size of key or data, plus a fixed overhead for each entry).
+ * Nodes and data are identified by their position in file, so a cache must be used by only one NodeFile.
+ * Empty data starts at position of next node, so entries are keyed by position and kind (node or data).
+ *
+ * @param <K> class for node keys.
+ * @param <T> class for node data.
+ */
+public class NodeCache<K extends Comparable<K>, T> {
+
+    /** estimated memory for cached node object (without key) */
+    static final int NODE_OVERHEAD = 96;
+
+    /** estimated memory for cache entry */
+    static final int ENTRY_OVERHEAD = 64;
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<Long, Cached> entries = new LinkedHashMap<>(1024, 0.75f, true);
+
+    private long usedBytes = 0L;
+
+    private long hits = 0L;
+
+    private long misses = 0L;
+
+    private long evictions = 0L;
+
+    public NodeCache(final long maxBytes) {
+        if (maxBytes <= 0L) {
+            throw new IllegalArgumentException("Cache size must be positive : " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param megaBytes : max size of cache in Mo.
+     * @return new cache.
+     */
+    public static <K extends Comparable<K>, T> NodeCache<K, T> ofMegaBytes(final int megaBytes) {
+        return new NodeCache<>(megaBytes * 1024L * 1024L);
+    }
+
+    Node<K, T> getNode(final long position) {
+        final Cached cached = this.get(position);
+        return cached == null ? null : cached.node;
+    }
+
+    void putNode(final long position, final Node<K, T> node, final int keySize) {
+        if (node != null) {
+            this.put(position, new Cached(node, null, keySize + NODE_OVERHEAD + ENTRY_OVERHEAD));
+        }
+    }
+
+    T getData(final long position) {
+        final Cached cached = this.get(dataKey(position));
+        return cached == null ? null : cached.data;
+    }
+
+    void putData(final long position, final T data, final int dataSize) {
+        if (data != null) {
+            this.put(dataKey(position), new Cached(null, data, dataSize + ENTRY_OVERHEAD));
+        }
+    }
+
+    /**
+     * @return key of data at position (negative, positions in file are not).
+     */
+    private static long dataKey(final long position) {
+        return -position - 1L;
+    }
+
+    /**
+     * Remove node at position (its data is not changed).
+     */
+    synchronized void invalidate(final long position) {
+        final Cached removed = this.entries.remove(position);
+        if (removed != null) {
+            this.usedBytes -= removed.weight;
+        }
+    }
+
+    private synchronized Cached get(final long key) {
+        final Cached cached = this.entries.get(key);
+        if (cached == null) {
+            this.misses++;
+            return null;
+        }
+        this.hits++;
+        return cached;
+    }
+
+    private synchronized void put(final long key, final Cached cached) {
+        if (cached.weight > this.maxBytes) {
+            return;
+        }
+        final Cached old = this.entries.put(key, cached);
+        if (old != null) {
+            this.usedBytes -= old.weight;
+        }
+        this.usedBytes += cached.weight;
+
+        // evict least recently used entries.
+        final Iterator<Map.Entry<Long, Cached>> iterator = this.entries.entrySet().iterator();
+        while (this.usedBytes > this.maxBytes && iterator.hasNext()) {
+            final Map.Entry<Long, Cached> eldest = iterator.next();
+            iterator.remove();
+            this.usedBytes -= eldest.getValue().weight;
+            this.evictions++;
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int getSize() {
+        return this.entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Cached node (with null data) or data (with null node).
+     */
+    private class Cached {
+
+        private final Node<K, T> node;
+
+        private final T data;
+
+        private final int weight;
+
+        Cached(Node<K, T> node, T data, int weight) {
+            this.node = node;
+            this.data = data;
+            this.weight = weight;
+        }
+    }
+}
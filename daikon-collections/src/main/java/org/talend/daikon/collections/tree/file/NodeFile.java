@@ -13,6 +13,8 @@ package org.talend.daikon.collections.tree.file;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.function.Supplier;
 
 import org.talend.daikon.collections.tree.Node;
@@ -20,41 +22,100 @@ import org.talend.daikon.collections.tree.NodeLink;
 
 /**
  * Manipulate tree node on file.
+ * Node is written as [height][left child position][right child position][key size][data size][key][data].
+ * With a write buffer (see {@link #NodeFile(RandomAccessFile, BufferSerializer, BufferSerializer, NodeCache, int)}),
+ * new nodes are appended in a direct buffer and child updates are kept in a write-back table until
+ * {@link #flush()}, so building a tree needs few system calls.
  * 
  * @param <K> class for node keys.
  * @param <T> class for node data.
  */
 public class NodeFile<K extends Comparable<K>, T> {
 
+    /** position of root pointer in file */
+    static final long ROOT_POS = "Tree".length();
+
+    /** file header : "Tree" chars and root pointer space */
+    static final long HEADER_SIZE = "Tree".length() * Character.BYTES + Long.BYTES;
+
+    /** size of node header : height, left child, right child, key size, data size */
+    static final int NODE_HEADER_SIZE = Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    /** size of node part updated when childs change : height, left child, right child */
+    private static final int NODE_LINKS_SIZE = Integer.BYTES + Long.BYTES + Long.BYTES;
+
     /** file where tree is stored */
     private final RandomAccessFile file;
 
-    private final Serializer<K> keySerializer;
+    private final FileStorage storage;
+
+    private final BufferSerializer<K> keySerializer;
+
+    private final BufferSerializer<T> dataSerializer;
+
+    /** cache for nodes and data read from file (null for no cache) */
+    private final NodeCache<K, T> cache;
+
+    /** buffers reused (under file lock) to serialize keys, data and nodes */
+    private ByteBuffer keyBuffer = ByteBuffer.allocate(256);
+
+    private ByteBuffer dataBuffer = ByteBuffer.allocate(1024);
+
+    private ByteBuffer nodeBuffer = ByteBuffer.allocate(1024);
 
-    private final Serializer<T> dataSerializer;
+    private final ByteBuffer linksBuffer = ByteBuffer.allocate(NODE_LINKS_SIZE);
 
     public NodeFile(RandomAccessFile file, Serializer<K> keySerializer, Serializer<T> dataSerializer) {
+        this(file, keySerializer, dataSerializer, null);
+    }
+
+    public NodeFile(RandomAccessFile file, Serializer<K> keySerializer, Serializer<T> dataSerializer, NodeCache<K, T> cache) {
+        this(file, BufferSerializer.of(keySerializer), BufferSerializer.of(dataSerializer), cache);
+    }
+
+    public NodeFile(RandomAccessFile file, BufferSerializer<K> keySerializer, BufferSerializer<T> dataSerializer,
+            NodeCache<K, T> cache) {
+        this(file, keySerializer, dataSerializer, cache, 0);
+    }
+
+    /**
+     * @param file : file where tree is stored.
+     * @param keySerializer : serializer for keys.
+     * @param dataSerializer : serializer for data.
+     * @param cache : cache for read nodes (can be null).
+     * @param writeBufferSize : size of write buffer in bytes (0 to write directly on file), when set,
+     * {@link #flush()} must be called once tree is built (done by {@link org.talend.daikon.collections.tree.AvlTreeBuilder}).
+     */
+    public NodeFile(RandomAccessFile file, BufferSerializer<K> keySerializer, BufferSerializer<T> dataSerializer,
+            NodeCache<K, T> cache, int writeBufferSize) {
         super();
         this.file = file;
         this.keySerializer = keySerializer;
         this.dataSerializer = dataSerializer;
-    }
-
-    public synchronized Node<K, T> findRoot() {
+        this.cache = cache;
         try {
-            if (this.file.length() == 0L) {
-                return null;
-            }
-            this.file.seek((long) "Tree".length());
-            final long startRoot = this.file.readLong();
-            final NodeLinkFile<K, T> link = new NodeLinkFile<>(this, startRoot);
-
-            return link.getNode();
+            this.storage = new FileStorage(file.getChannel(), writeBufferSize);
         } catch (IOException ex) {
             throw new UncheckedIOException(ex);
         }
     }
 
+    public Node<K, T> findRoot() {
+        synchronized (this.file) {
+            try {
+                if (this.storage.length() == 0L) {
+                    return null;
+                }
+                final long startRoot = this.storage.read(ROOT_POS, Long.BYTES).getLong(0);
+                final NodeLinkFile<K, T> link = new NodeLinkFile<>(this, startRoot);
+
+                return link.getNode();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
     /**
      * Replace current root on file.
      * 
@@ -66,46 +127,72 @@ public class NodeFile<K extends Comparable<K>, T> {
                 final NodeLinkFile<K, T> link = (NodeLinkFile<K, T>) root.getLink();
                 final long start = link.getStartPos();
 
-                this.file.seek((long) "Tree".length());
-                this.file.writeLong(start);
+                this.linksBuffer.clear();
+                this.linksBuffer.putLong(start).flip();
+                this.storage.write(ROOT_POS, this.linksBuffer);
             } catch (IOException ex) {
                 throw new UncheckedIOException(ex);
             }
         }
     }
 
+    /**
+     * Write pending nodes and updates on file.
+     */
+    public void flush() {
+        synchronized (this.file) {
+            try {
+                this.storage.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Can't flush tree file : " + ex.getMessage(), ex);
+            }
+        }
+    }
+
     /**
      * Read node from file.
      * 
      * @param nodeLink : link to this node.
      * @return
      */
-    public synchronized Node<K, T> getNode(final NodeLinkFile<K, T> nodeLink) {
-        try {
-            file.seek(nodeLink.getStartPos());
-            final int height = file.readInt();
-            final long child1 = file.readLong();
-            final long child2 = file.readLong();
-            final int keySize = file.readInt();
-            final int dataSize = file.readInt();
-
-            final K key = this.read(keySize, this.keySerializer);
-            final long startData = this.file.getFilePointer();
-            final Supplier<T> dataGetter = () -> this.readFrom(startData, dataSize, dataSerializer);
-
-            final Node<K, T> n = new Node<>(nodeLink, key, dataGetter);
-            if (child1 > 0) {
-                n.setChildSimple(0, new NodeLinkFile<>(this, child1));
-            }
-            if (child2 > 0) {
-                n.setChildSimple(1, new NodeLinkFile<>(this, child2));
+    public Node<K, T> getNode(final NodeLinkFile<K, T> nodeLink) {
+        synchronized (this.file) {
+            if (this.cache != null) {
+                final Node<K, T> cached = this.cache.getNode(nodeLink.getStartPos());
+                if (cached != null) {
+                    return cached;
+                }
             }
+            try {
+                final ByteBuffer header = this.storage.read(nodeLink.getStartPos(), NODE_HEADER_SIZE);
+                final int height = header.getInt();
+                final long child1 = header.getLong();
+                final long child2 = header.getLong();
+                final int keySize = header.getInt();
+                final int dataSize = header.getInt();
 
-            n.setHeight(height);
+                final long startKey = nodeLink.getStartPos() + NODE_HEADER_SIZE;
+                final K key = this.keySerializer.deserialize(this.storage.read(startKey, keySize));
+                final long startData = startKey + keySize;
+                final Supplier<T> dataGetter = () -> this.readData(startData, dataSize);
 
-            return n;
-        } catch (IOException ex) {
-            throw new UncheckedIOException(ex);
+                final Node<K, T> n = new Node<>(nodeLink, key, dataGetter);
+                if (child1 > 0) {
+                    n.setChildSimple(0, new NodeLinkFile<>(this, child1));
+                }
+                if (child2 > 0) {
+                    n.setChildSimple(1, new NodeLinkFile<>(this, child2));
+                }
+
+                n.setHeight(height);
+                if (this.cache != null) {
+                    this.cache.putNode(nodeLink.getStartPos(), n, keySize);
+                }
+
+                return n;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
         }
     }
 
@@ -116,33 +203,70 @@ public class NodeFile<K extends Comparable<K>, T> {
      * @param data : node data.
      * @return the new node.
      */
-    public synchronized Node<K, T> createNode(K key, T data) {
+    public Node<K, T> createNode(K key, T data) {
+        return this.createNode(key, data, null, null);
+    }
 
-        try {
-            if (this.file.length() == 0L) {
-                this.file.writeChars("Tree");
-                this.file.writeLong(file.getFilePointer() + Long.BYTES);
+    /**
+     * Add new node on file with its childs, that must already be on file.
+     * 
+     * @param key : node key.
+     * @param data : node data.
+     * @param left : left child (can be null).
+     * @param right : right child (can be null).
+     * @return the new node.
+     */
+    public Node<K, T> createNode(K key, T data, Node<K, T> left, Node<K, T> right) {
+        synchronized (this.file) {
+            try {
+                if (this.storage.length() == 0L) {
+                    final ByteBuffer fileHeader = ByteBuffer.allocate((int) HEADER_SIZE);
+                    fileHeader.put("Tree".getBytes(StandardCharsets.UTF_16BE));
+                    // first node is root until a rotation changes it.
+                    fileHeader.putLong((int) ROOT_POS, HEADER_SIZE);
+                    fileHeader.clear();
+                    this.storage.append(fileHeader);
+                }
+
+                this.keyBuffer = BufferSerializer.write(this.keySerializer, key, this.keyBuffer);
+                this.dataBuffer = BufferSerializer.write(this.dataSerializer, data, this.dataBuffer);
+                final int nodeSize = NODE_HEADER_SIZE + this.keyBuffer.limit() + this.dataBuffer.limit();
+                if (this.nodeBuffer.capacity() < nodeSize) {
+                    this.nodeBuffer = ByteBuffer.allocate(Math.max(nodeSize, this.nodeBuffer.capacity() * 2));
+                }
+                final int height = Math.max(Node.height(left), Node.height(right)) + 1;
+                this.nodeBuffer.clear();
+                this.nodeBuffer.putInt(height);
+                this.nodeBuffer.putLong(this.startPos(left)); // left child
+                this.nodeBuffer.putLong(this.startPos(right)); // right child
+                this.nodeBuffer.putInt(this.keyBuffer.limit());
+                this.nodeBuffer.putInt(this.dataBuffer.limit());
+                this.nodeBuffer.put(this.keyBuffer);
+                this.nodeBuffer.put(this.dataBuffer);
+                this.nodeBuffer.flip();
+                final long startPos = this.storage.append(this.nodeBuffer);
+
+                final NodeLinkFile<K, T> link = new NodeLinkFile<>(this, startPos);
+                final Node<K, T> node = new Node<>(link, key, () -> data);
+                if (left != null) {
+                    node.setChildSimple(0, left.getLink());
+                }
+                if (right != null) {
+                    node.setChildSimple(1, right.getLink());
+                }
+                node.setHeight(height);
+                return node;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("", ex);
             }
-            final long startPos = file.length();
-            file.seek(startPos);
-
-            file.writeInt(1); // height
-            file.writeLong(0L); // left child
-            file.writeLong(0L); // right child
-
-            final byte[] keyBytes = this.keySerializer.serialize(key);
-            final byte[] dataBytes = this.dataSerializer.serialize(data);
-            file.writeInt(keyBytes.length);
-            file.writeInt(dataBytes.length);
-            file.write(keyBytes);
-            file.write(dataBytes);
-
-            final NodeLinkFile<K, T> link = new NodeLinkFile<>(this, startPos);
-            return new Node<>(link, key, () -> data);
-        } catch (IOException ex) {
-            throw new UncheckedIOException("", ex);
         }
+    }
 
+    private long startPos(final Node<K, T> node) {
+        if (node != null && node.getLink() instanceof NodeLinkFile) {
+            return ((NodeLinkFile<K, T>) node.getLink()).getStartPos();
+        }
+        return 0L;
     }
 
     /**
@@ -152,45 +276,48 @@ public class NodeFile<K extends Comparable<K>, T> {
      * @param startPos : pos of node in file.
      */
     public void saveNode(final Node<K, T> node, final long startPos) {
+        if (this.cache != null) {
+            this.cache.invalidate(startPos);
+        }
         synchronized (this.file) {
             try {
-                this.file.seek(startPos);
-                this.file.writeInt(node.getHeight());
-
-                this.saveLink(node, 0);
-                this.saveLink(node, 1);
+                this.linksBuffer.clear();
+                this.linksBuffer.putInt(node.getHeight());
+                this.linksBuffer.putLong(this.linkPos(node, 0));
+                this.linksBuffer.putLong(this.linkPos(node, 1));
+                this.linksBuffer.flip();
+                this.storage.write(startPos, this.linksBuffer);
             } catch (IOException exIO) {
                 throw new UncheckedIOException("Error on save node : " + exIO.getMessage(), exIO);
             }
-
         }
     }
 
-    private void saveLink(final Node<K, T> node, int numLink) throws IOException {
+    private long linkPos(final Node<K, T> node, int numLink) {
         final NodeLink<K, T> link = node.getChildSimple(numLink);
         if (link instanceof NodeLinkFile) {
-            this.file.writeLong(((NodeLinkFile<K, T>) link).getStartPos());
-        } else {
-            this.file.writeLong(0L);
+            return ((NodeLinkFile<K, T>) link).getStartPos();
         }
+        return 0L;
     }
 
-    private <U> U readFrom(long start, final int size, Serializer<U> serializer) {
-        try {
-            synchronized (this.file) {
-                this.file.seek(start);
-                return this.read(size, serializer);
-            }
-        } catch (IOException exIO) {
-            throw new UncheckedIOException("Can't read data : " + exIO.getMessage(), exIO);
+    private T readData(final long startData, final int dataSize) {
+        if (this.cache == null) {
+            return this.readFrom(startData, dataSize, this.dataSerializer);
+        }
+        T data = this.cache.getData(startData);
+        if (data == null) {
+            data = this.readFrom(startData, dataSize, this.dataSerializer);
+            this.cache.putData(startData, data, dataSize);
         }
+        return data;
     }
 
-    private <U> U read(final int size, Serializer<U> serializer) {
+    private <U> U readFrom(long start, final int size, BufferSerializer<U> serializer) {
         try {
-            final byte[] data = new byte[size];
-            this.file.read(data);
-            return serializer.deserialize(data);
+            synchronized (this.file) {
+                return serializer.deserialize(this.storage.read(start, size));
+            }
         } catch (IOException exIO) {
             throw new UncheckedIOException("Can't read data : " + exIO.getMessage(), exIO);
         }
@@ -11,7 +11,6 @@
 package org.talend.daikon.collections.tree.memory;
 
 import org.talend.daikon.collections.tree.INode;
-import org.talend.daikon.collections.tree.Node;
 
 public class MemoryNode<K extends Comparable<K>, T> implements INode<K, T> {
 
@@ -21,34 +20,26 @@ public class MemoryNode<K extends Comparable<K>, T> implements INode<K, T> {
 
     private final K key;
 
-    private T data = null;
-
     public MemoryNode(INode<K, T> delegate, int deep, int limit) {
         super();
         this.delegate = delegate;
         this.key = this.delegate.getKey();
-        if (delegate instanceof Node) {
-            final Node<K, T> deleg = (Node<K, T>) delegate;
-            final INode<K, T> delegateLeft = deleg.getChild(0);
-            final INode<K, T> delegateRight = deleg.getChild(1);
-            if (deep < limit) {
-                if (delegateLeft != null) {
-                    this.childs[0] = new MemoryNode<>(delegateLeft, deep + 1, limit);
-                } else {
-                    this.childs[0] = null;
-                }
-                if (delegateRight != null) {
-                    this.childs[1] = new MemoryNode<>(delegateRight, deep + 1, limit);
-                } else {
-                    this.childs[1] = null;
-                }
+        final INode<K, T> delegateLeft = delegate.getChild(0);
+        final INode<K, T> delegateRight = delegate.getChild(1);
+        if (deep < limit) {
+            if (delegateLeft != null) {
+                this.childs[0] = new MemoryNode<>(delegateLeft, deep + 1, limit);
+            } else {
+                this.childs[0] = null;
+            }
+            if (delegateRight != null) {
+                this.childs[1] = new MemoryNode<>(delegateRight, deep + 1, limit);
             } else {
-                this.childs[0] = delegateLeft;
-                this.childs[1] = delegateRight;
+                this.childs[1] = null;
             }
         } else {
-            this.childs[0] = null;
-            this.childs[1] = null;
+            this.childs[0] = delegateLeft;
+            this.childs[1] = delegateRight;
         }
     }
 
@@ -64,10 +55,8 @@ public class MemoryNode<K extends Comparable<K>, T> implements INode<K, T> {
 
     @Override
     public T getData() {
-        if (this.data == null) {
-            this.data = delegate.getData();
-        }
-        return this.data;
+        // not kept here, delegate reads it through its bounded cache if any.
+        return delegate.getData();
     }
 
     @Override
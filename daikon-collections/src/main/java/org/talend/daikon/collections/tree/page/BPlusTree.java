@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2006-2022 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+package org.talend.daikon.collections.tree.page;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.talend.daikon.collections.tree.INode;
+import org.talend.daikon.collections.tree.file.BufferSerializer;
+import org.talend.daikon.collections.tree.file.Serializer;
+
+/**
+ * Immutable sorted map stored on file in fixed size pages (B+Tree), built with {@link BPlusTreeBuilder}.
+ * Each page holds many keys, so a search reads about log_m(n) pages (m = number of keys per page),
+ * and leaves are chained so iteration on a key range reads pages sequentially.
+ * Pages are read with positional reads on file channel, so tree can be searched by several threads.
+ * If key serializer is binary comparable, search in pages compares serialized keys without deserializing them.
+ *
+ * @param <K> class for keys.
+ * @param <T> class for data.
+ */
+public class BPlusTree<K extends Comparable<K>, T> implements Closeable {
+
+    static final long MAGIC = 0x4250_5452_4545_0001L;
+
+    static final int FILE_HEADER_SIZE = Long.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES;
+
+    private final FileChannel channel;
+
+    private final int pageSize;
+
+    private final long root;
+
+    private final long size;
+
+    private final BufferSerializer<K> keySerializer;
+
+    private final BufferSerializer<T> dataSerializer;
+
+    private BPlusTree(final FileChannel channel, final BufferSerializer<K> keySerializer,
+            final BufferSerializer<T> dataSerializer) throws IOException {
+        this.channel = channel;
+        this.keySerializer = keySerializer;
+        this.dataSerializer = dataSerializer;
+
+        final ByteBuffer header = this.read(0L, FILE_HEADER_SIZE);
+        if (header.getLong() != MAGIC) {
+            throw new IOException("Not a B+Tree file");
+        }
+        this.pageSize = header.getInt();
+        this.root = header.getLong();
+        this.size = header.getLong();
+        this.checkHeader();
+    }
+
+    /**
+     * Check header against file, so that pages of a corrupted or truncated file are not read at wrong positions.
+     */
+    private void checkHeader() throws IOException {
+        if (!Page.isValidPageSize(this.pageSize)) {
+            throw new IOException("Invalid page size " + this.pageSize + " in tree file header");
+        }
+        final long length = this.channel.size();
+        final long pages = length / this.pageSize;
+        if (length % this.pageSize != 0L || pages < 2L) {
+            throw new IOException("Tree file length " + length + " does not match page size " + this.pageSize);
+        }
+        if (this.root < 1L || this.root >= pages || this.size < 0L) {
+            throw new IOException("Invalid tree file header (root page " + this.root + ", size " + this.size + ") for "
+                    + pages + " pages");
+        }
+    }
+
+    /**
+     * Open existing tree file.
+     *
+     * @param path : tree file.
+     * @param keySerializer : serializer for keys.
+     * @param dataSerializer : serializer for data.
+     * @return immutable tree.
+     */
+    public static <K extends Comparable<K>, T> BPlusTree<K, T> open(final Path path, final Serializer<K> keySerializer,
+            final Serializer<T> dataSerializer) {
+        return BPlusTree.open(path, BufferSerializer.of(keySerializer), BufferSerializer.of(dataSerializer));
+    }
+
+    /**
+     * Open existing tree file.
+     *
+     * @param path : tree file.
+     * @param keySerializer : serializer for keys.
+     * @param dataSerializer : serializer for data.
+     * @return immutable tree.
+     */
+    public static <K extends Comparable<K>, T> BPlusTree<K, T> open(final Path path,
+            final BufferSerializer<K> keySerializer, final BufferSerializer<T> dataSerializer) {
+        try {
+            final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                return new BPlusTree<>(channel, keySerializer, dataSerializer);
+            } catch (IOException | RuntimeException ex) {
+                channel.close();
+                throw ex;
+            }
+        } catch (IOException exIO) {
+            throw new UncheckedIOException("Can't open tree file " + path + " : " + exIO.getMessage(), exIO);
+        }
+    }
+
+    /**
+     * @return number of entries.
+     */
+    public long size() {
+        return size;
+    }
+
+    public INode<K, T> get(final K key) {
+        final PageEntry<K, T> entry = this.findFirst(key);
+        if (entry != null && entry.getKey().compareTo(key) == 0) {
+            return entry;
+        }
+        return null;
+    }
+
+    public BPlusTreeIterator.IteratorBuilder<K, T> iterator() {
+        return new BPlusTreeIterator.IteratorBuilder<>(this);
+    }
+
+    /**
+     * @param key : searched key (null for smallest).
+     * @return first entry with key >= searched key (null if none).
+     */
+    PageEntry<K, T> findFirst(final K key) {
+        final ByteBuffer searched;
+        if (key != null && this.keySerializer.isBinaryComparable()) {
+            searched = BufferSerializer.write(this.keySerializer, key, ByteBuffer.allocate(64));
+        } else {
+            searched = null;
+        }
+        Page page = this.readPage(this.root);
+        while (!page.isLeaf()) {
+            // child i contains keys from separator i (included) to separator i + 1.
+            final int num = key == null ? 0 : this.countLower(page, key, searched);
+            page = this.readPage(page.child(num));
+        }
+        final int index = key == null ? 0 : this.countLower(page, key, searched);
+        return this.entry(page, index);
+    }
+
+    /**
+     * @return entry at index of leaf page, go to next leaf if needed (null after last entry).
+     */
+    PageEntry<K, T> entry(Page page, int index) {
+        Page current = page;
+        int currentIndex = index;
+        while (currentIndex >= current.count()) {
+            final long next = current.link();
+            if (next < 0L) {
+                return null;
+            }
+            current = this.readPage(next);
+            currentIndex = 0;
+        }
+        return new PageEntry<>(this, current, currentIndex, this.keySerializer.deserialize(current.key(currentIndex)));
+    }
+
+    T readData(final Page page, final int index) {
+        return this.dataSerializer.deserialize(page.data(index));
+    }
+
+    /**
+     * binary search for number of keys of page strictly lower than key.
+     *
+     * @param searched : serialized key, null if keys are not binary comparable.
+     */
+    private int countLower(final Page page, final K key, final ByteBuffer searched) {
+        int low = 0;
+        int high = page.count();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final int comp;
+            if (searched != null) {
+                comp = this.keySerializer.compare(page.key(middle), searched);
+            } else {
+                comp = this.keySerializer.deserialize(page.key(middle)).compareTo(key);
+            }
+            if (comp < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private Page readPage(final long pageNo) {
+        try {
+            return new Page(pageNo, this.read(pageNo * this.pageSize, this.pageSize));
+        } catch (IOException exIO) {
+            throw new UncheckedIOException("Can't read page " + pageNo + " : " + exIO.getMessage(), exIO);
+        }
+    }
+
+    private ByteBuffer read(final long position, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of tree file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2006-2022 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+package org.talend.daikon.collections.tree.page;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.talend.daikon.collections.tree.file.BufferSerializer;
+import org.talend.daikon.collections.tree.file.Serializer;
+
+/**
+ * Build a {@link BPlusTree} file from entries sorted by key
+ * (use {@link org.talend.daikon.collections.tree.file.ExternalSorter} for unsorted input).
+ * Leaves are filled in key order and chained, each full page is written once, parent pages are filled
+ * as child pages are written.
+ *
+ * @param <K> class for keys.
+ * @param <T> class for data.
+ */
+public class BPlusTreeBuilder<K extends Comparable<K>, T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 8 * 1024;
+
+    private final Path path;
+
+    private final int pageSize;
+
+    private final BufferSerializer<K> keySerializer;
+
+    private final BufferSerializer<T> dataSerializer;
+
+    /** page being filled for each level (0 for leaves) */
+    private final List<PageWriter> levels = new ArrayList<>();
+
+    private long nextPage;
+
+    public BPlusTreeBuilder(final Path path, final Serializer<K> keySerializer, final Serializer<T> dataSerializer) {
+        this(path, DEFAULT_PAGE_SIZE, keySerializer, dataSerializer);
+    }
+
+    public BPlusTreeBuilder(final Path path, final int pageSize, final Serializer<K> keySerializer,
+            final Serializer<T> dataSerializer) {
+        this(path, pageSize, BufferSerializer.of(keySerializer), BufferSerializer.of(dataSerializer));
+    }
+
+    public BPlusTreeBuilder(final Path path, final int pageSize, final BufferSerializer<K> keySerializer,
+            final BufferSerializer<T> dataSerializer) {
+        Page.checkPageSize(pageSize);
+        this.path = path;
+        this.pageSize = pageSize;
+        this.keySerializer = keySerializer;
+        this.dataSerializer = dataSerializer;
+    }
+
+    /**
+     * Write tree file (existing file is replaced).
+     *
+     * @param sortedEntries : entries sorted by key.
+     * @return immutable tree opened on written file.
+     */
+    public BPlusTree<K, T> build(final Iterator<Map.Entry<K, T>> sortedEntries) {
+        try (final FileChannel channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            this.levels.clear();
+            this.nextPage = 1L; // page 0 is file header.
+
+            final PageWriter leaf = new PageWriter(this.pageSize);
+            leaf.start(Page.LEAF, this.nextPage++, -1L, null);
+            this.levels.add(leaf);
+
+            ByteBuffer key = ByteBuffer.allocate(256);
+            ByteBuffer data = ByteBuffer.allocate(1024);
+            long size = 0L;
+            K previousKey = null;
+            while (sortedEntries.hasNext()) {
+                final Map.Entry<K, T> entry = sortedEntries.next();
+                if (previousKey != null && previousKey.compareTo(entry.getKey()) > 0) {
+                    throw new IllegalArgumentException(
+                            "Entries are not sorted, key " + entry.getKey() + " comes after " + previousKey);
+                }
+                previousKey = entry.getKey();
+
+                key = BufferSerializer.write(this.keySerializer, entry.getKey(), key);
+                data = BufferSerializer.write(this.dataSerializer, entry.getValue(), data);
+                final int entrySize = Page.leafEntrySize(key.limit(), data.limit());
+                if (Page.HEADER_SIZE + entrySize > this.pageSize
+                        || Page.HEADER_SIZE + Page.internalEntrySize(key.limit()) > this.pageSize) {
+                    throw new IllegalArgumentException(
+                            "Entry for key " + entry.getKey() + " is too big for page size " + this.pageSize);
+                }
+                if (!leaf.fits(entrySize)) {
+                    final long nextLeaf = this.nextPage++;
+                    leaf.setLink(nextLeaf);
+                    this.flush(channel, 0);
+                    leaf.start(Page.LEAF, nextLeaf, -1L, null);
+                }
+                leaf.addLeaf(key, data);
+                size++;
+            }
+
+            // write last page of each level, top level only has root page.
+            long root = -1L;
+            for (int level = 0; root < 0L; level++) {
+                if (level == this.levels.size() - 1) {
+                    final PageWriter top = this.levels.get(level);
+                    top.write(channel);
+                    root = top.getPageNo();
+                } else {
+                    this.flush(channel, level);
+                }
+            }
+            this.writeHeader(channel, root, size);
+        } catch (IOException exIO) {
+            throw new UncheckedIOException("Can't write tree file : " + exIO.getMessage(), exIO);
+        }
+        return BPlusTree.open(this.path, this.keySerializer, this.dataSerializer);
+    }
+
+    /**
+     * Write current page of level and reference it in parent level.
+     */
+    private void flush(final FileChannel channel, final int level) throws IOException {
+        final PageWriter writer = this.levels.get(level);
+        writer.write(channel);
+
+        final int parentLevel = level + 1;
+        final byte[] firstKey = writer.getFirstKey();
+        if (parentLevel == this.levels.size()) {
+            final PageWriter parent = new PageWriter(this.pageSize);
+            parent.start(Page.INTERNAL, this.nextPage++, writer.getPageNo(), firstKey);
+            this.levels.add(parent);
+            return;
+        }
+        final PageWriter parent = this.levels.get(parentLevel);
+        if (!parent.fits(Page.internalEntrySize(firstKey.length))) {
+            this.flush(channel, parentLevel);
+            parent.start(Page.INTERNAL, this.nextPage++, writer.getPageNo(), firstKey);
+        } else {
+            parent.addInternal(writer.getPageNo(), firstKey);
+        }
+    }
+
+    private void writeHeader(final FileChannel channel, final long root, final long size) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(BPlusTree.FILE_HEADER_SIZE);
+        header.putLong(BPlusTree.MAGIC);
+        header.putInt(this.pageSize);
+        header.putLong(root);
+        header.putLong(size);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2006-2022 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+package org.talend.daikon.collections.tree.page;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.talend.daikon.collections.tree.INode;
+
+/**
+ * Iterate on B+Tree entries in key order, following chained leaves.
+ *
+ * @param <K> class for keys.
+ * @param <T> class for data.
+ */
+public class BPlusTreeIterator<K extends Comparable<K>, T> implements Iterator<INode<K, T>> {
+
+    private final K endKey;
+
+    private PageEntry<K, T> nextElement;
+
+    public BPlusTreeIterator(final BPlusTree<K, T> tree, final K startKey, final K endKey) {
+        this.endKey = endKey;
+        this.nextElement = this.checkEnd(tree.findFirst(startKey));
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.nextElement != null;
+    }
+
+    @Override
+    public INode<K, T> next() {
+        final PageEntry<K, T> next = this.nextElement;
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        this.nextElement = this.checkEnd(next.next());
+        return next;
+    }
+
+    private PageEntry<K, T> checkEnd(final PageEntry<K, T> entry) {
+        if (entry != null && this.endKey != null && this.endKey.compareTo(entry.getKey()) < 0) {
+            return null;
+        }
+        return entry;
+    }
+
+    public static class IteratorBuilder<K extends Comparable<K>, T> {
+
+        private final BPlusTree<K, T> tree;
+
+        private K startKey = null;
+
+        private K endKey = null;
+
+        IteratorBuilder(final BPlusTree<K, T> tree) {
+            this.tree = tree;
+        }
+
+        public BPlusTreeIterator<K, T> build() {
+            return new BPlusTreeIterator<>(this.tree, this.startKey, this.endKey);
+        }
+
+        public IteratorBuilder<K, T> startAt(K startKey) {
+            this.startKey = startKey;
+            return this;
+        }
+
+        public IteratorBuilder<K, T> endAt(K endKey) {
+            this.endKey = endKey;
+            return this;
+        }
+    }
+}
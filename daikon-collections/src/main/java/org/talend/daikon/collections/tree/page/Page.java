@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2006-2022 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+package org.talend.daikon.collections.tree.page;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed size page of B+Tree file (slotted page).
+ * Page starts with header (type, number of slots, link), entries are written after header
+ * and slots (offset of each entry) are written from the end of page.
+ * <ul>
+ * <li>Leaf page : link is next leaf page (-1 for last), entry is [key size][data size][key][data].</li>
+ * <li>Internal page : link is first child page, entry is [child page][key size][key], where key is the first key of
+ * child sub-tree.</li>
+ * </ul>
+ */
+class Page {
+
+    static final byte LEAF = 0;
+
+    static final byte INTERNAL = 1;
+
+    static final int HEADER_SIZE = Byte.BYTES + Integer.BYTES + Long.BYTES;
+
+    static final int SLOT_SIZE = Integer.BYTES;
+
+    static final int MIN_PAGE_SIZE = 4 * 1024;
+
+    static final int MAX_PAGE_SIZE = 64 * 1024;
+
+    private final long pageNo;
+
+    private final ByteBuffer buffer;
+
+    Page(final long pageNo, final ByteBuffer buffer) {
+        this.pageNo = pageNo;
+        this.buffer = buffer;
+    }
+
+    static int leafEntrySize(final int keySize, final int dataSize) {
+        return Integer.BYTES + Integer.BYTES + keySize + dataSize + SLOT_SIZE;
+    }
+
+    static int internalEntrySize(final int keySize) {
+        return Long.BYTES + Integer.BYTES + keySize + SLOT_SIZE;
+    }
+
+    static boolean isValidPageSize(final int pageSize) {
+        return pageSize >= MIN_PAGE_SIZE && pageSize <= MAX_PAGE_SIZE && Integer.bitCount(pageSize) == 1;
+    }
+
+    static void checkPageSize(final int pageSize) {
+        if (!isValidPageSize(pageSize)) {
+            throw new IllegalArgumentException(
+                    "Page size must be a power of 2 between " + MIN_PAGE_SIZE + " and " + MAX_PAGE_SIZE + " : " + pageSize);
+        }
+    }
+
+    long getPageNo() {
+        return pageNo;
+    }
+
+    boolean isLeaf() {
+        return this.buffer.get(0) == LEAF;
+    }
+
+    /**
+     * @return number of entries (for internal page, number of childs - 1).
+     */
+    int count() {
+        return this.buffer.getInt(Byte.BYTES);
+    }
+
+    long link() {
+        return this.buffer.getLong(Byte.BYTES + Integer.BYTES);
+    }
+
+    private int offset(final int index) {
+        return this.buffer.getInt(this.buffer.capacity() - SLOT_SIZE * (index + 1));
+    }
+
+    /**
+     * @return view on key bytes of entry (leaf or internal).
+     */
+    ByteBuffer key(final int index) {
+        final int offset = this.offset(index);
+        if (this.isLeaf()) {
+            return this.buffer.slice(offset + Integer.BYTES + Integer.BYTES, this.buffer.getInt(offset));
+        }
+        return this.buffer.slice(offset + Long.BYTES + Integer.BYTES, this.buffer.getInt(offset + Long.BYTES));
+    }
+
+    /**
+     * @return view on data bytes of leaf entry.
+     */
+    ByteBuffer data(final int index) {
+        final int offset = this.offset(index);
+        final int keySize = this.buffer.getInt(offset);
+        return this.buffer.slice(offset + Integer.BYTES + Integer.BYTES + keySize, this.buffer.getInt(offset + Integer.BYTES));
+    }
+
+    /**
+     * @param num : child number (0 to count).
+     * @return page number of child of internal page.
+     */
+    long child(final int num) {
+        if (num == 0) {
+            return this.link();
+        }
+        return this.buffer.getLong(this.offset(num - 1));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2006-2022 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+package org.talend.daikon.collections.tree.page;
+
+import org.talend.daikon.collections.tree.INode;
+
+/**
+ * Entry of a {@link BPlusTree} leaf page.
+ * Data is deserialized only when asked.
+ *
+ * @param <K> class for keys.
+ * @param <T> class for data.
+ */
+public class PageEntry<K extends Comparable<K>, T> implements INode<K, T> {
+
+    private final BPlusTree<K, T> tree;
+
+    private final Page page;
+
+    private final int index;
+
+    private final K key;
+
+    PageEntry(final BPlusTree<K, T> tree, final Page page, final int index, final K key) {
+        this.tree = tree;
+        this.page = page;
+        this.index = index;
+        this.key = key;
+    }
+
+    @Override
+    public K getKey() {
+        return this.key;
+    }
+
+    @Override
+    public T getData() {
+        return this.tree.readData(this.page, this.index);
+    }
+
+    /**
+     * Search key in whole tree.
+     */
+    @Override
+    public INode<K, T> get(final K key) {
+        return this.tree.get(key);
+    }
+
+    /**
+     * Entries of leaf pages have no child.
+     */
+    @Override
+    public INode<K, T> getChild(int num) {
+        return null;
+    }
+
+    /**
+     * @return next entry in key order (null for last).
+     */
+    PageEntry<K, T> next() {
+        return this.tree.entry(this.page, this.index + 1);
+    }
+}
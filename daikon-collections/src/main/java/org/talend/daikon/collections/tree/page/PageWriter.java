@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2006-2022 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+package org.talend.daikon.collections.tree.page;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Fill a page (see {@link Page} for layout) before writing it.
+ */
+class PageWriter {
+
+    private final ByteBuffer buffer;
+
+    private long pageNo;
+
+    /** first key of sub-tree of this page */
+    private byte[] firstKey;
+
+    private int count;
+
+    /** end of entries */
+    private int used;
+
+    PageWriter(final int pageSize) {
+        this.buffer = ByteBuffer.allocate(pageSize);
+    }
+
+    void start(final byte type, final long pageNo, final long link, final byte[] firstKey) {
+        this.pageNo = pageNo;
+        this.firstKey = firstKey;
+        this.count = 0;
+        this.used = Page.HEADER_SIZE;
+        this.buffer.clear();
+        this.buffer.put(0, type);
+        this.setLink(link);
+    }
+
+    long getPageNo() {
+        return pageNo;
+    }
+
+    byte[] getFirstKey() {
+        return firstKey;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    void setLink(final long link) {
+        this.buffer.putLong(Byte.BYTES + Integer.BYTES, link);
+    }
+
+    /**
+     * @param entrySize : entry size, slot included.
+     * @return true if entry can be added in this page.
+     */
+    boolean fits(final int entrySize) {
+        return this.used + entrySize + this.count * Page.SLOT_SIZE <= this.buffer.capacity();
+    }
+
+    /**
+     * @param key : serialized key (between 0 and limit).
+     * @param data : serialized data (between 0 and limit).
+     */
+    void addLeaf(final ByteBuffer key, final ByteBuffer data) {
+        if (this.count == 0) {
+            this.firstKey = new byte[key.limit()];
+            key.get(0, this.firstKey);
+        }
+        final int offset = this.newSlot();
+        this.buffer.putInt(offset, key.limit());
+        this.buffer.putInt(offset + Integer.BYTES, data.limit());
+        this.buffer.put(offset + Integer.BYTES + Integer.BYTES, key, 0, key.limit());
+        this.buffer.put(offset + Integer.BYTES + Integer.BYTES + key.limit(), data, 0, data.limit());
+        this.used += Page.leafEntrySize(key.limit(), data.limit()) - Page.SLOT_SIZE;
+    }
+
+    void addInternal(final long child, final byte[] key) {
+        final int offset = this.newSlot();
+        this.buffer.putLong(offset, child);
+        this.buffer.putInt(offset + Long.BYTES, key.length);
+        this.buffer.put(offset + Long.BYTES + Integer.BYTES, key);
+        this.used += Page.internalEntrySize(key.length) - Page.SLOT_SIZE;
+    }
+
+    private int newSlot() {
+        final int offset = this.used;
+        this.buffer.putInt(this.buffer.capacity() - Page.SLOT_SIZE * (this.count + 1), offset);
+        this.count++;
+        return offset;
+    }
+
+    void write(final FileChannel channel) throws IOException {
+        this.buffer.putInt(Byte.BYTES, this.count);
+        this.buffer.clear();
+        final long position = this.pageNo * this.buffer.capacity();
+        while (this.buffer.hasRemaining()) {
+            channel.write(this.buffer, position + this.buffer.position());
+        }
+    }
+}
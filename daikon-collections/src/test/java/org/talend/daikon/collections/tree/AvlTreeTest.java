@@ -4,10 +4,24 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.net.URL;
+import java.util.Iterator;
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.talend.daikon.collections.tree.file.BufferSerializer;
 import org.talend.daikon.collections.tree.file.BuilderFile;
+import org.talend.daikon.collections.tree.file.ExternalSorter;
+import org.talend.daikon.collections.tree.file.MappedNodeFile;
+import org.talend.daikon.collections.tree.file.NodeCache;
 import org.talend.daikon.collections.tree.file.NodeFile;
 import org.talend.daikon.collections.tree.memory.BuilderMemo;
 
@@ -92,4 +106,216 @@ class AvlTreeTest {
         Assertions.assertEquals("Node 702", node702_Read.getData());
     }
 
+    @Test
+    void mappedFileTest() throws Exception {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), "FileMapped.txt");
+        if (fic.exists()) {
+            fic.delete();
+        }
+        fic.createNewFile();
+        try (final RandomAccessFile rf = new RandomAccessFile(fic, "rw")) {
+            final NodeFile<Integer, String> nodeFile = new NodeFile<>(rf, new SerializerInteger(), new SerializerString());
+            final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+            for (int i = 1; i <= 2000; i++) {
+                final int iCopy = i;
+                treeBuilder.insertNode(Integer.valueOf(i), () -> "Node " + iCopy);
+            }
+        }
+
+        try (final MappedNodeFile<Integer, String> mappedFile = new MappedNodeFile<>(fic.toPath(), new SerializerInteger(),
+                new SerializerString())) {
+            final AvlTree<Integer, String> tree = mappedFile.build(3);
+            Assertions.assertNull(tree.get(2700));
+
+            // concurrent lookups on same tree.
+            final ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                final List<Callable<Boolean>> searches = IntStream.range(0, 8).mapToObj((int t) -> (Callable<Boolean>) () -> {
+                    for (int i = 1; i <= 2000; i++) {
+                        final INode<Integer, String> node = tree.get(i);
+                        if (node == null || !("Node " + i).equals(node.getData())) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }).collect(Collectors.toList());
+                for (Future<Boolean> result : executor.invokeAll(searches)) {
+                    Assertions.assertTrue(result.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            final Iterator<INode<Integer, String>> iterator = tree.iterator().startAt(100).endAt(199).build();
+            int nbe = 0;
+            while (iterator.hasNext()) {
+                Assertions.assertEquals(100 + nbe, iterator.next().getKey());
+                nbe++;
+            }
+            Assertions.assertEquals(100, nbe);
+        }
+    }
+
+    @Test
+    void bulkMemoryTest() {
+        for (int size = 0; size <= 130; size++) {
+            final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(new BuilderMemo<Integer, String>());
+            final Iterator<Map.Entry<Integer, String>> entries = IntStream.range(0, size)
+                    .mapToObj((int i) -> (Map.Entry<Integer, String>) new AbstractMap.SimpleImmutableEntry<>(i, "Node " + i))
+                    .iterator();
+            final AvlTree<Integer, String> tree = treeBuilder.build(entries);
+            treeBuilder.check();
+            if (size == 0) {
+                Assertions.assertNull(tree);
+            }
+            for (int i = 0; i < size; i++) {
+                Assertions.assertEquals("Node " + i, tree.get(i).getData());
+            }
+        }
+
+        final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(new BuilderMemo<Integer, String>());
+        final Iterator<Map.Entry<Integer, String>> unsorted = List
+                .<Map.Entry<Integer, String>> of(new AbstractMap.SimpleImmutableEntry<>(2, "2"),
+                        new AbstractMap.SimpleImmutableEntry<>(1, "1"))
+                .iterator();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> treeBuilder.build(unsorted));
+    }
+
+    @Test
+    void bulkFileTest() throws IOException {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), "FileBulk.txt");
+        if (fic.exists()) {
+            fic.delete();
+        }
+        fic.createNewFile();
+        final RandomAccessFile rf = new RandomAccessFile(fic, "rw");
+        final NodeFile<Integer, String> nodeFile = new NodeFile<>(rf, new SerializerInteger(), new SerializerString());
+        final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+
+        try (final ExternalSorter<Integer, String> sorter = new ExternalSorter<>(new SerializerInteger(), new SerializerString(),
+                100, fic.getParentFile().toPath())) {
+            for (int i = 0; i < 1500; i++) {
+                final int key = (i * 7919) % 1500; // all keys, unsorted.
+                sorter.add(key, "Node " + key);
+            }
+            final AvlTree<Integer, String> tree = treeBuilder.build(sorter.sorted(), 3);
+            treeBuilder.check();
+            for (int i = 0; i < 1500; i++) {
+                Assertions.assertEquals("Node " + i, tree.get(i).getData());
+            }
+            Assertions.assertNull(tree.get(1500));
+        }
+
+        // check reading existing file
+        final NodeFile<Integer, String> nodeFile2 = new NodeFile<>(new RandomAccessFile(fic, "rw"), new SerializerInteger(),
+                new SerializerString());
+        final AvlTree<Integer, String> tree2 = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile2)).build();
+        Assertions.assertEquals("Node 702", tree2.get(702).getData());
+    }
+
+    @Test
+    void cacheTest() throws IOException {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), "FileCache.txt");
+        if (fic.exists()) {
+            fic.delete();
+        }
+        fic.createNewFile();
+        final NodeCache<Integer, String> cache = new NodeCache<>(16 * 1024);
+        final NodeFile<Integer, String> nodeFile = new NodeFile<>(new RandomAccessFile(fic, "rw"), new SerializerInteger(),
+                new SerializerString(), cache);
+        final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+        for (int i = 1; i <= 3000; i++) {
+            final int iCopy = i;
+            treeBuilder.insertNode(Integer.valueOf(i), () -> "Node " + iCopy);
+        }
+        treeBuilder.check();
+        final AvlTree<Integer, String> tree = treeBuilder.build(2);
+        for (int round = 0; round < 2; round++) {
+            for (int i = 1; i <= 3000; i++) {
+                Assertions.assertEquals("Node " + i, tree.get(i).getData());
+            }
+        }
+        Assertions.assertNull(tree.get(3001));
+
+        Assertions.assertTrue(cache.getHits() > 0L);
+        Assertions.assertTrue(cache.getMisses() > 0L);
+        Assertions.assertTrue(cache.getEvictions() > 0L);
+        Assertions.assertTrue(cache.getUsedBytes() <= cache.getMaxBytes());
+        Assertions.assertEquals(1024L * 1024L, NodeCache.ofMegaBytes(1).getMaxBytes());
+    }
+
+    @Test
+    void cacheEmptyDataTest() throws IOException {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), "FileCacheEmpty.txt");
+        if (fic.exists()) {
+            fic.delete();
+        }
+        fic.createNewFile();
+        final NodeCache<Integer, String> cache = new NodeCache<>(1024 * 1024);
+        final NodeFile<Integer, String> nodeFile = new NodeFile<>(new RandomAccessFile(fic, "rw"), new SerializerInteger(),
+                new SerializerString(), cache);
+        final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+        for (int i = 1; i <= 100; i++) {
+            treeBuilder.insertNode(Integer.valueOf(i), () -> "");
+        }
+        final AvlTree<Integer, String> tree = treeBuilder.build(2);
+        for (int i = 1; i <= 100; i++) {
+            Assertions.assertEquals("", tree.get(i).getData());
+        }
+        final long misses = cache.getMisses();
+        for (int i = 1; i <= 100; i++) {
+            Assertions.assertEquals("", tree.get(i).getData());
+        }
+
+        // empty data and next node share their position, but are cached apart.
+        Assertions.assertEquals(misses, cache.getMisses());
+        Assertions.assertEquals(0L, cache.getEvictions());
+        // all data, and all nodes but root.
+        Assertions.assertTrue(cache.getSize() >= 2 * 100 - 1);
+    }
+
+    @Test
+    void bufferedFileTest() throws IOException {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), "FileBuffered.txt");
+        if (fic.exists()) {
+            fic.delete();
+        }
+        fic.createNewFile();
+        try (final RandomAccessFile rf = new RandomAccessFile(fic, "rw")) {
+            // small buffer, to also go through intermediate flushes.
+            final NodeFile<Integer, String> nodeFile = new NodeFile<>(rf, BufferSerializer.of(new SerializerInteger()),
+                    BufferSerializer.of(new SerializerString()), null, 4096);
+            final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+            for (int i = 3000; i >= 1; i--) {
+                final int iCopy = i;
+                treeBuilder.insertNode(Integer.valueOf(i), () -> "Node " + iCopy);
+            }
+            treeBuilder.check();
+            final AvlTree<Integer, String> tree = treeBuilder.build(2);
+            for (int i = 1; i <= 3000; i++) {
+                Assertions.assertEquals("Node " + i, tree.get(i).getData());
+            }
+        }
+
+        // file is complete once tree is built.
+        try (final RandomAccessFile rf = new RandomAccessFile(fic, "r")) {
+            final NodeFile<Integer, String> nodeFile = new NodeFile<>(rf, new SerializerInteger(), new SerializerString());
+            final AvlTree<Integer, String> tree = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile)).build();
+            for (int i = 1; i <= 3000; i++) {
+                Assertions.assertEquals("Node " + i, tree.get(i).getData());
+            }
+        }
+        try (final MappedNodeFile<Integer, String> mappedFile = new MappedNodeFile<>(fic.toPath(), new SerializerInteger(),
+                new SerializerString())) {
+            final AvlTree<Integer, String> tree = mappedFile.build();
+            Assertions.assertEquals("Node 1234", tree.get(1234).getData());
+            Assertions.assertNull(tree.get(3001));
+        }
+    }
+
 }
@@ -0,0 +1,156 @@
+package org.talend.daikon.collections.tree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.collections.tree.page.BPlusTree;
+import org.talend.daikon.collections.tree.page.BPlusTreeBuilder;
+
+class BPlusTreeTest {
+
+    @Test
+    void pageTree() throws IOException {
+        final File fic = this.newFile("BPlusTree.bin");
+        final BPlusTreeBuilder<Integer, String> builder = new BPlusTreeBuilder<>(fic.toPath(), 4096, new SerializerInteger(),
+                new SerializerString());
+
+        // even keys from 0 to 199 998 (3 levels with pages of 4Ko).
+        final Iterator<Map.Entry<Integer, String>> entries = IntStream.range(0, 100_000)
+                .mapToObj((int i) -> (Map.Entry<Integer, String>) new AbstractMap.SimpleImmutableEntry<>(i * 2, "Node " + i * 2))
+                .iterator();
+        try (final BPlusTree<Integer, String> tree = builder.build(entries)) {
+            Assertions.assertEquals(100_000L, tree.size());
+            for (int i = 0; i < 200_000; i++) {
+                final INode<Integer, String> node = tree.get(i);
+                if (i % 2 == 0) {
+                    Assertions.assertNotNull(node);
+                    Assertions.assertEquals(i, node.getKey());
+                    Assertions.assertEquals("Node " + i, node.getData());
+                } else {
+                    Assertions.assertNull(node);
+                }
+            }
+            Assertions.assertNull(tree.get(-1));
+            Assertions.assertNull(tree.get(200_000));
+
+            this.checkIterator(tree.iterator().build(), 0, 199_998, 100_000);
+            this.checkIterator(tree.iterator().startAt(1001).endAt(3000).build(), 1002, 3000, 1000);
+            this.checkIterator(tree.iterator().startAt(150_000).build(), 150_000, 199_998, 25_000);
+            this.checkIterator(tree.iterator().endAt(-5).build(), 0, 0, 0);
+        }
+
+        // re-open file.
+        try (final BPlusTree<Integer, String> tree = BPlusTree.open(fic.toPath(), new SerializerInteger(), new SerializerString())) {
+            Assertions.assertEquals("Node 702", tree.get(702).getData());
+        }
+    }
+
+    @Test
+    void emptyAndDuplicates() throws IOException {
+        final File fic = this.newFile("BPlusTreeDup.bin");
+        final BPlusTreeBuilder<Integer, String> builder = new BPlusTreeBuilder<>(fic.toPath(), new SerializerInteger(),
+                new SerializerString());
+        try (final BPlusTree<Integer, String> tree = builder.build(Collections.emptyIterator())) {
+            Assertions.assertEquals(0L, tree.size());
+            Assertions.assertNull(tree.get(1));
+            Assertions.assertFalse(tree.iterator().build().hasNext());
+        }
+
+        // same key on several pages.
+        final Iterator<Map.Entry<Integer, String>> entries = IntStream.range(0, 5000)
+                .mapToObj((int i) -> (Map.Entry<Integer, String>) new AbstractMap.SimpleImmutableEntry<>(i / 1000, "V" + i))
+                .iterator();
+        try (final BPlusTree<Integer, String> tree = builder.build(entries)) {
+            Assertions.assertEquals("V2000", tree.get(2).getData());
+            this.checkIterator(tree.iterator().startAt(2).endAt(2).build(), 2, 2, 1000);
+        }
+
+        final Iterator<Map.Entry<Integer, String>> unsorted = List
+                .<Map.Entry<Integer, String>> of(new AbstractMap.SimpleImmutableEntry<>(2, "2"),
+                        new AbstractMap.SimpleImmutableEntry<>(1, "1"))
+                .iterator();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.build(unsorted));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new BPlusTreeBuilder<>(fic.toPath(), 1000, new SerializerInteger(), new SerializerString()));
+    }
+
+    @Test
+    void corruptedFile() throws IOException {
+        final File fic = this.newFile("BPlusTreeCorrupted.bin");
+        final BPlusTreeBuilder<Integer, String> builder = new BPlusTreeBuilder<>(fic.toPath(), 4096, new SerializerInteger(),
+                new SerializerString());
+        final Iterator<Map.Entry<Integer, String>> entries = IntStream.range(0, 1000)
+                .mapToObj((int i) -> (Map.Entry<Integer, String>) new AbstractMap.SimpleImmutableEntry<>(i, "Node " + i))
+                .iterator();
+        builder.build(entries).close();
+        final byte[] content = Files.readAllBytes(fic.toPath());
+
+        // magic number, page size, root page.
+        this.checkCorrupted(fic, content, 0, 0L);
+        this.checkCorrupted(fic, content, Long.BYTES, 1000);
+        this.checkCorrupted(fic, content, Long.BYTES, 65536);
+        this.checkCorrupted(fic, content, Long.BYTES + Integer.BYTES, (long) content.length / 4096);
+        this.checkCorrupted(fic, content, Long.BYTES + Integer.BYTES, 0L);
+
+        // truncated.
+        Files.write(fic.toPath(), Arrays.copyOf(content, content.length - 100));
+        Assertions.assertThrows(UncheckedIOException.class,
+                () -> BPlusTree.open(fic.toPath(), new SerializerInteger(), new SerializerString()));
+    }
+
+    private void checkCorrupted(final File fic, final byte[] content, final int position, final Number value)
+            throws IOException {
+        final ByteBuffer corrupted = ByteBuffer.wrap(content.clone());
+        if (value instanceof Integer) {
+            corrupted.putInt(position, value.intValue());
+        } else {
+            corrupted.putLong(position, value.longValue());
+        }
+        Files.write(fic.toPath(), corrupted.array());
+        Assertions.assertThrows(UncheckedIOException.class,
+                () -> BPlusTree.open(fic.toPath(), new SerializerInteger(), new SerializerString()));
+    }
+
+    private void checkIterator(Iterator<INode<Integer, String>> iterator, int min, int max, int nbeElement) {
+        int nbe = 0;
+        INode<Integer, String> next = null;
+        Integer oldKey = null;
+        while (iterator.hasNext()) {
+            next = iterator.next();
+            if (oldKey != null) {
+                Assertions.assertTrue(oldKey <= next.getKey());
+            }
+            if (nbe == 0) {
+                Assertions.assertEquals(min, next.getKey());
+            }
+            oldKey = next.getKey();
+            nbe++;
+        }
+        Assertions.assertEquals(nbeElement, nbe);
+        if (nbe > 0) {
+            Assertions.assertEquals(max, next.getKey());
+        }
+    }
+
+    private File newFile(String name) {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), name);
+        if (fic.exists()) {
+            fic.delete();
+        }
+        return fic;
+    }
+}
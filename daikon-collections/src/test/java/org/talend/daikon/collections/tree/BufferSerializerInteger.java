@@ -0,0 +1,26 @@
+package org.talend.daikon.collections.tree;
+
+import java.nio.ByteBuffer;
+
+import org.talend.daikon.collections.tree.file.BufferSerializer;
+
+/**
+ * Integer with sign bit flipped, so unsigned byte order is integer order.
+ */
+class BufferSerializerInteger implements BufferSerializer<Integer> {
+
+    @Override
+    public void serialize(final Integer value, final ByteBuffer target) {
+        target.putInt(value.intValue() ^ Integer.MIN_VALUE);
+    }
+
+    @Override
+    public Integer deserialize(final ByteBuffer source) {
+        return source.getInt(source.position()) ^ Integer.MIN_VALUE;
+    }
+
+    @Override
+    public boolean isBinaryComparable() {
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+package org.talend.daikon.collections.tree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.collections.tree.file.BufferSerializer;
+import org.talend.daikon.collections.tree.file.BuilderFile;
+import org.talend.daikon.collections.tree.file.MappedNodeFile;
+import org.talend.daikon.collections.tree.file.NodeFile;
+import org.talend.daikon.collections.tree.page.BPlusTree;
+import org.talend.daikon.collections.tree.page.BPlusTreeBuilder;
+
+class BufferSerializerTest {
+
+    private final BufferSerializer<Integer> keySerializer = new BufferSerializerInteger();
+
+    private final BufferSerializer<String> dataSerializer = BufferSerializer.of(new SerializerString());
+
+    @Test
+    void compare() {
+        Assertions.assertEquals(0, this.keySerializer.compare(this.serialize(12), this.serialize(12)));
+        Assertions.assertTrue(this.keySerializer.compare(this.serialize(-5), this.serialize(3)) < 0);
+        Assertions.assertTrue(this.keySerializer.compare(this.serialize(300), this.serialize(255)) > 0);
+        Assertions.assertTrue(this.keySerializer.compare(ByteBuffer.wrap(new byte[] { 1 }), ByteBuffer.wrap(new byte[] { 1, 0 })) < 0);
+
+        // buffer grows for big data.
+        final String big = "x".repeat(5000);
+        final ByteBuffer buffer = BufferSerializer.write(this.dataSerializer, big, ByteBuffer.allocate(10));
+        Assertions.assertEquals(5000, buffer.limit());
+        Assertions.assertEquals(big, this.dataSerializer.deserialize(buffer));
+    }
+
+    @Test
+    void mappedFile() throws IOException {
+        final File fic = this.newFile("FileBuffer.txt");
+        try (final RandomAccessFile rf = new RandomAccessFile(fic, "rw")) {
+            final NodeFile<Integer, String> nodeFile = new NodeFile<>(rf, this.keySerializer, this.dataSerializer, null);
+            final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+            for (int i = -1000; i <= 1000; i++) {
+                final int iCopy = i;
+                treeBuilder.insertNode(Integer.valueOf(i), () -> "Node " + iCopy);
+            }
+        }
+        try (final MappedNodeFile<Integer, String> mappedFile = new MappedNodeFile<>(fic.toPath(), this.keySerializer,
+                this.dataSerializer)) {
+            final AvlTree<Integer, String> tree = mappedFile.build(2);
+            for (int i = -1000; i <= 1000; i++) {
+                Assertions.assertEquals("Node " + i, tree.get(i).getData());
+            }
+            Assertions.assertNull(tree.get(1001));
+            Assertions.assertNull(tree.get(-1001));
+        }
+    }
+
+    @Test
+    void pageTree() throws IOException {
+        final File fic = this.newFile("BPlusTreeBuffer.bin");
+        final BPlusTreeBuilder<Integer, String> builder = new BPlusTreeBuilder<>(fic.toPath(), 4096, this.keySerializer,
+                this.dataSerializer);
+        final Iterator<Map.Entry<Integer, String>> entries = IntStream.range(-20_000, 20_000)
+                .mapToObj((int i) -> (Map.Entry<Integer, String>) new AbstractMap.SimpleImmutableEntry<>(i * 3, "Node " + i * 3))
+                .iterator();
+        try (final BPlusTree<Integer, String> tree = builder.build(entries)) {
+            for (int i = -60_000; i < 60_000; i++) {
+                final INode<Integer, String> node = tree.get(i);
+                if (i % 3 == 0) {
+                    Assertions.assertEquals("Node " + i, node.getData());
+                } else {
+                    Assertions.assertNull(node);
+                }
+            }
+            final Iterator<INode<Integer, String>> iterator = tree.iterator().startAt(-7).endAt(7).build();
+            for (int expected = -6; expected <= 6; expected += 3) {
+                Assertions.assertEquals(expected, iterator.next().getKey());
+            }
+            Assertions.assertFalse(iterator.hasNext());
+        }
+    }
+
+    private ByteBuffer serialize(int value) {
+        return BufferSerializer.write(this.keySerializer, value, ByteBuffer.allocate(8));
+    }
+
+    private File newFile(String name) {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), name);
+        if (fic.exists()) {
+            fic.delete();
+        }
+        return fic;
+    }
+}
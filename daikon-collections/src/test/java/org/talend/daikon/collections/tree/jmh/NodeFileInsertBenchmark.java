@@ -0,0 +1,121 @@
+package org.talend.daikon.collections.tree.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.daikon.collections.tree.AvlTree;
+import org.talend.daikon.collections.tree.AvlTreeBuilder;
+import org.talend.daikon.collections.tree.file.BufferSerializer;
+import org.talend.daikon.collections.tree.file.BuilderFile;
+import org.talend.daikon.collections.tree.file.NodeFile;
+
+/**
+ * Insert throughput of file tree, unbuffered (writeBufferSize = 0) vs buffered writes.
+ * Both use current {@link NodeFile} (positional channel writes and reusable buffers): unbuffered is not the
+ * implementation before write buffer, results do not compare with it.
+ * Run with main method (not part of unit tests).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(NodeFileInsertBenchmark.NB_KEYS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NodeFileInsertBenchmark {
+
+    static final int NB_KEYS = 20_000;
+
+    /** 0 for unbuffered writes */
+    @Param({ "0", "65536", "1048576" })
+    private int writeBufferSize;
+
+    private int[] keys;
+
+    private File fic;
+
+    private RandomAccessFile file;
+
+    @Setup(Level.Trial)
+    public void keys() {
+        final Random random = new Random(42L);
+        this.keys = random.ints(NB_KEYS).toArray();
+    }
+
+    @Setup(Level.Invocation)
+    public void open() throws IOException {
+        this.fic = File.createTempFile("nodeFileBench", ".tree");
+        this.file = new RandomAccessFile(this.fic, "rw");
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() throws IOException {
+        this.file.close();
+        this.fic.delete();
+    }
+
+    @Benchmark
+    public AvlTree<Integer, String> insert() {
+        final NodeFile<Integer, String> nodeFile = new NodeFile<>(this.file, new IntSerializer(), new StringSerializer(),
+                null, this.writeBufferSize);
+        final AvlTreeBuilder<Integer, String> builder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+        for (int key : this.keys) {
+            builder.insertNode(key, () -> "Node " + key);
+        }
+        return builder.build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NodeFileInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    static class IntSerializer implements BufferSerializer<Integer> {
+
+        @Override
+        public void serialize(final Integer object, final ByteBuffer target) {
+            target.putInt(object);
+        }
+
+        @Override
+        public Integer deserialize(final ByteBuffer source) {
+            return source.getInt(source.position());
+        }
+    }
+
+    static class StringSerializer implements BufferSerializer<String> {
+
+        @Override
+        public void serialize(final String object, final ByteBuffer target) {
+            target.put(object.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String deserialize(final ByteBuffer source) {
+            final byte[] bytes = new byte[source.remaining()];
+            source.get(source.position(), bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
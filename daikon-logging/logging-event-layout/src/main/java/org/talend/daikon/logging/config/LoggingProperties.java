@@ -3,7 +3,6 @@ package org.talend.daikon.logging.config;
 import java.io.IOException;
 import java.util.Properties;
 
-import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -11,8 +10,6 @@ import org.slf4j.LoggerFactory;
  */
 public class LoggingProperties {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(LoggingProperties.class);
-
     private static final String CONFIG_PROPERTIES_FILE = "logging.properties";
 
     private static final LoggingProperties INSTANCE = new LoggingProperties();
@@ -24,7 +21,8 @@ public class LoggingProperties {
         try {
             properties.load(getClass().getClassLoader().getResourceAsStream(CONFIG_PROPERTIES_FILE));
         } catch (IOException e) {
-            LOGGER.error("Config properties file can't be read", e);
+            // logger is not initialized before: logging configuration may use layouts reading these properties
+            LoggerFactory.getLogger(LoggingProperties.class).error("Config properties file can't be read", e);
         }
     }
 
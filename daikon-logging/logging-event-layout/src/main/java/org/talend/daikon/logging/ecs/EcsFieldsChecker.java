@@ -35,11 +35,14 @@ public class EcsFieldsChecker {
         // * Given field start with labels field name
         // * Given field without labels prefix is not empty
         // * Given field without labels prefix doesn't contain another object
-        return LABELS_FIELDS.stream().anyMatch( //
-                f -> field.startsWith(f + ".") && //
-                        !field.substring(f.length() + 1).isEmpty() && //
-                        !field.substring(f.length() + 1).contains(".") //
-        );
+        for (String f : LABELS_FIELDS) {
+            final int labelStart = f.length() + 1;
+            if (field.length() > labelStart && field.startsWith(f) && field.charAt(f.length()) == '.'
+                    && field.indexOf('.', labelStart) < 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
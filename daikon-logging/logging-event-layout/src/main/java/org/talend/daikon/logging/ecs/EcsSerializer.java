@@ -1,7 +1,6 @@
 package org.talend.daikon.logging.ecs;
 
 import java.time.Instant;
-import java.util.AbstractMap;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -25,7 +24,9 @@ public class EcsSerializer {
 
     private static final String ECS_VERSION = LoggingProperties.get("ecs.version");
 
-    private static final String LEGACY_MDC_PREFIX = "customInfo.";
+    private static final JsonFragment ECS_VERSION_FIELD = JsonFragment.of(EcsSerializer::serializeEcsVersion);
+
+    static final String LEGACY_MDC_PREFIX = "customInfo.";
 
     /**
      * Serialize the additional fields (mapped and filtered)
@@ -64,32 +65,66 @@ public class EcsSerializer {
         if (null == builder || null == mdcPropertyMap || mdcPropertyMap.isEmpty()) {
             return;
         }
+        for (Map.Entry<String, String> mdcEntry : mdcPropertyMap.entrySet()) {
+            serializeMDCEntry(builder, mdcEntry.getKey(), mdcEntry.getValue(), metaFields, legacyMode);
+        }
+    }
 
-        final Map<String, String> filteredMdc = mdcPropertyMap.entrySet().stream()
-                // Map additional field keys with corresponding ECS field
-                .map(mdcEntry -> new AbstractMap.SimpleEntry<>(MdcEcsMapper.map(mdcEntry.getKey()), mdcEntry.getValue()))
-                // Filter out non ECS fields
-                .filter(mdcEntry -> legacyMode || EcsFieldsChecker.isECSField(mdcEntry.getKey()))
-                .map(mdcEntry -> new AbstractMap.SimpleEntry<>(
-                        metaFields.getOrDefault(mdcEntry.getKey(), (legacyMode ? LEGACY_MDC_PREFIX : "") + mdcEntry.getKey()),
-                        mdcEntry.getValue()))
-                .filter(entry -> entry.getValue() != null).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-        final List<String> mdcNumericFields = filteredMdc.keySet().stream().filter(EcsFields::isNumber)
-                .collect(Collectors.toList());
-
-        // serialize numeric values
-        if (!mdcNumericFields.isEmpty() && !filteredMdc.isEmpty()) {
-            mdcNumericFields.stream().map(MdcEcsMapper::map)
-                    .map(mappedFieldName -> new AbstractMap.SimpleEntry<>(mappedFieldName, filteredMdc.get(mappedFieldName)))
-                    .peek(entry -> filteredMdc.remove(entry.getKey()))
-                    .filter(entry -> entry.getValue() != null && !entry.getValue().isEmpty())
-                    .filter(entry -> NumberUtils.isParsable(entry.getValue()))
-                    .forEach(e -> builder.append("\"").append(e.getKey()).append("\":").append(e.getValue()).append(","));
+    /**
+     * Serialize a MDC entry (mapped and filtered) with numeric fields formatted as numbers
+     *
+     * @param builder the builder to serialize in
+     * @param key the MDC key
+     * @param value the MDC value, skipped if null
+     * @see #serializeMDC(StringBuilder, Map)
+     */
+    public static void serializeMDCEntry(final StringBuilder builder, final String key, final Object value) {
+        serializeMDCEntry(builder, key, value, Collections.emptyMap(), false);
+    }
+
+    /**
+     * Serialize a MDC entry (mapped and filtered), without intermediate collections so that layouts can serialize the
+     * MDC while iterating it
+     *
+     * @param builder the builder to serialize in
+     * @param key the MDC key
+     * @param value the MDC value, skipped if null
+     * @param metaFields field names of (mapped) MDC keys
+     * @param legacyMode if true it will allow non-ECS fields + it will add a prefix to non-standard MDC values
+     * @see #serializeMDC(StringBuilder, Map, Map, boolean)
+     */
+    public static void serializeMDCEntry(final StringBuilder builder, final String key, final Object value,
+            final Map<String, String> metaFields, final boolean legacyMode) {
+        if (value == null) {
+            return;
+        }
+        // Map MDC key with corresponding ECS field, and filter out non ECS fields
+        final MdcKeyCache.MdcKey mdcKey = MdcKeyCache.resolve(key);
+        if (!legacyMode && !mdcKey.ecsField) {
+            return;
+        }
+        final String metaField = metaFields.isEmpty() ? null : metaFields.get(mdcKey.ecsKey);
+        final String stringValue = value.toString();
+        // Numeric values are serialized as numbers, invalid ones are skipped
+        final boolean number = metaField != null ? EcsFields.isNumber(metaField) : !legacyMode && mdcKey.number;
+        if (number && (stringValue.isEmpty() || !NumberUtils.isParsable(stringValue))) {
+            return;
         }
 
-        // serialize string values
-        EcsJsonSerializer.serializeMDC(builder, filteredMdc);
+        if (metaField != null) {
+            builder.append('\"');
+            JsonUtils.quoteAsString(metaField, builder);
+            builder.append("\":");
+        } else {
+            builder.append(legacyMode ? mdcKey.legacyJsonKey : mdcKey.jsonKey);
+        }
+        if (number) {
+            builder.append(stringValue).append(',');
+        } else {
+            builder.append('\"');
+            JsonUtils.quoteAsString(stringValue, builder);
+            builder.append("\",");
+        }
     }
 
     /**
@@ -99,8 +134,11 @@ public class EcsSerializer {
      * @param hostData the host data to serialize
      */
     public static void serializeHostInfo(final StringBuilder builder, final HostData hostData) {
-        builder.append(String.format("\"%s\":[\"%s\"],", EcsFields.HOST_IP.fieldName, hostData.getHostAddress()));
-        builder.append(String.format("\"%s\":\"%s\",", EcsFields.HOST_HOSTNAME.fieldName, hostData.getHostName()));
+        builder.append('\"').append(EcsFields.HOST_IP.fieldName).append("\":[\"");
+        JsonUtils.quoteAsString(String.valueOf(hostData.getHostAddress()), builder);
+        builder.append("\"],\"").append(EcsFields.HOST_HOSTNAME.fieldName).append("\":\"");
+        JsonUtils.quoteAsString(String.valueOf(hostData.getHostName()), builder);
+        builder.append("\",");
     }
 
     /**
@@ -110,7 +148,7 @@ public class EcsSerializer {
      * @param eventId the event id to serialize
      */
     public static void serializeEventId(final StringBuilder builder, final UUID eventId) {
-        builder.append(String.format("\"%s\":\"%s\",", EcsFields.EVENT_ID.fieldName, eventId));
+        builder.append('\"').append(EcsFields.EVENT_ID.fieldName).append("\":\"").append(eventId).append("\",");
     }
 
     /**
@@ -142,6 +180,30 @@ public class EcsSerializer {
         builder.append("\",");
     }
 
+    /**
+     * Serialize once the fields which are the same for all events of a layout: ECS version and service name
+     *
+     * @param serviceName the service name, may be null
+     * @return the serialized fields
+     */
+    public static JsonFragment serializeStaticFields(final String serviceName) {
+        return JsonFragment.of(builder -> {
+            ECS_VERSION_FIELD.appendTo(builder);
+            EcsJsonSerializer.serializeServiceName(builder, serviceName);
+        });
+    }
+
+    /**
+     * Serialize the additional fields (mapped and filtered) once, as they are the same for all events of a layout
+     *
+     * @param additionalFields the additional fields to serialize
+     * @return the serialized fields
+     * @see #serializeAdditionalFields(StringBuilder, List)
+     */
+    public static JsonFragment serializeAdditionalFields(final List<AdditionalField> additionalFields) {
+        return JsonFragment.of(builder -> serializeAdditionalFields(builder, additionalFields));
+    }
+
     /**
      * Serialize ECS Categorization Fields.
      * See https://www.elastic.co/guide/en/ecs/1.8/ecs-category-field-values-reference.html
@@ -0,0 +1,60 @@
+package org.talend.daikon.logging.ecs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * A part of a JSON log event (zero or more {@code "key":value,} members) serialized and escaped once, then spliced as is
+ * into each event.
+ */
+public final class JsonFragment {
+
+    public static final JsonFragment EMPTY = new JsonFragment("");
+
+    private final String json;
+
+    private final byte[] utf8;
+
+    private JsonFragment(final String json) {
+        this.json = json;
+        this.utf8 = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Create a fragment from the members appended by a serializer
+     *
+     * @param serializer the serializer appending members to the builder, as a layout does for each event
+     * @return the fragment
+     */
+    public static JsonFragment of(final Consumer<StringBuilder> serializer) {
+        final StringBuilder builder = new StringBuilder();
+        serializer.accept(builder);
+        return builder.length() == 0 ? EMPTY : new JsonFragment(builder.toString());
+    }
+
+    /**
+     * Append the fragment to an event being serialized
+     *
+     * @param builder the builder to serialize in
+     * @return the builder
+     */
+    public StringBuilder appendTo(final StringBuilder builder) {
+        return builder.append(json);
+    }
+
+    /**
+     * @return the UTF-8 encoded fragment. The array is shared and must not be modified.
+     */
+    public byte[] getUtf8Bytes() {
+        return utf8;
+    }
+
+    public boolean isEmpty() {
+        return json.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return json;
+    }
+}
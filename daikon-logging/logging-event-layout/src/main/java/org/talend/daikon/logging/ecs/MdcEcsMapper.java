@@ -52,10 +52,7 @@ public class MdcEcsMapper {
      * @return the corresponding ECS field or the MDC key if no mapping exists
      */
     public static String map(String mdcKey) {
-        if (getMapping().get(mdcKey) != null) {
-            return getMapping().get(mdcKey);
-        } else {
-            return mdcKey;
-        }
+        final String ecsKey = getInstance().mapping.get(mdcKey);
+        return ecsKey != null ? ecsKey : mdcKey;
     }
 }
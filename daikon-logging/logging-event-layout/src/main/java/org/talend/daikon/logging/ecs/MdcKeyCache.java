@@ -0,0 +1,93 @@
+package org.talend.daikon.logging.ecs;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import co.elastic.logging.JsonUtils;
+
+/**
+ * Cache of MDC keys resolved to their ECS field ({@link MdcEcsMapper}, {@link EcsFieldsChecker}, {@link EcsFields}), so
+ * that keys repeated from one log event to the next are resolved with a single lookup.
+ * The cache is bounded: once full, keys not already cached (unusual keys generated at runtime) are resolved for each
+ * event.
+ */
+final class MdcKeyCache {
+
+    static final int MAX_SIZE = 1024;
+
+    private static final Map<String, MdcKey> CACHE = new ConcurrentHashMap<>();
+
+    private MdcKeyCache() {
+    }
+
+    /**
+     * Resolve a MDC key
+     *
+     * @param mdcKey the MDC key
+     * @return the resolved key
+     */
+    static MdcKey resolve(final String mdcKey) {
+        MdcKey resolved = CACHE.get(mdcKey);
+        if (resolved == null) {
+            resolved = new MdcKey(mdcKey);
+            if (CACHE.size() < MAX_SIZE) {
+                CACHE.putIfAbsent(mdcKey, resolved);
+            }
+        }
+        return resolved;
+    }
+
+    static int size() {
+        return CACHE.size();
+    }
+
+    static void clear() {
+        CACHE.clear();
+    }
+
+    /**
+     * A MDC key resolved to its ECS field
+     */
+    static final class MdcKey {
+
+        /**
+         * The ECS field the MDC key is mapped to (or the MDC key if not mapped)
+         */
+        final String ecsKey;
+
+        /**
+         * Whether the mapped key is an ECS field
+         */
+        final boolean ecsField;
+
+        /**
+         * Whether the ECS field is numeric
+         */
+        final boolean number;
+
+        /**
+         * The escaped JSON member name: {@code "ecsKey":}
+         */
+        final String jsonKey;
+
+        /**
+         * The escaped JSON member name in legacy mode: {@code "customInfo.ecsKey":}
+         */
+        final String legacyJsonKey;
+
+        private MdcKey(final String mdcKey) {
+            ecsKey = MdcEcsMapper.map(mdcKey);
+            ecsField = EcsFieldsChecker.isECSField(ecsKey);
+            number = EcsFields.isNumber(ecsKey);
+            jsonKey = jsonKey("", ecsKey);
+            legacyJsonKey = jsonKey(EcsSerializer.LEGACY_MDC_PREFIX, ecsKey);
+        }
+
+        private static String jsonKey(final String prefix, final String name) {
+            final StringBuilder builder = new StringBuilder(name.length() + prefix.length() + 3);
+            builder.append('\"').append(prefix);
+            JsonUtils.quoteAsString(name, builder);
+            return builder.append("\":").toString();
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package org.talend.daikon.logging.event.field;
 
+import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Objects;
 
 /**
  * Collect informations from the Host
- * 
+ *
+ * Resolving the local host may involve a name resolution: layouts should use the {@link HostDataCache} instead of
+ * creating host data for each event.
+ *
  * @author sdiallo
  *
  */
@@ -16,8 +21,9 @@ public class HostData {
 
     public HostData() {
         try {
-            setHostName(java.net.InetAddress.getLocalHost().getHostName());
-            setHostAddress(java.net.InetAddress.getLocalHost().getHostAddress());
+            final InetAddress localHost = InetAddress.getLocalHost();
+            setHostName(localHost.getHostName());
+            setHostAddress(localHost.getHostAddress());
         } catch (UnknownHostException e) {
             setHostName("unknown-host");
         }
@@ -39,4 +45,21 @@ public class HostData {
         this.hostAddress = hostAddress;
     }
 
-}
\ No newline at end of file
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HostData hostData = (HostData) o;
+        return Objects.equals(hostName, hostData.hostName) && Objects.equals(hostAddress, hostData.hostAddress);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hostName, hostAddress);
+    }
+
+}
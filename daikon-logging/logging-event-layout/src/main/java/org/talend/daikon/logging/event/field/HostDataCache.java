@@ -0,0 +1,94 @@
+package org.talend.daikon.logging.event.field;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.talend.daikon.logging.config.LoggingProperties;
+import org.talend.daikon.logging.ecs.EcsSerializer;
+import org.talend.daikon.logging.ecs.JsonFragment;
+
+/**
+ * Singleton holding the host data shared by all layouts, with its serialized ECS fields.
+ *
+ * The host is resolved when the singleton is first used (a layout starts), then refreshed in background with the period
+ * in seconds of the {@value #REFRESH_PERIOD_PROPERTY} logging property (5 minutes by default, 0 to disable), so that
+ * serializing a log event never waits for a name resolution.
+ */
+public final class HostDataCache {
+
+    static final String REFRESH_PERIOD_PROPERTY = "host.data.refresh.period";
+
+    private static final long DEFAULT_REFRESH_PERIOD = 300;
+
+    private static final HostDataCache INSTANCE = new HostDataCache(HostData::new);
+
+    static {
+        INSTANCE.scheduleRefresh(NumberUtils.toLong(LoggingProperties.get(REFRESH_PERIOD_PROPERTY), DEFAULT_REFRESH_PERIOD));
+    }
+
+    private final Supplier<HostData> resolver;
+
+    private volatile HostData hostData;
+
+    private volatile JsonFragment hostInfo;
+
+    HostDataCache(final Supplier<HostData> resolver) {
+        this.resolver = resolver;
+        update(resolver.get());
+    }
+
+    public static HostDataCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the last resolved host data
+     */
+    public HostData getHostData() {
+        return hostData;
+    }
+
+    /**
+     * @return the last resolved host data, serialized as ECS fields
+     * @see EcsSerializer#serializeHostInfo(StringBuilder, HostData)
+     */
+    public JsonFragment getHostInfo() {
+        return hostInfo;
+    }
+
+    /**
+     * Resolve the host again, keeping the current data if it has not changed
+     */
+    void refresh() {
+        final HostData resolved = resolver.get();
+        if (!resolved.equals(hostData)) {
+            update(resolved);
+        }
+    }
+
+    private void update(final HostData resolved) {
+        hostInfo = JsonFragment.of(builder -> EcsSerializer.serializeHostInfo(builder, resolved));
+        hostData = resolved;
+    }
+
+    private void scheduleRefresh(final long period) {
+        if (period <= 0) {
+            return;
+        }
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "daikon-logging-host-data-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                // Keep the current data, the next refresh may succeed (and logging from a layout could loop)
+            }
+        }, period, period, TimeUnit.SECONDS);
+    }
+}
@@ -25,9 +25,11 @@ import org.apache.logging.log4j.core.layout.AbstractStringLayout;
 import org.apache.logging.log4j.core.layout.ByteBufferDestination;
 import org.apache.logging.log4j.core.layout.Encoder;
 import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.util.TriConsumer;
 import org.talend.daikon.logging.ecs.EcsFieldsMarker;
 import org.talend.daikon.logging.ecs.EcsSerializer;
-import org.talend.daikon.logging.event.field.HostData;
+import org.talend.daikon.logging.ecs.JsonFragment;
+import org.talend.daikon.logging.event.field.HostDataCache;
 
 import co.elastic.logging.AdditionalField;
 import co.elastic.logging.EcsJsonSerializer;
@@ -41,6 +43,12 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
 
     public static final Charset UTF_8 = Charset.forName("UTF-8");
 
+    /**
+     * Serialize the context data while iterating it, rather than copying it in a map.
+     */
+    private static final TriConsumer<String, Object, StringBuilder> MDC_ENTRY_SERIALIZER = (key, value,
+            builder) -> EcsSerializer.serializeMDCEntry(builder, key, value);
+
     private final List<AdditionalField> additionalFields;
 
     private final String serviceName;
@@ -51,6 +59,16 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
 
     private final boolean addEventUuid;
 
+    /**
+     * ECS version and service name, serialized when the layout is built.
+     */
+    private final JsonFragment staticFields;
+
+    /**
+     * Additional fields, serialized when the layout is built or its meta fields are set.
+     */
+    private volatile JsonFragment additionalFieldsJson;
+
     private Log4j2JSONLayout(final Configuration config, final String serviceName, final boolean locationInfo,
             final boolean hostInfo, final boolean addEventUuid, final KeyValuePair[] additionalFields) {
         super(config, UTF_8, null, null);
@@ -60,6 +78,12 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
         this.addEventUuid = addEventUuid;
         this.additionalFields = Stream.of(additionalFields).map(p -> new AdditionalField(p.getKey(), p.getValue()))
                 .collect(Collectors.toList());
+        this.staticFields = EcsSerializer.serializeStaticFields(serviceName);
+        this.additionalFieldsJson = EcsSerializer.serializeAdditionalFields(this.additionalFields);
+        if (hostInfo) {
+            // Resolve the host now rather than on the first event
+            HostDataCache.getInstance();
+        }
     }
 
     @PluginBuilderFactory
@@ -89,8 +113,7 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
         EcsJsonSerializer.serializeObjectStart(builder, event.getTimeMillis());
         EcsJsonSerializer.serializeLogLevel(builder, event.getLevel().toString());
         EcsJsonSerializer.serializeFormattedMessage(builder, event.getMessage().getFormattedMessage());
-        EcsSerializer.serializeEcsVersion(builder);
-        EcsJsonSerializer.serializeServiceName(builder, serviceName);
+        staticFields.appendTo(builder);
         EcsJsonSerializer.serializeThreadName(builder, event.getThreadName());
         EcsJsonSerializer.serializeLoggerName(builder, event.getLoggerName());
 
@@ -100,11 +123,11 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
         serializeCustomMarkers(builder, event.getMarker());
 
         // Call custom serializer for additional fields & MDC (for mapping and filtering)
-        EcsSerializer.serializeAdditionalFields(builder, additionalFields);
-        EcsSerializer.serializeMDC(builder, event.getContextData().toMap());
+        additionalFieldsJson.appendTo(builder);
+        event.getContextData().forEach(MDC_ENTRY_SERIALIZER, builder);
 
         if (this.hostInfo) {
-            EcsSerializer.serializeHostInfo(builder, new HostData());
+            HostDataCache.getInstance().getHostInfo().appendTo(builder);
         }
 
         if (this.addEventUuid) {
@@ -142,7 +165,7 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
     private void serializeMarkerTags(final LogEvent event, final StringBuilder builder) {
         final ThreadContext.ContextStack stack = event.getContextStack();
         final List<String> contextStack;
-        if (stack == null) {
+        if (stack == null || stack.getDepth() == 0) {
             contextStack = Collections.emptyList();
         } else {
             contextStack = stack.asList();
@@ -195,6 +218,7 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
     public void setMetaFields(final Map<String, String> metaFields) {
         additionalFields.addAll(metaFields.entrySet().stream().map(e -> new AdditionalField(e.getKey(), e.getValue()))
                 .collect(Collectors.toList()));
+        additionalFieldsJson = EcsSerializer.serializeAdditionalFields(additionalFields);
     }
 
     public static class Builder implements org.apache.logging.log4j.core.util.Builder<Log4j2JSONLayout> {
@@ -8,14 +8,15 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.talend.daikon.logging.ecs.EcsSerializer;
-import org.talend.daikon.logging.event.field.HostData;
+import org.talend.daikon.logging.ecs.JsonFragment;
+import org.talend.daikon.logging.event.field.HostDataCache;
 
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.LayoutBase;
 import co.elastic.logging.AdditionalField;
 import co.elastic.logging.EcsJsonSerializer;
 
-public class LogbackJSONAccessEventLayout extends LayoutBase<IAccessEvent> {
+public class LogbackJSONAccessEventLayout extends LayoutBase<IAccessEvent> implements StringBuilderLayout<IAccessEvent> {
 
     private boolean hostInfo;
 
@@ -29,6 +30,16 @@ public class LogbackJSONAccessEventLayout extends LayoutBase<IAccessEvent> {
 
     private boolean responseHeaders;
 
+    /**
+     * ECS version, service name, categorization fields and network protocol, serialized when the layout starts.
+     */
+    private JsonFragment staticFields;
+
+    /**
+     * Additional fields, serialized when the layout starts.
+     */
+    private JsonFragment additionalFieldsJson;
+
     public LogbackJSONAccessEventLayout() {
         this(true, true);
     }
@@ -82,23 +93,39 @@ public class LogbackJSONAccessEventLayout extends LayoutBase<IAccessEvent> {
         this.responseHeaders = responseHeaders;
     }
 
+    @Override
+    public void start() {
+        super.start();
+        final JsonFragment ecsFields = EcsSerializer.serializeStaticFields(serviceName);
+        staticFields = JsonFragment.of(builder -> {
+            ecsFields.appendTo(builder);
+            EcsSerializer.serializeHttpEventCategorizationFields(builder);
+            EcsSerializer.serializeNetworkProtocol(builder, "http");
+        });
+        additionalFieldsJson = EcsSerializer.serializeAdditionalFields(additionalFields);
+        if (hostInfo) {
+            // Resolve the host now rather than on the first event
+            HostDataCache.getInstance();
+        }
+    }
+
     @Override
     public String doLayout(IAccessEvent event) {
-        StringBuilder builder = new StringBuilder();
+        return serialize(event, new StringBuilder()).toString();
+    }
+
+    @Override
+    public StringBuilder serialize(IAccessEvent event, StringBuilder builder) {
         EcsJsonSerializer.serializeObjectStart(builder, event.getTimeStamp());
-        EcsSerializer.serializeEcsVersion(builder);
+        staticFields.appendTo(builder);
         EcsJsonSerializer.serializeThreadName(builder, event.getThreadName());
-        EcsJsonSerializer.serializeServiceName(builder, serviceName);
-
-        EcsSerializer.serializeHttpEventCategorizationFields(builder);
 
         EcsJsonSerializer.serializeFormattedMessage(builder,
                 String.format("%s - %s \"%s\" %s %s", event.getRemoteHost(),
                         event.getRemoteUser() == null ? "-" : event.getRemoteUser(), event.getRequestURL(), event.getStatusCode(),
                         event.getContentLength()));
 
-        // network and url
-        EcsSerializer.serializeNetworkProtocol(builder, "http");
+        // url
         EcsSerializer.serializeUrlScheme(builder, event.getRequest().getScheme());
         EcsSerializer.serializeHttpVersion(builder, StringUtils.substringAfter(event.getProtocol(), "/"));
 
@@ -127,7 +154,7 @@ public class LogbackJSONAccessEventLayout extends LayoutBase<IAccessEvent> {
         EcsSerializer.serializeClientPort(builder, event.getRequest().getRemotePort());
 
         // additional fields
-        EcsSerializer.serializeAdditionalFields(builder, additionalFields);
+        additionalFieldsJson.appendTo(builder);
 
         // span, trace id etc
         EcsSerializer.serializeTraceId(builder, event.getRequestHeader("x-b3-traceId"));
@@ -142,7 +169,7 @@ public class LogbackJSONAccessEventLayout extends LayoutBase<IAccessEvent> {
         }
 
         if (this.hostInfo) {
-            EcsSerializer.serializeHostInfo(builder, new HostData());
+            HostDataCache.getInstance().getHostInfo().appendTo(builder);
         }
 
         if (this.addEventUuid) {
@@ -151,7 +178,7 @@ public class LogbackJSONAccessEventLayout extends LayoutBase<IAccessEvent> {
 
         EcsJsonSerializer.serializeObjectEnd(builder);
 
-        return builder.toString();
+        return builder;
     }
 
 }
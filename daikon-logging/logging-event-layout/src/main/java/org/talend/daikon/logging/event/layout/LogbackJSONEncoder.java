@@ -0,0 +1,119 @@
+package org.talend.daikon.logging.event.layout;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+
+/**
+ * Logback encoder for the ECS JSON layouts ({@link LogbackJSONLayout}, {@link LogbackJSONAccessEventLayout}):
+ *
+ * <pre>
+ * {@code
+ * <encoder class="org.talend.daikon.logging.event.layout.LogbackJSONEncoder">
+ *     <layout class="org.talend.daikon.logging.event.layout.LogbackJSONLayout">
+ *         <serviceName>my-service</serviceName>
+ *     </layout>
+ * </encoder>
+ * }
+ * </pre>
+ *
+ * Events are serialized in a builder reused by the thread, then encoded straight to UTF-8 in a reused byte buffer: the
+ * only allocation per event is the byte array returned to the appender. The charset is UTF-8 by default, other charsets
+ * (and layouts not implementing {@link StringBuilderLayout}) fall back to {@link LayoutWrappingEncoder}.
+ *
+ * @param <E> the type of events
+ */
+public class LogbackJSONEncoder<E> extends LayoutWrappingEncoder<E> {
+
+    /**
+     * Builders and buffers grown above this size (a large event) are not kept for the next events.
+     */
+    static final int MAX_REUSED_SIZE = 16 * 1024;
+
+    private static final int INITIAL_SIZE = 1024;
+
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    private boolean utf8;
+
+    @Override
+    public void start() {
+        if (getCharset() == null) {
+            setCharset(StandardCharsets.UTF_8);
+        }
+        utf8 = StandardCharsets.UTF_8.equals(getCharset());
+        if (!(layout instanceof StringBuilderLayout)) {
+            addWarn("Layout " + layout + " does not serialize in a builder, events are encoded from strings");
+        }
+        super.start();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] encode(final E event) {
+        if (!utf8 || !(layout instanceof StringBuilderLayout)) {
+            return super.encode(event);
+        }
+        final Buffers threadBuffers = buffers.get();
+        final StringBuilder builder = ((StringBuilderLayout<E>) layout).serialize(event, threadBuffers.builder());
+        return threadBuffers.encode(builder);
+    }
+
+    /**
+     * The builder and UTF-8 buffer of a thread.
+     */
+    private static final class Buffers {
+
+        private StringBuilder builder = new StringBuilder(INITIAL_SIZE);
+
+        private byte[] bytes = new byte[INITIAL_SIZE * 3];
+
+        private StringBuilder builder() {
+            if (builder.capacity() > MAX_REUSED_SIZE) {
+                builder = new StringBuilder(INITIAL_SIZE);
+            }
+            builder.setLength(0);
+            return builder;
+        }
+
+        /**
+         * Encode chars in UTF-8, as {@link String#getBytes(java.nio.charset.Charset)} does (malformed surrogates are
+         * replaced by '?').
+         */
+        private byte[] encode(final CharSequence chars) {
+            final int length = chars.length();
+            if (bytes.length < length * 3) {
+                bytes = new byte[length * 3];
+            }
+            final byte[] buffer = bytes;
+            int position = 0;
+            for (int i = 0; i < length; i++) {
+                final char c = chars.charAt(i);
+                if (c < 0x80) {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (!Character.isSurrogate(c)) {
+                    buffer[position++] = (byte) (0xE0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                    buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    buffer[position++] = '?';
+                }
+            }
+            final byte[] encoded = Arrays.copyOf(buffer, position);
+            if (buffer.length > MAX_REUSED_SIZE * 3) {
+                bytes = new byte[INITIAL_SIZE * 3];
+            }
+            return encoded;
+        }
+    }
+}
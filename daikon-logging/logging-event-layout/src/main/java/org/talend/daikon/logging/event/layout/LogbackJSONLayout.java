@@ -10,7 +10,8 @@ import java.util.UUID;
 import org.slf4j.Marker;
 import org.talend.daikon.logging.ecs.EcsFieldsMarker;
 import org.talend.daikon.logging.ecs.EcsSerializer;
-import org.talend.daikon.logging.event.field.HostData;
+import org.talend.daikon.logging.ecs.JsonFragment;
+import org.talend.daikon.logging.event.field.HostDataCache;
 
 import ch.qos.logback.classic.pattern.ThrowableProxyConverter;
 import ch.qos.logback.classic.spi.ILoggingEvent;
@@ -23,7 +24,7 @@ import co.elastic.logging.EcsJsonSerializer;
 /**
  * Logback ECS JSON layout
  */
-public class LogbackJSONLayout extends LayoutBase<ILoggingEvent> {
+public class LogbackJSONLayout extends LayoutBase<ILoggingEvent> implements StringBuilderLayout<ILoggingEvent> {
 
     private boolean locationInfo;
 
@@ -54,6 +55,16 @@ public class LogbackJSONLayout extends LayoutBase<ILoggingEvent> {
 
     private final List<AdditionalField> additionalFields = new ArrayList<>();
 
+    /**
+     * ECS version and service name, serialized when the layout starts.
+     */
+    private JsonFragment staticFields;
+
+    /**
+     * Additional fields, serialized when the layout starts.
+     */
+    private JsonFragment additionalFieldsJson;
+
     /**
      * Print no location info by default, but print host information (for backward compatibility).
      */
@@ -128,17 +139,26 @@ public class LogbackJSONLayout extends LayoutBase<ILoggingEvent> {
         super.start();
         throwableProxyConverter = new ThrowableProxyConverter();
         throwableProxyConverter.start();
+        staticFields = EcsSerializer.serializeStaticFields(serviceName);
+        additionalFieldsJson = EcsSerializer.serializeAdditionalFields(additionalFields);
+        if (hostInfo) {
+            // Resolve the host now rather than on the first event
+            HostDataCache.getInstance();
+        }
     }
 
     @Override
     public String doLayout(final ILoggingEvent event) {
-        final StringBuilder builder = new StringBuilder();
+        return serialize(event, new StringBuilder()).toString();
+    }
+
+    @Override
+    public StringBuilder serialize(final ILoggingEvent event, final StringBuilder builder) {
         EcsJsonSerializer.serializeObjectStart(builder, event.getTimeStamp());
         EcsJsonSerializer.serializeLogLevel(builder, event.getLevel().toString());
         EcsJsonSerializer.serializeFormattedMessage(builder, event.getFormattedMessage());
-        EcsSerializer.serializeEcsVersion(builder);
+        staticFields.appendTo(builder);
         serializeMarkers(builder, event);
-        EcsJsonSerializer.serializeServiceName(builder, serviceName);
         EcsJsonSerializer.serializeThreadName(builder, event.getThreadName());
         EcsJsonSerializer.serializeLoggerName(builder, event.getLoggerName());
 
@@ -146,11 +166,11 @@ public class LogbackJSONLayout extends LayoutBase<ILoggingEvent> {
         serializeCustomMarkers(builder, event);
 
         // Call custom serializer for additional fields & MDC (for mapping and filtering)
-        EcsSerializer.serializeAdditionalFields(builder, additionalFields);
+        additionalFieldsJson.appendTo(builder);
         EcsSerializer.serializeMDC(builder, event.getMDCPropertyMap(), metaFields, legacyMode);
 
         if (this.hostInfo) {
-            EcsSerializer.serializeHostInfo(builder, new HostData());
+            HostDataCache.getInstance().getHostInfo().appendTo(builder);
         }
 
         if (this.addEventUuid) {
@@ -171,7 +191,7 @@ public class LogbackJSONLayout extends LayoutBase<ILoggingEvent> {
                     throwableProxyConverter.convert(event), false);
         }
         EcsJsonSerializer.serializeObjectEnd(builder);
-        return builder.toString();
+        return builder;
     }
 
     private void serializeMarkers(final StringBuilder builder, final ILoggingEvent event) {
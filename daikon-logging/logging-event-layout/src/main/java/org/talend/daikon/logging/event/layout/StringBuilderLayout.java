@@ -0,0 +1,20 @@
+package org.talend.daikon.logging.event.layout;
+
+/**
+ * A layout able to serialize an event in a given builder, so that an encoder can reuse builders and encode them without
+ * intermediate strings.
+ *
+ * @param <E> the type of events
+ * @see LogbackJSONEncoder
+ */
+public interface StringBuilderLayout<E> {
+
+    /**
+     * Serialize an event
+     *
+     * @param event the event to serialize
+     * @param builder the builder to serialize in
+     * @return the builder
+     */
+    StringBuilder serialize(E event, StringBuilder builder);
+}
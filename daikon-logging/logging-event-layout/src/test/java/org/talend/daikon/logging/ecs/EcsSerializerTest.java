@@ -5,6 +5,7 @@ import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
@@ -90,6 +91,26 @@ public class EcsSerializerTest {
         assertThat(actual, not(containsString("not a number")));
     }
 
+    @Test
+    public void testSerializeMdcWithMetaFields() {
+        final Map<String, String> metaFields = new HashMap<>();
+        metaFields.put("ecs.field.second", "second");
+        metaFields.put("non_ecs_meta_field", "meta");
+
+        final StringBuilder strict = new StringBuilder();
+        EcsSerializer.serializeMDCEntry(strict, "ecs.field.second", "my \"value\" 2", metaFields, false);
+        EcsSerializer.serializeMDCEntry(strict, "non_ecs_meta_field", "my value 3", metaFields, false);
+        EcsSerializer.serializeMDCEntry(strict, "event.duration", null, metaFields, false);
+        assertThat(strict.toString(), is("\"second\":\"my \\\"value\\\" 2\","));
+
+        final StringBuilder legacy = new StringBuilder();
+        EcsSerializer.serializeMDCEntry(legacy, "non_ecs_meta_field", "my value 3", metaFields, true);
+        EcsSerializer.serializeMDCEntry(legacy, "non_ecs_field", "my value 4", metaFields, true);
+        EcsSerializer.serializeMDCEntry(legacy, "event.duration", "12", metaFields, true);
+        assertThat(legacy.toString(),
+                is("\"meta\":\"my value 3\",\"customInfo.non_ecs_field\":\"my value 4\",\"customInfo.event.duration\":\"12\","));
+    }
+
     @Test
     public void testSerializeHostInfo() {
         final StringBuilder builder = new StringBuilder();
@@ -98,6 +119,30 @@ public class EcsSerializerTest {
         hostData.setHostName("AWESOME_HOST");
         EcsSerializer.serializeHostInfo(builder, hostData);
         assertThat(builder.toString(), is("\"host.ip\":[\"8.8.8.8\"],\"host.hostname\":\"AWESOME_HOST\","));
+        hostData.setHostName("AWESOME\"HOST");
+        assertThat(JsonFragment.of(b -> EcsSerializer.serializeHostInfo(b, hostData)).toString(),
+                is("\"host.ip\":[\"8.8.8.8\"],\"host.hostname\":\"AWESOME\\\"HOST\","));
+    }
+
+    @Test
+    public void testSerializeStaticFields() {
+        assertThat(EcsSerializer.serializeStaticFields(null).toString(), is("\"ecs.version\":\"8.6.1\","));
+        final JsonFragment staticFields = EcsSerializer.serializeStaticFields("my \"service\"");
+        assertThat(staticFields.toString(), is("\"ecs.version\":\"8.6.1\",\"service.name\":\"my \\\"service\\\"\","));
+        assertThat(new String(staticFields.getUtf8Bytes(), StandardCharsets.UTF_8), is(staticFields.toString()));
+        assertThat(staticFields.appendTo(new StringBuilder("{")).toString(), is("{" + staticFields));
+    }
+
+    @Test
+    public void testSerializeAdditionalFieldsFragment() {
+        final List<AdditionalField> additionalFields = new ArrayList<>();
+        assertThat(EcsSerializer.serializeAdditionalFields(additionalFields).isEmpty(), is(true));
+
+        additionalFields.add(new AdditionalField("mdc_field_1", "my value 1"));
+        additionalFields.add(new AdditionalField("unknown_field", "my value 4"));
+        final StringBuilder builder = new StringBuilder();
+        EcsSerializer.serializeAdditionalFields(builder, additionalFields);
+        assertThat(EcsSerializer.serializeAdditionalFields(additionalFields).toString(), is(builder.toString()));
     }
 
     @Test
@@ -0,0 +1,55 @@
+package org.talend.daikon.logging.ecs;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class MdcKeyCacheTest {
+
+    @AfterEach
+    public void tearDown() {
+        MdcKeyCache.clear();
+    }
+
+    @Test
+    public void testResolve() {
+        final MdcKeyCache.MdcKey mapped = MdcKeyCache.resolve("mdc_field_1");
+        assertThat(mapped.ecsKey, is("ecs.field.first"));
+        assertThat(mapped.ecsField, is(true));
+        assertThat(mapped.number, is(false));
+        assertThat(mapped.jsonKey, is("\"ecs.field.first\":"));
+        assertThat(mapped.legacyJsonKey, is("\"customInfo.ecs.field.first\":"));
+        assertThat(MdcKeyCache.resolve("mdc_field_1"), sameInstance(mapped));
+
+        final MdcKeyCache.MdcKey number = MdcKeyCache.resolve("event.duration");
+        assertThat(number.ecsField, is(true));
+        assertThat(number.number, is(true));
+
+        final MdcKeyCache.MdcKey label = MdcKeyCache.resolve("labels.my_label");
+        assertThat(label.ecsField, is(true));
+        assertThat(label.number, is(false));
+
+        final MdcKeyCache.MdcKey unknown = MdcKeyCache.resolve("unknown \"field\"");
+        assertThat(unknown.ecsKey, is("unknown \"field\""));
+        assertThat(unknown.ecsField, is(false));
+        assertThat(unknown.jsonKey, is("\"unknown \\\"field\\\"\":"));
+    }
+
+    @Test
+    public void testBoundedSize() {
+        for (int i = 0; i < MdcKeyCache.MAX_SIZE + 10; i++) {
+            MdcKeyCache.resolve("labels.key_" + i);
+        }
+        assertThat(MdcKeyCache.size(), is(MdcKeyCache.MAX_SIZE));
+        // Keys beyond the limit are still resolved, but not cached
+        final MdcKeyCache.MdcKey notCached = MdcKeyCache.resolve("labels.key_" + MdcKeyCache.MAX_SIZE);
+        assertThat(notCached.ecsKey, is("labels.key_" + MdcKeyCache.MAX_SIZE));
+        assertThat(notCached.ecsField, is(true));
+        assertThat(MdcKeyCache.resolve("labels.key_" + MdcKeyCache.MAX_SIZE), not(sameInstance(notCached)));
+        assertThat(MdcKeyCache.resolve("labels.key_0"), sameInstance(MdcKeyCache.resolve("labels.key_0")));
+    }
+}
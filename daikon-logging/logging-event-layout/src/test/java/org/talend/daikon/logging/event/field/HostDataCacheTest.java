@@ -0,0 +1,49 @@
+package org.talend.daikon.logging.event.field;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.logging.ecs.JsonFragment;
+
+public class HostDataCacheTest {
+
+    private static HostData hostData(String hostName, String hostAddress) {
+        final HostData hostData = new HostData();
+        hostData.setHostName(hostName);
+        hostData.setHostAddress(hostAddress);
+        return hostData;
+    }
+
+    @Test
+    public void testSharedInstance() {
+        final HostDataCache cache = HostDataCache.getInstance();
+        assertThat(cache, sameInstance(HostDataCache.getInstance()));
+        assertThat(cache.getHostData(), is(new HostData()));
+        assertThat(cache.getHostInfo().toString(), is(notNullValue()));
+    }
+
+    @Test
+    public void testRefresh() {
+        final AtomicReference<HostData> resolved = new AtomicReference<>(hostData("host1", "10.0.0.1"));
+        final HostDataCache cache = new HostDataCache(resolved::get);
+        final JsonFragment hostInfo = cache.getHostInfo();
+        assertThat(hostInfo.toString(), is("\"host.ip\":[\"10.0.0.1\"],\"host.hostname\":\"host1\","));
+
+        // Same host: nothing is serialized again
+        resolved.set(hostData("host1", "10.0.0.1"));
+        cache.refresh();
+        assertThat(cache.getHostInfo(), sameInstance(hostInfo));
+
+        resolved.set(hostData("host1", "10.0.0.2"));
+        cache.refresh();
+        assertThat(cache.getHostInfo(), not(sameInstance(hostInfo)));
+        assertThat(cache.getHostData().getHostAddress(), is("10.0.0.2"));
+        assertThat(cache.getHostInfo().toString(), is("\"host.ip\":[\"10.0.0.2\"],\"host.hostname\":\"host1\","));
+    }
+}
@@ -0,0 +1,172 @@
+package org.talend.daikon.logging.jmh;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.talend.daikon.logging.event.layout.Log4j2JSONLayout;
+import org.talend.daikon.logging.event.layout.LogbackJSONEncoder;
+import org.talend.daikon.logging.event.layout.LogbackJSONLayout;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import co.elastic.logging.AdditionalField;
+
+/**
+ * Serialize a typical log event (MDC, additional fields and host info) with the Logback and Log4j2 ECS layouts, as a
+ * string or encoded in bytes as appenders do (see {@link LogbackJSONEncoder}, {@link Log4j2JSONLayout#encode}).
+ * Run with main method (not part of unit tests), with {@code -prof gc} to compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LayoutBenchmark {
+
+    private static final String MESSAGE = "User 'jdoe' updated dataset 'customers' (42 records)";
+
+    private LogbackJSONLayout logbackLayout;
+
+    private LoggingEvent logbackEvent;
+
+    private LayoutWrappingEncoder<ILoggingEvent> logbackLayoutEncoder;
+
+    private LogbackJSONEncoder<ILoggingEvent> logbackEncoder;
+
+    private Log4j2JSONLayout log4j2Layout;
+
+    private ByteBufferDestination log4j2Destination;
+
+    private LogEvent log4j2Event;
+
+    @Setup
+    public void setup() {
+        final Map<String, String> mdc = new HashMap<>();
+        mdc.put("user.id", "jdoe");
+        mdc.put("trace.id", "4bf92f3577b34da6a3ce929d0e0e4736");
+        mdc.put("event.duration", "1234");
+
+        logbackLayout = new LogbackJSONLayout();
+        logbackLayout.setServiceName("benchmark-service");
+        logbackLayout.addAdditionalField(new AdditionalField("labels.environment", "benchmark"));
+        logbackLayout.addAdditionalField(new AdditionalField("labels.region", "eu-west-1"));
+        logbackLayout.start();
+        final Logger logger = (Logger) LoggerFactory.getLogger(LayoutBenchmark.class);
+        logbackEvent = new LoggingEvent(LayoutBenchmark.class.getName(), logger, Level.INFO, MESSAGE, null, null);
+        logbackEvent.setThreadName("main");
+        logbackEvent.setMDCPropertyMap(mdc);
+        logbackLayoutEncoder = new LayoutWrappingEncoder<>();
+        logbackLayoutEncoder.setLayout(logbackLayout);
+        logbackLayoutEncoder.setCharset(StandardCharsets.UTF_8);
+        logbackLayoutEncoder.start();
+        logbackEncoder = new LogbackJSONEncoder<>();
+        logbackEncoder.setLayout(logbackLayout);
+        logbackEncoder.start();
+
+        log4j2Layout = Log4j2JSONLayout.newBuilder().setServiceName("benchmark-service")
+                .setAdditionalFields(new KeyValuePair[] { new KeyValuePair("labels.environment", "benchmark"),
+                        new KeyValuePair("labels.region", "eu-west-1") })
+                .build();
+        final StringMap contextData = ContextDataFactory.createContextData();
+        mdc.forEach(contextData::putValue);
+        log4j2Event = Log4jLogEvent.newBuilder().setLoggerName(LayoutBenchmark.class.getName())
+                .setLevel(org.apache.logging.log4j.Level.INFO).setMessage(new SimpleMessage(MESSAGE)).setThreadName("main")
+                .setContextData(contextData).setTimeMillis(System.currentTimeMillis()).build();
+        log4j2Destination = new DiscardingDestination();
+    }
+
+    @TearDown
+    public void tearDown() {
+        logbackEncoder.stop();
+        logbackLayoutEncoder.stop();
+        logbackLayout.stop();
+    }
+
+    @Benchmark
+    public String logback() {
+        return logbackLayout.doLayout(logbackEvent);
+    }
+
+    @Benchmark
+    public byte[] logbackLayoutEncoder() {
+        return logbackLayoutEncoder.encode(logbackEvent);
+    }
+
+    @Benchmark
+    public byte[] logbackEncoder() {
+        return logbackEncoder.encode(logbackEvent);
+    }
+
+    @Benchmark
+    public String log4j2() {
+        return log4j2Layout.toSerializable(log4j2Event);
+    }
+
+    @Benchmark
+    public ByteBufferDestination log4j2Encode() {
+        log4j2Layout.encode(log4j2Event, log4j2Destination);
+        return log4j2Destination;
+    }
+
+    /**
+     * Destination dropping encoded events, as a (fast) appender would write them.
+     */
+    private static class DiscardingDestination implements ByteBufferDestination {
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(ByteBuffer buf) {
+            buf.clear();
+            return buf;
+        }
+
+        @Override
+        public void writeBytes(ByteBuffer data) {
+            data.position(data.limit());
+        }
+
+        @Override
+        public void writeBytes(byte[] data, int offset, int length) {
+            // dropped
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LayoutBenchmark.class.getSimpleName()).build()).run();
+    }
+}
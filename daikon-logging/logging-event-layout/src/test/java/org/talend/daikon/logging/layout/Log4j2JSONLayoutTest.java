@@ -5,6 +5,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,6 +17,7 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.ContextDataFactory;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.layout.AbstractStringLayout;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
 import org.apache.logging.log4j.core.util.KeyValuePair;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.SimpleMessage;
@@ -65,6 +68,46 @@ public class Log4j2JSONLayoutTest extends AbstractLayoutTest {
         assertThat(result, hasJsonPath("$.['event.duration']", not(equalTo("123"))));
     }
 
+    @Test
+    public void testEncode() {
+        LogDetails logDetails = new LogDetails(this.getClass());
+        logDetails.setLogMessage("Caf\u00e9 \u20ac \ud83d\ude00");
+        logDetails.getMdc().put("event.duration", "123");
+        logDetails.getMdc().put("ecs.field.second", "my value 2");
+        LogEvent event = (LogEvent) newEvent(logDetails);
+        Log4j2JSONLayout layout = Log4j2JSONLayout.newBuilder().setHostInfo(true).setAddEventUuid(false)
+                .setServiceName("my_service").build();
+
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        layout.encode(event, new ByteBufferDestination() {
+
+            @Override
+            public ByteBuffer getByteBuffer() {
+                return buffer;
+            }
+
+            @Override
+            public ByteBuffer drain(ByteBuffer buf) {
+                return buf;
+            }
+
+            @Override
+            public void writeBytes(ByteBuffer data) {
+                buffer.put(data);
+            }
+
+            @Override
+            public void writeBytes(byte[] data, int offset, int length) {
+                buffer.put(data, offset, length);
+            }
+        });
+        String payload = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        assertThat(payload, equalTo(layout.toSerializable(event)));
+        assertThat(payload, hasJsonPath("$.['message']", equalTo("Caf\u00e9 \u20ac \ud83d\ude00")));
+        assertThat(payload, hasJsonPath("$.['event.duration']", equalTo(123)));
+        assertThat(payload, hasJsonPath("$.['ecs.field.second']", equalTo("my value 2")));
+    }
+
     @Override
     protected Object newEvent(LogDetails logDetails) {
         final Message message = new SimpleMessage(logDetails.getLogMessage());
@@ -19,10 +19,12 @@ import org.slf4j.MarkerFactory;
 import org.talend.daikon.logging.ecs.EcsFieldsMarker;
 import org.talend.daikon.logging.ecs.field.EventFieldSet;
 import org.talend.daikon.logging.ecs.field.LabelsFieldSet;
+import org.talend.daikon.logging.event.field.HostData;
 import org.talend.daikon.logging.event.layout.LogbackJSONLayout;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.spi.LoggingEvent;
+import co.elastic.logging.AdditionalField;
 
 public class LogBackJSONLayoutTest extends AbstractLayoutTest {
 
@@ -102,6 +104,29 @@ public class LogBackJSONLayoutTest extends AbstractLayoutTest {
         assertThat(nonStrictResult, hasJsonPath("$.['non_ecs_meta_field']", is("meta")));
     }
 
+    @Test
+    public void testStaticFields() {
+        final LogDetails logDetails = new LogDetails(this.getClass());
+        final LogbackJSONLayout layout = new LogbackJSONLayout();
+        layout.setServiceName("my-service");
+        layout.addAdditionalField(new AdditionalField("mdc_field_1", "my value 1"));
+        layout.addAdditionalField(new AdditionalField("unknown_field", "my value 4"));
+        layout.start();
+        try {
+            // Fields serialized when the layout starts are the same for all events
+            for (int i = 0; i < 2; i++) {
+                final String result = layout.doLayout((LoggingEvent) newEvent(logDetails));
+                assertThat(result, hasJsonPath("$.['ecs.version']", equalTo("8.6.1")));
+                assertThat(result, hasJsonPath("$.['service.name']", equalTo("my-service")));
+                assertThat(result, hasJsonPath("$.['ecs.field.first']", equalTo("my value 1")));
+                assertThat(result, hasNoJsonPath("$.['unknown_field']"));
+                assertThat(result, hasJsonPath("$.['host.hostname']", equalTo(new HostData().getHostName())));
+            }
+        } finally {
+            layout.stop();
+        }
+    }
+
     @Test
     public void testStrictModeIsDefault() {
         assertFalse(new LogbackJSONLayout().isLegacyMode());
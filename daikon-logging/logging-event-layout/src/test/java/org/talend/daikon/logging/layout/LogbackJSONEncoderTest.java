@@ -0,0 +1,123 @@
+package org.talend.daikon.logging.layout;
+
+import static com.jayway.jsonpath.matchers.JsonPathMatchers.hasJsonPath;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.talend.daikon.logging.event.layout.LogbackJSONEncoder;
+import org.talend.daikon.logging.event.layout.LogbackJSONLayout;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.Layout;
+import ch.qos.logback.core.LayoutBase;
+
+public class LogbackJSONEncoderTest {
+
+    private LogbackJSONLayout layout;
+
+    private LogbackJSONEncoder<ILoggingEvent> encoder;
+
+    @BeforeEach
+    public void setUp() {
+        layout = new LogbackJSONLayout(false, false, false);
+        layout.setServiceName("my-service");
+        layout.start();
+        encoder = newEncoder(layout);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        encoder.stop();
+        layout.stop();
+    }
+
+    private static LogbackJSONEncoder<ILoggingEvent> newEncoder(final Layout<ILoggingEvent> layout) {
+        final LogbackJSONEncoder<ILoggingEvent> encoder = new LogbackJSONEncoder<>();
+        encoder.setLayout(layout);
+        encoder.start();
+        return encoder;
+    }
+
+    private static LoggingEvent newEvent(final String message) {
+        final Logger logger = (Logger) LoggerFactory.getLogger(LogbackJSONEncoderTest.class);
+        final LoggingEvent event = new LoggingEvent(LogbackJSONEncoderTest.class.getName(), logger, Level.INFO, message, null,
+                null);
+        event.setThreadName("main");
+        return event;
+    }
+
+    @Test
+    public void testEncodeAsLayout() {
+        assertThat(encoder.getCharset(), is(StandardCharsets.UTF_8));
+        final String[] messages = { "ASCII message", "Caf\u00e9 \u20ac \"quoted\"\n", "Emoji \ud83d\ude00",
+                "Malformed \ud83d surrogate \ude00" };
+        for (String message : messages) {
+            final LoggingEvent event = newEvent(message);
+            final byte[] encoded = encoder.encode(event);
+            assertThat(message, encoded, is(layout.doLayout(event).getBytes(StandardCharsets.UTF_8)));
+        }
+        final String payload = new String(encoder.encode(newEvent(messages[2])), StandardCharsets.UTF_8);
+        assertThat(payload, hasJsonPath("$.['message']", equalTo(messages[2])));
+        assertThat(payload, hasJsonPath("$.['service.name']", equalTo("my-service")));
+    }
+
+    @Test
+    public void testEncodeLargeEvents() {
+        final StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            large.append(i % 2 == 0 ? 'a' : '\u00e9');
+        }
+        // Large buffers are not kept, next events are encoded in new ones
+        for (String message : new String[] { large.toString(), "small", large.toString(), "small" }) {
+            final LoggingEvent event = newEvent(message);
+            assertThat(encoder.encode(event), is(layout.doLayout(event).getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    public void testEncodeWithOtherLayout() {
+        final LayoutBase<ILoggingEvent> messageLayout = new LayoutBase<ILoggingEvent>() {
+
+            @Override
+            public String doLayout(ILoggingEvent event) {
+                return event.getFormattedMessage();
+            }
+        };
+        final LogbackJSONEncoder<ILoggingEvent> messageEncoder = newEncoder(messageLayout);
+        assertThat(messageEncoder.encode(newEvent("Caf\u00e9")), is("Caf\u00e9".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testEncoderInAppender() throws IOException {
+        // JSON_FILE appender of logback.xml
+        final Logger root = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        final FileAppender<ILoggingEvent> appender = (FileAppender<ILoggingEvent>) root.getAppender("JSON_FILE");
+        assertThat(appender.getEncoder(), instanceOf(LogbackJSONEncoder.class));
+
+        final String message = "Encoded by appender " + System.nanoTime() + " caf\u00e9";
+        LoggerFactory.getLogger(LogbackJSONEncoderTest.class).info(message);
+
+        final List<String> lines = Files.readAllLines(Paths.get(appender.getFile()), StandardCharsets.UTF_8).stream()
+                .filter(line -> line.contains(message)).collect(Collectors.toList());
+        assertThat(lines.size(), is(1));
+        assertThat(lines.get(0), hasJsonPath("$.['message']", equalTo(message)));
+        assertThat(lines.get(0), hasJsonPath("$.['service.name']", equalTo("logging-sample")));
+    }
+}
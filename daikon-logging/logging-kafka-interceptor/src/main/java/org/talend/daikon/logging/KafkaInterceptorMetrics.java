@@ -0,0 +1,227 @@
+package org.talend.daikon.logging;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.ConfigException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters of a Kafka interceptor, configured with the client properties:
+ * <ul>
+ * <li>{@value #METER_REGISTRY_CONFIG}: the {@link MeterRegistry} meters are registered in (the Micrometer global
+ * registry by default)</li>
+ * <li>{@value #SAMPLING_RATE_CONFIG}: the ratio (between 0 and 1, 1 by default) of records timed and traced</li>
+ * <li>{@value #MAX_TENANTS_CONFIG}: the number of tenants counted per partition (100 by default), records of other
+ * tenants are counted with the tenant {@value #OTHER_TENANTS}</li>
+ * </ul>
+ * Meters are tagged with the client id, the topic and the partition. Meters of a partition are registered once then
+ * looked up with the {@link TopicPartition}, so that records are metered without formatting tags.
+ */
+final class KafkaInterceptorMetrics {
+
+    static final String METER_REGISTRY_CONFIG = "talend.interceptor.meter.registry";
+
+    static final String SAMPLING_RATE_CONFIG = "talend.interceptor.sampling.rate";
+
+    static final String MAX_TENANTS_CONFIG = "talend.interceptor.max.tenants";
+
+    static final String NO_TENANT = "none";
+
+    static final String OTHER_TENANTS = "other";
+
+    private static final String TENANT_ID = "tenantId";
+
+    private static final boolean AVRO_PRESENT = isPresent("org.apache.avro.generic.GenericRecord");
+
+    private final String recordsName;
+
+    private final String latencyName;
+
+    private final Map<TopicPartition, PartitionMeters> partitions = new ConcurrentHashMap<>();
+
+    private final Function<TopicPartition, PartitionMeters> partitionMetersFactory = PartitionMeters::new;
+
+    private final Queue<Meter> meters = new ConcurrentLinkedQueue<>();
+
+    private MeterRegistry registry = Metrics.globalRegistry;
+
+    private Tags clientTags = Tags.empty();
+
+    private double samplingRate = 1;
+
+    private int maxTenants = 100;
+
+    /**
+     * @param recordsName the name of the counters of records
+     * @param latencyName the name of the timers of records latency
+     */
+    KafkaInterceptorMetrics(final String recordsName, final String latencyName) {
+        this.recordsName = recordsName;
+        this.latencyName = latencyName;
+    }
+
+    void configure(final Map<String, ?> configs) {
+        final Object meterRegistry = configs.get(METER_REGISTRY_CONFIG);
+        if (meterRegistry instanceof MeterRegistry) {
+            registry = (MeterRegistry) meterRegistry;
+        } else if (meterRegistry != null) {
+            throw new ConfigException(METER_REGISTRY_CONFIG, meterRegistry, "Not a MeterRegistry");
+        }
+        final Object clientId = configs.get(CommonClientConfigs.CLIENT_ID_CONFIG);
+        if (clientId != null && !clientId.toString().isEmpty()) {
+            clientTags = Tags.of("client.id", clientId.toString());
+        }
+        samplingRate = getNumber(configs, SAMPLING_RATE_CONFIG, samplingRate).doubleValue();
+        if (samplingRate < 0 || samplingRate > 1) {
+            throw new ConfigException(SAMPLING_RATE_CONFIG, samplingRate, "Must be between 0 and 1");
+        }
+        maxTenants = getNumber(configs, MAX_TENANTS_CONFIG, maxTenants).intValue();
+    }
+
+    private static Number getNumber(final Map<String, ?> configs, final String name, final Number defaultValue) {
+        final Object value = configs.get(name);
+        if (value == null) {
+            return defaultValue;
+        } else if (value instanceof Number) {
+            return (Number) value;
+        }
+        try {
+            return Double.valueOf(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigException(name, value, "Not a number");
+        }
+    }
+
+    MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    Tags getClientTags() {
+        return clientTags;
+    }
+
+    /**
+     * @return true if the current record is sampled to be timed and traced
+     */
+    boolean sample() {
+        return samplingRate >= 1 || (samplingRate > 0 && ThreadLocalRandom.current().nextDouble() < samplingRate);
+    }
+
+    PartitionMeters partition(final TopicPartition partition) {
+        final PartitionMeters partitionMeters = partitions.get(partition);
+        return partitionMeters != null ? partitionMeters : partitions.computeIfAbsent(partition, partitionMetersFactory);
+    }
+
+    /**
+     * Register a meter, removed from the registry when the interceptor is closed
+     */
+    <M extends Meter> M register(final M meter) {
+        meters.add(meter);
+        return meter;
+    }
+
+    /**
+     * Remove the meters of the interceptor from the registry
+     */
+    void close() {
+        Meter meter;
+        while ((meter = meters.poll()) != null) {
+            registry.remove(meter);
+        }
+        partitions.clear();
+    }
+
+    /**
+     * Get the tenant id of a record key (a message key or an Avro record with a tenantId field)
+     *
+     * @param key the record key
+     * @return the tenant id or null if the key has none
+     */
+    static String getTenantId(final Object key) {
+        if (!AVRO_PRESENT || !(key instanceof GenericRecord)) {
+            return null;
+        }
+        final GenericRecord record = (GenericRecord) key;
+        final Schema.Field field = record.getSchema().getField(TENANT_ID);
+        final Object tenantId = field == null ? null : record.get(field.pos());
+        return tenantId == null ? null : tenantId.toString();
+    }
+
+    private static boolean isPresent(final String className) {
+        try {
+            Class.forName(className, false, KafkaInterceptorMetrics.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Meters of a topic partition
+     */
+    final class PartitionMeters {
+
+        private final Tags tags;
+
+        private volatile Timer latency;
+
+        private final Map<String, Counter> records = new ConcurrentHashMap<>();
+
+        private final Function<String, Counter> recordsFactory;
+
+        private PartitionMeters(final TopicPartition partition) {
+            tags = clientTags.and("topic", partition.topic(), "partition", Integer.toString(partition.partition()));
+            recordsFactory = tenantId -> register(
+                    Counter.builder(recordsName).tags(tags).tag("tenant", tenantId).register(registry));
+        }
+
+        /**
+         * Count a record
+         *
+         * @param tenantId the tenant of the record, or null
+         */
+        void countRecord(final String tenantId) {
+            final String tenant = tenantId != null ? tenantId : NO_TENANT;
+            Counter counter = records.get(tenant);
+            if (counter == null) {
+                counter = records.computeIfAbsent(records.size() < maxTenants ? tenant : OTHER_TENANTS, recordsFactory);
+            }
+            counter.increment();
+        }
+
+        /**
+         * Time the latency of a record, from its timestamp
+         *
+         * @param timestamp the record timestamp, ignored if unknown (negative)
+         * @param now the current time
+         */
+        void recordLatency(final long timestamp, final long now) {
+            if (timestamp < 0 || now < timestamp) {
+                return;
+            }
+            Timer timer = latency;
+            if (timer == null) {
+                // Registered on first use, partitions of records sent without partition (-1) are not timed
+                timer = register(Timer.builder(latencyName).tags(tags).publishPercentileHistogram().register(registry));
+                latency = timer;
+            }
+            timer.record(now - timestamp, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -1,9 +1,8 @@
 package org.talend.daikon.logging;
 
-import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import org.apache.avro.generic.GenericData;
 import org.apache.kafka.clients.consumer.ConsumerInterceptor;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
@@ -12,42 +11,83 @@ import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Consumer interceptor metering consumed records (see {@link KafkaInterceptorMetrics} for its configuration):
+ * <ul>
+ * <li>{@value #RECORDS}: counter of records per topic, partition and tenant</li>
+ * <li>{@value #LAG}: timer of the delay between the record timestamp and its consumption, per topic and partition
+ * (sampled)</li>
+ * <li>{@value #COMMITS}: counter of offset commits per topic and partition</li>
+ * </ul>
+ * Sampled records are traced when the TRACE level is enabled.
+ */
 public class TalendKafkaConsumerInterceptor implements ConsumerInterceptor<Object, Object> {
 
+    static final String RECORDS = "talend.kafka.consumer.records";
+
+    static final String LAG = "talend.kafka.consumer.lag";
+
+    static final String COMMITS = "talend.kafka.consumer.commits";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(TalendKafkaConsumerInterceptor.class);
 
-    @SuppressWarnings({ "unchecked" })
+    private final KafkaInterceptorMetrics metrics = new KafkaInterceptorMetrics(RECORDS, LAG);
+
+    private final Map<TopicPartition, Counter> commits = new ConcurrentHashMap<>();
+
     @Override
     public ConsumerRecords<Object, Object> onConsume(ConsumerRecords<Object, Object> records) {
-        if (LOGGER.isTraceEnabled()) {
-            try {
-                Iterator<ConsumerRecord<Object, Object>> consumerRecords = records.iterator();
-                if (consumerRecords != null) {
-                    consumerRecords.forEachRemaining(c -> {
-                        String tenantId = (String) ((GenericData.Record) c.key()).get("tenantId");
-                        LOGGER.trace(String.format("onConsume topic=%s partition=%d tenantId=%s \n", c.topic(), c.partition(),
-                                tenantId));
-                    });
+        try {
+            final long now = System.currentTimeMillis();
+            for (TopicPartition partition : records.partitions()) {
+                final KafkaInterceptorMetrics.PartitionMeters partitionMeters = metrics.partition(partition);
+                for (ConsumerRecord<Object, Object> record : records.records(partition)) {
+                    final String tenantId = KafkaInterceptorMetrics.getTenantId(record.key());
+                    partitionMeters.countRecord(tenantId);
+                    if (metrics.sample()) {
+                        partitionMeters.recordLatency(record.timestamp(), now);
+                        if (LOGGER.isTraceEnabled()) {
+                            LOGGER.trace("onConsume topic={} partition={} offset={} tenantId={}", record.topic(),
+                                    record.partition(), record.offset(), tenantId);
+                        }
+                    }
                 }
-            } catch (Exception e) {
-                LOGGER.error("Error executing interceptor onConsume", e);
             }
+        } catch (Exception e) {
+            LOGGER.error("Error executing interceptor onConsume", e);
         }
         return records;
     }
 
     @Override
     public void onCommit(Map<TopicPartition, OffsetAndMetadata> offsets) {
-        // TODO
+        try {
+            for (Map.Entry<TopicPartition, OffsetAndMetadata> offset : offsets.entrySet()) {
+                final TopicPartition partition = offset.getKey();
+                commits.computeIfAbsent(partition, this::newCommitsCounter).increment();
+                LOGGER.trace("onCommit topic={} partition={} offset={}", partition.topic(), partition.partition(),
+                        offset.getValue());
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error executing interceptor onCommit", e);
+        }
+    }
+
+    private Counter newCommitsCounter(final TopicPartition partition) {
+        return metrics.register(Counter.builder(COMMITS).tags(metrics.getClientTags()).tag("topic", partition.topic())
+                .tag("partition", Integer.toString(partition.partition())).register(metrics.getRegistry()));
     }
 
     @Override
     public void close() {
-        // TODO
+        metrics.close();
+        commits.clear();
     }
 
     @Override
-    public void configure(Map<String, ?> arg0) {
-        // TODO
+    public void configure(Map<String, ?> configs) {
+        metrics.configure(configs);
     }
 }
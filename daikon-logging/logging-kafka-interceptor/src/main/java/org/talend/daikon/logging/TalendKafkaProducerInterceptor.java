@@ -1,46 +1,93 @@
 package org.talend.daikon.logging;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.kafka.clients.producer.ProducerInterceptor;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.talend.daikon.messages.MessageKey;
 
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Producer interceptor metering sent records (see {@link KafkaInterceptorMetrics} for its configuration):
+ * <ul>
+ * <li>{@value #RECORDS}: counter of sent records per topic, partition (-1 when assigned by the partitioner) and
+ * tenant</li>
+ * <li>{@value #LATENCY}: timer of the delay between the record timestamp and its acknowledgement, per topic and
+ * partition (sampled)</li>
+ * <li>{@value #ERRORS}: counter of records failed to be sent per topic and exception</li>
+ * </ul>
+ * Sampled records are traced when the TRACE level is enabled.
+ */
 public class TalendKafkaProducerInterceptor implements ProducerInterceptor<Object, Object> {
 
+    static final String RECORDS = "talend.kafka.producer.records";
+
+    static final String LATENCY = "talend.kafka.producer.latency";
+
+    static final String ERRORS = "talend.kafka.producer.errors";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(TalendKafkaProducerInterceptor.class);
 
-    @SuppressWarnings("unchecked")
+    private final KafkaInterceptorMetrics metrics = new KafkaInterceptorMetrics(RECORDS, LATENCY);
+
+    private final Map<String, Map<Class<?>, Counter>> errors = new ConcurrentHashMap<>();
+
     @Override
     public ProducerRecord<Object, Object> onSend(final ProducerRecord<Object, Object> record) {
-        if (LOGGER.isTraceEnabled()) {
-            try {
-                String tenantId = ((MessageKey) record.key()).getTenantId();
-                LOGGER.trace(String.format("onSend topic=%s tenantId=%s \n", record.topic(), tenantId));
-            } catch (Exception e) {
-                LOGGER.error("Error executing interceptor onSend for topic: {}, partition: {}", record.topic(),
-                        record.partition(), e);
+        try {
+            final String tenantId = KafkaInterceptorMetrics.getTenantId(record.key());
+            final Integer partition = record.partition();
+            metrics.partition(
+                    new TopicPartition(record.topic(), partition != null ? partition : RecordMetadata.UNKNOWN_PARTITION))
+                    .countRecord(tenantId);
+            if (LOGGER.isTraceEnabled() && metrics.sample()) {
+                LOGGER.trace("onSend topic={} partition={} tenantId={}", record.topic(), partition, tenantId);
             }
+        } catch (Exception e) {
+            LOGGER.error("Error executing interceptor onSend for topic: {}, partition: {}", record.topic(),
+                    record.partition(), e);
         }
 
         return record;
     }
 
     @Override
-    public void configure(Map<String, ?> arg0) {
-        // TODO
+    public void configure(Map<String, ?> configs) {
+        metrics.configure(configs);
     }
 
     @Override
     public void close() {
-        // TODO
+        metrics.close();
+        errors.clear();
     }
 
     @Override
-    public void onAcknowledgement(RecordMetadata arg0, Exception arg1) {
-        // TODO
+    public void onAcknowledgement(RecordMetadata metadata, Exception exception) {
+        if (metadata == null) {
+            return;
+        }
+        try {
+            if (exception != null) {
+                final String topic = metadata.topic();
+                errors.computeIfAbsent(topic, t -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(exception.getClass(), c -> newErrorsCounter(topic, c)).increment();
+            } else if (metrics.sample()) {
+                metrics.partition(new TopicPartition(metadata.topic(), metadata.partition()))
+                        .recordLatency(metadata.timestamp(), System.currentTimeMillis());
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error executing interceptor onAcknowledgement for topic: {}", metadata.topic(), e);
+        }
+    }
+
+    private Counter newErrorsCounter(final String topic, final Class<?> exceptionClass) {
+        return metrics.register(Counter.builder(ERRORS).tags(metrics.getClientTags()).tag("topic", topic)
+                .tag("exception", exceptionClass.getSimpleName()).register(metrics.getRegistry()));
     }
 }
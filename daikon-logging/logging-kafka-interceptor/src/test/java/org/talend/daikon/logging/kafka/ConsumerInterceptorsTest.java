@@ -2,13 +2,18 @@ package org.talend.daikon.logging.kafka;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
@@ -16,12 +21,19 @@ import org.apache.avro.generic.GenericRecord;
 import org.apache.kafka.clients.consumer.ConsumerInterceptor;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.clients.consumer.internals.ConsumerInterceptors;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.apache.kafka.common.record.TimestampType;
 import org.junit.jupiter.api.Test;
 import org.talend.daikon.logging.TalendKafkaConsumerInterceptor;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 public class ConsumerInterceptorsTest {
 
     @Test
@@ -65,6 +77,82 @@ public class ConsumerInterceptorsTest {
         interceptors.close();
     }
 
+    @Test
+    public void testMetrics() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TalendKafkaConsumerInterceptor interceptor = new TalendKafkaConsumerInterceptor();
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("client.id", "consumer-1");
+        configs.put("talend.interceptor.meter.registry", registry);
+        configs.put("talend.interceptor.max.tenants", "2");
+        interceptor.configure(configs);
+
+        TopicPartition tp = new TopicPartition("test", 1);
+        long timestamp = System.currentTimeMillis() - 1000;
+        List<ConsumerRecord<Object, Object>> list = new ArrayList<>();
+        for (String tenantId : new String[] { "tenant1", "tenant1", "tenant2", "tenant3" }) {
+            GenericRecord key = getGenericRecord();
+            key.put("tenantId", tenantId);
+            list.add(newRecord(tp, list.size(), timestamp, key));
+        }
+        list.add(newRecord(tp, list.size(), timestamp, "not a message key"));
+        interceptor.onConsume(new ConsumerRecords<>(Collections.singletonMap(tp, list)));
+
+        assertEquals(2, records(registry, "tenant1"), 0);
+        assertEquals(1, records(registry, "tenant2"), 0);
+        // Tenants above the limit are counted together
+        assertEquals(2, records(registry, "other"), 0);
+        Timer lag = registry.get("talend.kafka.consumer.lag").tags("client.id", "consumer-1", "topic", "test", "partition", "1")
+                .timer();
+        assertEquals(5, lag.count());
+        assertTrue(lag.max(TimeUnit.MILLISECONDS) >= 1000);
+
+        interceptor.onCommit(Collections.singletonMap(tp, new OffsetAndMetadata(5)));
+        assertEquals(1, registry.get("talend.kafka.consumer.commits").tags("topic", "test", "partition", "1").counter().count(),
+                0);
+
+        interceptor.close();
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    @Test
+    public void testSampling() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TalendKafkaConsumerInterceptor interceptor = new TalendKafkaConsumerInterceptor();
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("talend.interceptor.meter.registry", registry);
+        configs.put("talend.interceptor.sampling.rate", 0);
+        interceptor.configure(configs);
+
+        TopicPartition tp = new TopicPartition("test", 1);
+        interceptor.onConsume(new ConsumerRecords<>(Collections.singletonMap(tp,
+                Collections.singletonList(newRecord(tp, 0, System.currentTimeMillis(), null)))));
+
+        // Records are all counted, but not timed
+        assertEquals(1, records(registry, "none"), 0);
+        assertNull(registry.find("talend.kafka.consumer.lag").timer());
+        interceptor.close();
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        TalendKafkaConsumerInterceptor interceptor = new TalendKafkaConsumerInterceptor();
+        assertThrows(ConfigException.class,
+                () -> interceptor.configure(Collections.singletonMap("talend.interceptor.sampling.rate", "2")));
+        assertThrows(ConfigException.class,
+                () -> interceptor.configure(Collections.singletonMap("talend.interceptor.meter.registry", "registry")));
+    }
+
+    private static double records(MeterRegistry registry, String tenant) {
+        return registry.get("talend.kafka.consumer.records").tags("topic", "test", "partition", "1", "tenant", tenant).counter()
+                .count();
+    }
+
+    private static ConsumerRecord<Object, Object> newRecord(TopicPartition tp, long offset, long timestamp, Object key) {
+        return new ConsumerRecord<>(tp.topic(), tp.partition(), offset, timestamp, TimestampType.CREATE_TIME, 0, 0, key,
+                "value", new RecordHeaders(), Optional.empty());
+    }
+
     private GenericRecord getGenericRecord() {
         String accountSchema = "{\"namespace\": \"org.talend.daikon.messages\", \"type\": \"record\", "
                 + "\"name\": \"MessageHeader\"," + "\"fields\": [{\"name\": \"tenantId\", \"type\": \"string\"}]}";
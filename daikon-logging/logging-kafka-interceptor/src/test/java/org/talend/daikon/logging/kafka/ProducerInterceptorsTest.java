@@ -1,14 +1,21 @@
 package org.talend.daikon.logging.kafka;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.kafka.clients.producer.ProducerInterceptor;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.clients.producer.internals.ProducerInterceptors;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.talend.daikon.logging.TalendKafkaProducerInterceptor;
@@ -17,6 +24,10 @@ import org.talend.daikon.messages.header.producer.TenantIdProvider;
 import org.talend.daikon.messages.keys.MessageKeyFactory;
 import org.talend.daikon.messages.keys.MessageKeyFactoryImpl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 public class ProducerInterceptorsTest {
 
     private final TenantIdProvider tenantIdProvider = Mockito.mock(TenantIdProvider.class);
@@ -60,4 +71,41 @@ public class ProducerInterceptorsTest {
         interceptors.close();
     }
 
+    @Test
+    public void testMetrics() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TalendKafkaProducerInterceptor interceptor = new TalendKafkaProducerInterceptor();
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("client.id", "producer-1");
+        configs.put("talend.interceptor.meter.registry", registry);
+        interceptor.configure(configs);
+
+        MessageKey messageKey = new MessageKeyFactoryImpl(tenantIdProvider).buildMessageKey().withKey("KEY1", "VALUE1").build();
+        messageKey.setTenantId("tenant1");
+        interceptor.onSend(new ProducerRecord<>("test", messageKey, "value"));
+        interceptor.onSend(new ProducerRecord<>("test", 2, messageKey, "value"));
+        interceptor.onSend(new ProducerRecord<>("test", 2, "key", "value"));
+
+        assertEquals(1, sentRecords(registry, "-1", "tenant1"), 0);
+        assertEquals(1, sentRecords(registry, "2", "tenant1"), 0);
+        assertEquals(1, sentRecords(registry, "2", "none"), 0);
+
+        TopicPartition tp = new TopicPartition("test", 2);
+        interceptor.onAcknowledgement(new RecordMetadata(tp, 0, 0, System.currentTimeMillis() - 1000, 0, 0), null);
+        interceptor.onAcknowledgement(new RecordMetadata(tp, -1, -1, -1, -1, -1), new TimeoutException("timeout"));
+        Timer latency = registry.get("talend.kafka.producer.latency")
+                .tags("client.id", "producer-1", "topic", "test", "partition", "2").timer();
+        assertEquals(1, latency.count());
+        assertTrue(latency.max(TimeUnit.MILLISECONDS) >= 1000);
+        assertEquals(1, registry.get("talend.kafka.producer.errors").tags("topic", "test", "exception", "TimeoutException")
+                .counter().count(), 0);
+
+        interceptor.close();
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    private static double sentRecords(MeterRegistry registry, String partition, String tenant) {
+        return registry.get("talend.kafka.producer.records").tags("topic", "test", "partition", partition, "tenant", tenant)
+                .counter().count();
+    }
 }
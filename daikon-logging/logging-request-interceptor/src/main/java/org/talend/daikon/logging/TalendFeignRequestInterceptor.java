@@ -1,7 +1,5 @@
 package org.talend.daikon.logging;
 
-import java.io.UnsupportedEncodingException;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,6 +17,19 @@ public class TalendFeignRequestInterceptor implements RequestInterceptor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TalendFeignRequestInterceptor.class);
 
+    private final int maxBodySize;
+
+    public TalendFeignRequestInterceptor() {
+        this(TraceRequestUtil.DEFAULT_MAX_BODY_SIZE);
+    }
+
+    /**
+     * @param maxBodySize the maximum number of bytes of request bodies traced
+     */
+    public TalendFeignRequestInterceptor(int maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
     @Override
     public void apply(RequestTemplate template) {
         traceRequest(template.request(), template.body());
@@ -29,11 +40,7 @@ public class TalendFeignRequestInterceptor implements RequestInterceptor {
             LOGGER.trace("requestURI=" + request.url());
             LOGGER.trace("requestMethod=" + request.method());
             LOGGER.trace("requestHeader=" + request.headers());
-            try {
-                LOGGER.trace("requestBody=" + TraceRequestUtil.getRequestBody(body));
-            } catch (UnsupportedEncodingException e) {
-                LOGGER.error(e.getMessage(), e);
-            }
+            LOGGER.trace("requestBody=" + TraceRequestUtil.getRequestBody(body, maxBodySize));
         }
     }
 }
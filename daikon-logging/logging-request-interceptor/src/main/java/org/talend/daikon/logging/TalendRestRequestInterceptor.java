@@ -19,6 +19,19 @@ public class TalendRestRequestInterceptor implements ClientHttpRequestIntercepto
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TalendRestRequestInterceptor.class);
 
+    private final int maxBodySize;
+
+    public TalendRestRequestInterceptor() {
+        this(TraceRequestUtil.DEFAULT_MAX_BODY_SIZE);
+    }
+
+    /**
+     * @param maxBodySize the maximum number of bytes of request bodies traced
+     */
+    public TalendRestRequestInterceptor(int maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
             throws IOException {
@@ -33,12 +46,12 @@ public class TalendRestRequestInterceptor implements ClientHttpRequestIntercepto
         return response;
     }
 
-    private void traceRequest(HttpRequest request, byte[] body) throws IOException {
+    private void traceRequest(HttpRequest request, byte[] body) {
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace("requestURI=" + request.getURI());
             LOGGER.trace("requestMethod=" + request.getMethod());
             LOGGER.trace("requestHeader=" + request.getHeaders());
-            LOGGER.trace("requestBody=" + TraceRequestUtil.getRequestBody(body));
+            LOGGER.trace("requestBody=" + TraceRequestUtil.getRequestBody(body, maxBodySize));
         }
     }
 
@@ -2,20 +2,49 @@ package org.talend.daikon.logging;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 
 public class TraceRequestUtil {
 
+    public static final String MAX_BODY_SIZE_PROPERTY = "talend.logging.request.body.max.size";
+
+    /**
+     * Maximum size (in bytes) of traced request bodies, larger bodies are truncated. Defaults to 10 KB, configurable with
+     * the {@value #MAX_BODY_SIZE_PROPERTY} system property.
+     */
+    public static final int DEFAULT_MAX_BODY_SIZE = Integer.getInteger(MAX_BODY_SIZE_PROPERTY, 10 * 1024);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
     private TraceRequestUtil() {
         // Do not instantiate
     }
 
     public static String getRequestBody(byte[] body) throws UnsupportedEncodingException {
-        if (body != null && body.length > 0) {
-            return getBodyAsJson(new String(body, "UTF-8"));
-        } else {
+        return getRequestBody(body, DEFAULT_MAX_BODY_SIZE);
+    }
+
+    /**
+     * Get a request body to be traced: a JSON body as is, or other (or truncated) bodies as a JSON string
+     *
+     * @param body the UTF-8 encoded body
+     * @param maxSize the maximum number of bytes of the body traced
+     * @return the body to trace, or null if empty
+     */
+    public static String getRequestBody(byte[] body, int maxSize) {
+        if (body == null || body.length == 0) {
             return null;
+        } else if (body.length <= maxSize && isValidJSON(body)) {
+            return new String(body, StandardCharsets.UTF_8);
+        } else {
+            return quoteAsString(body, maxSize);
         }
     }
 
@@ -26,21 +55,91 @@ public class TraceRequestUtil {
             if (isValidJSON(bodyString)) {
                 return bodyString;
             } else {
-                bodyString = bodyString.replaceAll("\"", "\\\"");
-                return "\"" + bodyString + "\"";
+                final StringBuilder builder = new StringBuilder(bodyString.length() + 16).append('"');
+                JsonStringEncoder.getInstance().quoteAsString(bodyString, builder);
+                return builder.append('"').toString();
             }
         }
     }
 
     public static boolean isValidJSON(final String json) {
-        boolean valid = false;
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return isValidJSON(parser);
+        } catch (IOException e) {
+            return false;
+        }
+    }
 
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.readTree(json);
+    private static boolean isValidJSON(final byte[] json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return isValidJSON(parser);
         } catch (IOException e) {
-            valid = false;
+            return false;
+        }
+    }
+
+    /**
+     * Check tokens of a single JSON value, without building it
+     */
+    private static boolean isValidJSON(final JsonParser parser) throws IOException {
+        if (parser.nextToken() == null) {
+            return false;
+        }
+        parser.skipChildren();
+        return parser.nextToken() == null;
+    }
+
+    /**
+     * Escape a body (truncated to maxSize bytes) in a JSON string. UTF-8 bytes are escaped as is, then decoded once.
+     */
+    private static String quoteAsString(final byte[] body, final int maxSize) {
+        int length = Math.min(body.length, Math.max(maxSize, 0));
+        // Do not cut a multi-byte character
+        while (length > 0 && length < body.length && (body[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        final byte[] suffix = length < body.length ? ("...(" + body.length + " bytes)\"").getBytes(StandardCharsets.US_ASCII)
+                : new byte[] { '"' };
+        byte[] quoted = new byte[length + length / 8 + suffix.length + 1];
+        int position = 0;
+        quoted[position++] = '"';
+        for (int i = 0; i < length; i++) {
+            if (quoted.length - position < 6 + suffix.length) {
+                quoted = Arrays.copyOf(quoted, quoted.length * 2);
+            }
+            final byte b = body[i];
+            if (b == '"' || b == '\\') {
+                quoted[position++] = '\\';
+                quoted[position++] = b;
+            } else if (b >= 0 && b < 0x20) {
+                position = escapeControl(b, quoted, position);
+            } else {
+                quoted[position++] = b;
+            }
+        }
+        System.arraycopy(suffix, 0, quoted, position, suffix.length);
+        return new String(quoted, 0, position + suffix.length, StandardCharsets.UTF_8);
+    }
+
+    private static int escapeControl(final byte b, final byte[] quoted, int position) {
+        quoted[position++] = '\\';
+        switch (b) {
+        case '\n':
+            quoted[position++] = 'n';
+            break;
+        case '\r':
+            quoted[position++] = 'r';
+            break;
+        case '\t':
+            quoted[position++] = 't';
+            break;
+        default:
+            quoted[position++] = 'u';
+            quoted[position++] = '0';
+            quoted[position++] = '0';
+            quoted[position++] = HEX[b >> 4];
+            quoted[position++] = HEX[b & 0xF];
         }
-        return valid;
+        return position;
     }
 }
@@ -0,0 +1,65 @@
+package org.talend.daikon.logging;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TraceRequestUtilTest {
+
+    @Test
+    public void testIsValidJSON() {
+        assertThat(TraceRequestUtil.isValidJSON("{\"name\":\"value\",\"values\":[1,2,{\"a\":null}]}"), is(true));
+        assertThat(TraceRequestUtil.isValidJSON("[]"), is(true));
+        assertThat(TraceRequestUtil.isValidJSON(""), is(false));
+        assertThat(TraceRequestUtil.isValidJSON("{\"name\":"), is(false));
+        assertThat(TraceRequestUtil.isValidJSON("{\"name\":\"value\"} trailing"), is(false));
+        assertThat(TraceRequestUtil.isValidJSON("{} {}"), is(false));
+        assertThat(TraceRequestUtil.isValidJSON("name=value"), is(false));
+    }
+
+    @Test
+    public void testGetRequestBody() throws Exception {
+        assertThat(TraceRequestUtil.getRequestBody(null), is(nullValue()));
+        assertThat(TraceRequestUtil.getRequestBody(new byte[0]), is(nullValue()));
+
+        final String json = "{\"name\":\"Caf\u00e9\"}";
+        assertThat(TraceRequestUtil.getRequestBody(bytes(json)), is(json));
+
+        final String text = "name=\"Caf\u00e9\" \\ \n\t\u0001";
+        final String quoted = TraceRequestUtil.getRequestBody(bytes(text));
+        assertThat(quoted, is("\"name=\\\"Caf\u00e9\\\" \\\\ \\n\\t\\u0001\""));
+        assertThat(new ObjectMapper().readValue(quoted, String.class), is(text));
+        assertThat(TraceRequestUtil.getBodyAsJson(text), is(quoted));
+    }
+
+    @Test
+    public void testGetTruncatedRequestBody() throws Exception {
+        final String json = "{\"name\":\"value\"}";
+        assertThat(TraceRequestUtil.getRequestBody(bytes(json), json.length()), is(json));
+        // Truncated JSON is traced as a string
+        final String truncated = TraceRequestUtil.getRequestBody(bytes(json), 8);
+        assertThat(truncated, is("\"{\\\"name\\\":...(16 bytes)\""));
+        assertThat(new ObjectMapper().readValue(truncated, String.class), is("{\"name\":...(16 bytes)"));
+
+        // Multi-byte characters are not cut
+        assertThat(TraceRequestUtil.getRequestBody(bytes("Caf\u00e9s"), 4), is("\"Caf...(6 bytes)\""));
+        assertThat(TraceRequestUtil.getRequestBody(bytes("Caf\u00e9s"), 5), is("\"Caf\u00e9...(6 bytes)\""));
+
+        final StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            large.append("\"\n");
+        }
+        final String quoted = TraceRequestUtil.getRequestBody(bytes(large.toString()), 15_000);
+        assertThat(quoted.length(), is("\"".length() + 2 * 15_000 + "...(20000 bytes)\"".length()));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,395 @@
+package org.talend.tql.avro;
+
+import static org.apache.commons.lang3.StringUtils.equalsIgnoreCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.DoublePredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.apache.avro.Schema;
+import org.apache.commons.lang3.StringUtils;
+import org.talend.daikon.avro.AvroUtils;
+import org.talend.daikon.pattern.PatternMatcher;
+import org.talend.daikon.pattern.character.CharPatternToMatcher;
+import org.talend.daikon.pattern.word.WordPatternToMatcher;
+import org.talend.tql.excp.TqlException;
+import org.talend.tql.model.AllFields;
+import org.talend.tql.model.AndExpression;
+import org.talend.tql.model.ComparisonExpression;
+import org.talend.tql.model.ComparisonOperator;
+import org.talend.tql.model.Expression;
+import org.talend.tql.model.FieldBetweenExpression;
+import org.talend.tql.model.FieldCompliesPattern;
+import org.talend.tql.model.FieldContainsExpression;
+import org.talend.tql.model.FieldInExpression;
+import org.talend.tql.model.FieldIsEmptyExpression;
+import org.talend.tql.model.FieldIsInvalidExpression;
+import org.talend.tql.model.FieldIsNullExpression;
+import org.talend.tql.model.FieldIsValidExpression;
+import org.talend.tql.model.FieldMatchesRegex;
+import org.talend.tql.model.FieldReference;
+import org.talend.tql.model.FieldWordCompliesPattern;
+import org.talend.tql.model.LiteralValue;
+import org.talend.tql.model.NotExpression;
+import org.talend.tql.model.OrExpression;
+import org.talend.tql.model.TqlElement;
+import org.talend.tql.optimizer.InValues;
+import org.talend.tql.visitor.IASTVisitor;
+
+/**
+ * Compiles a TQL expression to {@link FilterNode nodes}, with field positions resolved from schema.
+ * <ul>
+ * <li>Values are compared like in <code>daikon-tql-bean</code>: numbers for numeric fields and &lt;, &gt;...
+ * operators, case insensitive strings otherwise.</li>
+ * <li>A <code>null</code> value (or unparseable number) matches nothing but <code>is null</code>, <code>is empty</code>
+ * and <code>!=</code>.</li>
+ * </ul>
+ */
+class AvroFilterVisitor implements IASTVisitor<FilterNode> {
+
+    private final Schema schema;
+
+    AvroFilterVisitor(Schema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * @return The numeric value, {@link Double#NaN} for <code>null</code> and non numeric values.
+     */
+    static double numberValue(Object value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        if (value instanceof Number && !(value instanceof Float)) {
+            return ((Number) value).doubleValue();
+        }
+        // Floats are compared as displayed (0.1f is 0.1, not 0.10000000149011612).
+        return parseDouble(value.toString());
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String stringValue(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    @Override
+    public FilterNode visit(TqlElement elt) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FilterNode visit(ComparisonOperator elt) {
+        // Handled in ComparisonExpression.
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FilterNode visit(LiteralValue elt) {
+        // Handled in parent expressions.
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FilterNode visit(FieldReference elt) {
+        // Handled in parent expressions.
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FilterNode visit(Expression elt) {
+        // Very generic method: prefer an unsupported exception iso. erratic behavior.
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FilterNode visit(AllFields allFields) {
+        // Handled in parent expressions.
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FilterNode visit(AndExpression elt) {
+        final Expression[] expressions = elt.getExpressions();
+        if (expressions.length == 0) {
+            return new FilterNode.Constant(true);
+        }
+        if (expressions.length == 1) {
+            return expressions[0].accept(this);
+        }
+        return new FilterNode.And(accept(expressions));
+    }
+
+    @Override
+    public FilterNode visit(OrExpression elt) {
+        final Expression[] expressions = elt.getExpressions();
+        if (expressions.length == 0) {
+            return new FilterNode.Constant(false);
+        }
+        if (expressions.length == 1) {
+            return expressions[0].accept(this);
+        }
+        return new FilterNode.Or(accept(expressions));
+    }
+
+    private FilterNode[] accept(Expression[] expressions) {
+        final FilterNode[] nodes = new FilterNode[expressions.length];
+        for (int i = 0; i < expressions.length; i++) {
+            nodes[i] = expressions[i].accept(this);
+        }
+        return nodes;
+    }
+
+    @Override
+    public FilterNode visit(NotExpression elt) {
+        return new FilterNode.Not(elt.getExpression().accept(this));
+    }
+
+    @Override
+    public FilterNode visit(ComparisonExpression elt) {
+        final ComparisonOperator.Enum operator = elt.getOperator().getOperator();
+        final TqlElement valueOrField = elt.getValueOrField();
+        if (valueOrField instanceof FieldReference) {
+            final List<ResolvedField> left = resolve(elt.getField());
+            final ResolvedField right = resolve((FieldReference) valueOrField);
+            if (left.size() != 1) {
+                throw new TqlException("Unable to compare all fields to field '" + right.path + "'.");
+            }
+            return new FilterNode.Fields(left.get(0).positions, right.positions,
+                    compareFields(operator, left.get(0).isNumeric() && right.isNumeric()));
+        }
+        final String value = ((LiteralValue) valueOrField).getValue();
+        return field(elt.getField(), field -> compare(operator, field, value));
+    }
+
+    private static Predicate<Object> compare(ComparisonOperator.Enum operator, ResolvedField field, String value) {
+        final double number = parseDouble(value);
+        switch (operator) {
+        case EQ:
+            return eq(field, value);
+        case NEQ:
+            return eq(field, value).negate();
+        case LT:
+            return numeric(v -> v < number);
+        case LET:
+            return numeric(v -> v <= number);
+        case GT:
+            return numeric(v -> v > number);
+        case GET:
+            return numeric(v -> v >= number);
+        default:
+            throw new UnsupportedOperationException("Unsupported operator: " + operator);
+        }
+    }
+
+    private static BiPredicate<Object, Object> compareFields(ComparisonOperator.Enum operator, boolean numeric) {
+        final BiPredicate<Object, Object> eq = numeric ? (l, r) -> numberValue(l) == numberValue(r)
+                : (l, r) -> l != null && equalsIgnoreCase(stringValue(l), stringValue(r));
+        switch (operator) {
+        case EQ:
+            return eq;
+        case NEQ:
+            return eq.negate();
+        case LT:
+            return (l, r) -> numberValue(l) < numberValue(r);
+        case LET:
+            return (l, r) -> numberValue(l) <= numberValue(r);
+        case GT:
+            return (l, r) -> numberValue(l) > numberValue(r);
+        case GET:
+            return (l, r) -> numberValue(l) >= numberValue(r);
+        default:
+            throw new UnsupportedOperationException("Unsupported operator: " + operator);
+        }
+    }
+
+    private static Predicate<Object> eq(ResolvedField field, String value) {
+        if (field.isNumeric()) {
+            final double number = parseDouble(value);
+            return numeric(v -> v == number);
+        }
+        return v -> v != null && equalsIgnoreCase(v.toString(), value);
+    }
+
+    private static Predicate<Object> numeric(DoublePredicate predicate) {
+        // NaN (null or not a number) never matches.
+        return v -> predicate.test(numberValue(v));
+    }
+
+    private static Predicate<Object> string(Predicate<String> predicate) {
+        return v -> v != null && predicate.test(v.toString());
+    }
+
+    @Override
+    public FilterNode visit(FieldInExpression elt) {
+        final LiteralValue[] values = elt.getValues();
+        return field(elt.getField(), field -> {
+            if (field.isNumeric()) {
+                final double[] numbers = new double[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    numbers[i] = parseDouble(values[i].getValue());
+                }
+                return numeric(InValues.numbers(numbers));
+            }
+            final String[] strings = new String[values.length];
+            for (int i = 0; i < values.length; i++) {
+                strings[i] = values[i].getValue();
+            }
+            return string(InValues.ignoreCase(strings));
+        });
+    }
+
+    @Override
+    public FilterNode visit(FieldBetweenExpression elt) {
+        final double left = parseDouble(elt.getLeft().getValue());
+        final double right = parseDouble(elt.getRight().getValue());
+        final boolean lowerOpen = elt.isLowerOpen();
+        final boolean upperOpen = elt.isUpperOpen();
+        return field(elt.getField(), field -> numeric(v -> (lowerOpen ? v > left : v >= left) //
+                && (upperOpen ? v < right : v <= right)));
+    }
+
+    @Override
+    public FilterNode visit(FieldIsEmptyExpression elt) {
+        return field(elt.getField(), field -> v -> v == null || v.toString().isEmpty());
+    }
+
+    @Override
+    public FilterNode visit(FieldIsNullExpression elt) {
+        return field(elt.getField(), field -> v -> v == null);
+    }
+
+    @Override
+    public FilterNode visit(FieldIsValidExpression elt) {
+        // Needs semantic types, not available in Avro schema.
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FilterNode visit(FieldIsInvalidExpression elt) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FilterNode visit(FieldMatchesRegex elt) {
+        final Pattern pattern = Pattern.compile(elt.getRegex());
+        return field(elt.getField(), field -> string(s -> pattern.matcher(s).matches()));
+    }
+
+    @Override
+    public FilterNode visit(FieldCompliesPattern elt) {
+        final PatternMatcher matcher = matcher(elt.getPattern(), CharPatternToMatcher::toMatcher);
+        return field(elt.getField(), field -> string(matcher::matches));
+    }
+
+    @Override
+    public FilterNode visit(FieldWordCompliesPattern elt) {
+        final PatternMatcher matcher = matcher(elt.getPattern(), pattern -> WordPatternToMatcher.toMatcher(pattern, true));
+        return field(elt.getField(), field -> string(matcher::matches));
+    }
+
+    private static PatternMatcher matcher(String pattern, Function<String, PatternMatcher> compiler) {
+        return pattern == null ? value -> false : compiler.apply(pattern);
+    }
+
+    @Override
+    public FilterNode visit(FieldContainsExpression elt) {
+        final String value = elt.getValue();
+        if (elt.isCaseSensitive()) {
+            return field(elt.getField(), field -> string(s -> StringUtils.contains(s, value)));
+        }
+        return field(elt.getField(), field -> string(s -> StringUtils.containsIgnoreCase(s, value)));
+    }
+
+    private FilterNode field(TqlElement element, Function<ResolvedField, Predicate<Object>> test) {
+        final List<ResolvedField> fields = resolve(element);
+        final int[][] paths = new int[fields.size()][];
+        final Predicate<Object>[] predicates = new Predicate[fields.size()];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = fields.get(i).positions;
+            predicates[i] = test.apply(fields.get(i));
+        }
+        return new FilterNode.Field(paths, predicates);
+    }
+
+    private List<ResolvedField> resolve(TqlElement element) {
+        final List<ResolvedField> fields = new ArrayList<>();
+        if (element instanceof AllFields) {
+            collectLeaves(schema, "", new int[0], fields, new HashSet<>());
+        } else if (element instanceof FieldReference) {
+            fields.add(resolve((FieldReference) element));
+        } else {
+            throw new UnsupportedOperationException("Unsupported field: " + element);
+        }
+        return fields;
+    }
+
+    private ResolvedField resolve(FieldReference reference) {
+        final String path = reference.getPath();
+        final String[] names = StringUtils.split(path, '.');
+        final int[] positions = new int[names.length];
+        Schema current = schema;
+        for (int i = 0; i < names.length; i++) {
+            final Schema record = AvroUtils.unwrapIfNullable(current);
+            final Schema.Field field = record.getType() == Schema.Type.RECORD ? record.getField(names[i]) : null;
+            if (field == null) {
+                throw new TqlException("Unknown field '" + path + "' in schema '" + schema.getName() + "'.");
+            }
+            positions[i] = field.pos();
+            current = field.schema();
+        }
+        return new ResolvedField(path, positions, AvroUtils.unwrapIfNullable(current).getType());
+    }
+
+    private static void collectLeaves(Schema record, String prefix, int[] parent, List<ResolvedField> fields,
+            Set<String> visitedRecords) {
+        // Prevent infinite recursions on recursive schemas: only records of the current path are tracked, so that sibling
+        // fields of the same record type are all collected.
+        if (!visitedRecords.add(record.getFullName())) {
+            return;
+        }
+        for (Schema.Field field : record.getFields()) {
+            final int[] positions = Arrays.copyOf(parent, parent.length + 1);
+            positions[parent.length] = field.pos();
+            final Schema fieldSchema = AvroUtils.unwrapIfNullable(field.schema());
+            if (fieldSchema.getType() == Schema.Type.RECORD) {
+                collectLeaves(fieldSchema, prefix + field.name() + '.', positions, fields, visitedRecords);
+            } else {
+                fields.add(new ResolvedField(prefix + field.name(), positions, fieldSchema.getType()));
+            }
+        }
+        visitedRecords.remove(record.getFullName());
+    }
+
+    private static class ResolvedField {
+
+        private final String path;
+
+        private final int[] positions;
+
+        private final Schema.Type type;
+
+        private ResolvedField(String path, int[] positions, Schema.Type type) {
+            this.path = path;
+            this.positions = positions;
+            this.type = type;
+        }
+
+        private boolean isNumeric() {
+            return AvroUtils.isNumerical(type);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.talend.tql.avro;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.talend.tql.model.Expression;
+import org.talend.tql.optimizer.TqlOptimizer;
+import org.talend.tql.parser.TqlCache;
+
+/**
+ * A TQL query compiled for records of a given {@link Schema}: field names are resolved once to positions, and records
+ * can be filtered by batches (the selected rows are returned as a {@link BitSet}), either from a list of
+ * {@link IndexedRecord} or from columns of values.
+ * <p>
+ * Instances are immutable and thread safe.
+ * <p>
+ * Example:
+ *
+ * <pre>
+ * AvroRecordFilter filter = AvroRecordFilter.of("age > 18 and city = 'Nantes'", schema);
+ * BitSet selected = filter.select(records);
+ * for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+ *     // records.get(i) matches
+ * }
+ * </pre>
+ */
+public class AvroRecordFilter implements Predicate<IndexedRecord> {
+
+    private final Schema schema;
+
+    private final FilterNode root;
+
+    /**
+     * @param expression The TQL expression (evaluated once {@link TqlOptimizer optimized}).
+     * @param schema The schema of filtered records (unknown fields throw a
+     * {@link org.talend.tql.excp.TqlException}).
+     */
+    public AvroRecordFilter(Expression expression, Schema schema) {
+        this.schema = schema;
+        this.root = TqlOptimizer.optimize(expression).accept(new AvroFilterVisitor(schema));
+    }
+
+    /**
+     * @param query A valid TQL query (parsed with {@link TqlCache#getDefault()}).
+     * @param schema The schema of filtered records.
+     * @return The filter.
+     */
+    public static AvroRecordFilter of(String query, Schema schema) {
+        return new AvroRecordFilter(TqlCache.getDefault().parse(query), schema);
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public boolean test(IndexedRecord record) {
+        return root.test(RecordBatch.of(record), 0);
+    }
+
+    /**
+     * @param records The records (of filter's schema).
+     * @return The indexes of matching records.
+     */
+    public BitSet select(List<? extends IndexedRecord> records) {
+        return select(RecordBatch.of(records));
+    }
+
+    /**
+     * @param columns Values of each top level field of schema, indexed by field position (<code>columns[pos][row]</code>).
+     * Columns of fields not used by query can be <code>null</code>.
+     * @param size The number of rows.
+     * @return The indexes of matching rows.
+     */
+    public BitSet select(Object[][] columns, int size) {
+        return select(RecordBatch.of(columns, size));
+    }
+
+    private BitSet select(RecordBatch batch) {
+        final BitSet all = new BitSet(batch.size());
+        all.set(0, batch.size());
+        return root.select(batch, all);
+    }
+}
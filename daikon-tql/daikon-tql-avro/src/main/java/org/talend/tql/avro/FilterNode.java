@@ -0,0 +1,199 @@
+package org.talend.tql.avro;
+
+import java.util.BitSet;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * A compiled TQL expression, evaluated either row by row or on a whole batch: {@link #select(RecordBatch, BitSet)}
+ * only evaluates rows still candidates (e.g. second operand of <code>and</code> only on rows matched by first one).
+ */
+abstract class FilterNode {
+
+    abstract boolean test(RecordBatch batch, int row);
+
+    /**
+     * @param batch The rows.
+     * @param candidates The rows to evaluate, not modified.
+     * @return The matching rows among candidates (a new bit set).
+     */
+    BitSet select(RecordBatch batch, BitSet candidates) {
+        final BitSet selected = new BitSet(batch.size());
+        for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+            if (test(batch, row)) {
+                selected.set(row);
+            }
+        }
+        return selected;
+    }
+
+    static class Constant extends FilterNode {
+
+        private final boolean value;
+
+        Constant(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        boolean test(RecordBatch batch, int row) {
+            return value;
+        }
+
+        @Override
+        BitSet select(RecordBatch batch, BitSet candidates) {
+            return value ? (BitSet) candidates.clone() : new BitSet();
+        }
+    }
+
+    static class And extends FilterNode {
+
+        private final FilterNode[] nodes;
+
+        And(FilterNode[] nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        boolean test(RecordBatch batch, int row) {
+            for (FilterNode node : nodes) {
+                if (!node.test(batch, row)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        BitSet select(RecordBatch batch, BitSet candidates) {
+            BitSet selected = candidates;
+            for (FilterNode node : nodes) {
+                selected = node.select(batch, selected);
+                if (selected.isEmpty()) {
+                    break;
+                }
+            }
+            return selected == candidates ? (BitSet) candidates.clone() : selected;
+        }
+    }
+
+    static class Or extends FilterNode {
+
+        private final FilterNode[] nodes;
+
+        Or(FilterNode[] nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        boolean test(RecordBatch batch, int row) {
+            for (FilterNode node : nodes) {
+                if (node.test(batch, row)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        BitSet select(RecordBatch batch, BitSet candidates) {
+            final BitSet selected = new BitSet(batch.size());
+            final BitSet remaining = (BitSet) candidates.clone();
+            for (FilterNode node : nodes) {
+                final BitSet matched = node.select(batch, remaining);
+                selected.or(matched);
+                remaining.andNot(matched);
+                if (remaining.isEmpty()) {
+                    break;
+                }
+            }
+            return selected;
+        }
+    }
+
+    static class Not extends FilterNode {
+
+        private final FilterNode node;
+
+        Not(FilterNode node) {
+            this.node = node;
+        }
+
+        @Override
+        boolean test(RecordBatch batch, int row) {
+            return !node.test(batch, row);
+        }
+
+        @Override
+        BitSet select(RecordBatch batch, BitSet candidates) {
+            final BitSet selected = (BitSet) candidates.clone();
+            selected.andNot(node.select(batch, candidates));
+            return selected;
+        }
+    }
+
+    /**
+     * Test of field values: matches if value of any of the paths (several ones for <code>*</code>) matches.
+     */
+    static class Field extends FilterNode {
+
+        private final int[][] paths;
+
+        private final Predicate<Object>[] predicates;
+
+        Field(int[][] paths, Predicate<Object>[] predicates) {
+            this.paths = paths;
+            this.predicates = predicates;
+        }
+
+        @Override
+        boolean test(RecordBatch batch, int row) {
+            for (int i = 0; i < paths.length; i++) {
+                if (predicates[i].test(batch.value(row, paths[i]))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        BitSet select(RecordBatch batch, BitSet candidates) {
+            if (paths.length != 1) {
+                return super.select(batch, candidates);
+            }
+            // Most common case: one column, tested in a tight loop.
+            final int[] path = paths[0];
+            final Predicate<Object> predicate = predicates[0];
+            final BitSet selected = new BitSet(batch.size());
+            for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+                if (predicate.test(batch.value(row, path))) {
+                    selected.set(row);
+                }
+            }
+            return selected;
+        }
+    }
+
+    /**
+     * Comparison of 2 fields of same row.
+     */
+    static class Fields extends FilterNode {
+
+        private final int[] left;
+
+        private final int[] right;
+
+        private final BiPredicate<Object, Object> predicate;
+
+        Fields(int[] left, int[] right, BiPredicate<Object, Object> predicate) {
+            this.left = left;
+            this.right = right;
+            this.predicate = predicate;
+        }
+
+        @Override
+        boolean test(RecordBatch batch, int row) {
+            return predicate.test(batch.value(row, left), batch.value(row, right));
+        }
+    }
+}
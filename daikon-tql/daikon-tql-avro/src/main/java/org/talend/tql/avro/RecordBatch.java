@@ -0,0 +1,88 @@
+package org.talend.tql.avro;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.avro.generic.IndexedRecord;
+
+/**
+ * Rows of values, read by field positions (as resolved from schema) rather than by names.
+ */
+interface RecordBatch {
+
+    int size();
+
+    /**
+     * @param row The row index.
+     * @param path Positions of the field (and of the nested fields for nested records).
+     * @return The value, <code>null</code> if value or one of the intermediate records is <code>null</code>.
+     */
+    Object value(int row, int[] path);
+
+    static RecordBatch of(IndexedRecord record) {
+        return new Records(Collections.singletonList(record));
+    }
+
+    static RecordBatch of(List<? extends IndexedRecord> records) {
+        return new Records(records);
+    }
+
+    /**
+     * @param columns Values of each top level field, indexed by field position.
+     * @param size Number of rows.
+     */
+    static RecordBatch of(Object[][] columns, int size) {
+        return new Columns(columns, size);
+    }
+
+    static Object nested(Object value, int[] path) {
+        Object current = value;
+        for (int i = 1; i < path.length && current != null; i++) {
+            current = ((IndexedRecord) current).get(path[i]);
+        }
+        return current;
+    }
+
+    class Records implements RecordBatch {
+
+        private final List<? extends IndexedRecord> records;
+
+        private Records(List<? extends IndexedRecord> records) {
+            this.records = records;
+        }
+
+        @Override
+        public int size() {
+            return records.size();
+        }
+
+        @Override
+        public Object value(int row, int[] path) {
+            final IndexedRecord record = records.get(row);
+            return record == null ? null : nested(record.get(path[0]), path);
+        }
+    }
+
+    class Columns implements RecordBatch {
+
+        private final Object[][] columns;
+
+        private final int size;
+
+        private Columns(Object[][] columns, int size) {
+            this.columns = columns;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object value(int row, int[] path) {
+            final Object[] column = columns[path[0]];
+            return column == null ? null : nested(column[row], path);
+        }
+    }
+}
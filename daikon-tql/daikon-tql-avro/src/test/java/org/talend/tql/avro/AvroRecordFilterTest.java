@@ -0,0 +1,206 @@
+package org.talend.tql.avro;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+import org.talend.tql.excp.TqlException;
+import org.talend.tql.model.AndExpression;
+import org.talend.tql.model.NotExpression;
+import org.talend.tql.model.OrExpression;
+
+public class AvroRecordFilterTest {
+
+    private static final Schema ADDRESS = SchemaBuilder.record("address").fields() //
+            .optionalString("city") //
+            .requiredLong("zip") //
+            .endRecord();
+
+    private static final Schema PERSON = SchemaBuilder.record("person").fields() //
+            .optionalString("name") //
+            .requiredInt("age") //
+            .optionalDouble("score") //
+            .requiredFloat("ratio") //
+            .name("address").type().optional().type(ADDRESS) //
+            .requiredInt("minAge") //
+            .endRecord();
+
+    private final List<IndexedRecord> records = Arrays.asList( //
+            person(new Utf8("john"), 10, 1.5, 0.1f, address("Nantes", 44000), 5), //
+            person("jane", 42, null, 2f, address(null, 75000), 50), //
+            person(null, 0, Double.NaN, 0f, null, 0));
+
+    private static IndexedRecord person(CharSequence name, int age, Double score, float ratio, IndexedRecord address,
+            int minAge) {
+        final GenericData.Record record = new GenericData.Record(PERSON);
+        record.put("name", name);
+        record.put("age", age);
+        record.put("score", score);
+        record.put("ratio", ratio);
+        record.put("address", address);
+        record.put("minAge", minAge);
+        return record;
+    }
+
+    private static IndexedRecord address(String city, long zip) {
+        final GenericData.Record record = new GenericData.Record(ADDRESS);
+        record.put("city", city);
+        record.put("zip", zip);
+        return record;
+    }
+
+    private static BitSet bits(int... indexes) {
+        final BitSet bits = new BitSet();
+        Arrays.stream(indexes).forEach(bits::set);
+        return bits;
+    }
+
+    private void assertSelect(String query, int... expected) {
+        // when
+        final AvroRecordFilter filter = AvroRecordFilter.of(query, PERSON);
+        final BitSet selected = filter.select(records);
+
+        // then
+        assertEquals(bits(expected), selected, query);
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(selected.get(i), filter.test(records.get(i)), query + " on record #" + i);
+        }
+    }
+
+    @Test
+    public void shouldCompareValues() {
+        assertSelect("age > 5", 0, 1);
+        assertSelect("age <= 10", 0, 2);
+        assertSelect("age = 10.0", 0);
+        assertSelect("name = 'JOHN'", 0);
+        assertSelect("name != 'john'", 1, 2);
+        assertSelect("ratio = 0.1", 0);
+        assertSelect("score > 1", 0);
+        assertSelect("age < field(minAge)", 1);
+        assertSelect("* = 42", 1);
+    }
+
+    @Test
+    public void shouldMatchFieldExpressions() {
+        assertSelect("score is null", 1);
+        assertSelect("name is empty", 2);
+        assertSelect("address.zip between [40000, 80000]", 0, 1);
+        assertSelect("age between ]0, 10[");
+        assertSelect("name in ['jane', 'bob']", 1);
+        assertSelect("name in ['a', 'b', 'c', 'd', 'e', 'f', 'g', 'JANE']", 1);
+        assertSelect("age in [1, 2, 3, 4, 5, 6, 7, 8, 42, 0]", 1, 2);
+        assertSelect("name contains 'oh'", 0);
+        assertSelect("name containsIgnoreCase 'OH'", 0);
+        assertSelect("name ~ 'j.*'", 0, 1);
+        assertSelect("name complies 'aaaa'", 0, 1);
+        assertSelect("name wordComplies '[word]'", 0, 1);
+    }
+
+    @Test
+    public void shouldMatchNestedFields() {
+        assertSelect("address.city = 'Nantes'", 0);
+        assertSelect("address.city is null", 1, 2);
+        assertSelect("address.zip > 50000", 1);
+    }
+
+    @Test
+    public void shouldMatchAllFieldsOfSameRecordType() {
+        // given
+        final Schema order = SchemaBuilder.record("order").fields() //
+                .name("billing").type().optional().type(ADDRESS) //
+                .name("shipping").type().optional().type(ADDRESS) //
+                .endRecord();
+        final GenericData.Record record = new GenericData.Record(order);
+        record.put("billing", address("Paris", 75000));
+        record.put("shipping", address("Nantes", 44000));
+
+        // then
+        assertTrue(AvroRecordFilter.of("* = 'Nantes'", order).test(record));
+        assertTrue(AvroRecordFilter.of("* = 'Paris'", order).test(record));
+        assertFalse(AvroRecordFilter.of("* = 'Lyon'", order).test(record));
+    }
+
+    @Test
+    public void shouldCombineExpressions() {
+        assertSelect("name = 'john' or age > 40", 0, 1);
+        assertSelect("age > 5 and address.zip > 50000", 1);
+        assertSelect("not(age > 5)", 2);
+        assertSelect("not(name = 'john' or address.city = 'Paris') and age >= 0", 1, 2);
+    }
+
+    @Test
+    public void shouldMatchEmptyExpressions() {
+        // Empty conjunction matches all records, empty disjunction none
+        final BitSet all = new AvroRecordFilter(new AndExpression(), PERSON).select(records);
+        assertEquals(bits(0, 1, 2), all);
+        final BitSet none = new AvroRecordFilter(new OrExpression(), PERSON).select(records);
+        assertEquals(bits(), none);
+        assertFalse(new AvroRecordFilter(new OrExpression(), PERSON).test(records.get(0)));
+        final BitSet notNone = new AvroRecordFilter(new NotExpression(new OrExpression()), PERSON).select(records);
+        assertEquals(bits(0, 1, 2), notNone);
+    }
+
+    @Test
+    public void shouldSelectColumns() {
+        // given
+        final Object[][] columns = new Object[PERSON.getFields().size()][];
+        columns[PERSON.getField("age").pos()] = new Object[] { 10, 42, 0 };
+        columns[PERSON.getField("address").pos()] = new Object[] { address("Nantes", 44000), address(null, 75000), null };
+
+        // when
+        final BitSet selected = AvroRecordFilter.of("age > 5 and address.zip > 50000", PERSON).select(columns, 3);
+
+        // then
+        assertEquals(bits(1), selected);
+    }
+
+    @Test
+    public void shouldSelectLargeBatch() {
+        // given
+        final List<IndexedRecord> batch = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            batch.add(person("name" + i, i % 100, null, 0f, i % 3 == 0 ? null : address("city" + i, i), 0));
+        }
+        final AvroRecordFilter filter = AvroRecordFilter.of("age between [10, 20] and not(address.zip < 5000)", PERSON);
+
+        // when
+        final BitSet selected = filter.select(batch);
+
+        // then
+        int expected = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            final boolean matches = i % 100 >= 10 && i % 100 <= 20 && (i % 3 == 0 || i >= 5000);
+            assertEquals(matches, selected.get(i), "record #" + i);
+            expected += matches ? 1 : 0;
+        }
+        assertEquals(expected, selected.cardinality());
+    }
+
+    @Test
+    public void shouldFailOnUnknownField() {
+        assertThrows(TqlException.class, () -> AvroRecordFilter.of("unknown = 1", PERSON));
+        assertThrows(TqlException.class, () -> AvroRecordFilter.of("age.value = 1", PERSON));
+    }
+
+    @Test
+    public void shouldTestSingleRecord() {
+        // when
+        final AvroRecordFilter filter = AvroRecordFilter.of("name = 'john'", PERSON);
+
+        // then
+        assertTrue(filter.test(records.get(0)));
+        assertFalse(filter.test(records.get(1)));
+    }
+}
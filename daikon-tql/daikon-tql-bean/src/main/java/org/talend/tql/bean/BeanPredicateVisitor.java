@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -39,8 +40,9 @@ import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.talend.daikon.pattern.character.CharPatternToRegex;
-import org.talend.daikon.pattern.word.WordPatternToRegex;
+import org.talend.daikon.pattern.PatternMatcher;
+import org.talend.daikon.pattern.character.CharPatternToMatcher;
+import org.talend.daikon.pattern.word.WordPatternToMatcher;
 import org.talend.tql.model.AllFields;
 import org.talend.tql.model.AndExpression;
 import org.talend.tql.model.ComparisonExpression;
@@ -103,18 +105,11 @@ public class BeanPredicateVisitor<T> implements IASTVisitor<Predicate<T>> {
     }
 
     /**
-     * Test a string value against a pattern returned during value analysis.
-     *
-     * @param value A string value. May be null.
-     * @param pattern A pattern as returned in value analysis.
-     * @return <code>true</code> if value complies, <code>false</code> otherwise.
+     * @param pattern A pattern as returned in value analysis. May be null.
+     * @return A matcher of string values (always <code>false</code> if pattern is null).
      */
-    private static boolean complies(String value, String pattern) {
-        return value != null && pattern != null && value.matches(CharPatternToRegex.toRegex(pattern));
-    }
-
-    private static boolean wordComplies(String value, String pattern) {
-        return value != null && pattern != null && value.matches(WordPatternToRegex.toRegex(pattern, true));
+    static PatternMatcher toMatcher(String pattern, Function<String, PatternMatcher> compiler) {
+        return pattern == null ? value -> false : compiler.apply(pattern);
     }
 
     private static <T> Predicate<T> unchecked(Predicate<T> predicate) {
@@ -180,7 +175,7 @@ public class BeanPredicateVisitor<T> implements IASTVisitor<Predicate<T>> {
         return Stream.of(expressions) //
                 .map(e -> e.accept(this)) //
                 .reduce(Predicate::or) //
-                .orElseGet(() -> m -> true);
+                .orElseGet(() -> m -> false);
     }
 
     @Override
@@ -309,8 +304,9 @@ public class BeanPredicateVisitor<T> implements IASTVisitor<Predicate<T>> {
         fieldCompliesPattern.getField().accept(this);
         final MethodAccessor[] methods = currentMethods.pop();
 
-        final String pattern = fieldCompliesPattern.getPattern();
-        return anyMatch(methods, o -> complies(valueOf(o), pattern));
+        // pattern is compiled once, not for each value.
+        final PatternMatcher matcher = toMatcher(fieldCompliesPattern.getPattern(), CharPatternToMatcher::toMatcher);
+        return anyMatch(methods, o -> matcher.matches(valueOf(o)));
     }
 
     @Override
@@ -318,8 +314,9 @@ public class BeanPredicateVisitor<T> implements IASTVisitor<Predicate<T>> {
         fieldWordCompliesPattern.getField().accept(this);
         final MethodAccessor[] methods = currentMethods.pop();
 
-        final String pattern = fieldWordCompliesPattern.getPattern();
-        return anyMatch(methods, o -> wordComplies(valueOf(o), pattern));
+        final PatternMatcher matcher = toMatcher(fieldWordCompliesPattern.getPattern(),
+                pattern -> WordPatternToMatcher.toMatcher(pattern, true));
+        return anyMatch(methods, o -> matcher.matches(valueOf(o)));
     }
 
     @Override
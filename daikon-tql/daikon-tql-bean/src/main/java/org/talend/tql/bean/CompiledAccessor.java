@@ -0,0 +1,215 @@
+package org.talend.tql.bean;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A chain of getters resolved once to functions (generated with {@link LambdaMetafactory} when the bean classes allow
+ * it, {@link MethodHandle method handles} otherwise) to read a single value without reflection nor intermediate
+ * collections.
+ * Only chains of {@link UnaryMethodAccessor} can be compiled, {@link #compile(MethodAccessor[])} returns
+ * <code>null</code> for other ones.
+ *
+ * @see BeanPredicateCompiler
+ */
+class CompiledAccessor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledAccessor.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /** getters before the last one */
+    private final Function<Object, Object>[] path;
+
+    private final Function<Object, Object> last;
+
+    /** last getter without boxing, <code>null</code> if it does not return a primitive number */
+    private final ToDoubleFunction<Object> lastAsDouble;
+
+    private final Class<?> returnType;
+
+    private CompiledAccessor(Function<Object, Object>[] path, Function<Object, Object> last,
+            ToDoubleFunction<Object> lastAsDouble, Class<?> returnType) {
+        this.path = path;
+        this.last = last;
+        this.lastAsDouble = lastAsDouble;
+        this.returnType = returnType;
+    }
+
+    /**
+     * @param accessors The accessors as returned by {@link LanguageBinder#getMethods(String)}.
+     * @return The compiled accessor or <code>null</code> if accessors can't be compiled.
+     */
+    static CompiledAccessor compile(MethodAccessor[] accessors) {
+        if (accessors == null || accessors.length == 0) {
+            return null;
+        }
+        for (MethodAccessor accessor : accessors) {
+            if (!(accessor instanceof UnaryMethodAccessor)) {
+                return null;
+            }
+        }
+        try {
+            final Function<Object, Object>[] path = new Function[accessors.length - 1];
+            for (int i = 0; i < path.length; i++) {
+                path[i] = function(((UnaryMethodAccessor) accessors[i]).getMethod());
+            }
+            final Method lastMethod = ((UnaryMethodAccessor) accessors[accessors.length - 1]).getMethod();
+            final Class<?> returnType = lastMethod.getReturnType();
+            final ToDoubleFunction<Object> lastAsDouble = isDouble(returnType) ? toDoubleFunction(lastMethod) : null;
+            return new CompiledAccessor(path, function(lastMethod), lastAsDouble, returnType);
+        } catch (Throwable e) {
+            LOGGER.debug("Unable to compile accessors, use reflection.", e);
+            return null;
+        }
+    }
+
+    /**
+     * @param root The bean.
+     * @return The object the last getter applies to, <code>null</code> if root or an intermediate value is
+     * <code>null</code>.
+     * @throws InvocationException If a getter fails.
+     */
+    Object owner(Object root) {
+        Object current = root;
+        try {
+            for (Function<Object, Object> getter : path) {
+                if (current == null) {
+                    return null;
+                }
+                current = getter.apply(current);
+            }
+        } catch (RuntimeException e) {
+            throw new InvocationException(e);
+        }
+        return current;
+    }
+
+    /**
+     * @param owner The object as returned by {@link #owner(Object)}, not <code>null</code>.
+     * @return The value.
+     * @throws InvocationException If the getter fails.
+     */
+    Object value(Object owner) {
+        try {
+            return last.apply(owner);
+        } catch (RuntimeException e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if {@link #doubleValue(Object)} reads value without boxing.
+     */
+    boolean isPrimitiveNumber() {
+        return lastAsDouble != null;
+    }
+
+    /**
+     * @param owner The object as returned by {@link #owner(Object)}, not <code>null</code>.
+     * @return The value, only if {@link #isPrimitiveNumber()}.
+     * @throws InvocationException If the getter fails.
+     */
+    double doubleValue(Object owner) {
+        try {
+            return lastAsDouble.applyAsDouble(owner);
+        } catch (RuntimeException e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    Class<?> getReturnType() {
+        return returnType;
+    }
+
+    /**
+     * @return <code>true</code> if values of type have same double value than their parsed {@link String} value (not
+     * the case of float: 0.1f is not 0.1).
+     */
+    private static boolean isDouble(Class<?> type) {
+        return type == int.class || type == long.class || type == short.class || type == byte.class
+                || type == double.class;
+    }
+
+    private static Function<Object, Object> function(Method method) throws Throwable {
+        final MethodHandle handle = LOOKUP.unreflect(method);
+        if (isLinkable(method)) {
+            final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", methodType(Function.class),
+                    methodType(Object.class, Object.class), handle,
+                    methodType(method.getReturnType(), method.getDeclaringClass()));
+            return (Function<Object, Object>) site.getTarget().invoke();
+        }
+        final MethodHandle generic = handle.asType(methodType(Object.class, Object.class));
+        return o -> {
+            try {
+                return (Object) generic.invokeExact(o);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        };
+    }
+
+    private static ToDoubleFunction<Object> toDoubleFunction(Method method) throws Throwable {
+        final MethodHandle handle = LOOKUP.unreflect(method);
+        if (isLinkable(method)) {
+            final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "applyAsDouble",
+                    methodType(ToDoubleFunction.class), methodType(double.class, Object.class), handle,
+                    methodType(method.getReturnType(), method.getDeclaringClass()));
+            return (ToDoubleFunction<Object>) site.getTarget().invoke();
+        }
+        final MethodHandle generic = handle.asType(methodType(double.class, Object.class));
+        return o -> {
+            try {
+                return (double) generic.invokeExact(o);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        };
+    }
+
+    /**
+     * Generated lambdas live in this package and class loader: they can only call public methods of public classes
+     * visible from here.
+     */
+    private static boolean isLinkable(Method method) {
+        return Modifier.isPublic(method.getModifiers()) && isVisible(method.getDeclaringClass())
+                && (method.getReturnType().isPrimitive() || isVisible(method.getReturnType()));
+    }
+
+    private static boolean isVisible(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(type.getName(), false, CompiledAccessor.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Failure of a getter (its exception is the cause), to tell it apart from a failure when testing the value.
+     */
+    static class InvocationException extends RuntimeException {
+
+        private InvocationException(RuntimeException cause) {
+            super(cause);
+        }
+    }
+}
@@ -33,4 +33,8 @@ class UnaryMethodAccessor implements MethodAccessor {
     public Class getReturnType() {
         return method.getReturnType();
     }
+
+    Method getMethod() {
+        return method;
+    }
 }
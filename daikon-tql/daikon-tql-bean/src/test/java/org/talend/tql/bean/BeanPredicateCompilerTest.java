@@ -0,0 +1,293 @@
+package org.talend.tql.bean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import org.talend.tql.model.AndExpression;
+import org.talend.tql.model.Expression;
+import org.talend.tql.model.NotExpression;
+import org.talend.tql.model.OrExpression;
+import org.talend.tql.optimizer.TqlOptimizer;
+import org.talend.tql.parser.Tql;
+
+public class BeanPredicateCompilerTest {
+
+    private static final String[] QUERIES = { "age = 10", "age = 10.0", "age != 10", "age > 9", "age >= 10", "age < 10",
+            "age <= 9", "age > 'not a number'", "age between [0, 10]", "age between ]0, 10[", "age in [1, 10, 20]",
+            "score = 1.5", "score > 1", "score is null", "ratio = 0.1", "ratio < 1", "name = 'JOHN'", "name != 'john'",
+            "name in ['jane', 'john']", "name contains 'oh'", "name containsIgnoreCase 'OH'", "name ~ 'j.*'",
+            "name complies 'aaaa'", "name wordComplies '[word]'", "name is null", "address.city = 'Nantes'",
+            "address.zip > 44000", "address.city is null", "tags = 'a'", "name = 'john' and age > 5",
+            "name = 'jane' or age > 5", "not(age > 5)", "not(name = 'john' or address.city = 'Paris')", "* = 10",
+            "name is empty", "name in ['a', 'b', 'c', 'd', 'e', 'f', 'g', 'JANE']", "age in [1, 2, 3, 4, 5, 6, 7, 8, 42]",
+            "name ~ 'j.*' and not(age > 20 and name != 'jane')" };
+
+    private final Person john = new Person("john", 10, 1.5, 0.1f, new Address("Nantes", 44000),
+            Arrays.asList("a", "b"));
+
+    private final Person jane = new Person("jane", 42, null, 2f, new Address(null, 75000), Collections.emptyList());
+
+    private final Person unknown = new Person(null, 0, Double.NaN, 0f, new Address("Paris", 75001),
+            Collections.emptyList());
+
+    @Test
+    public void shouldHaveSameResultsThanVisitor() {
+        for (String query : QUERIES) {
+            // given
+            final Expression expression = Tql.parse(query);
+
+            // when
+            final Predicate<Person> visitor = expression.accept(new BeanPredicateVisitor<>(Person.class));
+            final Predicate<Person> compiled = expression.accept(new BeanPredicateCompiler<>(Person.class));
+
+            // then
+            for (Person person : Arrays.asList(john, jane, unknown)) {
+                assertEquals(visitor.test(person), compiled.test(person), query + " on " + person.getName());
+            }
+        }
+    }
+
+    @Test
+    public void shouldHaveSameResultsWhenOptimized() {
+        for (String query : QUERIES) {
+            // given
+            final Expression expression = Tql.parse(query);
+
+            // when
+            final Predicate<Person> visitor = expression.accept(new BeanPredicateVisitor<>(Person.class));
+            final Predicate<Person> optimized = TqlOptimizer.optimize(expression)
+                    .accept(new BeanPredicateVisitor<>(Person.class));
+
+            // then
+            for (Person person : Arrays.asList(john, jane, unknown)) {
+                assertEquals(visitor.test(person), optimized.test(person), query + " on " + person.getName());
+            }
+        }
+    }
+
+    @Test
+    public void shouldMatchEmptyExpressions() {
+        // Empty conjunction matches all beans, empty disjunction none (as in daikon-tql-avro)
+        final Expression[] expressions = { new AndExpression(), new OrExpression(), new NotExpression(new OrExpression()) };
+        final boolean[] expected = { true, false, true };
+        for (int i = 0; i < expressions.length; i++) {
+            final Predicate<Person> visitor = expressions[i].accept(new BeanPredicateVisitor<>(Person.class));
+            final Predicate<Person> compiled = expressions[i].accept(new BeanPredicateCompiler<>(Person.class));
+            for (Person person : Arrays.asList(john, jane, unknown)) {
+                assertEquals(expected[i], visitor.test(person), expressions[i] + " on " + person.getName());
+                assertEquals(expected[i], compiled.test(person), expressions[i] + " on " + person.getName());
+            }
+        }
+    }
+
+    @Test
+    public void shouldMatchPrimitiveAndNestedFields() {
+        // when
+        final Predicate<Person> predicate = Tql.parse("age between [5, 20] and address.zip >= 44000")
+                .accept(new BeanPredicateCompiler<>(Person.class));
+
+        // then
+        assertTrue(predicate.test(john));
+        assertFalse(predicate.test(jane));
+    }
+
+    @Test
+    public void shouldFallbackOnNullInPath() {
+        // given
+        final Person homeless = new Person("joe", 1, null, 0f, null, null);
+        final Expression query = Tql.parse("address.city = 'Nantes'");
+
+        // when
+        final Predicate<Person> visitor = query.accept(new BeanPredicateVisitor<>(Person.class));
+        final Predicate<Person> compiled = query.accept(new BeanPredicateCompiler<>(Person.class));
+
+        // then
+        assertThrows(IllegalArgumentException.class, () -> visitor.test(homeless));
+        assertThrows(IllegalArgumentException.class, () -> compiled.test(homeless));
+    }
+
+    @Test
+    public void shouldReportFailuresAsVisitor() {
+        // given
+        final Person failing = new FailingPerson();
+        final LanguageBinder binder = new DefaultLanguageBinder(Person.class) {
+
+            @Override
+            public String valueOf(Object value) {
+                if ("boom".equals(value)) {
+                    throw new IllegalStateException("Unable to convert value.");
+                }
+                return super.valueOf(value);
+            }
+        };
+        final Person boom = new Person("boom", 1, null, 0f, null, null);
+
+        for (String query : new String[] { "age > 5", "address.city = 'Nantes'", "name = 'john'" }) {
+            // when
+            final Predicate<Person> visitor = Tql.parse(query).accept(new BeanPredicateVisitor<>(Person.class));
+            final Predicate<Person> compiled = Tql.parse(query).accept(new BeanPredicateCompiler<>(Person.class));
+
+            // then (failing getter)
+            assertThrows(IllegalArgumentException.class, () -> visitor.test(failing));
+            assertThrows(IllegalArgumentException.class, () -> compiled.test(failing));
+        }
+
+        // when
+        final Predicate<Person> visitor = Tql.parse("name = 'john'")
+                .accept(new BeanPredicateVisitor<>(Person.class, binder));
+        final Predicate<Person> compiled = Tql.parse("name = 'john'")
+                .accept(new BeanPredicateCompiler<>(Person.class, binder));
+
+        // then (failing test of value)
+        assertFalse(visitor.test(boom));
+        assertFalse(compiled.test(boom));
+        assertTrue(compiled.test(john));
+    }
+
+    @Test
+    public void shouldCacheCompiledQueries() {
+        // when
+        final Predicate<Person> first = BeanPredicateCompiler.compile("age > 5", Person.class);
+        final Predicate<Person> second = BeanPredicateCompiler.compile("age > 5", Person.class);
+
+        // then
+        assertSame(first, second);
+        assertTrue(first.test(john));
+    }
+
+    @Test
+    public void shouldCompileAccessors() {
+        // when
+        final CompiledAccessor age = CompiledAccessor.compile(new DefaultLanguageBinder(Person.class).getMethods("age"));
+        final CompiledAccessor zip = CompiledAccessor
+                .compile(new DefaultLanguageBinder(Person.class).getMethods("address.zip"));
+        final CompiledAccessor tags = CompiledAccessor.compile(new DefaultLanguageBinder(Person.class).getMethods("tags"));
+        final CompiledAccessor hidden = CompiledAccessor
+                .compile(new DefaultLanguageBinder(HiddenPerson.class).getMethods("name"));
+
+        // then
+        assertNotNull(age);
+        assertTrue(age.isPrimitiveNumber());
+        assertEquals(10.0, age.doubleValue(age.owner(john)));
+        assertEquals(10, age.value(age.owner(john)));
+        assertNotNull(zip);
+        assertEquals(44000.0, zip.doubleValue(zip.owner(john)));
+        assertNull(zip.owner(new Person("joe", 1, null, 0f, null, null)));
+        assertNull(tags);
+        // not public class: method handle iso. generated lambda.
+        assertNotNull(hidden);
+        assertEquals("hidden", hidden.value(hidden.owner(new HiddenPerson())));
+    }
+
+    // Test class
+    public static class Person {
+
+        private final String name;
+
+        private final int age;
+
+        private final Double score;
+
+        private final float ratio;
+
+        private final Address address;
+
+        private final List<String> tags;
+
+        Person(String name, int age, Double score, float ratio, Address address, List<String> tags) {
+            this.name = name;
+            this.age = age;
+            this.score = score;
+            this.ratio = ratio;
+            this.address = address;
+            this.tags = tags;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public Double getScore() {
+            return score;
+        }
+
+        public float getRatio() {
+            return ratio;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+    }
+
+    // Test class
+    public static class Address {
+
+        private final String city;
+
+        private final long zip;
+
+        Address(String city, long zip) {
+            this.city = city;
+            this.zip = zip;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public long getZip() {
+            return zip;
+        }
+    }
+
+    // Test class
+    public static class FailingPerson extends Person {
+
+        FailingPerson() {
+            super("failing", 1, null, 0f, null, null);
+        }
+
+        @Override
+        public String getName() {
+            throw new IllegalStateException("Unable to get name.");
+        }
+
+        @Override
+        public int getAge() {
+            throw new IllegalStateException("Unable to get age.");
+        }
+
+        @Override
+        public Address getAddress() {
+            throw new IllegalStateException("Unable to get address.");
+        }
+    }
+
+    // Test class
+    static class HiddenPerson {
+
+        public String getName() {
+            return "hidden";
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.talend.tql.bean.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.tql.bean.BeanPredicateCompiler;
+import org.talend.tql.bean.BeanPredicateVisitor;
+import org.talend.tql.model.Expression;
+import org.talend.tql.parser.Tql;
+
+/**
+ * Filter a list of beans with a predicate built by {@link BeanPredicateVisitor} or by {@link BeanPredicateCompiler}.
+ * Run with main method (not part of unit tests).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(BeanPredicateBenchmark.NB_BEANS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BeanPredicateBenchmark {
+
+    static final int NB_BEANS = 1_000_000;
+
+    @Param({ "age > 50", //
+            "name = 'name 42'", //
+            "address.zip between [10000, 20000] and name contains '1'", //
+            "age in [1, 2, 3] or address.city = 'Nantes'" })
+    private String query;
+
+    private List<Person> persons;
+
+    private Predicate<Person> visitor;
+
+    private Predicate<Person> compiled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42L);
+        final String[] cities = { "Nantes", "Paris", "Suresnes", "Lyon" };
+        this.persons = new ArrayList<>(NB_BEANS);
+        for (int i = 0; i < NB_BEANS; i++) {
+            this.persons.add(new Person("name " + random.nextInt(1000), random.nextInt(100),
+                    new Address(cities[random.nextInt(cities.length)], random.nextInt(100_000))));
+        }
+        final Expression expression = Tql.parse(this.query);
+        this.visitor = expression.accept(new BeanPredicateVisitor<>(Person.class));
+        this.compiled = expression.accept(new BeanPredicateCompiler<>(Person.class));
+    }
+
+    @Benchmark
+    public int visitor() {
+        return count(this.visitor);
+    }
+
+    @Benchmark
+    public int compiled() {
+        return count(this.compiled);
+    }
+
+    private int count(Predicate<Person> predicate) {
+        int count = 0;
+        for (Person person : this.persons) {
+            if (predicate.test(person)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BeanPredicateBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    public static class Person {
+
+        private final String name;
+
+        private final int age;
+
+        private final Address address;
+
+        Person(String name, int age, Address address) {
+            this.name = name;
+            this.age = age;
+            this.address = address;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+    }
+
+    public static class Address {
+
+        private final String city;
+
+        private final int zip;
+
+        Address(String city, int zip) {
+            this.city = city;
+            this.zip = zip;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public int getZip() {
+            return zip;
+        }
+    }
+}
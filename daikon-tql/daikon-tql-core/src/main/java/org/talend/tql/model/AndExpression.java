@@ -3,6 +3,7 @@ package org.talend.tql.model;
 import java.util.Arrays;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /**
@@ -48,4 +49,9 @@ public class AndExpression implements Expression {
         return expression instanceof AndExpression
                 && new EqualsBuilder().append(((AndExpression) expression).getExpressions(), this.expressions).isEquals();
     }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(expressions).toHashCode();
+    }
 }
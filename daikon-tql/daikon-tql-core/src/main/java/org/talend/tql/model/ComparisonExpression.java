@@ -1,6 +1,7 @@
 package org.talend.tql.model;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /*
@@ -58,4 +59,9 @@ public class ComparisonExpression implements Atom {
                         .append(field, ((ComparisonExpression) expression).field)
                         .append(valueOrField, ((ComparisonExpression) expression).valueOrField).isEquals();
     }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(operator).append(field).append(valueOrField).toHashCode();
+    }
 }
@@ -1,6 +1,7 @@
 package org.talend.tql.model;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /*
@@ -60,6 +61,11 @@ public class ComparisonOperator implements TqlElement {
                 && new EqualsBuilder().append(this.getOperator(), ((ComparisonOperator) expression).getOperator()).isEquals();
     }
 
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(operator).toHashCode();
+    }
+
     public enum Enum {
         EQ,
         LT,
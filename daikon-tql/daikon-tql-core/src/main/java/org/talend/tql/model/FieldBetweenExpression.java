@@ -1,6 +1,7 @@
 package org.talend.tql.model;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /*
@@ -77,4 +78,10 @@ public class FieldBetweenExpression implements Atom {
                         .append(isLowerOpen, ((FieldBetweenExpression) expression).isLowerOpen)
                         .append(isUpperOpen, ((FieldBetweenExpression) expression).isUpperOpen).isEquals();
     }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(field).append(left)
+                .append(right).append(isLowerOpen).append(isUpperOpen).toHashCode();
+    }
 }
@@ -1,6 +1,7 @@
 package org.talend.tql.model;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /*
@@ -50,4 +51,9 @@ public class FieldCompliesPattern implements Atom {
                 && new EqualsBuilder().append(field, ((FieldCompliesPattern) expression).field)
                         .append(pattern, ((FieldCompliesPattern) expression).pattern).isEquals();
     }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(field).append(pattern).toHashCode();
+    }
 }
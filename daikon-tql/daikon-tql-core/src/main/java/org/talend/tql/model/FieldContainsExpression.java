@@ -1,6 +1,7 @@
 package org.talend.tql.model;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /*
@@ -65,4 +66,9 @@ public class FieldContainsExpression implements Atom {
                         .append(value, ((FieldContainsExpression) expression).value)
                         .append(caseSensitive, ((FieldContainsExpression) expression).caseSensitive).isEquals();
     }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(field).append(value).append(caseSensitive).toHashCode();
+    }
 }
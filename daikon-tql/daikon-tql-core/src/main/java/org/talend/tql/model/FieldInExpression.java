@@ -3,6 +3,7 @@ package org.talend.tql.model;
 import java.util.Arrays;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /*
@@ -57,4 +58,9 @@ public class FieldInExpression implements Atom {
                 && new EqualsBuilder().append(field, ((FieldInExpression) expression).field)
                         .append(values, ((FieldInExpression) expression).values).isEquals();
     }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(field).append(values).toHashCode();
+    }
 }
@@ -1,6 +1,7 @@
 package org.talend.tql.model;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /**
@@ -38,4 +39,9 @@ public class FieldIsValidExpression implements Atom {
         return expression instanceof FieldIsValidExpression
                 && new EqualsBuilder().append(field, ((FieldIsValidExpression) expression).field).isEquals();
     }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(field).toHashCode();
+    }
 }
@@ -1,6 +1,7 @@
 package org.talend.tql.model;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /*
@@ -50,4 +51,9 @@ public class FieldMatchesRegex implements Atom {
                 && new EqualsBuilder().append(field, ((FieldMatchesRegex) expression).field)
                         .append(regex, ((FieldMatchesRegex) expression).regex).isEquals();
     }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(field).append(regex).toHashCode();
+    }
 }
@@ -1,6 +1,7 @@
 package org.talend.tql.model;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /*
@@ -42,4 +43,9 @@ public class FieldReference implements TqlElement {
         return expression instanceof FieldReference
                 && new EqualsBuilder().append(((FieldReference) expression).getPath(), this.getPath()).isEquals();
     }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(path).toHashCode();
+    }
 }
@@ -1,6 +1,7 @@
 package org.talend.tql.model;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /*
@@ -47,4 +48,9 @@ public class FieldWordCompliesPattern implements Atom {
                 && new EqualsBuilder().append(field, ((FieldWordCompliesPattern) expression).field)
                         .append(pattern, ((FieldWordCompliesPattern) expression).pattern).isEquals();
     }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(field).append(pattern).toHashCode();
+    }
 }
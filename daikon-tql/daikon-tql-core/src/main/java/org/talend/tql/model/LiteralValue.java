@@ -1,6 +1,7 @@
 package org.talend.tql.model;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /*
@@ -51,6 +52,11 @@ public class LiteralValue implements TqlElement {
                         .append(((LiteralValue) expression).getLiteral(), this.getLiteral()).isEquals();
     }
 
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(value).append(literal).toHashCode();
+    }
+
     public enum Enum {
         QUOTED_VALUE,
         INT,
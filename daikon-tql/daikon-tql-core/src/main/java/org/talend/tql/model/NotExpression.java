@@ -1,6 +1,7 @@
 package org.talend.tql.model;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /*
@@ -43,4 +44,9 @@ public class NotExpression implements Atom {
         return expression instanceof NotExpression
                 && new EqualsBuilder().append(this.expression, ((NotExpression) expression).expression).isEquals();
     }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(expression).toHashCode();
+    }
 }
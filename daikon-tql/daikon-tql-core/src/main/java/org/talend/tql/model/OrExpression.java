@@ -3,6 +3,7 @@ package org.talend.tql.model;
 import java.util.Arrays;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.talend.tql.visitor.IASTVisitor;
 
 /*
@@ -50,4 +51,9 @@ public class OrExpression implements Expression {
         return expression instanceof OrExpression
                 && new EqualsBuilder().append(expressions, ((OrExpression) expression).getExpressions()).isEquals();
     }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(expressions).toHashCode();
+    }
 }
@@ -0,0 +1,87 @@
+package org.talend.tql.optimizer;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Membership tests for values of a <code>in</code> expression: a loop for a few values, a hash lookup for more.
+ */
+public final class InValues {
+
+    /** Minimum number of values for hash lookups. */
+    static final int HASH_THRESHOLD = 8;
+
+    private InValues() {
+    }
+
+    /**
+     * @param numbers The values (a NaN value never matches).
+     * @return A test equivalent to <code>==</code> with any of the values.
+     */
+    public static DoublePredicate numbers(double... numbers) {
+        if (numbers.length < HASH_THRESHOLD) {
+            final double[] copy = numbers.clone();
+            return d -> {
+                for (double number : copy) {
+                    if (d == number) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+        final Set<Double> set = new HashSet<>();
+        for (double number : numbers) {
+            if (!Double.isNaN(number)) {
+                // +0.0 to match -0.0 as ==
+                set.add(number + 0.0);
+            }
+        }
+        return d -> set.contains(d + 0.0);
+    }
+
+    /**
+     * @param strings The values (not null).
+     * @return A test equivalent to {@link StringUtils#equalsIgnoreCase(CharSequence, CharSequence)} with any of the
+     * values (a <code>null</code> string never matches).
+     */
+    public static Predicate<String> ignoreCase(String... strings) {
+        if (strings.length < HASH_THRESHOLD) {
+            final String[] copy = strings.clone();
+            return s -> {
+                if (s == null) {
+                    return false;
+                }
+                for (String string : copy) {
+                    if (StringUtils.equalsIgnoreCase(s, string)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+        final Set<String> set = new HashSet<>();
+        for (String string : strings) {
+            set.add(foldCase(string));
+        }
+        return s -> s != null && set.contains(foldCase(s));
+    }
+
+    /**
+     * @return A string equal to the one of any value equal ignoring case (same case mapping than
+     * {@link String#equalsIgnoreCase(String)}).
+     */
+    static String foldCase(String value) {
+        final StringBuilder folded = new StringBuilder(value.length());
+        for (int i = 0; i < value.length();) {
+            final int codePoint = value.codePointAt(i);
+            folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint)));
+            i += Character.charCount(codePoint);
+        }
+        return folded.toString();
+    }
+}
@@ -0,0 +1,326 @@
+package org.talend.tql.optimizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.talend.tql.model.AllFields;
+import org.talend.tql.model.AndExpression;
+import org.talend.tql.model.ComparisonExpression;
+import org.talend.tql.model.ComparisonOperator;
+import org.talend.tql.model.Expression;
+import org.talend.tql.model.FieldBetweenExpression;
+import org.talend.tql.model.FieldCompliesPattern;
+import org.talend.tql.model.FieldContainsExpression;
+import org.talend.tql.model.FieldInExpression;
+import org.talend.tql.model.FieldIsEmptyExpression;
+import org.talend.tql.model.FieldIsInvalidExpression;
+import org.talend.tql.model.FieldIsNullExpression;
+import org.talend.tql.model.FieldIsValidExpression;
+import org.talend.tql.model.FieldMatchesRegex;
+import org.talend.tql.model.FieldReference;
+import org.talend.tql.model.FieldWordCompliesPattern;
+import org.talend.tql.model.LiteralValue;
+import org.talend.tql.model.NotExpression;
+import org.talend.tql.model.OrExpression;
+import org.talend.tql.model.TqlElement;
+import org.talend.tql.visitor.IASTVisitor;
+
+/**
+ * Rewrites a TQL expression to an equivalent one, cheaper to evaluate:
+ * <ul>
+ * <li>nested <code>and</code> / <code>or</code> are flattened, duplicated operands removed (as well as operands absorbed
+ * by another one: <code>a and (a or b)</code> is <code>a</code>), and single operands unwrapped.</li>
+ * <li><code>not</code> is pushed down to atoms (<code>not(a and b)</code> is <code>not(a) or not(b)</code>),
+ * <code>not(not(a))</code> is <code>a</code>. Atoms are never negated (e.g. <code>not(a &gt; 1)</code> is <i>not</i>
+ * <code>a &lt;= 1</code> for a <code>null</code> value).</li>
+ * <li>duplicated values of <code>in</code> are removed (see {@link InValues} for their evaluation).</li>
+ * <li>operands are ordered by estimated cost and selectivity: for <code>and</code>, cheap and selective operands first
+ * (regular expressions and patterns last), for <code>or</code>, cheap and likely to match operands first.</li>
+ * </ul>
+ * Rewritten expressions have the same results for all backends (only the order of evaluation changes). Atoms are
+ * shared with the original expression.
+ */
+public class TqlOptimizer implements IASTVisitor<TqlElement> {
+
+    private static final TqlOptimizer INSTANCE = new TqlOptimizer();
+
+    /**
+     * @param expression A TQL expression (not modified).
+     * @return The optimized expression.
+     */
+    public static Expression optimize(Expression expression) {
+        return (Expression) expression.accept(INSTANCE);
+    }
+
+    private Expression optimizeExpression(Expression expression) {
+        return (Expression) expression.accept(this);
+    }
+
+    @Override
+    public TqlElement visit(TqlElement elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(ComparisonOperator elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(LiteralValue elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(FieldReference elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(Expression elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(AllFields allFields) {
+        return allFields;
+    }
+
+    @Override
+    public TqlElement visit(AndExpression elt) {
+        return and(map(elt.getExpressions(), this::optimizeExpression));
+    }
+
+    @Override
+    public TqlElement visit(OrExpression elt) {
+        return or(map(elt.getExpressions(), this::optimizeExpression));
+    }
+
+    @Override
+    public TqlElement visit(NotExpression elt) {
+        return negate(elt.getExpression());
+    }
+
+    /**
+     * @return The optimized negation of expression.
+     */
+    private Expression negate(Expression expression) {
+        if (expression instanceof NotExpression) {
+            return optimizeExpression(((NotExpression) expression).getExpression());
+        } else if (expression instanceof AndExpression) {
+            return or(map(((AndExpression) expression).getExpressions(), this::negate));
+        } else if (expression instanceof OrExpression) {
+            return and(map(((OrExpression) expression).getExpressions(), this::negate));
+        }
+        return new NotExpression(optimizeExpression(expression));
+    }
+
+    private static List<Expression> map(Expression[] expressions, Function<Expression, Expression> function) {
+        final List<Expression> mapped = new ArrayList<>(expressions.length);
+        for (Expression expression : expressions) {
+            mapped.add(function.apply(expression));
+        }
+        return mapped;
+    }
+
+    private static Expression and(List<Expression> operands) {
+        final List<Expression> flattened = flatten(operands, AndExpression.class);
+        // "a and (a or b)" is "a".
+        flattened.removeIf(e -> e instanceof OrExpression && containsAny((OrExpression) e, flattened));
+        if (flattened.size() == 1) {
+            return flattened.get(0);
+        }
+        // cheap and selective first.
+        flattened.sort(Comparator.comparingDouble(e -> cost(e) / Math.max(1 - selectivity(e), 1e-3)));
+        return new AndExpression(flattened.toArray(new Expression[0]));
+    }
+
+    private static Expression or(List<Expression> operands) {
+        final List<Expression> flattened = flatten(operands, OrExpression.class);
+        // "a or (a and b)" is "a".
+        flattened.removeIf(e -> e instanceof AndExpression && containsAny((AndExpression) e, flattened));
+        if (flattened.size() == 1) {
+            return flattened.get(0);
+        }
+        // cheap and likely to match first.
+        flattened.sort(Comparator.comparingDouble(e -> cost(e) / Math.max(selectivity(e), 1e-3)));
+        return new OrExpression(flattened.toArray(new Expression[0]));
+    }
+
+    private static List<Expression> flatten(List<Expression> operands, Class<? extends Expression> type) {
+        final Set<Expression> flattened = new LinkedHashSet<>();
+        for (Expression operand : operands) {
+            if (type.isInstance(operand)) {
+                flattened.addAll(Arrays.asList(operands(operand)));
+            } else {
+                flattened.add(operand);
+            }
+        }
+        return new ArrayList<>(flattened);
+    }
+
+    private static Expression[] operands(Expression expression) {
+        return expression instanceof AndExpression ? ((AndExpression) expression).getExpressions()
+                : ((OrExpression) expression).getExpressions();
+    }
+
+    private static boolean containsAny(Expression expression, List<Expression> siblings) {
+        for (Expression operand : operands(expression)) {
+            if (siblings.contains(operand)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public TqlElement visit(FieldInExpression elt) {
+        final LiteralValue[] values = elt.getValues();
+        final Set<LiteralValue> distinct = new LinkedHashSet<>(Arrays.asList(values));
+        if (distinct.size() == values.length) {
+            return elt;
+        }
+        return new FieldInExpression(elt.getField(), distinct.toArray(new LiteralValue[0]));
+    }
+
+    @Override
+    public TqlElement visit(ComparisonExpression elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(FieldIsEmptyExpression elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(FieldIsValidExpression elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(FieldIsInvalidExpression elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(FieldIsNullExpression elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(FieldMatchesRegex elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(FieldCompliesPattern elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(FieldWordCompliesPattern elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(FieldBetweenExpression elt) {
+        return elt;
+    }
+
+    @Override
+    public TqlElement visit(FieldContainsExpression elt) {
+        return elt;
+    }
+
+    /**
+     * @return Estimated cost of evaluating expression on a value (relative to an <code>is null</code> test).
+     */
+    static double cost(Expression expression) {
+        if (expression instanceof AndExpression || expression instanceof OrExpression) {
+            double cost = 0;
+            for (Expression operand : operands(expression)) {
+                cost += cost(operand);
+            }
+            return cost;
+        } else if (expression instanceof NotExpression) {
+            return cost(((NotExpression) expression).getExpression());
+        } else if (expression instanceof ComparisonExpression) {
+            final ComparisonExpression comparison = (ComparisonExpression) expression;
+            return fieldCost(comparison.getField(), comparison.getValueOrField() instanceof FieldReference ? 3 : 2);
+        } else if (expression instanceof FieldIsNullExpression) {
+            return fieldCost(((FieldIsNullExpression) expression).getField(), 1);
+        } else if (expression instanceof FieldIsEmptyExpression) {
+            return fieldCost(((FieldIsEmptyExpression) expression).getField(), 1);
+        } else if (expression instanceof FieldInExpression) {
+            return fieldCost(((FieldInExpression) expression).getField(), 3);
+        } else if (expression instanceof FieldBetweenExpression) {
+            return fieldCost(((FieldBetweenExpression) expression).getField(), 3);
+        } else if (expression instanceof FieldContainsExpression) {
+            return fieldCost(((FieldContainsExpression) expression).getField(), 4);
+        } else if (expression instanceof FieldCompliesPattern) {
+            return fieldCost(((FieldCompliesPattern) expression).getField(), 8);
+        } else if (expression instanceof FieldWordCompliesPattern) {
+            return fieldCost(((FieldWordCompliesPattern) expression).getField(), 8);
+        } else if (expression instanceof FieldMatchesRegex) {
+            return fieldCost(((FieldMatchesRegex) expression).getField(), 10);
+        } else if (expression instanceof FieldIsValidExpression) {
+            return fieldCost(((FieldIsValidExpression) expression).getField(), 10);
+        } else if (expression instanceof FieldIsInvalidExpression) {
+            return fieldCost(((FieldIsInvalidExpression) expression).getField(), 10);
+        }
+        return 5;
+    }
+
+    private static double fieldCost(TqlElement field, double cost) {
+        // "*" is evaluated on all fields.
+        return field instanceof AllFields ? cost * 10 : cost;
+    }
+
+    /**
+     * @return Estimated probability for a value to match expression (no statistics: guessed from operators).
+     */
+    static double selectivity(Expression expression) {
+        if (expression instanceof AndExpression) {
+            double selectivity = 1;
+            for (Expression operand : operands(expression)) {
+                selectivity *= selectivity(operand);
+            }
+            return selectivity;
+        } else if (expression instanceof OrExpression) {
+            double notSelected = 1;
+            for (Expression operand : operands(expression)) {
+                notSelected *= 1 - selectivity(operand);
+            }
+            return 1 - notSelected;
+        } else if (expression instanceof NotExpression) {
+            return 1 - selectivity(((NotExpression) expression).getExpression());
+        } else if (expression instanceof ComparisonExpression) {
+            switch (((ComparisonExpression) expression).getOperator().getOperator()) {
+            case EQ:
+                return 0.1;
+            case NEQ:
+                return 0.9;
+            default:
+                return 1.0 / 3;
+            }
+        } else if (expression instanceof FieldInExpression) {
+            return Math.min(0.1 * ((FieldInExpression) expression).getValues().length, 0.5);
+        } else if (expression instanceof FieldIsNullExpression || expression instanceof FieldIsEmptyExpression
+                || expression instanceof FieldIsInvalidExpression) {
+            return 0.1;
+        } else if (expression instanceof FieldIsValidExpression) {
+            return 0.9;
+        } else if (expression instanceof FieldBetweenExpression) {
+            return 0.25;
+        } else if (expression instanceof FieldContainsExpression) {
+            return 0.2;
+        }
+        return 0.25;
+    }
+}
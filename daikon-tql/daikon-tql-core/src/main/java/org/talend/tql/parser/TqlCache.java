@@ -0,0 +1,223 @@
+package org.talend.tql.parser;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.talend.tql.model.Expression;
+
+/**
+ * A bounded cache of parsed TQL queries, to be used when the same queries are parsed again and again (e.g. filters of
+ * REST calls).
+ * <ul>
+ * <li>Queries are keyed by their normalized text: white spaces outside of quoted values are not significant.</li>
+ * <li>Parsed expressions are shared: they must not be modified (use
+ * {@link org.talend.tql.api.TqlBuilder#cloneExpression(Expression)} to get a copy to modify).</li>
+ * <li>Queries with equal expressions (e.g. <code>a = 1</code> and <code>a=1</code>) share the same instance, and
+ * the same translations.</li>
+ * <li>Translations of an expression (Mongo criteria, DSEL node...) can be memoized with
+ * {@link #translate(String, Object, Function)}: they are shared too, so only immutable (or never modified) ones
+ * should be cached.</li>
+ * </ul>
+ * When cache is full, the least recently used query is evicted: queries are kept in an access-ordered map guarded by a
+ * lock, a lookup is short compared to a parse (done out of the lock). The entry shared by equal expressions is kept as
+ * long as one of their queries is cached. Invalid queries are not cached.
+ */
+public class TqlCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final TqlCache DEFAULT = new TqlCache(DEFAULT_MAX_SIZE);
+
+    private final int maxSize;
+
+    private final Object lock = new Object();
+
+    /** in access order, least recently used query first (guarded by lock) */
+    private final LinkedHashMap<String, Entry> byQuery = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** to share entries of queries with equal expressions (guarded by lock) */
+    private final Map<Expression, Entry> byExpression = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxSize Max number of cached queries.
+     */
+    public TqlCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return The cache shared by TQL libraries.
+     */
+    public static TqlCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Same as {@link Tql#parse(String)}, but returns a cached expression if query was already parsed.
+     *
+     * @param query A valid query text.
+     * @return The shared expression of the query, not to be modified.
+     */
+    public Expression parse(String query) {
+        return entry(query).expression;
+    }
+
+    /**
+     * Get the translation of a query, computed once per query (and translation key).
+     *
+     * @param query A valid query text.
+     * @param translationKey Key of the translation kind, e.g. the translator class.
+     * @param translator Function to translate the expression of the query.
+     * @param <T> Type of translation.
+     * @return The shared translation, not to be modified.
+     */
+    public <T> T translate(String query, Object translationKey, Function<Expression, T> translator) {
+        final Entry entry = entry(query);
+        return (T) entry.translations.computeIfAbsent(translationKey, key -> translator.apply(entry.expression));
+    }
+
+    private Entry entry(String query) {
+        final String normalized = normalize(query);
+        synchronized (lock) {
+            final Entry entry = byQuery.get(normalized);
+            if (entry != null) {
+                hits.incrementAndGet();
+                return entry;
+            }
+        }
+        misses.incrementAndGet();
+        final Expression expression = Tql.parse(query);
+        synchronized (lock) {
+            final Entry previous = byQuery.get(normalized);
+            if (previous != null) {
+                // parsed concurrently
+                return previous;
+            }
+            final Entry entry = byExpression.computeIfAbsent(expression, Entry::new);
+            entry.queries++;
+            byQuery.put(normalized, entry);
+            if (byQuery.size() > maxSize) {
+                evictEldest();
+            }
+            return entry;
+        }
+    }
+
+    private void evictEldest() {
+        final Iterator<Entry> iterator = byQuery.values().iterator();
+        final Entry evicted = iterator.next();
+        iterator.remove();
+        if (--evicted.queries == 0) {
+            byExpression.remove(evicted.expression);
+        }
+        evictions.incrementAndGet();
+    }
+
+    /**
+     * @param query A query text.
+     * @return The query without leading or trailing white spaces, and a single space for other white spaces (except in
+     * quoted values).
+     */
+    static String normalize(String query) {
+        final StringBuilder normalized = new StringBuilder(query.length());
+        boolean quoted = false;
+        boolean space = false;
+        for (int i = 0; i < query.length(); i++) {
+            final char c = query.charAt(i);
+            if (quoted) {
+                normalized.append(c);
+                if (c == '\\' && i + 1 < query.length() && query.charAt(i + 1) == '\'') {
+                    normalized.append('\'');
+                    i++;
+                } else if (c == '\'') {
+                    quoted = false;
+                }
+            } else if (c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == '\f') {
+                space = normalized.length() > 0;
+            } else {
+                if (space) {
+                    normalized.append(' ');
+                    space = false;
+                }
+                normalized.append(c);
+                quoted = c == '\'';
+            }
+        }
+        return query.contentEquals(normalized) ? query : normalized.toString();
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            byQuery.clear();
+            byExpression.clear();
+        }
+    }
+
+    /**
+     * @return Number of cached queries.
+     */
+    public int size() {
+        synchronized (lock) {
+            return byQuery.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @return Ratio of queries found in cache, 0 if cache was never used.
+     */
+    public double getHitRate() {
+        final long hitCount = hits.get();
+        final long total = hitCount + misses.get();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return "TqlCache{" + "size=" + size() + ", maxSize=" + maxSize + ", hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + '}';
+    }
+
+    private static class Entry {
+
+        private final Expression expression;
+
+        private final Map<Object, Object> translations = new ConcurrentHashMap<>();
+
+        /** number of cached queries sharing this entry (guarded by lock) */
+        private int queries;
+
+        private Entry(Expression expression) {
+            this.expression = expression;
+        }
+    }
+}
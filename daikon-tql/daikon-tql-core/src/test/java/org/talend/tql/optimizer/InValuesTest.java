@@ -0,0 +1,79 @@
+package org.talend.tql.optimizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+public class InValuesTest {
+
+    /** letters with special case mappings (long s, Kelvin sign, dotted/dotless i, sigmas, sharp s, Deseret) */
+    private static final String[] CHARS = { "a", "A", "s", "S", "ſ", "k", "K", "K", "i", "I", "İ", "ı",
+            "Σ", "σ", "ς", "ß", "1", "𐐀", "𐐨" };
+
+    @Test
+    public void shouldMatchNumbers() {
+        // when
+        final DoublePredicate few = InValues.numbers(1, 2.5);
+        final DoublePredicate many = InValues.numbers(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 2.5, Double.NaN);
+
+        // then
+        for (DoublePredicate in : new DoublePredicate[] { few, many }) {
+            assertTrue(in.test(1));
+            assertTrue(in.test(2.5));
+            assertFalse(in.test(1.5));
+            assertFalse(in.test(Double.NaN));
+        }
+        assertTrue(many.test(-0.0));
+    }
+
+    @Test
+    public void shouldMatchStringsIgnoringCase() {
+        // when
+        final Predicate<String> few = InValues.ignoreCase("john", "Jane");
+        final Predicate<String> many = InValues.ignoreCase("a", "b", "c", "d", "e", "f", "g", "john", "Jane");
+
+        // then
+        for (Predicate<String> in : new Predicate[] { few, many }) {
+            assertTrue(in.test("JOHN"));
+            assertTrue(in.test("jane"));
+            assertFalse(in.test("bob"));
+            assertFalse(in.test(null));
+        }
+    }
+
+    @Test
+    public void shouldHaveSameResultsThanEqualsIgnoreCase() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            // given
+            final String value = randomString(random);
+            final String[] values = new String[InValues.HASH_THRESHOLD];
+            for (int j = 0; j < values.length; j++) {
+                values[j] = randomString(random);
+            }
+            boolean expected = false;
+            for (String v : values) {
+                expected |= StringUtils.equalsIgnoreCase(value, v);
+            }
+
+            // then
+            assertEquals(expected, InValues.ignoreCase(values).test(value), value);
+        }
+    }
+
+    private static String randomString(Random random) {
+        final StringBuilder builder = new StringBuilder();
+        final int length = random.nextInt(3);
+        for (int i = 0; i < length; i++) {
+            builder.append(CHARS[random.nextInt(CHARS.length)]);
+        }
+        return builder.toString();
+    }
+}
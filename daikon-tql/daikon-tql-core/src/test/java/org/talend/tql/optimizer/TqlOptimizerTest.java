@@ -0,0 +1,114 @@
+package org.talend.tql.optimizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.talend.tql.model.AndExpression;
+import org.talend.tql.model.Expression;
+import org.talend.tql.model.FieldInExpression;
+import org.talend.tql.model.NotExpression;
+import org.talend.tql.model.OrExpression;
+import org.talend.tql.parser.Tql;
+
+public class TqlOptimizerTest {
+
+    private static Expression optimize(String query) {
+        return TqlOptimizer.optimize(Tql.parse(query));
+    }
+
+    @Test
+    public void shouldUnwrapSingleOperands() {
+        // when
+        final Expression optimized = optimize("a = 1");
+
+        // then
+        assertEquals("a = 1", optimized.toQueryString());
+    }
+
+    @Test
+    public void shouldFlattenAndRemoveDuplicates() {
+        // when
+        final Expression optimized = optimize("a = 1 and (b = 2 and a = 1)");
+
+        // then
+        assertEquals("(a = 1) and (b = 2)", optimized.toQueryString());
+    }
+
+    @Test
+    public void shouldRemoveAbsorbedOperands() {
+        assertEquals(optimize("a = 1"), optimize("a = 1 and (a = 1 or b = 2)"));
+        assertEquals(optimize("a = 1"), optimize("a = 1 or (b = 2 and a = 1)"));
+    }
+
+    @Test
+    public void shouldPushDownNot() {
+        // when
+        final Expression optimized = optimize("not(a = 1 or not(b > 2 and c = 3))");
+
+        // then
+        assertTrue(optimized instanceof AndExpression);
+        final Expression[] operands = ((AndExpression) optimized).getExpressions();
+        assertEquals(3, operands.length);
+        assertEquals(optimize("c = 3"), operands[0]);
+        assertEquals(optimize("b > 2"), operands[1]);
+        assertEquals(new NotExpression(optimize("a = 1")), operands[2]);
+    }
+
+    @Test
+    public void shouldRemoveDoubleNegation() {
+        assertEquals(optimize("a = 1"), optimize("not(not(a = 1))"));
+    }
+
+    @Test
+    public void shouldNotNegateAtoms() {
+        // "not(a > 1)" matches null values, "a <= 1" does not.
+        assertEquals(new NotExpression(optimize("a > 1")), optimize("not(a > 1)"));
+    }
+
+    @Test
+    public void shouldEvaluateExpensiveOperandsLast() {
+        // when
+        final Expression optimized = optimize("name ~ 'j.*' and name complies 'Aaaa' and age > 10");
+
+        // then
+        final Expression[] operands = ((AndExpression) optimized).getExpressions();
+        assertEquals(optimize("age > 10"), operands[0]);
+        assertEquals(optimize("name complies 'Aaaa'"), operands[1]);
+        assertEquals(optimize("name ~ 'j.*'"), operands[2]);
+    }
+
+    @Test
+    public void shouldEvaluateSelectiveOperandsFirst() {
+        // when
+        final Expression and = optimize("a != 1 and b = 2");
+        final Expression or = optimize("a = 1 or b != 2");
+
+        // then
+        assertEquals(optimize("b = 2"), ((AndExpression) and).getExpressions()[0]);
+        assertEquals(optimize("b != 2"), ((OrExpression) or).getExpressions()[0]);
+    }
+
+    @Test
+    public void shouldRemoveDuplicatedInValues() {
+        // when
+        final Expression optimized = optimize("a in [1, 2, 1, 'x', 'x']");
+
+        // then
+        assertEquals(3, ((FieldInExpression) optimized).getValues().length);
+        assertEquals("a in [1, 2, 'x']", optimized.toQueryString());
+    }
+
+    @Test
+    public void shouldNotModifyExpression() {
+        // given
+        final Expression expression = Tql.parse("not(a = 1 or b = 2) and c in [1, 1]");
+        final String before = expression.toString();
+
+        // when
+        TqlOptimizer.optimize(expression);
+
+        // then
+        assertEquals(before, expression.toString());
+    }
+}
@@ -0,0 +1,151 @@
+package org.talend.tql.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.talend.tql.excp.TqlException;
+import org.talend.tql.model.Expression;
+
+public class TqlCacheTest {
+
+    @Test
+    public void shouldReturnCachedExpression() {
+        // given
+        final TqlCache cache = new TqlCache(10);
+
+        // when
+        final Expression first = cache.parse("name = 'john' and age > 10");
+        final Expression second = cache.parse("  name =  'john'\tand\nage > 10 ");
+
+        // then
+        assertSame(first, second);
+        assertEquals(Tql.parse("name = 'john' and age > 10"), first);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    @Test
+    public void shouldInternEqualExpressions() {
+        // given
+        final TqlCache cache = new TqlCache(10);
+
+        // when
+        final Expression first = cache.parse("age > 10");
+        final Expression second = cache.parse("age>10");
+
+        // then
+        assertSame(first, second);
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void shouldKeepSpacesInQuotedValues() {
+        // when
+        final String normalized = TqlCache.normalize(" name  = 'john   doe' and\ttitle = 'it\\'s  me' ");
+
+        // then
+        assertEquals("name = 'john   doe' and title = 'it\\'s  me'", normalized);
+        assertNotEquals(new TqlCache(10).parse("name = 'a  b'"), Tql.parse("name = 'a b'"));
+    }
+
+    @Test
+    public void shouldEvictWhenFull() {
+        // given
+        final TqlCache cache = new TqlCache(2);
+
+        // when
+        cache.parse("a = 1");
+        cache.parse("a = 2");
+        cache.parse("a = 3");
+
+        // then
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() {
+        // given
+        final TqlCache cache = new TqlCache(2);
+        final Expression first = cache.parse("a = 1");
+        final Expression second = cache.parse("a = 2");
+
+        // when
+        cache.parse("a = 1");
+        cache.parse("a = 3");
+
+        // then
+        assertSame(first, cache.parse("a = 1"));
+        assertEquals(2, cache.getHitCount());
+        assertNotSame(second, cache.parse("a = 2"));
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void shouldKeepSharedExpressionWhileReferenced() {
+        // given
+        final TqlCache cache = new TqlCache(2);
+        final Expression first = cache.parse("age > 10");
+        final Expression second = cache.parse("age>10");
+
+        // when "age > 10" is evicted, "age>10" still shares its expression
+        cache.parse("age>10");
+        cache.parse("age < 5");
+        final Expression third = cache.parse("age > 10");
+
+        // then
+        assertSame(first, second);
+        assertSame(first, third);
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void shouldNotCacheInvalidQuery() {
+        // given
+        final TqlCache cache = new TqlCache(10);
+
+        // then
+        assertThrows(TqlException.class, () -> cache.parse("toto"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldMemoizeTranslations() {
+        // given
+        final TqlCache cache = new TqlCache(10);
+        final AtomicInteger translations = new AtomicInteger();
+
+        // when
+        final String first = cache.translate("a = 1", "toString", e -> e.toString() + translations.incrementAndGet());
+        final String second = cache.translate("a=1", "toString", e -> e.toString() + translations.incrementAndGet());
+        final Object other = cache.translate("a = 1", "other", e -> new Object());
+
+        // then
+        assertSame(first, second);
+        assertEquals(1, translations.get());
+        assertNotSame(first, other);
+    }
+
+    @Test
+    public void shouldClear() {
+        // given
+        final TqlCache cache = new TqlCache(10);
+        final Expression first = cache.parse("a = 1");
+
+        // when
+        cache.clear();
+
+        // then
+        assertEquals(0, cache.size());
+        assertNotSame(first, cache.parse("a = 1"));
+    }
+}
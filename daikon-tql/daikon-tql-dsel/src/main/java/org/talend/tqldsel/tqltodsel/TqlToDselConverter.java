@@ -7,7 +7,7 @@ import org.talend.maplang.el.parser.model.ELNode;
 import org.talend.maplang.el.parser.model.ELNodeType;
 import org.talend.tql.excp.TqlException;
 import org.talend.tql.model.Expression;
-import org.talend.tql.parser.Tql;
+import org.talend.tql.parser.TqlCache;
 
 public class TqlToDselConverter {
 
@@ -21,7 +21,7 @@ public class TqlToDselConverter {
      * @return DSEL ELNode ready to serve for DSEL interpreter
      */
     public static ELNode convert(final String tqlQuery, Map<String, String> fieldToType) throws TqlException {
-        final Expression tqlExpression = Tql.parse(tqlQuery);
+        final Expression tqlExpression = TqlCache.getDefault().parse(tqlQuery);
         return convert(tqlExpression, fieldToType);
     }
 
@@ -0,0 +1,345 @@
+package org.talend.tqlmongo;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.talend.daikon.pattern.character.CharPatternToRegex;
+import org.talend.daikon.pattern.word.WordPatternToRegex;
+import org.talend.tql.model.ComparisonExpression;
+import org.talend.tql.model.FieldBetweenExpression;
+import org.talend.tql.model.FieldCompliesPattern;
+import org.talend.tql.model.FieldContainsExpression;
+import org.talend.tql.model.FieldInExpression;
+import org.talend.tql.model.FieldIsEmptyExpression;
+import org.talend.tql.model.FieldIsNullExpression;
+import org.talend.tql.model.FieldMatchesRegex;
+import org.talend.tql.model.FieldWordCompliesPattern;
+import org.talend.tql.model.LiteralValue;
+import org.talend.tql.model.TqlElement;
+
+/**
+ * An {@link ASTVisitor} producing criteria MongoDB can evaluate with indexes, and reporting (see {@link #getReport()})
+ * which clauses of the query can use an index.
+ * <ul>
+ * <li>regular expressions anchored with a literal prefix (<code>name ~ '^ID-.*'</code>, <code>name complies
+ * 'ID-999'</code>, ...) get range bounds on the prefix (<code>{$gte: "ID-", $lt: "ID.", $regex: ...}</code>), so that
+ * only the range of the index is scanned. The regular expression is kept: results are the same as {@link ASTVisitor}
+ * ones.</li>
+ * <li>with a locale, string comparisons (<code>=</code>, <code>!=</code>, <code>in</code>...) are case insensitive: they
+ * stay plain comparisons (and can use an index created with the same collation) when the query uses
+ * {@link #getCollation()}, instead of case insensitive regular expressions (which can't use an index).</li>
+ * </ul>
+ * <code>contains</code> (unanchored) and case insensitive regular expressions are translated as {@link ASTVisitor} does,
+ * and reported as not index eligible.
+ * <p>
+ * As {@link ASTVisitor}, an instance is meant to translate a single query.
+ */
+public class IndexAwareASTVisitor extends ASTVisitor {
+
+    private static final String REGEX_META_CHARACTERS = ".[]{}()*+?^$|\\";
+
+    private final Collation collation;
+
+    private final IndexReport report = new IndexReport();
+
+    public IndexAwareASTVisitor() {
+        this(null);
+    }
+
+    /**
+     * @param caseInsensitiveLocale Locale of case insensitive string comparisons, or <code>null</code> for case sensitive
+     * ones (as {@link ASTVisitor}).
+     */
+    public IndexAwareASTVisitor(Locale caseInsensitiveLocale) {
+        this.collation = caseInsensitiveLocale == null ? null
+                : Collation.of(caseInsensitiveLocale).strength(Collation.ComparisonLevel.secondary());
+    }
+
+    /**
+     * @return The collation the query must use, <code>null</code> if none (case sensitive comparisons). Note the
+     * collation applies to all string comparisons of the query, including ranges.
+     */
+    public Collation getCollation() {
+        return collation;
+    }
+
+    /**
+     * @return The report of clauses translated so far.
+     */
+    public IndexReport getReport() {
+        return report;
+    }
+
+    /**
+     * @param expression A TQL expression.
+     * @return The query of expression, with {@link #getCollation() collation} if any.
+     */
+    public Query toQuery(TqlElement expression) {
+        Query query = new Query((Criteria) expression.accept(this));
+        if (collation != null) {
+            query.collation(collation);
+        }
+        return query;
+    }
+
+    @Override
+    public Object visit(ComparisonExpression elt) {
+        Object criteria = super.visit(elt);
+        String fieldName = (String) elt.getField().accept(this);
+        boolean isString = isString(elt.getValueOrField());
+        switch (elt.getOperator().getOperator()) {
+        case EQ:
+            reportComparison(fieldName, isNegation() ? "$ne" : "$eq", isString);
+            break;
+        case NEQ:
+            reportComparison(fieldName, isNegation() ? "$eq" : "$ne", isString);
+            break;
+        case LT:
+            reportComparison(fieldName, isNegation() ? "$gte" : "$lt", isString);
+            break;
+        case GT:
+            reportComparison(fieldName, isNegation() ? "$lte" : "$gt", isString);
+            break;
+        case LET:
+            reportComparison(fieldName, isNegation() ? "$gt" : "$lte", isString);
+            break;
+        case GET:
+            reportComparison(fieldName, isNegation() ? "$lt" : "$gte", isString);
+            break;
+        default:
+            break;
+        }
+        return criteria;
+    }
+
+    private void reportComparison(String fieldName, String operator, boolean isString) {
+        if ("$ne".equals(operator)) {
+            report(fieldName, operator, false, "negation is not selective");
+        } else {
+            report(fieldName, operator, true, "$eq".equals(operator) ? "equality" : "range", isString);
+        }
+    }
+
+    @Override
+    public Object visit(FieldInExpression elt) {
+        Object criteria = super.visit(elt);
+        String fieldName = (String) elt.getField().accept(this);
+        if (isNegation()) {
+            report(fieldName, "$nin", false, "negation is not selective");
+        } else {
+            boolean isString = false;
+            for (LiteralValue value : elt.getValues()) {
+                isString |= isString(value);
+            }
+            report(fieldName, "$in", true, "equality", isString);
+        }
+        return criteria;
+    }
+
+    @Override
+    public Object visit(FieldIsEmptyExpression elt) {
+        Object criteria = super.visit(elt);
+        String fieldName = (String) elt.getField().accept(this);
+        if (isNegation()) {
+            report(fieldName, "$ne", false, "negation is not selective");
+        } else {
+            report(fieldName, "$eq", true, "equality to \"\" or null", true);
+        }
+        return criteria;
+    }
+
+    @Override
+    public Object visit(FieldIsNullExpression elt) {
+        Object criteria = super.visit(elt);
+        String fieldName = (String) elt.getField().accept(this);
+        if (isNegation()) {
+            report(fieldName, "$not", false, "negation is not selective");
+        } else {
+            report(fieldName, "$eq", true, "equality to null");
+        }
+        return criteria;
+    }
+
+    @Override
+    public Object visit(FieldBetweenExpression elt) {
+        Object criteria = super.visit(elt);
+        String fieldName = (String) elt.getField().accept(this);
+        if (isNegation()) {
+            report(fieldName, "$not", false, "negation is not selective");
+        } else {
+            report(fieldName, "$gte $lte", true, "range", isString(elt.getLeft()) || isString(elt.getRight()));
+        }
+        return criteria;
+    }
+
+    @Override
+    public Object visit(FieldContainsExpression elt) {
+        Object criteria = super.visit(elt);
+        String fieldName = (String) elt.getField().accept(this);
+        report(fieldName, isNegation() ? "$not $regex" : "$regex", false, "unanchored regular expression");
+        return criteria;
+    }
+
+    @Override
+    public Object visit(FieldMatchesRegex elt) {
+        Object criteria = super.visit(elt);
+        if (StringUtils.isEmpty(elt.getRegex())) {
+            return reportEmpty(elt.getField(), criteria);
+        }
+        return withPrefixBounds((String) elt.getField().accept(this), elt.getRegex(), Pattern.compile(elt.getRegex()),
+                criteria);
+    }
+
+    @Override
+    public Object visit(FieldCompliesPattern elt) {
+        Object criteria = super.visit(elt);
+        if (StringUtils.isEmpty(elt.getPattern())) {
+            return reportEmpty(elt.getField(), criteria);
+        }
+        String regex = CharPatternToRegex.toRegex(elt.getPattern());
+        return withPrefixBounds((String) elt.getField().accept(this), regex, Pattern.compile(regex), criteria);
+    }
+
+    @Override
+    public Object visit(FieldWordCompliesPattern elt) {
+        Object criteria = super.visit(elt);
+        if (StringUtils.isEmpty(elt.getPattern())) {
+            return reportEmpty(elt.getField(), criteria);
+        }
+        // Same regex as ASTVisitor (not a java Pattern: "\p{Han}" is only valid for MongoDB).
+        String regex = WordPatternToRegex.toRegex(elt.getPattern(), true).replaceAll("script=Han", "Han");
+        return withPrefixBounds((String) elt.getField().accept(this), regex, regex, criteria);
+    }
+
+    private Object reportEmpty(TqlElement field, Object criteria) {
+        String fieldName = (String) field.accept(this);
+        if (isNegation()) {
+            report(fieldName, "$ne", false, "negation is not selective");
+        } else {
+            report(fieldName, "$eq", true, "equality", true);
+        }
+        return criteria;
+    }
+
+    /**
+     * @return The criteria of a regular expression, with range bounds on its literal prefix if possible.
+     */
+    private Object withPrefixBounds(String fieldName, String regex, Object regexValue, Object criteria) {
+        if (isNegation()) {
+            report(fieldName, "$not $regex", false, "negation is not selective");
+            return criteria;
+        }
+        if (collation != null) {
+            report(fieldName, "$regex", false, "regular expressions can't use an index with a collation");
+            return criteria;
+        }
+        String prefix = literalPrefix(regex);
+        String upperBound = upperBound(prefix);
+        if (upperBound == null) {
+            report(fieldName, "$regex", false,
+                    regex.startsWith("^") ? "no literal prefix" : "unanchored regular expression");
+            return criteria;
+        }
+        report(fieldName, "$gte $lt $regex", true, "prefix bounds [\"" + prefix + "\", \"" + upperBound + "\")");
+        return new Criteria() {
+
+            @Override
+            public Document getCriteriaObject() {
+                return new Document(fieldName,
+                        new Document("$gte", prefix).append("$lt", upperBound).append("$regex", regexValue));
+            }
+        };
+    }
+
+    private void report(String fieldName, String operator, boolean indexEligible, String reason) {
+        report.add(new IndexReport.Clause(fieldName, operator, indexEligible, reason));
+    }
+
+    private void report(String fieldName, String operator, boolean indexEligible, String reason, boolean isString) {
+        if (isString && collation != null) {
+            reason += ", case insensitive: needs an index with the query collation";
+        }
+        report(fieldName, operator, indexEligible, reason);
+    }
+
+    private static boolean isString(TqlElement value) {
+        return value instanceof LiteralValue && ((LiteralValue) value).getLiteral() == LiteralValue.Enum.QUOTED_VALUE;
+    }
+
+    /**
+     * @return The literal all strings matched by regex start with (empty if unknown, e.g. unanchored regex).
+     */
+    static String literalPrefix(String regex) {
+        if (!regex.startsWith("^") || regex.contains("\\Q") || hasTopLevelAlternation(regex)) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder();
+        int i = 1;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\' && i + 1 < regex.length() && isEscapedLiteral(regex.charAt(i + 1))) {
+                c = regex.charAt(i + 1);
+                i += 2;
+            } else if (REGEX_META_CHARACTERS.indexOf(c) >= 0 || Character.isSurrogate(c)) {
+                // "a*", "a?" or "a{0,1}": previous character is optional.
+                if ((c == '*' || c == '?' || c == '{') && prefix.length() > 0) {
+                    prefix.setLength(prefix.length() - 1);
+                }
+                break;
+            } else {
+                i++;
+            }
+            prefix.append(c);
+        }
+        return prefix.toString();
+    }
+
+    private static boolean isEscapedLiteral(char c) {
+        // "\d", "\x{..}", "\p{..}"... are not literals.
+        return c < 128 && !Character.isLetterOrDigit(c);
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        int classDepth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                classDepth++;
+            } else if (c == ']' && classDepth > 0) {
+                classDepth--;
+            } else if (classDepth == 0) {
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == '|' && depth == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return A string greater than all strings starting with prefix (in MongoDB binary order), or
+     * <code>null</code> if none.
+     */
+    static String upperBound(String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; i--) {
+            char c = prefix.charAt(i);
+            // UTF-16 order is MongoDB (UTF-8) order below surrogates.
+            if (c < '\uD7FF') {
+                return prefix.substring(0, i) + (char) (c + 1);
+            }
+        }
+        return null;
+    }
+}
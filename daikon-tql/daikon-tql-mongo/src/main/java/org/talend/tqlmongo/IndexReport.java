@@ -0,0 +1,91 @@
+package org.talend.tqlmongo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Explain-like report of a TQL query translated by {@link IndexAwareASTVisitor}: one {@link Clause} per field
+ * condition, telling whether MongoDB can use an index on the field to evaluate it.
+ * <p>
+ * This is computed from the query only (indexes of the collection are not known): a clause is index eligible if an
+ * index on its field <i>can</i> be used.
+ */
+public class IndexReport {
+
+    private final List<Clause> clauses = new ArrayList<>();
+
+    void add(Clause clause) {
+        clauses.add(clause);
+    }
+
+    /**
+     * @return The clauses, in the order of the query.
+     */
+    public List<Clause> getClauses() {
+        return Collections.unmodifiableList(clauses);
+    }
+
+    /**
+     * @return The clauses MongoDB can't evaluate with an index (a collection scan is needed if such clause is in a
+     * <code>or</code>, or is the only clause of the query).
+     */
+    public List<Clause> getNonEligibleClauses() {
+        return clauses.stream().filter(c -> !c.isIndexEligible()).collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return clauses.stream().map(Clause::toString).collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * A condition on a field.
+     */
+    public static class Clause {
+
+        private final String field;
+
+        private final String operator;
+
+        private final boolean indexEligible;
+
+        private final String reason;
+
+        Clause(String field, String operator, boolean indexEligible, String reason) {
+            this.field = field;
+            this.operator = operator;
+            this.indexEligible = indexEligible;
+            this.reason = reason;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        /**
+         * @return The MongoDB operator(s) of the clause (e.g. <code>$eq</code> or <code>$gte $lt $regex</code>).
+         */
+        public String getOperator() {
+            return operator;
+        }
+
+        public boolean isIndexEligible() {
+            return indexEligible;
+        }
+
+        /**
+         * @return Why the clause is (or is not) index eligible.
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return field + " " + operator + ": " + (indexEligible ? "index eligible" : "not index eligible") + " (" + reason
+                    + ")";
+        }
+    }
+}
@@ -89,18 +89,29 @@ public abstract class TestMongoCriteria_Abstract {
     }
 
     protected Criteria doTest(String query) {
+        return doTest(query, new ASTVisitor());
+    }
+
+    protected Criteria doTest(String query, ASTVisitor visitor) {
+        Object accept = parse(query).accept(visitor);
+        return (Criteria) accept;
+    }
+
+    protected TqlElement parse(String query) {
         CodePointCharStream input = CharStreams.fromString(query);
         TqlLexer lexer = new TqlLexer(input);
         TqlParser parser = new TqlParser(new CommonTokenStream(lexer));
         TqlParser.ExpressionContext expression = parser.expression();
-        TqlElement tqlElement = expression.accept(new TqlExpressionVisitor());
-        Object accept = tqlElement.accept(new ASTVisitor());
-        return (Criteria) accept;
+        return expression.accept(new TqlExpressionVisitor());
     }
 
     List<Record> getRecords(Criteria criteria) {
         Query query = new Query();
         query.addCriteria(criteria);
+        return getRecords(query);
+    }
+
+    List<Record> getRecords(Query query) {
         return mongoTemplate.find(query, Record.class);
     }
 
@@ -0,0 +1,116 @@
+package org.talend.tqlmongo.criteria;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.talend.tqlmongo.IndexAwareASTVisitor;
+import org.talend.tqlmongo.IndexReport;
+
+public class TestMongoCriteria_IndexAware extends TestMongoCriteria_Abstract {
+
+    private void assertCriteriaEquals(Document expected, Criteria criteria) {
+        assertEquals(expected.toJson(), criteria.getCriteriaObject().toJson());
+    }
+
+    @Test
+    public void testAnchoredRegexHasPrefixBounds() {
+        IndexAwareASTVisitor visitor = new IndexAwareASTVisitor();
+        Criteria criteria = doTest("name ~ '^Ben'", visitor);
+        Document expected = new Document("name",
+                new Document("$gte", "Ben").append("$lt", "Beo").append("$regex", Pattern.compile("^Ben")));
+        assertCriteriaEquals(expected, criteria);
+        List<Record> records = this.getRecords(criteria);
+        assertEquals(2, records.size());
+        assertEquals(2, records.stream().filter(r -> r.getName().startsWith("Benoit")).count());
+
+        IndexReport.Clause clause = visitor.getReport().getClauses().get(0);
+        assertEquals("name", clause.getField());
+        assertTrue(clause.isIndexEligible());
+    }
+
+    @Test
+    public void testOptionalCharacterIsNotInPrefix() {
+        Criteria criteria = doTest("name ~ '^Benoit 2?'", new IndexAwareASTVisitor());
+        Document expected = new Document("name", new Document("$gte", "Benoit ").append("$lt", "Benoit!").append("$regex",
+                Pattern.compile("^Benoit 2?")));
+        assertCriteriaEquals(expected, criteria);
+        List<Record> records = this.getRecords(criteria);
+        assertEquals(1, records.size());
+        assertEquals(1, records.stream().filter(r -> r.getName().equals("Benoit 2eme")).count());
+    }
+
+    @Test
+    public void testCompliesWithLiteralPrefix() {
+        Criteria criteria = doTest("name complies 'Benoit 9aaa'", new IndexAwareASTVisitor());
+        assertEquals("Benoit ", ((Document) criteria.getCriteriaObject().get("name")).get("$gte"));
+        List<Record> records = this.getRecords(criteria);
+        assertEquals(1, records.size());
+        assertEquals(1, records.stream().filter(r -> r.getName().equals("Benoit 2eme")).count());
+    }
+
+    @Test
+    public void testRegexWithoutPrefixIsUnchanged() {
+        String[] queries = { "name ~ 'ben'", "name ~ '^Ben|ghassen'", "name ~ '^.*n'", "name complies 'Aaaaaa 9aaa'",
+                "name contains 'en'", "not(name ~ '^Ben')" };
+        for (String query : queries) {
+            IndexAwareASTVisitor visitor = new IndexAwareASTVisitor();
+            Criteria criteria = doTest(query, visitor);
+            assertEquals(doTest(query).getCriteriaObject().toJson(), criteria.getCriteriaObject().toJson(), query);
+            assertFalse(visitor.getReport().getClauses().get(0).isIndexEligible(), query);
+        }
+    }
+
+    @Test
+    public void testCaseInsensitiveEquality() {
+        IndexAwareASTVisitor visitor = new IndexAwareASTVisitor(Locale.ENGLISH);
+        Query query = visitor.toQuery(parse("name = 'GHASSEN'"));
+        assertEquals(new Document("name", "GHASSEN").toJson(), query.getQueryObject().toJson());
+        assertTrue(query.getCollation().isPresent());
+        List<Record> records = this.getRecords(query);
+        assertEquals(2, records.size());
+        assertEquals(2, records.stream().filter(r -> r.getName().equalsIgnoreCase("ghassen")).count());
+        assertTrue(visitor.getReport().getClauses().get(0).isIndexEligible());
+    }
+
+    @Test
+    public void testCaseInsensitiveIn() {
+        IndexAwareASTVisitor visitor = new IndexAwareASTVisitor(Locale.ENGLISH);
+        List<Record> records = this.getRecords(visitor.toQuery(parse("name in ['benoit', 'GHASSEN']")));
+        assertEquals(3, records.size());
+    }
+
+    @Test
+    public void testCaseSensitiveByDefault() {
+        IndexAwareASTVisitor visitor = new IndexAwareASTVisitor();
+        Query query = visitor.toQuery(parse("name = 'GHASSEN'"));
+        assertNull(visitor.getCollation());
+        assertFalse(query.getCollation().isPresent());
+        assertEquals(0, this.getRecords(query).size());
+    }
+
+    @Test
+    public void testReport() {
+        IndexAwareASTVisitor visitor = new IndexAwareASTVisitor();
+        doTest("name contains 'en' and not(age > 30) and not(name = 'Benoit') and age between [28, 30]", visitor);
+        List<IndexReport.Clause> clauses = visitor.getReport().getClauses();
+        assertEquals(4, clauses.size());
+        assertEquals("$regex", clauses.get(0).getOperator());
+        assertFalse(clauses.get(0).isIndexEligible());
+        assertEquals("$lte", clauses.get(1).getOperator());
+        assertTrue(clauses.get(1).isIndexEligible());
+        assertEquals("$ne", clauses.get(2).getOperator());
+        assertFalse(clauses.get(2).isIndexEligible());
+        assertTrue(clauses.get(3).isIndexEligible());
+        assertEquals(2, visitor.getReport().getNonEligibleClauses().size());
+    }
+}
@@ -13,17 +13,22 @@
 package org.talend.daikon.avro.converter;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.generic.GenericRecordBuilder;
+import org.talend.daikon.avro.AvroUtils;
 import org.talend.daikon.avro.inferrer.JsonSchemaInferrer;
 import org.talend.daikon.exception.TalendRuntimeException;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -41,6 +46,9 @@ import com.fasterxml.jackson.databind.node.ValueNode;
  */
 public class JsonGenericRecordConverter implements AvroConverter<String, GenericRecord> {
 
+    /** Thread safe, shared by all converters. */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private JsonSchemaInferrer jsonSchemaInferrer;
 
     private Schema schema;
@@ -80,6 +88,9 @@ public class JsonGenericRecordConverter implements AvroConverter<String, Generic
     /**
      * Convert Json String to Avro Generic Record.
      *
+     * With a schema, the json string is read as a stream of tokens, and values are set directly in records of the schema.
+     * Without schema, the schema is inferred from the json string (once for all json strings of the same shape).
+     *
      * TalendRuntimeException thrown when an IOException or RuntimeException occurred.
      *
      * @param json string to convert
@@ -88,14 +99,107 @@ public class JsonGenericRecordConverter implements AvroConverter<String, Generic
     @Override
     public GenericRecord convertToAvro(String json) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode jsonNode = mapper.readTree(json);
-            return getOutputRecord(jsonNode, schema);
+            if (schema == null) {
+                JsonNode jsonNode = MAPPER.readTree(json);
+                return getOutputRecord(jsonNode, jsonSchemaInferrer.inferSchema(jsonNode));
+            }
+            try (JsonParser parser = MAPPER.getFactory().createParser(json)) {
+                return readRecord(parser, parser.nextToken(), schema);
+            }
         } catch (IOException | TalendRuntimeException e) {
             throw TalendRuntimeException.createUnexpectedException(e.getCause());
         }
     }
 
+    /**
+     * Read a json object as an Avro Generic Record of the given schema.
+     *
+     * @param parser positioned on the start of the object
+     * @param token current token of parser
+     * @param schema of the record
+     * @return Avro Generic Record
+     */
+    private GenericRecord readRecord(JsonParser parser, JsonToken token, Schema schema) throws IOException {
+        GenericRecordBuilder outputRecord = new GenericRecordBuilder(schema);
+        if (token != JsonToken.START_OBJECT) {
+            // Not an object: no field
+            parser.skipChildren();
+            return outputRecord.build();
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            Schema.Field field = schema.getField(name);
+            if (field == null) {
+                throw new AvroRuntimeException("Not a valid schema field: " + name);
+            }
+            outputRecord.set(field, readValue(parser, parser.nextToken(), field.schema()));
+        }
+        return outputRecord.build();
+    }
+
+    /**
+     * Read a json value.
+     *
+     * @param parser positioned on the value
+     * @param token current token of parser
+     * @param schema expected schema of the value, may be null if unknown
+     * @return the value (a record for objects, a list for arrays), widened to the type of schema for numbers and strings
+     */
+    private Object readValue(JsonParser parser, JsonToken token, Schema schema) throws IOException {
+        Schema.Type type = schema == null ? null : AvroUtils.unwrapIfNullable(schema).getType();
+        if (type == Schema.Type.STRING && token != JsonToken.VALUE_NULL) {
+            // e.g. a field of numbers and strings in merged schemas (see BatchJsonSchemaInferrer)
+            return token.isScalarValue() ? parser.getText() : MAPPER.readTree(parser).toString();
+        }
+        switch (token) {
+        case VALUE_STRING:
+            return parser.getText();
+        case VALUE_NUMBER_INT:
+            if (type == Schema.Type.DOUBLE) {
+                return parser.getDoubleValue();
+            }
+            switch (parser.getNumberType()) {
+            case INT:
+                return type == Schema.Type.LONG ? (Object) parser.getLongValue() : (Object) parser.getIntValue();
+            case LONG:
+                return parser.getLongValue();
+            default:
+                // Too big for a long (unless the parser reads all integers as big ones): kept as its digits
+                final BigInteger value = parser.getBigIntegerValue();
+                return value.bitLength() < Long.SIZE ? (Object) value.longValue() : parser.getText();
+            }
+        case VALUE_NUMBER_FLOAT:
+            return parser.getDoubleValue();
+        case VALUE_TRUE:
+            return true;
+        case VALUE_FALSE:
+            return false;
+        case START_OBJECT:
+            Schema recordSchema = schema == null ? null : AvroUtils.unwrapIfNullable(schema);
+            if (recordSchema == null || recordSchema.getType() != Schema.Type.RECORD) {
+                // No schema for this object: infer it
+                JsonNode jsonNode = MAPPER.readTree(parser);
+                return getOutputRecord(jsonNode, jsonSchemaInferrer.inferSchema(jsonNode));
+            }
+            return readRecord(parser, token, recordSchema);
+        case START_ARRAY:
+            Schema arraySchema = schema == null ? null : AvroUtils.unwrapIfNullable(schema);
+            Schema elementSchema = arraySchema != null && arraySchema.getType() == Schema.Type.ARRAY
+                    ? arraySchema.getElementType()
+                    : null;
+            List<Object> listRecords = new ArrayList<Object>();
+            JsonToken elementToken;
+            while ((elementToken = parser.nextToken()) != JsonToken.END_ARRAY) {
+                listRecords.add(readValue(parser, elementToken, elementSchema));
+            }
+            return listRecords;
+        default:
+            // null or embedded values
+            parser.skipChildren();
+            return null;
+        }
+    }
+
     /**
      * Generate Avro Generic Record from Json Node.
      *
@@ -118,7 +222,7 @@ public class JsonGenericRecordConverter implements AvroConverter<String, Generic
                 if (nextNode instanceof ValueNode) {
                     outputRecord.set(mapEntry.getKey(), getValue(nextNode));
                 } else if (nextNode instanceof ObjectNode) {
-                    Schema schemaTo = jsonSchemaInferrer.inferSchema(nextNode.toString());
+                    Schema schemaTo = jsonSchemaInferrer.inferSchema(nextNode);
                     GenericRecord record = getOutputRecord(nextNode, schemaTo);
                     outputRecord.set(mapEntry.getKey(), record);
                 } else if (nextNode instanceof ArrayNode) {
@@ -129,7 +233,7 @@ public class JsonGenericRecordConverter implements AvroConverter<String, Generic
                         if (nodeTo instanceof ValueNode) {
                             listRecords.add(getValue(nodeTo));
                         } else {
-                            Schema schemaTo = jsonSchemaInferrer.inferSchema(nodeTo.toString());
+                            Schema schemaTo = jsonSchemaInferrer.inferSchema(nodeTo);
                             listRecords.add(getOutputRecord(nodeTo, schemaTo));
                         }
                     }
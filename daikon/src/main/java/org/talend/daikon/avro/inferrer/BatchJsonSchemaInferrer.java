@@ -0,0 +1,440 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.daikon.avro.inferrer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+import org.apache.avro.Schema;
+import org.talend.daikon.avro.AvroUtils;
+import org.talend.daikon.exception.TalendRuntimeException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Infers a single Avro schema from many json records (e.g. a sample of a dataset), merging the types of their fields:
+ * <ul>
+ * <li>a field missing or null in some records is nullable,</li>
+ * <li>numbers are widened: int, then long, then double (a field with <code>1</code> and <code>1.5</code> values is a
+ * double),</li>
+ * <li>fields of objects and elements of arrays are merged the same way,</li>
+ * <li>other values can't be merged (e.g. a string and a number): the field is a string.</li>
+ * </ul>
+ * Records are read as streams of tokens, and merged one at a time: memory depends on the number of distinct fields, not on
+ * the number of records. Json values that are not objects are ignored.
+ *
+ * For records of the same shape, the schema is the one of {@link JsonSchemaInferrer} (primitive fields are nullable,
+ * records are named from the fingerprint of their fields).
+ *
+ * Merge is commutative but for the order of fields (the order they are first seen): records can be split in chunks, each
+ * chunk read by its own {@link Accumulator}, and accumulators merged in the order of chunks (see
+ * {@link #inferSchema(Stream)}).
+ */
+public class BatchJsonSchemaInferrer implements SchemaInferrer<Iterator<String>> {
+
+    private final JsonFactory factory;
+
+    /**
+     * Constructor
+     *
+     * @param mapper
+     */
+    public BatchJsonSchemaInferrer(final ObjectMapper mapper) {
+        this.factory = mapper.getFactory();
+    }
+
+    /**
+     * @return new BatchJsonSchemaInferrer instance
+     */
+    public static BatchJsonSchemaInferrer createBatchJsonSchemaInferrer() {
+        return new BatchJsonSchemaInferrer(new ObjectMapper());
+    }
+
+    /**
+     * @return a new (empty) accumulator of records.
+     */
+    public Accumulator newAccumulator() {
+        return new Accumulator(factory);
+    }
+
+    /**
+     * Create an Avro Schema based on all json strings.
+     *
+     * TalendRuntimeException thrown when an IOException occurred.
+     *
+     * @param jsons json strings to read
+     * @return Avro schema constructed
+     */
+    @Override
+    public Schema inferSchema(Iterator<String> jsons) {
+        return inferSchema(jsons, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create an Avro Schema based on the first json strings.
+     *
+     * @param jsons json strings to read
+     * @param maxRecords maximum number of json strings to read
+     * @return Avro schema constructed
+     */
+    public Schema inferSchema(Iterator<String> jsons, int maxRecords) {
+        Accumulator accumulator = newAccumulator();
+        for (int i = 0; i < maxRecords && jsons.hasNext(); i++) {
+            accumulator.add(jsons.next());
+        }
+        return accumulator.getSchema();
+    }
+
+    /**
+     * Create an Avro Schema based on all json values of a stream, e.g. new line delimited json (NDJSON). The stream is
+     * not closed.
+     *
+     * TalendRuntimeException thrown when an IOException occurred.
+     *
+     * @param jsons stream of json values
+     * @return Avro schema constructed
+     */
+    public Schema inferSchema(InputStream jsons) {
+        return inferSchema(jsons, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create an Avro Schema based on the first json values of a stream. The stream is not closed.
+     *
+     * @param jsons stream of json values
+     * @param maxRecords maximum number of json values to read
+     * @return Avro schema constructed
+     */
+    public Schema inferSchema(InputStream jsons, int maxRecords) {
+        Accumulator accumulator = newAccumulator();
+        try (JsonParser parser = factory.createParser(jsons)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            JsonToken token;
+            for (int i = 0; i < maxRecords && (token = parser.nextToken()) != null; i++) {
+                accumulator.add(parser, token);
+            }
+        } catch (IOException e) {
+            throw TalendRuntimeException.createUnexpectedException(e);
+        }
+        return accumulator.getSchema();
+    }
+
+    /**
+     * Create an Avro Schema based on all json strings of a stream. A parallel stream is read in parallel chunks, merged in
+     * the order of the stream.
+     *
+     * @param jsons json strings to read
+     * @return Avro schema constructed
+     */
+    public Schema inferSchema(Stream<String> jsons) {
+        return jsons.collect(Collector.of(this::newAccumulator, Accumulator::add, Accumulator::merge)).getSchema();
+    }
+
+    /**
+     * Merged shape of records read so far. Not thread safe: use one accumulator by thread, then merge them.
+     */
+    public static class Accumulator {
+
+        private final JsonFactory factory;
+
+        private final Shape records = new Shape(Kind.RECORD);
+
+        private Accumulator(JsonFactory factory) {
+            this.factory = factory;
+        }
+
+        /**
+         * Merge a json record.
+         *
+         * TalendRuntimeException thrown when an IOException occurred.
+         *
+         * @param json string to read
+         */
+        public void add(String json) {
+            try (JsonParser parser = factory.createParser(json)) {
+                add(parser, parser.nextToken());
+            } catch (IOException e) {
+                throw TalendRuntimeException.createUnexpectedException(e);
+            }
+        }
+
+        private void add(JsonParser parser, JsonToken token) throws IOException {
+            if (token == JsonToken.START_OBJECT) {
+                readFields(parser, records);
+            } else if (token != null) {
+                parser.skipChildren();
+            }
+        }
+
+        /**
+         * Merge all records of another accumulator (that must not be used anymore).
+         *
+         * @param other accumulator of following records
+         * @return this accumulator
+         */
+        public Accumulator merge(Accumulator other) {
+            records.merge(other.records);
+            return this;
+        }
+
+        /**
+         * @return number of records (json objects) read.
+         */
+        public long getCount() {
+            return records.count;
+        }
+
+        /**
+         * @return Avro schema of records read so far.
+         */
+        public Schema getSchema() {
+            return JsonSchemaInferrer.createRecord("outer_record", "org.talend", getFields(records));
+        }
+    }
+
+    /**
+     * Types of json values, from the most specific to the most generic for numbers.
+     */
+    private enum Kind {
+        NULL,
+        BOOLEAN,
+        INT,
+        LONG,
+        DOUBLE,
+        STRING,
+        ARRAY,
+        RECORD;
+
+        private boolean isNumber() {
+            return this == INT || this == LONG || this == DOUBLE;
+        }
+
+        private Kind merge(Kind other) {
+            if (this == other || other == NULL) {
+                return this;
+            } else if (this == NULL) {
+                return other;
+            } else if (isNumber() && other.isNumber()) {
+                return compareTo(other) > 0 ? this : other;
+            }
+            return STRING;
+        }
+    }
+
+    /**
+     * Merged type of json values.
+     */
+    private static class Shape {
+
+        private Kind kind;
+
+        private boolean nullable;
+
+        /** Merged elements, for arrays. */
+        private Shape element;
+
+        /** Merged fields, for records. */
+        private Map<String, Shape> fields;
+
+        /** Number of objects merged, for records. */
+        private long count;
+
+        /** Count of the enclosing record when the field was last read. */
+        private long seen;
+
+        private Shape(Kind kind) {
+            this.kind = Kind.NULL;
+            mergeKind(kind);
+        }
+
+        /**
+         * @return true if kind is the merged kind, i.e. elements or fields of a value of this kind must be merged too.
+         */
+        private boolean mergeKind(Kind other) {
+            Kind merged = kind.merge(other);
+            if (merged != kind) {
+                kind = merged;
+                fields = merged == Kind.RECORD ? new LinkedHashMap<>() : null;
+                element = null;
+            }
+            return merged == other;
+        }
+
+        private void merge(Shape other) {
+            nullable |= other.nullable;
+            if (!mergeKind(other.kind)) {
+                return;
+            }
+            if (kind == Kind.ARRAY && other.element != null) {
+                if (element == null) {
+                    element = other.element;
+                } else {
+                    element.merge(other.element);
+                }
+            } else if (kind == Kind.RECORD) {
+                for (Map.Entry<String, Shape> entry : other.fields.entrySet()) {
+                    Shape field = fields.get(entry.getKey());
+                    if (field == null) {
+                        // Missing in objects of this record
+                        entry.getValue().nullable |= count > 0;
+                        fields.put(entry.getKey(), entry.getValue());
+                    } else {
+                        field.merge(entry.getValue());
+                    }
+                }
+                if (other.count > 0) {
+                    for (Map.Entry<String, Shape> entry : fields.entrySet()) {
+                        // Missing in objects of the other record
+                        entry.getValue().nullable |= !other.fields.containsKey(entry.getKey());
+                    }
+                }
+                count += other.count;
+            }
+        }
+    }
+
+    /**
+     * Merge the fields of a json object.
+     *
+     * @param parser positioned on the start of the object
+     * @param record merged record
+     */
+    private static void readFields(JsonParser parser, Shape record) throws IOException {
+        final long previousCount = record.count++;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            final JsonToken token = parser.nextToken();
+            Shape field = record.fields.get(name);
+            if (field == null) {
+                field = new Shape(Kind.NULL);
+                // Missing in previous objects
+                field.nullable = previousCount > 0;
+                record.fields.put(name, field);
+            }
+            readValue(parser, token, field);
+            field.seen = record.count;
+        }
+        if (previousCount > 0) {
+            for (Shape field : record.fields.values()) {
+                field.nullable |= field.seen != record.count;
+            }
+        }
+    }
+
+    /**
+     * Merge a json value.
+     *
+     * @param parser positioned on the value
+     * @param token current token of parser
+     * @param shape merged value
+     */
+    private static void readValue(JsonParser parser, JsonToken token, Shape shape) throws IOException {
+        switch (token) {
+        case VALUE_NULL:
+            shape.nullable = true;
+            break;
+        case START_OBJECT:
+            if (shape.mergeKind(Kind.RECORD)) {
+                readFields(parser, shape);
+            } else {
+                parser.skipChildren();
+            }
+            break;
+        case START_ARRAY:
+            if (shape.mergeKind(Kind.ARRAY)) {
+                if (shape.element == null) {
+                    shape.element = new Shape(Kind.NULL);
+                }
+                JsonToken elementToken;
+                while ((elementToken = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    readValue(parser, elementToken, shape.element);
+                }
+            } else {
+                parser.skipChildren();
+            }
+            break;
+        case VALUE_STRING:
+            shape.mergeKind(Kind.STRING);
+            break;
+        case VALUE_TRUE:
+        case VALUE_FALSE:
+            shape.mergeKind(Kind.BOOLEAN);
+            break;
+        case VALUE_NUMBER_INT:
+            switch (parser.getNumberType()) {
+            case INT:
+                shape.mergeKind(Kind.INT);
+                break;
+            case LONG:
+                shape.mergeKind(Kind.LONG);
+                break;
+            default:
+                // Too big for a long
+                shape.mergeKind(Kind.DOUBLE);
+                break;
+            }
+            break;
+        case VALUE_NUMBER_FLOAT:
+            shape.mergeKind(Kind.DOUBLE);
+            break;
+        default:
+            // embedded values
+            break;
+        }
+    }
+
+    private static List<Schema.Field> getFields(Shape record) {
+        List<Schema.Field> fields = new ArrayList<>(record.fields.size());
+        for (Map.Entry<String, Shape> entry : record.fields.entrySet()) {
+            fields.add(new Schema.Field(entry.getKey(), getAvroSchema(entry.getValue()), null, null,
+                    Schema.Field.Order.ASCENDING));
+        }
+        return fields;
+    }
+
+    /**
+     * Same schemas as {@link JsonSchemaInferrer#getAvroSchema(com.fasterxml.jackson.databind.JsonNode)}: primitives are
+     * always nullable, arrays and records only if null or missing in some values.
+     */
+    private static Schema getAvroSchema(Shape shape) {
+        switch (shape.kind) {
+        case BOOLEAN:
+            return AvroUtils.wrapAsNullable(AvroUtils._boolean());
+        case INT:
+            return AvroUtils.wrapAsNullable(AvroUtils._int());
+        case LONG:
+            return AvroUtils.wrapAsNullable(AvroUtils._long());
+        case DOUBLE:
+            return AvroUtils.wrapAsNullable(AvroUtils._double());
+        case ARRAY:
+            Schema array = Schema.createArray(getAvroSchema(shape.element));
+            return shape.nullable ? AvroUtils.wrapAsNullable(array) : array;
+        case RECORD:
+            Schema record = JsonSchemaInferrer.createRecord("subrecord", null, getFields(shape));
+            return shape.nullable ? AvroUtils.wrapAsNullable(record) : record;
+        default:
+            // strings, and only null values
+            return AvroUtils.wrapAsNullable(AvroUtils._string());
+        }
+    }
+}
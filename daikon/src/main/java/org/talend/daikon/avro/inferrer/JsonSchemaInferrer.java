@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaNormalization;
@@ -42,8 +43,20 @@ public class JsonSchemaInferrer implements SchemaInferrer<String> {
 
     private static final Logger logger = LoggerFactory.getLogger(JsonSchemaInferrer.class);
 
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Maximum number of cached schemas (schemas of other shapes are inferred each time).
+     */
+    private static final int MAX_CACHED_SCHEMAS = 1000;
+
     private final ObjectMapper mapper;
 
+    /** Schemas by fingerprint of shape (see {@link #getShapeFingerprint(JsonNode)}), with the shape to check on hit. */
+    final Map<Long, CachedSchema> schemasByShape = new ConcurrentHashMap<>();
+
     /**
      * Constructor
      * 
@@ -80,17 +93,37 @@ public class JsonSchemaInferrer implements SchemaInferrer<String> {
     @Override
     public Schema inferSchema(String json) {
         try {
-            final JsonNode jsonNode = mapper.readTree(json);
-            // Create a nameless temporary record to get a fingerprint from.
-            Schema record = Schema.createRecord(getFields(jsonNode));
-            long fingerprint = SchemaNormalization.parsingFingerprint64(record);
-            return Schema.createRecord(("outer_record" + fingerprint).replace('-', '_'), null, "org.talend", false,
-                    getFields(jsonNode));
+            return inferSchema(mapper.readTree(json));
         } catch (IOException | TalendRuntimeException e) {
             throw TalendRuntimeException.createUnexpectedException(e.getCause());
         }
     }
 
+    /**
+     * Same as {@link #inferSchema(String)} for an already parsed json node.
+     *
+     * Schemas are cached by shape of json node (names and types of fields, see {@link #getShapeFingerprint(JsonNode)}):
+     * the schema is inferred once for all json nodes of the same shape. The shape of a cached schema is compared to the
+     * one of the json node, so that a fingerprint collision does not return the schema of another shape.
+     *
+     * @param jsonNode json node to convert
+     * @return Avro schema constructed
+     */
+    public Schema inferSchema(JsonNode jsonNode) {
+        final long fingerprint = getShapeFingerprint(jsonNode);
+        final CachedSchema cached = schemasByShape.get(fingerprint);
+        if (cached != null && cached.matches(jsonNode)) {
+            return cached.schema;
+        }
+        final Schema schema = createRecord("outer_record", "org.talend", jsonNode);
+        if (cached == null && schemasByShape.size() < MAX_CACHED_SCHEMAS) {
+            final ShapeBuilder shape = new ShapeBuilder();
+            writeFields(shape, jsonNode);
+            schemasByShape.put(fingerprint, new CachedSchema(shape.toString(), schema));
+        }
+        return schema;
+    }
+
     /**
      * Get the fields schema from json node. Supported data types are: INT, BOOLEAN, LONG, DOUBLE, STRING, ARRAY, OBJECT.
      *
@@ -199,11 +232,172 @@ public class JsonSchemaInferrer implements SchemaInferrer<String> {
      * @param node
      */
     private Schema createSubRecord(JsonNode node) {
+        return createRecord("subrecord", null, node);
+    }
+
+    private Schema createRecord(String namePrefix, String namespace, JsonNode node) {
+        return createRecord(namePrefix, namespace, getFields(node));
+    }
+
+    /**
+     * @return a record of fields, named from namePrefix and the fingerprint of fields.
+     */
+    static Schema createRecord(String namePrefix, String namespace, List<Schema.Field> fields) {
         // Create a nameless temporary record to get a fingerprint from.
-        Schema record = Schema.createRecord(getFields(node));
-        long fingerprint = SchemaNormalization.parsingFingerprint64(record);
+        long fingerprint = SchemaNormalization.parsingFingerprint64(Schema.createRecord(fields));
+
+        // Use the fingerprint in the record name (fields can't be shared by two records: copy them).
+        List<Schema.Field> copies = new ArrayList<>(fields.size());
+        for (Schema.Field field : fields) {
+            copies.add(new Schema.Field(field, field.schema()));
+        }
+        return Schema.createRecord((namePrefix + fingerprint).replace('-', '_'), null, namespace, false, copies);
+    }
+
+    /**
+     * Get a fingerprint of the shape of json node: json nodes with the same shape have the same fields schema (see
+     * {@link #getFields(JsonNode)}). Values are not used (but the first element of arrays, that gives the type of
+     * elements).
+     *
+     * This is a 64 bits FNV-1a hash of the shape, computed in a single pass without building it.
+     *
+     * @param jsonNode
+     * @return fingerprint of the shape of json node
+     */
+    public static long getShapeFingerprint(JsonNode jsonNode) {
+        final Fingerprint fingerprint = new Fingerprint();
+        writeFields(fingerprint, jsonNode);
+        return fingerprint.hash;
+    }
+
+    /**
+     * Write the shape of an object node: names and types of its fields.
+     */
+    private static void writeFields(ShapeWriter writer, JsonNode node) {
+        writer.write('{');
+        final Iterator<Map.Entry<String, JsonNode>> elements = node.fields();
+        while (elements.hasNext()) {
+            final Map.Entry<String, JsonNode> mapEntry = elements.next();
+            final String name = mapEntry.getKey();
+            writer.write((char) (name.length() >>> 16));
+            writer.write((char) name.length());
+            for (int i = 0; i < name.length(); i++) {
+                writer.write(name.charAt(i));
+            }
+            final JsonNode nextNode = mapEntry.getValue();
+            // Same cases as getFields(JsonNode)
+            if (nextNode instanceof NullNode || nextNode.isTextual()) {
+                writer.write('S');
+            } else if (nextNode.isNumber()) {
+                writeElement(writer, nextNode);
+            } else if (nextNode.isBoolean()) {
+                writer.write('B');
+            } else if (nextNode.isArray()) {
+                writer.write('[');
+                if (nextNode.size() == 0) {
+                    writer.write('S');
+                } else {
+                    writeElement(writer, nextNode.get(0));
+                }
+            } else if (nextNode.isObject()) {
+                writeFields(writer, nextNode);
+            } else {
+                // Field is ignored.
+                writer.write('X');
+            }
+        }
+        writer.write('}');
+    }
+
+    private static void writeElement(ShapeWriter writer, JsonNode node) {
+        // Same cases as getAvroSchema(JsonNode)
+        if (node instanceof TextNode || node instanceof NullNode) {
+            writer.write('S');
+        } else if (node instanceof IntNode) {
+            writer.write('I');
+        } else if (node instanceof LongNode) {
+            writer.write('L');
+        } else if (node instanceof DoubleNode) {
+            writer.write('D');
+        } else if (node instanceof BooleanNode) {
+            writer.write('B');
+        } else {
+            writeFields(writer, node);
+        }
+    }
+
+    /**
+     * Receives the characters of the shape of a json node.
+     */
+    private interface ShapeWriter {
+
+        void write(char c);
+    }
+
+    private static class Fingerprint implements ShapeWriter {
+
+        private long hash = FNV_OFFSET_BASIS;
+
+        @Override
+        public void write(char c) {
+            hash = (hash ^ c) * FNV_PRIME;
+        }
+    }
 
-        // Use the fingerprint in the record name. Note that we have to traverse the node twice.
-        return Schema.createRecord(("subrecord" + fingerprint).replace('-', '_'), null, null, false, getFields(node));
+    private static class ShapeBuilder implements ShapeWriter {
+
+        private final StringBuilder shape = new StringBuilder();
+
+        @Override
+        public void write(char c) {
+            shape.append(c);
+        }
+
+        @Override
+        public String toString() {
+            return shape.toString();
+        }
+    }
+
+    /**
+     * Compares the shape of a json node to a known one.
+     */
+    private static class ShapeMatcher implements ShapeWriter {
+
+        private final String shape;
+
+        private int position;
+
+        private boolean matches = true;
+
+        private ShapeMatcher(String shape) {
+            this.shape = shape;
+        }
+
+        @Override
+        public void write(char c) {
+            matches = matches && position < shape.length() && shape.charAt(position++) == c;
+        }
+    }
+
+    /**
+     * A schema inferred from a json node, with the shape of this json node.
+     */
+    static class CachedSchema {
+
+        private final String shape;
+
+        private final Schema schema;
+
+        CachedSchema(String shape, Schema schema) {
+            this.shape = shape;
+            this.schema = schema;
+        }
+
+        boolean matches(JsonNode jsonNode) {
+            final ShapeMatcher matcher = new ShapeMatcher(shape);
+            writeFields(matcher, jsonNode);
+            return matcher.matches && matcher.position == shape.length();
+        }
     }
 }
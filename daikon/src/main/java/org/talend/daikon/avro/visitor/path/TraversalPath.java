@@ -12,10 +12,18 @@
 // ============================================================================
 package org.talend.daikon.avro.visitor.path;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
@@ -25,7 +33,8 @@ import org.apache.avro.Schema;
  *
  * Each element in the path is an instance of {@link TraversalPathElement} (or one of its sub-classes).
  *
- * This API is immutable.
+ * This API is immutable: paths are persistent chains of elements, sharing the elements of the path they are appended to.
+ * The XPATH notation of a path (see {@link #toString()}) is only rendered when needed.
  *
  * To build a new path, use this class's methods as fluent API:
  *
@@ -51,14 +60,49 @@ public class TraversalPath implements Iterable<TraversalPath.TraversalPathElemen
 
     private static final long serialVersionUID = 1L;
 
-    private final LinkedList<TraversalPathElement> elements;
+    /**
+     * Serialized form of previous versions, kept for compatibility: the elements from root and the XPATH notation.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("elements", LinkedList.class), new ObjectStreamField("path", String.class) };
+
+    private static final int ROOT_PATH_HASH = "/".hashCode();
+
+    /**
+     * Path of the previous element, null for the root path. Paths are persistent: appending an element does not copy
+     * this path, they share it.
+     */
+    private final TraversalPath parent;
+
+    private final TraversalPathElement element;
+
+    private final int size;
 
-    private final String path;
+    /**
+     * {@link String#hashCode()} and length of the XPATH notation of this path, computed when appending.
+     */
+    private final int xpathHash;
+
+    private final int xpathLength;
+
+    /**
+     * XPATH notation of this path, rendered on demand.
+     */
+    private transient String path;
 
-    private TraversalPath(LinkedList<TraversalPathElement> elements) {
-        this.elements = elements;
-        XpathPrinter printer = new XpathPrinter();
-        this.path = this.toString(printer);
+    /**
+     * Elements read by {@link #readObject(ObjectInputStream)}, the path is rebuilt from them by {@link #readResolve()}.
+     */
+    private transient List<?> serializedElements;
+
+    private TraversalPath(TraversalPath parent, TraversalPathElement element) {
+        this.parent = parent;
+        this.element = element;
+        XpathHasher hasher = parent == null ? new XpathHasher(0, 0) : new XpathHasher(parent.xpathHash, parent.xpathLength);
+        element.print(hasher);
+        this.size = parent == null ? 1 : parent.size + 1;
+        this.xpathHash = hasher.hash;
+        this.xpathLength = hasher.length;
     }
 
     /**
@@ -68,8 +112,7 @@ public class TraversalPath implements Iterable<TraversalPath.TraversalPathElemen
      * @return the newly created path referring to root.
      */
     public static TraversalPath create(Schema schema) {
-        final RootPathElement root = new RootPathElement(schema);
-        return new TraversalPath(new LinkedList<TraversalPathElement>(Collections.singletonList(root)));
+        return new TraversalPath(null, new RootPathElement(schema));
     }
 
     /**
@@ -111,9 +154,7 @@ public class TraversalPath implements Iterable<TraversalPath.TraversalPathElemen
      * @return the newly created path
      */
     public TraversalPath append(TraversalPathElement element) {
-        LinkedList<TraversalPathElement> newList = new LinkedList<>(this.elements);
-        newList.add(element);
-        return new TraversalPath(newList);
+        return new TraversalPath(this, element);
     }
 
     /**
@@ -163,33 +204,80 @@ public class TraversalPath implements Iterable<TraversalPath.TraversalPathElemen
      * @return an {@link Iterator} over the elements of this path starting from root.
      */
     public Iterator<TraversalPathElement> iterator() {
-        return this.elements.iterator();
+        final TraversalPathElement[] elements = new TraversalPathElement[size];
+        TraversalPath current = this;
+        for (int i = size - 1; i >= 0; i--) {
+            elements[i] = current.element;
+            current = current.parent;
+        }
+        return Collections.unmodifiableList(Arrays.asList(elements)).iterator();
     }
 
     /**
      * @return an {@link Iterator} over the elements of this path starting from the end.
      */
     public Iterator<TraversalPathElement> descendingIterator() {
-        return this.elements.descendingIterator();
+        return new Iterator<TraversalPathElement>() {
+
+            private TraversalPath current = TraversalPath.this;
+
+            @Override
+            public boolean hasNext() {
+                return current != null;
+            }
+
+            @Override
+            public TraversalPathElement next() {
+                if (current == null) {
+                    throw new NoSuchElementException();
+                }
+                final TraversalPathElement next = current.element;
+                current = current.parent;
+                return next;
+            }
+        };
     }
 
     /**
      * @return the last (current) element of the path
      */
     public TraversalPathElement last() {
-        return this.elements.getLast();
+        return this.element;
     }
 
     /**
      * @return the root element of the path.
      */
     public TraversalPathElement root() {
-        return this.elements.getFirst();
+        TraversalPath current = this;
+        while (current.parent != null) {
+            current = current.parent;
+        }
+        return current.element;
+    }
+
+    /**
+     * @return the path without its last element, null for a root path.
+     */
+    public TraversalPath parent() {
+        return this.parent;
+    }
+
+    /**
+     * @return the number of elements of the path, including root.
+     */
+    public int size() {
+        return this.size;
     }
 
     @Override
     public String toString() {
-        return this.path;
+        String result = this.path;
+        if (result == null) {
+            result = this.toString(new XpathPrinter());
+            this.path = result;
+        }
+        return result;
     }
 
     /**
@@ -199,12 +287,17 @@ public class TraversalPath implements Iterable<TraversalPath.TraversalPathElemen
      * @return the printers result
      */
     public String toString(TraversalPathPrinter printer) {
-        for (TraversalPathElement element : this.elements) {
-            element.print(printer);
-        }
+        this.print(printer);
         return printer.toString();
     }
 
+    private void print(TraversalPathPrinter printer) {
+        if (this.parent != null) {
+            this.parent.print(printer);
+        }
+        this.element.print(printer);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -214,12 +307,102 @@ public class TraversalPath implements Iterable<TraversalPath.TraversalPathElemen
 
         TraversalPath that = (TraversalPath) o;
 
-        return path != null ? path.equals(that.path) : that.path == null;
+        return xpathHash == that.xpathHash && xpathLength == that.xpathLength && toString().equals(that.toString());
     }
 
     @Override
     public int hashCode() {
-        return path != null ? path.hashCode() : 0;
+        // Same as toString().hashCode()
+        return xpathLength == 0 ? ROOT_PATH_HASH : xpathHash;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        final LinkedList<TraversalPathElement> elements = new LinkedList<>();
+        this.forEach(elements::add);
+        final ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("elements", elements);
+        fields.put("path", this.toString());
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        this.serializedElements = (List<?>) in.readFields().get("elements", null);
+    }
+
+    private Object readResolve() throws InvalidObjectException {
+        if (serializedElements == null || serializedElements.isEmpty()) {
+            throw new InvalidObjectException("A traversal path has at least a root element");
+        }
+        TraversalPath result = null;
+        for (Object element : serializedElements) {
+            result = new TraversalPath(result, (TraversalPathElement) element);
+        }
+        return result;
+    }
+
+    /**
+     * Computes {@link String#hashCode()} and length of the {@link XpathPrinter} output, without building it.
+     */
+    private static final class XpathHasher implements TraversalPathPrinter {
+
+        private int hash;
+
+        private int length;
+
+        private XpathHasher(int hash, int length) {
+            this.hash = hash;
+            this.length = length;
+        }
+
+        @Override
+        public void root() {
+            // nothing to do
+        }
+
+        @Override
+        public void append(String name, int position) {
+            add('/');
+            add(name);
+        }
+
+        @Override
+        public void arrayIndex(int index) {
+            add('[');
+            add(index);
+            add(']');
+        }
+
+        @Override
+        public void mapEntry(String key) {
+            add('/');
+            add(key);
+        }
+
+        private void add(char c) {
+            hash = 31 * hash + c;
+            length++;
+        }
+
+        private void add(String value) {
+            final String chars = String.valueOf(value);
+            for (int i = 0; i < chars.length(); i++) {
+                add(chars.charAt(i));
+            }
+        }
+
+        private void add(int value) {
+            if (value < 0) {
+                add('-');
+            }
+            final long absolute = Math.abs((long) value);
+            long divisor = 1;
+            while (divisor * 10 <= absolute) {
+                divisor *= 10;
+            }
+            for (; divisor > 0; divisor /= 10) {
+                add((char) ('0' + absolute / divisor % 10));
+            }
+        }
     }
 
     /**
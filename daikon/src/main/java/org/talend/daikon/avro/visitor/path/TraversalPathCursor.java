@@ -0,0 +1,195 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.daikon.avro.visitor.path;
+
+import java.util.Arrays;
+
+import org.apache.avro.Schema;
+
+/**
+ * A mutable {@link TraversalPath}, moved along a depth first traversal of a hierarchical record.
+ *
+ * The root element is at depth 0. Setting an element at a depth replaces the previous element at this depth, and removes
+ * deeper elements:
+ *
+ * <pre>
+ *     {@code
+ *     TraversalPathCursor cursor = new TraversalPathCursor(schema);
+ *     cursor.append(1, "field1", 0, field1Schema);
+ *     cursor.append(2, "array", 0, arraySchema);
+ *     cursor.appendArrayIndex(3, 5);
+ *     cursor.toString(); // return /field1/array[5]
+ *     cursor.append(1, "field2", 1, field2Schema);
+ *     cursor.toString(); // return /field2
+ *     }
+ * </pre>
+ *
+ * Moving the cursor only sets an element: the (immutable) {@link TraversalPath} of a depth is built on demand, see
+ * {@link #toPath(int)}, and reused as long as the elements up to this depth don't change.
+ *
+ * This class is not thread safe.
+ */
+public class TraversalPathCursor {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private TraversalPath.TraversalPathElement[] elements = new TraversalPath.TraversalPathElement[INITIAL_CAPACITY];
+
+    /** Elements that replace their parent in paths (items of not indexed arrays). */
+    private boolean[] replacingParent = new boolean[INITIAL_CAPACITY];
+
+    /** Paths of elements, built on demand. */
+    private TraversalPath[] paths = new TraversalPath[INITIAL_CAPACITY];
+
+    private int depth;
+
+    /** Number of elements (from root) with an up to date path. */
+    private int built;
+
+    /**
+     * Creates a cursor on the root element.
+     *
+     * @param schema the schema of the root element (probably a record schema)
+     */
+    public TraversalPathCursor(Schema schema) {
+        reset(schema);
+    }
+
+    /**
+     * Moves the cursor back on the root element.
+     *
+     * @param schema the schema of the root element
+     */
+    public void reset(Schema schema) {
+        if (elements[0] == null || elements[0].getSchema() != schema) {
+            paths[0] = TraversalPath.create(schema);
+            elements[0] = paths[0].last();
+        }
+        built = 1;
+        depth = 0;
+    }
+
+    /**
+     * @return the depth of the last (current) element, 0 for root.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @param depth a depth, up to the depth of the cursor
+     * @return the element at depth.
+     */
+    public TraversalPath.TraversalPathElement get(int depth) {
+        checkDepth(depth);
+        return elements[depth];
+    }
+
+    /**
+     * Sets an element, given its name, position and schema. Note that there is not schema conformity check.
+     *
+     * @param depth depth of the element, from 1 to the depth of the cursor + 1
+     * @param name name of the element
+     * @param position element's position within its parent hierarchy
+     * @param schema element's schema
+     */
+    public void append(int depth, String name, int position, Schema schema) {
+        set(depth, new TraversalPath.TraversalPathElement(name, position, schema), false);
+    }
+
+    /**
+     * Sets an array item element, the element at depth - 1 being an array.
+     *
+     * @param depth depth of the element, from 1 to the depth of the cursor + 1
+     * @param index element's index within the array
+     * @see TraversalPath#appendArrayIndex(int)
+     */
+    public void appendArrayIndex(int depth, int index) {
+        set(depth, new TraversalPath.ArrayItemPathElement(elements[depth - 1], index), false);
+    }
+
+    /**
+     * Sets a not indexed array item element, the element at depth - 1 being an array. In paths, the item replaces the
+     * array: it has the same name and position, and the schema of array items.
+     *
+     * @param depth depth of the element, from 1 to the depth of the cursor + 1
+     */
+    public void appendArrayItem(int depth) {
+        final TraversalPath.TraversalPathElement array = elements[depth - 1];
+        set(depth, new TraversalPath.TraversalPathElement(array.getName(), array.getPosition(),
+                array.getSchema().getElementType()), true);
+    }
+
+    /**
+     * Sets a map entry element, the element at depth - 1 being a map.
+     *
+     * @param depth depth of the element, from 1 to the depth of the cursor + 1
+     * @param key the entry key
+     * @see TraversalPath#appendMapEntry(String)
+     */
+    public void appendMapEntry(int depth, String key) {
+        set(depth, new TraversalPath.MapEntryPathElement(elements[depth - 1], key), false);
+    }
+
+    private void set(int depth, TraversalPath.TraversalPathElement element, boolean replacesParent) {
+        if (depth < 1 || depth > this.depth + 1) {
+            throw new IllegalArgumentException("Invalid depth " + depth + ", cursor depth is " + this.depth);
+        }
+        if (depth == elements.length) {
+            elements = Arrays.copyOf(elements, depth * 2);
+            replacingParent = Arrays.copyOf(replacingParent, depth * 2);
+            paths = Arrays.copyOf(paths, depth * 2);
+        }
+        elements[depth] = element;
+        replacingParent[depth] = replacesParent;
+        this.depth = depth;
+        built = Math.min(built, depth);
+    }
+
+    /**
+     * @return the path of the last (current) element.
+     */
+    public TraversalPath toPath() {
+        return toPath(depth);
+    }
+
+    /**
+     * @param depth a depth, up to the depth of the cursor
+     * @return the path of the element at depth.
+     */
+    public TraversalPath toPath(int depth) {
+        checkDepth(depth);
+        for (; built <= depth; built++) {
+            TraversalPath parent = paths[built - 1];
+            if (replacingParent[built] && parent.parent() != null) {
+                parent = parent.parent();
+            }
+            paths[built] = parent.append(elements[built]);
+        }
+        return paths[depth];
+    }
+
+    private void checkDepth(int depth) {
+        if (depth < 0 || depth > this.depth) {
+            throw new IllegalArgumentException("Invalid depth " + depth + ", cursor depth is " + this.depth);
+        }
+    }
+
+    /**
+     * @return the path of the last (current) element, in XPATH notation.
+     */
+    @Override
+    public String toString() {
+        return toPath().toString();
+    }
+}
@@ -13,12 +13,16 @@
 package org.talend.daikon.avro.visitor.record;
 
 import org.talend.daikon.avro.visitor.path.TraversalPath;
+import org.talend.daikon.avro.visitor.path.TraversalPathCursor;
 
 /**
  * Abstract base implementation of {@link VisitableStructure}.
  *
  * This implementation is immutable, constructor's arguments are final members.
  *
+ * The path of the structure is either an immutable path, or the path of a {@link TraversalPathCursor} at a given depth
+ * (see {@link VisitableRecord#VisitableRecord(org.apache.avro.generic.IndexedRecord, TraversalPathCursor)}).
+ *
  * @param <T> the inner type of value
  */
 abstract class AbstractVisitableStructure<T> implements VisitableStructure<T> {
@@ -27,9 +31,22 @@ abstract class AbstractVisitableStructure<T> implements VisitableStructure<T> {
 
     private final TraversalPath path;
 
+    private final TraversalPathCursor cursor;
+
+    private final int depth;
+
     protected AbstractVisitableStructure(T value, TraversalPath path) {
         this.value = value;
         this.path = path;
+        this.cursor = null;
+        this.depth = path.size() - 1;
+    }
+
+    protected AbstractVisitableStructure(T value, TraversalPathCursor cursor, int depth) {
+        this.value = value;
+        this.path = null;
+        this.cursor = cursor;
+        this.depth = depth;
     }
 
     @Override
@@ -39,6 +56,20 @@ abstract class AbstractVisitableStructure<T> implements VisitableStructure<T> {
 
     @Override
     public TraversalPath getPath() {
-        return path;
+        return path != null ? path : cursor.toPath(depth);
+    }
+
+    /**
+     * @return the cursor of the visit, null if the structure has an immutable path.
+     */
+    TraversalPathCursor getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @return the depth of the structure, 0 for root.
+     */
+    int getDepth() {
+        return depth;
     }
 }
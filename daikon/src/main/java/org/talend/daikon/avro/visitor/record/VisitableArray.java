@@ -12,14 +12,13 @@
 // ============================================================================
 package org.talend.daikon.avro.visitor.record;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.talend.daikon.avro.visitor.path.TraversalPath;
+import org.talend.daikon.avro.visitor.path.TraversalPathCursor;
 
 /**
  * Wrapper for arrays.
@@ -39,6 +38,10 @@ public class VisitableArray extends AbstractVisitableStructure<GenericData.Array
         super(value, path);
     }
 
+    VisitableArray(GenericData.Array value, TraversalPathCursor cursor, int depth) {
+        super(value, cursor, depth);
+    }
+
     @Override
     public void accept(RecordVisitor visitor) {
         visitor.visit(this);
@@ -52,14 +55,31 @@ public class VisitableArray extends AbstractVisitableStructure<GenericData.Array
     public Iterator<VisitableStructure> getItems(ArrayItemsPathType type) {
         final GenericData.Array array = this.getValue();
         final Schema elementSchema = array.getSchema().getElementType();
-        final List<VisitableStructure> items = new ArrayList<>(array.size());
-        for (int i = 0; i < array.size(); i++) {
-            final Object value = array.get(i);
-            final TraversalPath path = type.buildTraversalPath(this.getPath(), i);
-            final VisitableStructure element = VisitableStructureFactory.createVisitableStructure(elementSchema, value, path);
-            items.add(element);
-        }
-        return Collections.unmodifiableList(items).iterator();
+        return new Iterator<VisitableStructure>() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < array.size();
+            }
+
+            @Override
+            public VisitableStructure next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final int i = index++;
+                final Object value = array.get(i);
+                final TraversalPathCursor cursor = getCursor();
+                if (cursor == null) {
+                    final TraversalPath path = type.buildTraversalPath(getPath(), i);
+                    return VisitableStructureFactory.createVisitableStructure(elementSchema, value, path);
+                }
+                type.moveCursor(cursor, getDepth() + 1, i);
+                return VisitableStructureFactory.createVisitableStructure(elementSchema, value, cursor, getDepth() + 1);
+            }
+        };
     }
 
     /**
@@ -79,12 +99,18 @@ public class VisitableArray extends AbstractVisitableStructure<GenericData.Array
         private TraversalPath buildTraversalPath(TraversalPath path, int index) {
             return this.pathBuilder.buildTraversalPath(path, index);
         }
+
+        private void moveCursor(TraversalPathCursor cursor, int depth, int index) {
+            this.pathBuilder.moveCursor(cursor, depth, index);
+        }
     }
 
     private interface ArrayItemPathBuilder {
 
         TraversalPath buildTraversalPath(TraversalPath path, int index);
 
+        void moveCursor(TraversalPathCursor cursor, int depth, int index);
+
     }
 
     private static class IndexedArrayItemPathBuilder implements ArrayItemPathBuilder {
@@ -93,22 +119,26 @@ public class VisitableArray extends AbstractVisitableStructure<GenericData.Array
         public TraversalPath buildTraversalPath(TraversalPath path, int index) {
             return path.appendArrayIndex(index);
         }
+
+        @Override
+        public void moveCursor(TraversalPathCursor cursor, int depth, int index) {
+            cursor.appendArrayIndex(depth, index);
+        }
     }
 
     private static class NotIndexedArrayItemPathBuilder implements ArrayItemPathBuilder {
 
         @Override
         public TraversalPath buildTraversalPath(TraversalPath path, int index) {
+            // Same path as the array, with the schema of items
             Schema elementsSchema = path.last().getSchema().getElementType();
-            Iterator<TraversalPath.TraversalPathElement> iterator = path.iterator();
-            TraversalPath.TraversalPathElement current = iterator.next();
-            TraversalPath result = TraversalPath.create(current.getSchema());
-            while (current != path.last()) {
-                result = result.append(current);
-                current = iterator.next();
-            }
-            result = result.append(path.last().getName(), path.last().getPosition(), elementsSchema);
-            return result;
+            TraversalPath parent = path.parent() == null ? path : path.parent();
+            return parent.append(path.last().getName(), path.last().getPosition(), elementsSchema);
+        }
+
+        @Override
+        public void moveCursor(TraversalPathCursor cursor, int depth, int index) {
+            cursor.appendArrayItem(depth);
         }
     }
 
@@ -13,6 +13,7 @@
 package org.talend.daikon.avro.visitor.record;
 
 import org.talend.daikon.avro.visitor.path.TraversalPath;
+import org.talend.daikon.avro.visitor.path.TraversalPathCursor;
 
 /**
  * Wrapper for boolean fields
@@ -23,6 +24,10 @@ public class VisitableBoolean extends AbstractVisitableStructure<Boolean> {
         super(value, path);
     }
 
+    VisitableBoolean(Boolean value, TraversalPathCursor cursor, int depth) {
+        super(value, cursor, depth);
+    }
+
     @Override
     public void accept(RecordVisitor visitor) {
         visitor.visit(this);
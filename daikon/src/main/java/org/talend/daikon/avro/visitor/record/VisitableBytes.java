@@ -15,6 +15,7 @@ package org.talend.daikon.avro.visitor.record;
 import java.nio.ByteBuffer;
 
 import org.talend.daikon.avro.visitor.path.TraversalPath;
+import org.talend.daikon.avro.visitor.path.TraversalPathCursor;
 
 /**
  * Wrapper implementation for Bytes Avro type
@@ -25,6 +26,10 @@ public class VisitableBytes extends AbstractVisitableStructure<ByteBuffer> {
         super(value, path);
     }
 
+    VisitableBytes(ByteBuffer value, TraversalPathCursor cursor, int depth) {
+        super(value, cursor, depth);
+    }
+
     @Override
     public void accept(RecordVisitor visitor) {
         visitor.visit(this);
@@ -13,6 +13,7 @@
 package org.talend.daikon.avro.visitor.record;
 
 import org.talend.daikon.avro.visitor.path.TraversalPath;
+import org.talend.daikon.avro.visitor.path.TraversalPathCursor;
 
 /**
  * Wrapper for double fields
@@ -23,6 +24,10 @@ public class VisitableDouble extends AbstractVisitableStructure<Double> {
         super(value, path);
     }
 
+    VisitableDouble(Double value, TraversalPathCursor cursor, int depth) {
+        super(value, cursor, depth);
+    }
+
     @Override
     public void accept(RecordVisitor visitor) {
         visitor.visit(this);
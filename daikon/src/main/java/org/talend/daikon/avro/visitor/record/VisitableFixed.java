@@ -14,6 +14,7 @@ package org.talend.daikon.avro.visitor.record;
 
 import org.apache.avro.generic.GenericData;
 import org.talend.daikon.avro.visitor.path.TraversalPath;
+import org.talend.daikon.avro.visitor.path.TraversalPathCursor;
 
 /**
  * Wrapper implementation for fixed Avro type
@@ -24,6 +25,10 @@ public class VisitableFixed extends AbstractVisitableStructure<GenericData.Fixed
         super(value, path);
     }
 
+    VisitableFixed(GenericData.Fixed value, TraversalPathCursor cursor, int depth) {
+        super(value, cursor, depth);
+    }
+
     @Override
     public void accept(RecordVisitor visitor) {
         visitor.visit(this);
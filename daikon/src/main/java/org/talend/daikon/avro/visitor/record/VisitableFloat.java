@@ -13,6 +13,7 @@
 package org.talend.daikon.avro.visitor.record;
 
 import org.talend.daikon.avro.visitor.path.TraversalPath;
+import org.talend.daikon.avro.visitor.path.TraversalPathCursor;
 
 /**
  * Wrapper for float fields
@@ -23,6 +24,10 @@ public class VisitableFloat extends AbstractVisitableStructure<Float> {
         super(value, path);
     }
 
+    VisitableFloat(Float value, TraversalPathCursor cursor, int depth) {
+        super(value, cursor, depth);
+    }
+
     @Override
     public void accept(RecordVisitor visitor) {
         visitor.visit(this);
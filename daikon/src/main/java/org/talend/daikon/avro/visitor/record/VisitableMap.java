@@ -12,15 +12,13 @@
 // ============================================================================
 package org.talend.daikon.avro.visitor.record;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 import org.apache.avro.Schema;
 import org.apache.avro.util.Utf8;
 import org.talend.daikon.avro.visitor.path.TraversalPath;
+import org.talend.daikon.avro.visitor.path.TraversalPathCursor;
 
 /**
  * Wrapper for maps.
@@ -31,6 +29,10 @@ public class VisitableMap extends AbstractVisitableStructure<Map<Utf8, Object>>
         super(value, path);
     }
 
+    VisitableMap(Map<Utf8, Object> value, TraversalPathCursor cursor, int depth) {
+        super(value, cursor, depth);
+    }
+
     @Override
     public void accept(RecordVisitor visitor) {
         visitor.visit(this);
@@ -42,14 +44,27 @@ public class VisitableMap extends AbstractVisitableStructure<Map<Utf8, Object>>
     public Iterator<VisitableStructure> getValues() {
         final Schema schema = getPath().last().getSchema();
         final Schema valueSchema = schema.getValueType();
-        final List<VisitableStructure> entries = new ArrayList<>(this.getValue().size());
-        for (Map.Entry<Utf8, Object> entry : this.getValue().entrySet()) {
-            String key = entry.getKey().toString();
-            Object value = entry.getValue();
-            TraversalPath path = this.getPath().appendMapEntry(key);
-            VisitableStructure child = VisitableStructureFactory.createVisitableStructure(valueSchema, value, path);
-            entries.add(child);
-        }
-        return Collections.unmodifiableList(entries).iterator();
+        final Iterator<Map.Entry<Utf8, Object>> entries = this.getValue().entrySet().iterator();
+        return new Iterator<VisitableStructure>() {
+
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public VisitableStructure next() {
+                final Map.Entry<Utf8, Object> entry = entries.next();
+                final String key = entry.getKey().toString();
+                final Object value = entry.getValue();
+                final TraversalPathCursor cursor = getCursor();
+                if (cursor == null) {
+                    final TraversalPath path = getPath().appendMapEntry(key);
+                    return VisitableStructureFactory.createVisitableStructure(valueSchema, value, path);
+                }
+                cursor.appendMapEntry(getDepth() + 1, key);
+                return VisitableStructureFactory.createVisitableStructure(valueSchema, value, cursor, getDepth() + 1);
+            }
+        };
     }
 }
@@ -13,6 +13,7 @@
 package org.talend.daikon.avro.visitor.record;
 
 import org.talend.daikon.avro.visitor.path.TraversalPath;
+import org.talend.daikon.avro.visitor.path.TraversalPathCursor;
 
 /**
  * Wrapper implementation for null
@@ -23,6 +24,10 @@ public class VisitableNull extends AbstractVisitableStructure<Void> {
         super(null, path);
     }
 
+    VisitableNull(TraversalPathCursor cursor, int depth) {
+        super(null, cursor, depth);
+    }
+
     @Override
     public void accept(RecordVisitor visitor) {
         visitor.visit(this);
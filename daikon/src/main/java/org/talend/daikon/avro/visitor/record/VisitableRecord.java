@@ -12,14 +12,12 @@
 // ============================================================================
 package org.talend.daikon.avro.visitor.record;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.IndexedRecord;
 import org.talend.daikon.avro.visitor.path.TraversalPath;
+import org.talend.daikon.avro.visitor.path.TraversalPathCursor;
 
 /**
  * Main entry point of the Avro visitable API.
@@ -38,10 +36,35 @@ public class VisitableRecord extends AbstractVisitableStructure<IndexedRecord> {
         this(record, TraversalPath.create(record.getSchema()));
     }
 
+    /**
+     * Create a new visitable record from an existing Avro {@link IndexedRecord}, visited with a single mutable path.
+     *
+     * The cursor is moved along the visit, and shared by all visited structures: the path of a structure (see
+     * {@link #getPath()}) is only valid during its visit, i.e. until the next structure of its parent is visited. Paths
+     * are built on demand, and can be kept.
+     *
+     * The same cursor can be used to visit all records (one at a time).
+     *
+     * @param record the record to visit
+     * @param cursor the cursor of the visit
+     */
+    public VisitableRecord(IndexedRecord record, TraversalPathCursor cursor) {
+        this(record, reset(cursor, record), 0);
+    }
+
     VisitableRecord(IndexedRecord value, TraversalPath path) {
         super(value, path);
     }
 
+    VisitableRecord(IndexedRecord value, TraversalPathCursor cursor, int depth) {
+        super(value, cursor, depth);
+    }
+
+    private static TraversalPathCursor reset(TraversalPathCursor cursor, IndexedRecord record) {
+        cursor.reset(record.getSchema());
+        return cursor;
+    }
+
     @Override
     public void accept(RecordVisitor visitor) {
         visitor.visit(this);
@@ -51,13 +74,27 @@ public class VisitableRecord extends AbstractVisitableStructure<IndexedRecord> {
      * @return an iterator over this record's field
      */
     public Iterator<VisitableStructure> getFields() {
-        final Schema schema = this.getValue().getSchema();
-        final List<VisitableStructure> fields = new ArrayList<>(schema.getFields().size());
-        for (Schema.Field field : schema.getFields()) {
-            final TraversalPath fieldPath = this.getPath().append(field.name(), field.pos(), field.schema());
-            final VisitableStructure node = VisitableStructureFactory.createVisitableField(field, getValue(), fieldPath);
-            fields.add(node);
-        }
-        return Collections.unmodifiableList(fields).iterator();
+        final IndexedRecord record = this.getValue();
+        final Iterator<Schema.Field> fields = record.getSchema().getFields().iterator();
+        return new Iterator<VisitableStructure>() {
+
+            @Override
+            public boolean hasNext() {
+                return fields.hasNext();
+            }
+
+            @Override
+            public VisitableStructure next() {
+                final Schema.Field field = fields.next();
+                final Object value = record.get(field.pos());
+                final TraversalPathCursor cursor = getCursor();
+                if (cursor == null) {
+                    final TraversalPath fieldPath = getPath().append(field.name(), field.pos(), field.schema());
+                    return VisitableStructureFactory.createVisitableStructure(field.schema(), value, fieldPath);
+                }
+                cursor.append(getDepth() + 1, field.name(), field.pos(), field.schema());
+                return VisitableStructureFactory.createVisitableStructure(field.schema(), value, cursor, getDepth() + 1);
+            }
+        };
     }
 }
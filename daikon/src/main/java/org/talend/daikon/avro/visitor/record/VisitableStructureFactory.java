@@ -22,6 +22,7 @@ import org.apache.avro.generic.IndexedRecord;
 import org.apache.avro.util.Utf8;
 import org.talend.daikon.avro.AvroUtils;
 import org.talend.daikon.avro.visitor.path.TraversalPath;
+import org.talend.daikon.avro.visitor.path.TraversalPathCursor;
 
 /**
  * Internal utility class to create visitable structures.
@@ -32,48 +33,63 @@ abstract class VisitableStructureFactory {
         throw new UnsupportedOperationException("Cannot be instantiated");
     }
 
-    static VisitableStructure createVisitableField(Schema.Field field, IndexedRecord indexedRecord, TraversalPath path) {
-        final Schema schema = field.schema();
-        final Object value = indexedRecord.get(field.pos());
-        return createVisitableStructure(schema, value, path);
+    static VisitableStructure createVisitableStructure(Schema schema, Object value, TraversalPath path) {
+        return createVisitableStructure(schema, value, path, null, 0);
     }
 
-    static VisitableStructure createVisitableStructure(Schema schema, Object value, TraversalPath path) {
+    static VisitableStructure createVisitableStructure(Schema schema, Object value, TraversalPathCursor cursor, int depth) {
+        return createVisitableStructure(schema, value, null, cursor, depth);
+    }
+
+    /**
+     * Creates a structure with either an immutable path, or the path of a cursor at a depth.
+     */
+    static private VisitableStructure createVisitableStructure(Schema schema, Object value, TraversalPath path,
+            TraversalPathCursor cursor, int depth) {
         Schema unwrappedSchema = AvroUtils.unwrapIfNullable(schema);
         switch (unwrappedSchema.getType()) {
         case ARRAY:
-            return new VisitableArray(ensureArray((List) value, unwrappedSchema), path);
+            GenericData.Array array = ensureArray((List) value, unwrappedSchema);
+            return path != null ? new VisitableArray(array, path) : new VisitableArray(array, cursor, depth);
         default:
-            return createWrapperForType(unwrappedSchema.getType(), value, path);
+            return createWrapperForType(unwrappedSchema.getType(), value, path, cursor, depth);
         }
     }
 
-    static private VisitableStructure createWrapperForType(Schema.Type type, Object value, TraversalPath path) {
+    static private VisitableStructure createWrapperForType(Schema.Type type, Object value, TraversalPath path,
+            TraversalPathCursor cursor, int depth) {
         switch (type) {
         case INT:
-            return new VisitableInt((Integer) value, path);
+            return path != null ? new VisitableInt((Integer) value, path) : new VisitableInt((Integer) value, cursor, depth);
         case LONG:
-            return new VisitableLong((Long) value, path);
+            return path != null ? new VisitableLong((Long) value, path) : new VisitableLong((Long) value, cursor, depth);
         case RECORD:
-            return new VisitableRecord((IndexedRecord) value, path);
+            return path != null ? new VisitableRecord((IndexedRecord) value, path)
+                    : new VisitableRecord((IndexedRecord) value, cursor, depth);
         case MAP:
-            return new VisitableMap((Map<Utf8, Object>) value, path);
+            return path != null ? new VisitableMap((Map<Utf8, Object>) value, path)
+                    : new VisitableMap((Map<Utf8, Object>) value, cursor, depth);
         case STRING:
-            return new VisitableString(value.toString(), path);
+            return path != null ? new VisitableString(value.toString(), path)
+                    : new VisitableString(value.toString(), cursor, depth);
         case BOOLEAN:
-            return new VisitableBoolean((Boolean) value, path);
+            return path != null ? new VisitableBoolean((Boolean) value, path)
+                    : new VisitableBoolean((Boolean) value, cursor, depth);
         case FLOAT:
-            return new VisitableFloat((Float) value, path);
+            return path != null ? new VisitableFloat((Float) value, path) : new VisitableFloat((Float) value, cursor, depth);
         case DOUBLE:
-            return new VisitableDouble((Double) value, path);
+            return path != null ? new VisitableDouble((Double) value, path) : new VisitableDouble((Double) value, cursor, depth);
         case NULL:
-            return new VisitableNull(path);
+            return path != null ? new VisitableNull(path) : new VisitableNull(cursor, depth);
         case ENUM:
-            return new VisitableString(value.toString(), path);
+            return path != null ? new VisitableString(value.toString(), path)
+                    : new VisitableString(value.toString(), cursor, depth);
         case FIXED:
-            return new VisitableFixed((GenericData.Fixed) value, path);
+            return path != null ? new VisitableFixed((GenericData.Fixed) value, path)
+                    : new VisitableFixed((GenericData.Fixed) value, cursor, depth);
         case BYTES:
-            return new VisitableBytes((ByteBuffer) value, path);
+            return path != null ? new VisitableBytes((ByteBuffer) value, path)
+                    : new VisitableBytes((ByteBuffer) value, cursor, depth);
         // note: UNION is not supported yet
         default:
             throw new IllegalArgumentException("Unsupported Avro data type: " + type);
@@ -6,8 +6,6 @@ import java.text.DecimalFormatSymbols;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -17,18 +15,11 @@ import org.apache.commons.lang3.StringUtils;
 public class BigDecimalParser {
 
     /**
-     * Patterns used to check different cases in guessSeparators(String):
+     * Maximum length of values parsed in the per thread buffer (longer values get their own buffer).
      */
-    private static final Pattern ENDS_BY_NOT_3_DIGITS_PATTERN = Pattern.compile("^[(-]?\\d+([,.'\\h])(?:\\d{0,2}|\\d{4,})[)]?");
+    private static final int BUFFER_SIZE = 64;
 
-    private static final Pattern STARTS_WITH_DECIMAL_SEPARATOR_PATTERN = Pattern
-            .compile("^[(-]?(?:\\d{3,}|\\d{0})([,.])\\d+[)]?");
-
-    private static final Pattern FEW_GROUP_SEP_PATTERN = Pattern.compile("^[(-]?\\d+([.,\\h'])\\d{3}(\\1\\d{3})+[)]?");
-
-    private static final Pattern TWO_DIFFERENT_SEPARATORS_PATTERN = Pattern.compile(".*\\d+([.\\h'])\\d+([,.])\\d+[)]?");
-
-    private static final Pattern CONTAINS_AT_LEAST_ONE_WHITESPACE = Pattern.compile("^[(-]?\\d+( \\d{3})+[)]?");
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[BUFFER_SIZE]);
 
     public static final DecimalFormat US_DECIMAL_PATTERN = new DecimalFormat("#,##0.##",
             DecimalFormatSymbols.getInstance(Locale.US));
@@ -66,8 +57,8 @@ public class BigDecimalParser {
         if (StringUtils.isEmpty(from)) {
             throw new NumberFormatException("null or empty is not a valid number");
         }
-        final DecimalFormatSymbols decimalFormatSymbols = guessSeparators(from);
-        return toBigDecimal(from, decimalFormatSymbols.getDecimalSeparator(), decimalFormatSymbols.getGroupingSeparator());
+        final int separators = guessSeparatorChars(from);
+        return toBigDecimal(from, (char) (separators >>> 16), (char) separators);
     }
 
     /**
@@ -86,6 +77,49 @@ public class BigDecimalParser {
         if (StringUtils.isEmpty(from)) {
             throw new NumberFormatException("null or empty is not a valid number");
         }
+        if (isRegexMetaCharacter(decimalSeparator) || isRegexMetaCharacter(groupingSeparator)) {
+            return toBigDecimalWithRegex(from, decimalSeparator, groupingSeparator);
+        }
+        final int length = from.length();
+        final char[] buffer = length <= BUFFER_SIZE ? BUFFER.get() : new char[length];
+        int end = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = from.charAt(i);
+            if (c == groupingSeparator) {
+                // Remove grouping separators
+                continue;
+            } else if (c == decimalSeparator) {
+                buffer[end++] = '.';
+            } else if (!isHorizontalWhitespace(c)) {
+                buffer[end++] = c;
+            }
+        }
+
+        // Detect and transform alternative negative pattern:
+        if (end > 1 && buffer[0] == '(' && buffer[end - 1] == ')') {
+            buffer[0] = '-';
+            end--;
+        }
+
+        // Detect a percentage
+        boolean isPercentage = end > 0 && buffer[end - 1] == '%';
+        if (isPercentage) {
+            end--;
+        }
+
+        try {
+            BigDecimal bigDecimal = new BigDecimal(buffer, 0, end);
+            return isPercentage ? bigDecimal.movePointLeft(2) : bigDecimal;
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("'" + new String(buffer, 0, end) + "' can not parsed as a number");
+        }
+    }
+
+    /**
+     * Same as {@link #toBigDecimal(String, char, char)} for separators that can't be used in a regular expression
+     * character class (such separators throw a {@link java.util.regex.PatternSyntaxException}, as they always did).
+     */
+    private static BigDecimal toBigDecimalWithRegex(String from, char decimalSeparator, char groupingSeparator) {
         // Remove grouping separators:
         from = from.replaceAll("[" + groupingSeparator + "]", "");
 
@@ -114,77 +148,170 @@ public class BigDecimalParser {
         }
     }
 
+    private static boolean isRegexMetaCharacter(char separator) {
+        return separator == '[' || separator == '\\' || separator == '^' || Character.isSurrogate(separator);
+    }
+
     public static DecimalFormatSymbols guessSeparators(String from) {
         final DecimalFormatSymbols toReturn = DecimalFormatSymbols.getInstance(Locale.US);
+        final int separators = guessSeparatorChars(from);
+        toReturn.setDecimalSeparator((char) (separators >>> 16));
+        toReturn.setGroupingSeparator((char) separators);
+        return toReturn;
+    }
+
+    /**
+     * Guesses separators in a single pass, without regular expression nor allocation.
+     *
+     * @return The decimal separator in the 16 high bits, the grouping separator in the 16 low bits.
+     */
+    static int guessSeparatorChars(String from) {
+        char decimalSeparator = '.';
+        char groupingSeparator = ',';
+
+        // All cases allow a ")" at the end, and all but the first one a "(" or "-" at start.
+        final int length = from.length();
+        final int start = length > 0 && (from.charAt(0) == '(' || from.charAt(0) == '-') ? 1 : 0;
+        final int end = length > 0 && from.charAt(length - 1) == ')' ? length - 1 : length;
 
         /*
          * This part checks cases where two separators are present. In this case, the first one is probably the grouping
          * separator, and the second the decimal separator.
-         * 
-         * Like in 1.254.789,45 or 1 254 789.45
+         *
+         * Like in 1.254.789,45 or 1 254 789.45 (anything but a line break is allowed before: ".*\d+([.\h'])\d+([,.])\d+")
          */
-        Matcher matcher = TWO_DIFFERENT_SEPARATORS_PATTERN.matcher(from);
-        if (matcher.matches()) {
-            if (matcher.groupCount() >= 2) {
-                toReturn.setGroupingSeparator(matcher.group(1).charAt(0));
-                toReturn.setDecimalSeparator(matcher.group(2).charAt(0));
+        final int decimalPart = skipDigitsBackward(from, end);
+        if (decimalPart < end && decimalPart > 1 && isOneOf(from.charAt(decimalPart - 1), ",.")) {
+            final int integerPart = skipDigitsBackward(from, decimalPart - 1);
+            if (integerPart < decimalPart - 1 && integerPart > 1) {
+                final char separator = from.charAt(integerPart - 1);
+                if ((isOneOf(separator, ".'") || isHorizontalWhitespace(separator)) && isDigit(from.charAt(integerPart - 2))
+                        && !containsLineTerminator(from, integerPart - 2)) {
+                    groupingSeparator = separator;
+                    decimalSeparator = from.charAt(decimalPart - 1);
+                }
             }
         }
 
-        /*
-         * This part checks cases where there is one separator, following by not 3 digits (less or more). In this case,
-         * it's probably a decimal separator. Like in 12,3456 or 12,34
-         */
-        matcher = ENDS_BY_NOT_3_DIGITS_PATTERN.matcher(from);
-        if (matcher.matches()) {
-            String firstMatchingGroup = matcher.group(1);
-            final char decimalSeparator = firstMatchingGroup.charAt(0);
-            toReturn.setDecimalSeparator(decimalSeparator);
-            toReturn.setGroupingSeparator(inferGroupingSeparator(decimalSeparator));
+        final int firstSeparator = skipDigits(from, start, end);
+        if (firstSeparator < end) {
+            final char separator = from.charAt(firstSeparator);
+            final int integerDigits = firstSeparator - start;
+            final int decimalDigits = skipDigits(from, firstSeparator + 1, end) - firstSeparator - 1;
+            final boolean endsWithDigits = firstSeparator + 1 + decimalDigits == end;
+
+            /*
+             * This part checks cases where there is one separator, following by not 3 digits (less or more). In this
+             * case, it's probably a decimal separator. Like in 12,3456 or 12,34
+             */
+            if (integerDigits > 0 && (isOneOf(separator, ",.'") || isHorizontalWhitespace(separator)) && endsWithDigits
+                    && decimalDigits != 3) {
+                decimalSeparator = separator;
+                groupingSeparator = inferGroupingSeparator(separator);
+            }
+
+            /*
+             * This part checks 2 cases: - where value starts with a separator. In this case, it's probably a decimal
+             * separator. Like in .254 or ,888 - where value starts with more than 3 digits then a separator. In this
+             * case, it's probably a decimal separator. Like in 1234.24 or 1234,888
+             */
+            if ((integerDigits == 0 || integerDigits >= 3) && isOneOf(separator, ",.") && endsWithDigits
+                    && decimalDigits > 0) {
+                decimalSeparator = separator;
+                groupingSeparator = inferGroupingSeparator(separator);
+            }
+
+            /*
+             * This part checks cases where a single separator is present, but many times. In this case, it's probably a
+             * grouping separator.
+             *
+             * Like in 2.452.254 or 1 454 888
+             */
+            if (integerDigits > 0 && (isOneOf(separator, ".,'") || isHorizontalWhitespace(separator))
+                    && countGroups(from, firstSeparator, end, separator) >= 2) {
+                groupingSeparator = separator;
+                decimalSeparator = inferDecimalSeparator(separator);
+            }
+
+            /*
+             * This part checks cases where a whitespace separator is present. In this case, it's probably a
+             * grouping separator.
+             *
+             * Like in 3 254
+             */
+            if (integerDigits > 0 && separator == ' ' && countGroups(from, firstSeparator, end, separator) >= 1) {
+                groupingSeparator = separator;
+                decimalSeparator = inferDecimalSeparator(separator);
+            }
         }
 
-        /*
-         * This part checks 2 cases: - where value starts with a separator. In this case, it's probably a decimal
-         * separator. Like in .254 or ,888 - where value starts with more than 3 digits then a separator. In this case,
-         * it's probably a decimal separator. Like in 1234.24 or 1234,888
-         */
-        matcher = STARTS_WITH_DECIMAL_SEPARATOR_PATTERN.matcher(from);
-        if (matcher.matches()) {
-            String firstMatchingGroup = matcher.group(1);
-            final char decimalSeparator = firstMatchingGroup.charAt(0);
-            toReturn.setDecimalSeparator(decimalSeparator);
-            toReturn.setGroupingSeparator(inferGroupingSeparator(decimalSeparator));
+        return decimalSeparator << 16 | groupingSeparator;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * @return Index of first non digit character from start (end if none).
+     */
+    private static int skipDigits(String from, int start, int end) {
+        int i = start;
+        while (i < end && isDigit(from.charAt(i))) {
+            i++;
         }
+        return i;
+    }
 
-        /*
-         * This part checks cases where a single separator is present, but many times. In this case, it's probably a
-         * grouping separator.
-         *
-         * Like in 2.452.254 or 1 454 888
-         */
-        matcher = FEW_GROUP_SEP_PATTERN.matcher(from);
-        if (matcher.matches()) {
-            String firstMatchingGroup = matcher.group(1);
-            final char groupingSeparator = firstMatchingGroup.charAt(0);
-            toReturn.setGroupingSeparator(groupingSeparator);
-            toReturn.setDecimalSeparator(inferDecimalSeparator(groupingSeparator));
+    /**
+     * @return Index of first digit of the digits ending at end (end if none).
+     */
+    private static int skipDigitsBackward(String from, int end) {
+        int i = end;
+        while (i > 0 && isDigit(from.charAt(i - 1))) {
+            i--;
         }
+        return i;
+    }
 
-        /*
-         * This part checks cases where a whitespace separator is present. In this case, it's probably a
-         * grouping separator.
-         *
-         * Like in 3 254
-         */
-        matcher = CONTAINS_AT_LEAST_ONE_WHITESPACE.matcher(from);
-        if (matcher.matches()) {
-            String firstMatchingGroup = matcher.group(1);
-            final char groupingSeparator = firstMatchingGroup.charAt(0);
-            toReturn.setGroupingSeparator(groupingSeparator);
-            toReturn.setDecimalSeparator(inferDecimalSeparator(groupingSeparator));
+    /**
+     * @return The number of "separator + 3 digits" groups from start to end, -1 if something else is found.
+     */
+    private static int countGroups(String from, int start, int end, char separator) {
+        int groups = 0;
+        for (int i = start; i < end; i += 4) {
+            if (i + 4 > end || from.charAt(i) != separator || !isDigit(from.charAt(i + 1)) || !isDigit(from.charAt(i + 2))
+                    || !isDigit(from.charAt(i + 3))) {
+                return -1;
+            }
+            groups++;
         }
+        return groups;
+    }
 
-        return toReturn;
+    private static boolean isOneOf(char c, String characters) {
+        return characters.indexOf(c) >= 0;
+    }
+
+    /**
+     * @return <code>true</code> if c matches <code>\h</code> in a regular expression.
+     */
+    private static boolean isHorizontalWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\u00A0' || c == '\u1680' || c == '\u180e' || (c >= '\u2000' && c <= '\u200a')
+                || c == '\u202f' || c == '\u205f' || c == '\u3000';
+    }
+
+    /**
+     * @return <code>true</code> if a character before end is not matched by <code>.</code> in a regular expression.
+     */
+    private static boolean containsLineTerminator(String from, int end) {
+        for (int i = 0; i < end; i++) {
+            final char c = from.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -0,0 +1,176 @@
+package org.talend.daikon.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * A {@link PatternMatcher} for a sequence of code point classes, each one expected once or repeated (as
+ * <code>[class]{n,}</code> in a regex). Values are read once, code point per code point, without any regex or
+ * allocation (except for patterns of more than 63 steps with repeated classes).
+ */
+public final class CodePointAutomaton implements PatternMatcher {
+
+    private final IntPredicate[] classes;
+
+    /** repeated[i]: classes[i] can match any number of code points (zero included) */
+    private final boolean[] repeated;
+
+    private final boolean hasRepeated;
+
+    private CodePointAutomaton(IntPredicate[] classes, boolean[] repeated, boolean hasRepeated) {
+        this.classes = classes;
+        this.repeated = repeated;
+        this.hasRepeated = hasRepeated;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean matches(String value) {
+        if (value == null) {
+            return false;
+        }
+        if (!hasRepeated) {
+            return matchesSequence(value);
+        }
+        return classes.length < Long.SIZE ? matchesSmall(value) : matchesLarge(value);
+    }
+
+    /** Only one code point per class: no state but position. */
+    private boolean matchesSequence(String value) {
+        int step = 0;
+        for (int i = 0; i < value.length(); step++) {
+            final int codePoint = value.codePointAt(i);
+            if (step >= classes.length || !classes[step].test(codePoint)) {
+                return false;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return step == classes.length;
+    }
+
+    /** Simulation of the automaton, states (steps reached) as bits of a long. */
+    private boolean matchesSmall(String value) {
+        long states = closure(1L);
+        for (int i = 0; i < value.length() && states != 0L; ) {
+            final int codePoint = value.codePointAt(i);
+            long next = 0L;
+            for (long remaining = states; remaining != 0L; remaining &= remaining - 1) {
+                final int step = Long.numberOfTrailingZeros(remaining);
+                if (step < classes.length && classes[step].test(codePoint)) {
+                    next |= repeated[step] ? 1L << step : 1L << (step + 1);
+                }
+            }
+            states = closure(next);
+            i += Character.charCount(codePoint);
+        }
+        return (states & (1L << classes.length)) != 0L;
+    }
+
+    private long closure(long states) {
+        long closure = states;
+        for (int step = 0; step < classes.length; step++) {
+            if (repeated[step] && (closure & (1L << step)) != 0L) {
+                closure |= 1L << (step + 1);
+            }
+        }
+        return closure;
+    }
+
+    /** Same as {@link #matchesSmall(String)} with states in a boolean array. */
+    private boolean matchesLarge(String value) {
+        boolean[] states = new boolean[classes.length + 1];
+        boolean[] next = new boolean[classes.length + 1];
+        states[0] = true;
+        closure(states);
+        for (int i = 0; i < value.length(); ) {
+            final int codePoint = value.codePointAt(i);
+            boolean any = false;
+            for (int step = 0; step < classes.length; step++) {
+                if (states[step] && classes[step].test(codePoint)) {
+                    next[repeated[step] ? step : step + 1] = true;
+                    any = true;
+                }
+            }
+            if (!any) {
+                return false;
+            }
+            closure(next);
+            final boolean[] swap = states;
+            states = next;
+            next = swap;
+            Arrays.fill(next, false);
+            i += Character.charCount(codePoint);
+        }
+        return states[classes.length];
+    }
+
+    private void closure(boolean[] states) {
+        for (int step = 0; step < classes.length; step++) {
+            if (repeated[step] && states[step]) {
+                states[step + 1] = true;
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private final List<IntPredicate> classes = new ArrayList<>();
+
+        private final List<Boolean> repeated = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Expect one code point of the class.
+         */
+        public Builder one(IntPredicate codePointClass) {
+            classes.add(codePointClass);
+            repeated.add(Boolean.FALSE);
+            return this;
+        }
+
+        /**
+         * Expect exactly <code>count</code> code points of the class.
+         */
+        public Builder times(IntPredicate codePointClass, int count) {
+            for (int i = 0; i < count; i++) {
+                one(codePointClass);
+            }
+            return this;
+        }
+
+        /**
+         * Expect at least <code>min</code> code points of the class.
+         */
+        public Builder atLeast(IntPredicate codePointClass, int min) {
+            times(codePointClass, min);
+            classes.add(codePointClass);
+            repeated.add(Boolean.TRUE);
+            return this;
+        }
+
+        /**
+         * Expect exactly the code points of <code>text</code>.
+         */
+        public Builder literal(String text) {
+            text.codePoints().forEach(expected -> one(codePoint -> codePoint == expected));
+            return this;
+        }
+
+        public CodePointAutomaton build() {
+            final boolean[] repeatedArray = new boolean[repeated.size()];
+            boolean hasRepeated = false;
+            for (int i = 0; i < repeatedArray.length; i++) {
+                repeatedArray[i] = repeated.get(i);
+                hasRepeated |= repeatedArray[i];
+            }
+            return new CodePointAutomaton(classes.toArray(new IntPredicate[0]), repeatedArray, hasRepeated);
+        }
+    }
+}
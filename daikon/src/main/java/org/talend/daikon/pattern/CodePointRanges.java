@@ -0,0 +1,76 @@
+package org.talend.daikon.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Set of code points defined by ranges, as in regexes of
+ * {@link org.talend.daikon.pattern.character.CharPatternToRegexConstants}.
+ */
+public final class CodePointRanges implements IntPredicate {
+
+    private static final Pattern RANGE = Pattern.compile("\\\\x\\{(\\p{XDigit}+)\\}(?:-\\\\x\\{(\\p{XDigit}+)\\})?");
+
+    /** sorted, not overlapping ranges: [starts[i], ends[i]] */
+    private final int[] starts;
+
+    private final int[] ends;
+
+    private CodePointRanges(int[] starts, int[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * @param regexes Regexes made of <code>\x{hex}</code> code points and <code>[\x{hex}-\x{hex}]</code> ranges (other
+     * characters are ignored).
+     * @return The union of code points of all regexes.
+     */
+    public static CodePointRanges parse(String... regexes) {
+        final List<int[]> ranges = new ArrayList<>();
+        for (String regex : regexes) {
+            final Matcher matcher = RANGE.matcher(regex);
+            while (matcher.find()) {
+                final int start = Integer.parseInt(matcher.group(1), 16);
+                final int end = matcher.group(2) == null ? start : Integer.parseInt(matcher.group(2), 16);
+                ranges.add(new int[] { start, end });
+            }
+        }
+        ranges.sort((r1, r2) -> Integer.compare(r1[0], r2[0]));
+
+        final int[] starts = new int[ranges.size()];
+        final int[] ends = new int[ranges.size()];
+        int size = 0;
+        for (int[] range : ranges) {
+            if (size > 0 && range[0] <= ends[size - 1] + 1) {
+                ends[size - 1] = Math.max(ends[size - 1], range[1]);
+            } else {
+                starts[size] = range[0];
+                ends[size] = range[1];
+                size++;
+            }
+        }
+        return new CodePointRanges(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size));
+    }
+
+    @Override
+    public boolean test(int codePoint) {
+        int low = 0;
+        int high = starts.length - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (codePoint < starts[middle]) {
+                high = middle - 1;
+            } else if (codePoint > ends[middle]) {
+                low = middle + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+}
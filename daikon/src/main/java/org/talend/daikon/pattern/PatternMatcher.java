@@ -0,0 +1,17 @@
+package org.talend.daikon.pattern;
+
+/**
+ * A pattern compiled once to test many values.
+ *
+ * @see org.talend.daikon.pattern.character.CharPatternToMatcher
+ * @see org.talend.daikon.pattern.word.WordPatternToMatcher
+ */
+@FunctionalInterface
+public interface PatternMatcher {
+
+    /**
+     * @param value A value, may be null.
+     * @return true if the whole value matches the pattern, false otherwise (or if value is null).
+     */
+    boolean matches(String value);
+}
@@ -0,0 +1,94 @@
+package org.talend.daikon.pattern.character;
+
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.DIGIT;
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.FULLWIDTH_DIGIT;
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.FULLWIDTH_KATAKANA;
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.FULLWIDTH_LOWER_LATIN;
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.FULLWIDTH_UPPER_LATIN;
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.HALFWIDTH_KATAKANA;
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.HANGUL;
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.HIRAGANA;
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.KANJI;
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.KANJI_RARE;
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.LOWER_LATIN;
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.LOWER_LATIN_RARE;
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.UPPER_LATIN;
+import static org.talend.daikon.pattern.character.CharPatternToRegexConstants.UPPER_LATIN_RARE;
+
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+
+import org.talend.daikon.pattern.CodePointAutomaton;
+import org.talend.daikon.pattern.CodePointRanges;
+import org.talend.daikon.pattern.PatternMatcher;
+
+/**
+ * Compile a character pattern (as <code>Aaaa99</code>) to a {@link PatternMatcher} matching same values than
+ * {@link CharPatternToRegex#toRegex(String) its regex}, without regex.
+ */
+public class CharPatternToMatcher {
+
+    private static final IntPredicate LOWER = ranges(LOWER_LATIN, LOWER_LATIN_RARE, FULLWIDTH_LOWER_LATIN);
+
+    private static final IntPredicate UPPER = ranges(UPPER_LATIN, UPPER_LATIN_RARE, FULLWIDTH_UPPER_LATIN);
+
+    private static final IntPredicate DIGITS = ranges(DIGIT, FULLWIDTH_DIGIT);
+
+    private static final IntPredicate HIRAGANAS = ranges(HIRAGANA);
+
+    private static final IntPredicate HALFWIDTH_KATAKANAS = ranges(HALFWIDTH_KATAKANA);
+
+    private static final IntPredicate FULLWIDTH_KATAKANAS = ranges(FULLWIDTH_KATAKANA);
+
+    private static final IntPredicate KANJIS = ranges(KANJI, KANJI_RARE);
+
+    private static final IntPredicate HANGULS = ranges(HANGUL);
+
+    private CharPatternToMatcher() {
+        // Do not instantiate
+    }
+
+    public static PatternMatcher toMatcher(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if (Character.isSurrogate(pattern.charAt(i))) {
+                // regex built for surrogate pairs is not a simple sequence of code points.
+                final Pattern regex = Pattern.compile(CharPatternToRegex.toRegex(pattern));
+                return value -> value != null && regex.matcher(value).matches();
+            }
+        }
+        final CodePointAutomaton.Builder builder = CodePointAutomaton.builder();
+        pattern.codePoints().forEach(codePoint -> builder.one(toClass(codePoint)));
+        return builder.build();
+    }
+
+    private static IntPredicate toClass(int patternCodePoint) {
+        switch (patternCodePoint) {
+        case 'H':
+            return HIRAGANAS;
+        case 'k':
+            return HALFWIDTH_KATAKANAS;
+        case 'K':
+            return FULLWIDTH_KATAKANAS;
+        case 'C':
+            return KANJIS;
+        case 'G':
+            return HANGULS;
+        case 'a':
+            return LOWER;
+        case 'A':
+            return UPPER;
+        case '9':
+            return DIGITS;
+        default:
+            return codePoint -> codePoint == patternCodePoint;
+        }
+    }
+
+    private static IntPredicate ranges(CharPatternToRegexConstants... constants) {
+        final String[] regexes = new String[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+            regexes[i] = constants[i].getRegex();
+        }
+        return CodePointRanges.parse(regexes);
+    }
+}
@@ -0,0 +1,120 @@
+package org.talend.daikon.pattern.word;
+
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+
+import org.talend.daikon.pattern.CodePointAutomaton;
+import org.talend.daikon.pattern.CodePointRanges;
+import org.talend.daikon.pattern.PatternMatcher;
+import org.talend.daikon.pattern.character.CharPatternToRegexConstants;
+
+/**
+ * Compile a word pattern (as <code>[Word] [number]</code>) to a {@link PatternMatcher} matching same values than
+ * {@link WordPatternToRegex#toRegex(String, boolean) its regex}, without regex.
+ */
+public class WordPatternToMatcher {
+
+    // \p{Lu}
+    private static final IntPredicate UPPER = codePoint -> Character.getType(codePoint) == Character.UPPERCASE_LETTER;
+
+    // \p{Ll}
+    private static final IntPredicate LOWER = codePoint -> Character.getType(codePoint) == Character.LOWERCASE_LETTER;
+
+    private static final IntPredicate CHAR = UPPER.or(LOWER);
+
+    // \p{Nd}
+    private static final IntPredicate DIGIT = codePoint -> Character
+            .getType(codePoint) == Character.DECIMAL_DIGIT_NUMBER;
+
+    // [\p{Nd}|\p{Lu}\p{Ll}]: '|' is part of the class.
+    private static final IntPredicate ALPHANUMERIC = DIGIT.or(CHAR).or(codePoint -> codePoint == '|');
+
+    // \p{script=Han}
+    private static final IntPredicate IDEOGRAM = codePoint -> Character.UnicodeScript
+            .of(codePoint) == Character.UnicodeScript.HAN;
+
+    private static final IntPredicate HANGUL = CodePointRanges.parse(CharPatternToRegexConstants.HANGUL.getRegex());
+
+    private static final IntPredicate HIRAGANA = CodePointRanges.parse(CharPatternToRegexConstants.HIRAGANA.getRegex());
+
+    private static final IntPredicate KATAKANA = CodePointRanges.parse(
+            CharPatternToRegexConstants.HALFWIDTH_KATAKANA.getRegex(), CharPatternToRegexConstants.FULLWIDTH_KATAKANA.getRegex());
+
+    private WordPatternToMatcher() {
+        // Do not instantiate
+    }
+
+    public static PatternMatcher toMatcher(String pattern, boolean caseSensitive) {
+        final CodePointAutomaton.Builder builder = CodePointAutomaton.builder();
+        for (String current : WordPatternToRegex.splitPattern(pattern)) {
+            final WordPattern wordPattern = WordPattern.get(current);
+            if (wordPattern == null) {
+                builder.literal(current);
+            } else if (!append(builder, wordPattern, caseSensitive)) {
+                final Pattern regex = Pattern.compile(WordPatternToRegex.toRegex(pattern, caseSensitive));
+                return value -> value != null && regex.matcher(value).matches();
+            }
+        }
+        return builder.build();
+    }
+
+    private static boolean append(CodePointAutomaton.Builder builder, WordPattern wordPattern, boolean caseSensitive) {
+        switch (wordPattern) {
+        case WORD:
+            if (caseSensitive) {
+                builder.one(UPPER).atLeast(LOWER, 1);
+            } else {
+                builder.atLeast(CHAR, 2);
+            }
+            return true;
+        case LOWER_WORD:
+            builder.atLeast(caseSensitive ? LOWER : CHAR, 2);
+            return true;
+        case UPPER_WORD:
+            builder.atLeast(caseSensitive ? UPPER : CHAR, 2);
+            return true;
+        case LOWER_CHAR:
+            builder.one(caseSensitive ? LOWER : CHAR);
+            return true;
+        case UPPER_CHAR:
+            builder.one(caseSensitive ? UPPER : CHAR);
+            return true;
+        case NUMBER:
+            builder.atLeast(DIGIT, 2);
+            return true;
+        case DIGIT:
+            builder.one(DIGIT);
+            return true;
+        case ALPHANUMERIC:
+            builder.atLeast(ALPHANUMERIC, 2);
+            return true;
+        case IDEOGRAM:
+            builder.one(IDEOGRAM);
+            return true;
+        case IDEOGRAM_SEQUENCE:
+            builder.atLeast(IDEOGRAM, 2);
+            return true;
+        case HANGUL:
+            builder.one(HANGUL);
+            return true;
+        case HANGUL_SEQUENCE:
+            builder.atLeast(HANGUL, 2);
+            return true;
+        case HIRAGANA:
+            builder.one(HIRAGANA);
+            return true;
+        case HIRAGANA_SEQUENCE:
+            builder.atLeast(HIRAGANA, 2);
+            return true;
+        case KATAKANA:
+            builder.one(KATAKANA);
+            return true;
+        case KATAKANA_SEQUENCE:
+            builder.atLeast(KATAKANA, 2);
+            return true;
+        default:
+            // new word pattern: use its regex.
+            return false;
+        }
+    }
+}
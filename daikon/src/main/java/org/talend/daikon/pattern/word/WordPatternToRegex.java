@@ -33,7 +33,7 @@ public class WordPatternToRegex {
 
     }
 
-    private static List<String> splitPattern(final String pattern) {
+    static List<String> splitPattern(final String pattern) {
         List result = new ArrayList<String>();
         if (pattern.startsWith("[")) {
             int closeBracket = pattern.indexOf(']');
@@ -15,15 +15,22 @@ package org.talend.daikon.avro.converter;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
 import org.junit.jupiter.api.Test;
 import org.talend.daikon.avro.AvroUtils;
+import org.talend.daikon.avro.inferrer.BatchJsonSchemaInferrer;
+import org.talend.daikon.avro.inferrer.JsonSchemaInferrer;
 
 /**
  * Test {@link JsonGenericRecordConverter}
@@ -280,4 +287,91 @@ public class JsonGenericRecordConverterTest {
         assertThat((boolean) recordB1.get("b"), is(equalTo(true)));
         assertThat((boolean) recordB2.get("b"), is(equalTo(false)));
     }
+
+    /**
+     * Test {@link JsonGenericRecordConverter#convertToAvro(String)}
+     *
+     * Nested records are records of the given schema.
+     */
+    @Test
+    public void testConvertNestedRecordWithGivenSchema() {
+        jsonGenericRecordConverter = new JsonGenericRecordConverter(schemaArrayOfComplexStringRecords);
+
+        // Get Avro Generic Record
+        GenericRecord outputRecord = jsonGenericRecordConverter.convertToAvro(jsonArrayOfComplexStringRecords);
+
+        // Check `a` array field records schema
+        ArrayList<GenericRecord> arrayRecordA = (ArrayList<GenericRecord>) outputRecord.get("a");
+        assertThat(arrayRecordA.get(0).getSchema(), is(sameInstance(schemaStrB)));
+        assertThat(arrayRecordA.get(1).getSchema(), is(sameInstance(schemaStrB)));
+    }
+
+    /**
+     * Test {@link JsonGenericRecordConverter#convertToAvro(String)}
+     *
+     * Without schema, the schema is inferred once for records of same shape.
+     */
+    @Test
+    public void testConvertWithoutSchema() {
+        jsonGenericRecordConverter = new JsonGenericRecordConverter();
+
+        // Get Avro Generic Records
+        GenericRecord outputRecord1 = jsonGenericRecordConverter.convertToAvro(jsonComplexRecordWithStrFields);
+        GenericRecord outputRecord2 = jsonGenericRecordConverter.convertToAvro("{\"a\": {\"b\": \"b2\"}, \"d\": null}");
+
+        // Check fields values
+        assertThat(((GenericRecord) outputRecord1.get("a")).get("b"), is(equalTo("b1")));
+        assertThat(outputRecord1.get("d"), is(equalTo("d1")));
+        assertThat(((GenericRecord) outputRecord2.get("a")).get("b"), is(equalTo("b2")));
+        assertThat(outputRecord2.get("d"), is(nullValue()));
+
+        // Check schema is shared
+        assertThat(outputRecord2.getSchema(), is(sameInstance(outputRecord1.getSchema())));
+        assertThat(jsonGenericRecordConverter.getSchema(), is(nullValue()));
+    }
+
+    /**
+     * Test {@link JsonGenericRecordConverter#convertToAvro(String)}
+     *
+     * With a schema merged from several records, values are widened to the types of the schema.
+     */
+    @Test
+    public void testConvertWithMergedSchema() {
+        List<String> jsons = Arrays.asList("{\"a\": 1, \"b\": 1, \"c\": {\"d\": 1}}",
+                "{\"a\": 3000000000, \"b\": 1.5, \"c\": \"c1\"}");
+        Schema schema = BatchJsonSchemaInferrer.createBatchJsonSchemaInferrer().inferSchema(jsons.iterator());
+        jsonGenericRecordConverter = new JsonGenericRecordConverter(schema);
+
+        // Get Avro Generic Records
+        GenericRecord outputRecord1 = jsonGenericRecordConverter.convertToAvro(jsons.get(0));
+        GenericRecord outputRecord2 = jsonGenericRecordConverter.convertToAvro(jsons.get(1));
+
+        // Check fields values
+        assertThat(outputRecord1.get("a"), is(equalTo(1L)));
+        assertThat(outputRecord1.get("b"), is(equalTo(1.0)));
+        assertThat(outputRecord1.get("c"), is(equalTo("{\"d\":1}")));
+        assertThat(outputRecord2.get("a"), is(equalTo(3000000000L)));
+        assertThat(outputRecord2.get("b"), is(equalTo(1.5)));
+        assertThat(outputRecord2.get("c"), is(equalTo("c1")));
+        assertThat(GenericData.get().validate(schema, outputRecord1), is(true));
+        assertThat(GenericData.get().validate(schema, outputRecord2), is(true));
+    }
+
+    /**
+     * Test {@link JsonGenericRecordConverter#convertToAvro(String)}
+     *
+     * Integers too big for a long are kept: as doubles in a merged schema, as their digits otherwise.
+     */
+    @Test
+    public void testConvertBigInteger() {
+        String big = "123456789012345678901234567890";
+        List<String> jsons = Arrays.asList("{\"a\": 1}", "{\"a\": " + big + "}");
+        Schema mergedSchema = BatchJsonSchemaInferrer.createBatchJsonSchemaInferrer().inferSchema(jsons.iterator());
+        GenericRecord merged = new JsonGenericRecordConverter(mergedSchema).convertToAvro(jsons.get(1));
+        assertThat(merged.get("a"), is(equalTo(1.2345678901234568E29)));
+
+        Schema longSchema = JsonSchemaInferrer.createJsonSchemaInferrer().inferSchema("{\"a\": 3000000000}");
+        GenericRecord record = new JsonGenericRecordConverter(longSchema).convertToAvro(jsons.get(1));
+        assertThat(record.get("a"), is(equalTo(big)));
+    }
 }
@@ -0,0 +1,200 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.daikon.avro.inferrer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.avro.AvroUtils;
+
+/**
+ * Test {@link BatchJsonSchemaInferrer}
+ */
+public class BatchJsonSchemaInferrerTest {
+
+    private final BatchJsonSchemaInferrer batchInferrer = BatchJsonSchemaInferrer.createBatchJsonSchemaInferrer();
+
+    private final JsonSchemaInferrer jsonSchemaInferrer = JsonSchemaInferrer.createJsonSchemaInferrer();
+
+    private final String realComplexRecord = "{\"id\": 1, \"features\": [{"
+            + "\"geometry\": {\"coordinates\": [ 2.3903853, 48.8732135]}, "
+            + "\"properties\": {\"status_ok\": true, \"public_name\": \"Paris\", "
+            + "\"geo_point\": [], \"kind\": {}, \"postal_code\": null}}]}";
+
+    private Schema inferSchema(String... jsons) {
+        return batchInferrer.inferSchema(Arrays.asList(jsons).iterator());
+    }
+
+    private Schema fieldSchema(Schema schema, String name) {
+        return schema.getField(name).schema();
+    }
+
+    /**
+     * Test {@link BatchJsonSchemaInferrer#inferSchema(java.util.Iterator)}
+     *
+     * A single record has the schema of {@link JsonSchemaInferrer}.
+     */
+    @Test
+    public void testInferSchemaOfSingleRecord() {
+        String[] jsons = { realComplexRecord, "{\"a\": {\"b\": \"b1\"}, \"d\": 100}", "{\"a\": [{\"b\": true}]}",
+                "{\"a\": 3000000000, \"b\": null}", "{}" };
+        for (String json : jsons) {
+            assertThat(json, inferSchema(json), is(equalTo(jsonSchemaInferrer.inferSchema(json))));
+        }
+    }
+
+    /**
+     * Test {@link BatchJsonSchemaInferrer#inferSchema(java.util.Iterator)}
+     *
+     * Numbers are widened from int to long to double, whatever the order of records.
+     */
+    @Test
+    public void testInferSchemaWidensNumbers() {
+        Schema intSchema = AvroUtils.wrapAsNullable(AvroUtils._int());
+        Schema longSchema = AvroUtils.wrapAsNullable(AvroUtils._long());
+        Schema doubleSchema = AvroUtils.wrapAsNullable(AvroUtils._double());
+
+        assertThat(fieldSchema(inferSchema("{\"a\": 1}", "{\"a\": 2}"), "a"), is(equalTo(intSchema)));
+        assertThat(fieldSchema(inferSchema("{\"a\": 1}", "{\"a\": 3000000000}"), "a"), is(equalTo(longSchema)));
+        assertThat(fieldSchema(inferSchema("{\"a\": 3000000000}", "{\"a\": 1}"), "a"), is(equalTo(longSchema)));
+        assertThat(fieldSchema(inferSchema("{\"a\": 1}", "{\"a\": 3000000000}", "{\"a\": 1.5}"), "a"),
+                is(equalTo(doubleSchema)));
+        assertThat(fieldSchema(inferSchema("{\"a\": 1.5}", "{\"a\": 1}"), "a"), is(equalTo(doubleSchema)));
+        assertThat(fieldSchema(inferSchema("{\"a\": [1, 2.5]}"), "a"), is(equalTo(Schema.createArray(doubleSchema))));
+    }
+
+    /**
+     * Test {@link BatchJsonSchemaInferrer#inferSchema(java.util.Iterator)}
+     *
+     * Fields missing or null in some records are nullable, other fields are merged.
+     */
+    @Test
+    public void testInferSchemaOfSparseRecords() {
+        Schema schema = inferSchema("{\"a\": {\"b\": 1}, \"c\": [{\"d\": 1}]}", "{\"e\": \"e1\", \"c\": [{\"f\": true}]}",
+                "{\"a\": null, \"c\": []}");
+
+        assertThat(schema.getFields(), hasSize(3));
+        assertThat(schema.getField("a").pos(), is(0));
+        assertThat(schema.getField("c").pos(), is(1));
+        assertThat(schema.getField("e").pos(), is(2));
+        Schema a = fieldSchema(schema, "a");
+        assertThat(AvroUtils.isNullable(a), is(true));
+        assertThat(fieldSchema(AvroUtils.unwrapIfNullable(a), "b"), is(equalTo(AvroUtils.wrapAsNullable(AvroUtils._int()))));
+        assertThat(fieldSchema(schema, "e"), is(equalTo(AvroUtils.wrapAsNullable(AvroUtils._string()))));
+
+        Schema c = fieldSchema(schema, "c");
+        assertThat(c.getType(), is(Schema.Type.ARRAY));
+        Schema element = c.getElementType();
+        assertThat(element.getType(), is(Schema.Type.RECORD));
+        assertThat(AvroUtils.isNullable(fieldSchema(element, "d")), is(true));
+        assertThat(fieldSchema(element, "f"), is(equalTo(AvroUtils.wrapAsNullable(AvroUtils._boolean()))));
+    }
+
+    /**
+     * Test {@link BatchJsonSchemaInferrer#inferSchema(java.util.Iterator)}
+     *
+     * Values of different types are strings.
+     */
+    @Test
+    public void testInferSchemaOfDifferentTypes() {
+        Schema stringSchema = AvroUtils.wrapAsNullable(AvroUtils._string());
+        assertThat(fieldSchema(inferSchema("{\"a\": 1}", "{\"a\": \"a1\"}"), "a"), is(equalTo(stringSchema)));
+        assertThat(fieldSchema(inferSchema("{\"a\": true}", "{\"a\": 1}"), "a"), is(equalTo(stringSchema)));
+        assertThat(fieldSchema(inferSchema("{\"a\": {\"b\": 1}}", "{\"a\": [1]}", "{\"a\": {\"c\": 1}}"), "a"),
+                is(equalTo(stringSchema)));
+        assertThat(fieldSchema(inferSchema("{\"a\": null}", "{\"a\": null}"), "a"), is(equalTo(stringSchema)));
+    }
+
+    /**
+     * Test {@link BatchJsonSchemaInferrer#inferSchema(java.io.InputStream, int)}
+     *
+     * Only the sample of records is read.
+     */
+    @Test
+    public void testInferSchemaOfNdjsonSample() {
+        String ndjson = "{\"a\": 1}\n{\"a\": 2, \"b\": true}\n\n[1, 2]\n{\"a\": 1.5}\n";
+
+        Schema sample = batchInferrer.inferSchema(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), 2);
+        assertThat(sample, is(equalTo(inferSchema("{\"a\": 1}", "{\"a\": 2, \"b\": true}"))));
+
+        Schema all = batchInferrer.inferSchema(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+        assertThat(fieldSchema(all, "a"), is(equalTo(AvroUtils.wrapAsNullable(AvroUtils._double()))));
+        assertThat(all, is(equalTo(inferSchema("{\"a\": 1}", "{\"a\": 2, \"b\": true}", "{\"a\": 1.5}"))));
+    }
+
+    /**
+     * Test {@link BatchJsonSchemaInferrer.Accumulator#merge(BatchJsonSchemaInferrer.Accumulator)}
+     *
+     * Merge of accumulators does not depend on their order.
+     */
+    @Test
+    public void testMergeIsCommutative() {
+        String[] first = { "{\"a\": 1, \"b\": {\"c\": 1}, \"d\": [1]}", "{\"a\": 2}" };
+        String[] second = { "{\"a\": 1.5, \"b\": null, \"d\": [3000000000, null]}", "{\"a\": 3, \"b\": {\"c\": \"c1\"}}" };
+
+        BatchJsonSchemaInferrer.Accumulator firstThenSecond = accumulate(first).merge(accumulate(second));
+        BatchJsonSchemaInferrer.Accumulator secondThenFirst = accumulate(second).merge(accumulate(first));
+
+        assertThat(firstThenSecond.getCount(), is(4L));
+        assertThat(secondThenFirst.getSchema(), is(equalTo(firstThenSecond.getSchema())));
+        assertThat(firstThenSecond.getSchema(), is(equalTo(inferSchema(first[0], first[1], second[0], second[1]))));
+    }
+
+    private BatchJsonSchemaInferrer.Accumulator accumulate(String... jsons) {
+        BatchJsonSchemaInferrer.Accumulator accumulator = batchInferrer.newAccumulator();
+        for (String json : jsons) {
+            accumulator.add(json);
+        }
+        return accumulator;
+    }
+
+    /**
+     * Test {@link BatchJsonSchemaInferrer#inferSchema(java.util.stream.Stream)}
+     *
+     * Parallel inference has the same schema as sequential one.
+     */
+    @Test
+    public void testInferSchemaInParallel() {
+        List<String> jsons = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            StringBuilder json = new StringBuilder("{\"id\": ").append(i);
+            if (i % 7 == 0) {
+                json.append(", \"score\": ").append(i % 2 == 0 ? "1.5" : "3");
+            }
+            if (i % 1000 == 999) {
+                json.append(", \"tags\": [\"t1\"], \"big\": 3000000000");
+            }
+            json.append(", \"nested\": {\"n").append(i % 10).append("\": ").append(i % 3 == 0 ? "null" : "true").append("}}");
+            jsons.add(json.toString());
+        }
+        Schema sequential = batchInferrer.inferSchema(jsons.iterator());
+
+        assertThat(batchInferrer.inferSchema(jsons.parallelStream()), is(equalTo(sequential)));
+        assertThat(batchInferrer.inferSchema(Collections.<String> emptyIterator()).getFields(), hasSize(0));
+        assertThat(AvroUtils.isNullable(fieldSchema(sequential, "id")), is(true));
+        assertThat(fieldSchema(sequential, "score"), is(equalTo(AvroUtils.wrapAsNullable(AvroUtils._double()))));
+        assertThat(fieldSchema(AvroUtils.unwrapIfNullable(fieldSchema(sequential, "nested")), "n9"),
+                is(equalTo(AvroUtils.wrapAsNullable(AvroUtils._boolean()))));
+    }
+}
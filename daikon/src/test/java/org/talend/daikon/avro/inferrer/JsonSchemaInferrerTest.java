@@ -16,6 +16,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 
@@ -710,4 +711,71 @@ public class JsonSchemaInferrerTest {
         assertThat(fieldSchemaATypes.get(0).getName(), is(equalTo("int")));
         assertThat(fieldSchemaATypes.get(1).getName(), is(equalTo("null")));
     }
+
+    /**
+     * Test {@link JsonSchemaInferrer#inferSchema(JsonNode)}
+     *
+     * Json nodes of same shape share the same schema.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testInferSchemaOfSameShape() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode jsonNode1 = mapper.readTree(realComplexRecord);
+        JsonNode jsonNode2 = mapper.readTree(realComplexRecord.replace("Paris", "Nantes").replace("2.39", "3.39"));
+
+        assertThat(JsonSchemaInferrer.getShapeFingerprint(jsonNode1),
+                is(equalTo(JsonSchemaInferrer.getShapeFingerprint(jsonNode2))));
+        assertThat(jsonSchemaInferrer.inferSchema(jsonNode2), is(sameInstance(jsonSchemaInferrer.inferSchema(jsonNode1))));
+        assertThat(jsonSchemaInferrer.inferSchema(realComplexRecord), is(sameInstance(jsonSchemaInferrer.inferSchema(jsonNode1))));
+
+        // null values and strings have the same schema
+        assertThat(jsonSchemaInferrer.inferSchema(jsonSimpleRecordNull),
+                is(sameInstance(jsonSchemaInferrer.inferSchema("{\"a\": \"a1\"}"))));
+    }
+
+    /**
+     * Test {@link JsonSchemaInferrer#inferSchema(JsonNode)}
+     *
+     * Json nodes of different shapes have different schemas.
+     */
+    @Test
+    public void testInferSchemaOfDifferentShapes() {
+        String[] jsons = { jsonSimpleRecordInt, jsonSimpleRecordDouble, jsonSimpleRecordNull, jsonArrayOfInteger,
+                jsonArrayOfString, jsonComplexRecordWithStrFields, jsonComplexRecordWithBooleanFields, "{\"b\": 100}",
+                "{\"a\": 100, \"b\": 100}", "{\"a\": {}}" };
+        for (int i = 0; i < jsons.length; i++) {
+            for (int j = i + 1; j < jsons.length; j++) {
+                Schema schema1 = jsonSchemaInferrer.inferSchema(jsons[i]);
+                Schema schema2 = jsonSchemaInferrer.inferSchema(jsons[j]);
+                assertThat(jsons[i] + " / " + jsons[j], schema1, is(not(equalTo(schema2))));
+            }
+        }
+    }
+
+    /**
+     * Test {@link JsonSchemaInferrer#inferSchema(JsonNode)}
+     *
+     * A schema cached for another shape with the same fingerprint (collision) is not returned.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testInferSchemaOfFingerprintCollision() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode intNode = mapper.readTree(jsonSimpleRecordInt);
+        JsonNode doubleNode = mapper.readTree(jsonSimpleRecordDouble);
+        Schema intSchema = jsonSchemaInferrer.inferSchema(intNode);
+
+        // cache schema of int node as if double node had the same fingerprint
+        long doubleFingerprint = JsonSchemaInferrer.getShapeFingerprint(doubleNode);
+        jsonSchemaInferrer.schemasByShape.put(doubleFingerprint,
+                jsonSchemaInferrer.schemasByShape.get(JsonSchemaInferrer.getShapeFingerprint(intNode)));
+
+        Schema doubleSchema = jsonSchemaInferrer.inferSchema(doubleNode);
+        assertThat(doubleSchema, is(not(equalTo(intSchema))));
+        assertThat(doubleSchema.getField("a").schema().getTypes().get(0).getName(), is(equalTo("double")));
+        assertThat(jsonSchemaInferrer.inferSchema(intNode), is(sameInstance(intSchema)));
+    }
 }
@@ -0,0 +1,216 @@
+package org.talend.daikon.avro.visitor.jmh;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.daikon.avro.visitor.path.TraversalPathCursor;
+import org.talend.daikon.avro.visitor.record.RecordVisitor;
+import org.talend.daikon.avro.visitor.record.VisitableArray;
+import org.talend.daikon.avro.visitor.record.VisitableBoolean;
+import org.talend.daikon.avro.visitor.record.VisitableBytes;
+import org.talend.daikon.avro.visitor.record.VisitableDouble;
+import org.talend.daikon.avro.visitor.record.VisitableFixed;
+import org.talend.daikon.avro.visitor.record.VisitableFloat;
+import org.talend.daikon.avro.visitor.record.VisitableInt;
+import org.talend.daikon.avro.visitor.record.VisitableLong;
+import org.talend.daikon.avro.visitor.record.VisitableMap;
+import org.talend.daikon.avro.visitor.record.VisitableNull;
+import org.talend.daikon.avro.visitor.record.VisitableRecord;
+import org.talend.daikon.avro.visitor.record.VisitableString;
+import org.talend.daikon.avro.visitor.record.VisitableStructure;
+
+/**
+ * Visit a wide record (many fields) or a deep record (nested records) with immutable paths or with a
+ * {@link TraversalPathCursor}, reading the value or the path (in XPATH notation) of each leaf.
+ * Run with main method (not part of unit tests).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RecordVisitorBenchmark {
+
+    @Param({ "wide", "deep" })
+    private String shape;
+
+    private IndexedRecord record;
+
+    private TraversalPathCursor cursor;
+
+    @Setup
+    public void setup() {
+        record = "wide".equals(shape) ? createWideRecord(500) : createDeepRecord(50);
+        cursor = new TraversalPathCursor(record.getSchema());
+    }
+
+    @Benchmark
+    public void values(Blackhole blackhole) {
+        new VisitableRecord(record).accept(new LeavesVisitor(blackhole, false));
+    }
+
+    @Benchmark
+    public void valuesWithCursor(Blackhole blackhole) {
+        new VisitableRecord(record, cursor).accept(new LeavesVisitor(blackhole, false));
+    }
+
+    @Benchmark
+    public void paths(Blackhole blackhole) {
+        new VisitableRecord(record).accept(new LeavesVisitor(blackhole, true));
+    }
+
+    @Benchmark
+    public void pathsWithCursor(Blackhole blackhole) {
+        new VisitableRecord(record, cursor).accept(new LeavesVisitor(blackhole, true));
+    }
+
+    /**
+     * @return a record with the given number of long fields.
+     */
+    private static IndexedRecord createWideRecord(int fields) {
+        SchemaBuilder.FieldAssembler<Schema> assembler = SchemaBuilder.record("wide").fields();
+        for (int i = 0; i < fields; i++) {
+            assembler = assembler.name("field" + i).type().longType().noDefault();
+        }
+        GenericData.Record record = new GenericData.Record(assembler.endRecord());
+        for (int i = 0; i < fields; i++) {
+            record.put(i, (long) i);
+        }
+        return record;
+    }
+
+    /**
+     * @return a record of the given depth of nested records, each with a long field, a string field and an array of 3 ints.
+     */
+    private static IndexedRecord createDeepRecord(int depth) {
+        Schema schema = null;
+        GenericData.Record record = null;
+        for (int i = depth; i > 0; i--) {
+            SchemaBuilder.FieldAssembler<Schema> assembler = SchemaBuilder.record("level" + i).fields().name("id").type()
+                    .longType().noDefault().name("name").type().stringType().noDefault().name("values").type().array().items()
+                    .intType().noDefault();
+            if (schema != null) {
+                assembler = assembler.name("child").type(schema).noDefault();
+            }
+            Schema levelSchema = assembler.endRecord();
+            GenericData.Record level = new GenericData.Record(levelSchema);
+            level.put("id", (long) i);
+            level.put("name", "name" + i);
+            level.put("values", new GenericData.Array<>(levelSchema.getField("values").schema(),
+                    Arrays.asList(1, 2, 3)));
+            if (record != null) {
+                level.put("child", record);
+            }
+            schema = levelSchema;
+            record = level;
+        }
+        return record;
+    }
+
+    private static class LeavesVisitor implements RecordVisitor {
+
+        private final Blackhole blackhole;
+
+        private final boolean paths;
+
+        private LeavesVisitor(Blackhole blackhole, boolean paths) {
+            this.blackhole = blackhole;
+            this.paths = paths;
+        }
+
+        private void leaf(VisitableStructure<?> leaf) {
+            blackhole.consume(paths ? leaf.getPath().toString() : leaf.getValue());
+        }
+
+        private void visitAll(Iterator<VisitableStructure> structures) {
+            while (structures.hasNext()) {
+                structures.next().accept(this);
+            }
+        }
+
+        @Override
+        public void visit(VisitableRecord record) {
+            visitAll(record.getFields());
+        }
+
+        @Override
+        public void visit(VisitableArray array) {
+            visitAll(array.getItems(VisitableArray.ArrayItemsPathType.INDEXED));
+        }
+
+        @Override
+        public void visit(VisitableMap map) {
+            visitAll(map.getValues());
+        }
+
+        @Override
+        public void visit(VisitableInt field) {
+            leaf(field);
+        }
+
+        @Override
+        public void visit(VisitableLong field) {
+            leaf(field);
+        }
+
+        @Override
+        public void visit(VisitableString field) {
+            leaf(field);
+        }
+
+        @Override
+        public void visit(VisitableBoolean field) {
+            leaf(field);
+        }
+
+        @Override
+        public void visit(VisitableFloat field) {
+            leaf(field);
+        }
+
+        @Override
+        public void visit(VisitableDouble field) {
+            leaf(field);
+        }
+
+        @Override
+        public void visit(VisitableNull field) {
+            leaf(field);
+        }
+
+        @Override
+        public void visit(VisitableFixed field) {
+            leaf(field);
+        }
+
+        @Override
+        public void visit(VisitableBytes field) {
+            leaf(field);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RecordVisitorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
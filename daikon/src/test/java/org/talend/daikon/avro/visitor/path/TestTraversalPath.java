@@ -13,9 +13,18 @@
 package org.talend.daikon.avro.visitor.path;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Base64;
 import java.util.Iterator;
 
 import org.apache.avro.AvroRuntimeException;
@@ -180,6 +189,91 @@ public class TestTraversalPath {
         assertEquals(path1, path2);
     }
 
+    @Test
+    public void testHashCodeIsXpathHashCode() {
+        Schema schema = createSimpleSchema();
+        TraversalPath root = TraversalPath.create(schema);
+        TraversalPath[] paths = { root, root.append("step1"), root.append("step1").append("step2"),
+                root.append("array").appendArrayIndex(5), root.append("array").appendArrayIndex(-12),
+                root.append("array").appendArrayIndex(Integer.MIN_VALUE), root.append("map").appendMapEntry("key1"),
+                root.append("map").appendMapEntry(null), root.append("", 0, schema) };
+        for (TraversalPath path : paths) {
+            assertEquals(path.toString().hashCode(), path.hashCode(), path.toString());
+        }
+        // Same XPATH notation
+        assertEquals(root.append("map").appendMapEntry("key1"), root.append("map").append("key1", 0, schema));
+        assertNotEquals(root.append("step1"), root.append("array"));
+    }
+
+    @Test
+    public void testPathsAreShared() {
+        Schema schema = createSimpleSchema();
+        TraversalPath step1 = TraversalPath.create(schema).append("step1");
+        TraversalPath step2 = step1.append("step2");
+        TraversalPath array = step1.parent().append("array");
+
+        assertSame(step1, step2.parent());
+        assertSame(step1.parent(), array.parent());
+        assertNull(step1.parent().parent());
+        assertEquals(3, step2.size());
+        assertEquals("/step1/step2", step2.toString());
+        assertEquals("/step1", step1.toString());
+        assertEquals("/array", array.toString());
+
+        Iterator<TraversalPath.TraversalPathElement> elements = step2.descendingIterator();
+        assertSame(step2.last(), elements.next());
+        assertSame(step1.last(), elements.next());
+        assertSame(step2.root(), elements.next());
+        assertFalse(elements.hasNext());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        Schema schema = createSimpleSchema();
+        TraversalPath path = TraversalPath.create(schema).append("array").appendArrayIndex(2);
+
+        TraversalPath copy = deserialize(serialize(path));
+        assertEquals(path, copy);
+        assertEquals(3, copy.size());
+        assertEquals(2, ((TraversalPath.ArrayItemPathElement) copy.last()).getIndex());
+        assertEquals("/array", copy.parent().toString());
+        assertEquals(schema, copy.root().getSchema());
+    }
+
+    @Test
+    public void testSerializedFormOfPreviousVersions() throws Exception {
+        // "/a/b" path serialized by previous versions (a list of elements)
+        final String serialized = "rO0ABXNyADFvcmcudGFsZW5kLmRhaWtvbi5hdnJvLnZpc2l0b3IucGF0aC5UcmF2ZXJzYWxQYXRoAAAAAAAAAAECAAJMAAhlbGVt"
+            + "ZW50c3QAFkxqYXZhL3V0aWwvTGlua2VkTGlzdDtMAARwYXRodAASTGphdmEvbGFuZy9TdHJpbmc7eHBzcgAUamF2YS51dGlsLkxp"
+            + "bmtlZExpc3QMKVNdSmCIIgMAAHhwdwQAAAADc3IAQW9yZy50YWxlbmQuZGFpa29uLmF2cm8udmlzaXRvci5wYXRoLlRyYXZlcnNh"
+            + "bFBhdGgkUm9vdFBhdGhFbGVtZW50AAAAAAAAAAECAAB4cgBGb3JnLnRhbGVuZC5kYWlrb24uYXZyby52aXNpdG9yLnBhdGguVHJh"
+            + "dmVyc2FsUGF0aCRUcmF2ZXJzYWxQYXRoRWxlbWVudAAAAAAAAAABAgADSQAIcG9zaXRpb25MAARuYW1lcQB+AAJMAAZzY2hlbWF0"
+            + "ABhMb3JnL2FwYWNoZS9hdnJvL1NjaGVtYTt4cAAAAAB0AABzcgApb3JnLmFwYWNoZS5hdnJvLlNjaGVtYSRTZXJpYWxpemFibGVT"
+            + "Y2hlbWEAAAAAAAAAAQIAAUwADHNjaGVtYVN0cmluZ3EAfgACeHB0AAgic3RyaW5nInNxAH4ABwAAAAB0AAFhcQB+AAxzcQB+AAcA"
+            + "AAABdAABYnEAfgAMeHQABC9hL2I=";
+        Schema schema = Schema.create(Schema.Type.STRING);
+        TraversalPath expected = TraversalPath.create(schema).append("a", 0, schema).append("b", 1, schema);
+
+        TraversalPath path = deserialize(Base64.getDecoder().decode(serialized));
+        assertEquals(expected, path);
+        assertEquals(expected.parent(), path.parent());
+        assertEquals(1, path.last().getPosition());
+    }
+
+    private static byte[] serialize(TraversalPath path) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(path);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static TraversalPath deserialize(byte[] bytes) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (TraversalPath) in.readObject();
+        }
+    }
+
     private Schema createSimpleSchema() {
         return SchemaBuilder.record("record").fields().name("step1").type().record("step1Type").fields().name("step2").type()
                 .stringType().noDefault().endRecord().noDefault().name("array").type().array().items().intType().noDefault()
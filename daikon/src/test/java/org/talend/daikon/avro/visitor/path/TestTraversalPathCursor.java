@@ -0,0 +1,112 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.daikon.avro.visitor.path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.junit.jupiter.api.Test;
+
+public class TestTraversalPathCursor {
+
+    private final Schema schema = SchemaBuilder.record("record").fields().name("step1").type().record("step1Type").fields()
+            .name("step2").type().stringType().noDefault().endRecord().noDefault().name("array").type().array().items()
+            .array().items().intType().noDefault().name("map").type().map().values().intType().noDefault().endRecord();
+
+    @Test
+    public void testMove() {
+        TraversalPathCursor cursor = new TraversalPathCursor(schema);
+        assertEquals("/", cursor.toString());
+        assertEquals(0, cursor.getDepth());
+
+        cursor.append(1, "step1", 0, schema.getField("step1").schema());
+        cursor.append(2, "step2", 0, Schema.create(Schema.Type.STRING));
+        assertEquals(TraversalPath.create(schema).append("step1").append("step2"), cursor.toPath());
+        assertEquals("/step1", cursor.toPath(1).toString());
+
+        cursor.append(1, "array", 1, schema.getField("array").schema());
+        cursor.appendArrayIndex(2, 5);
+        cursor.appendArrayIndex(3, 2);
+        TraversalPath expected = TraversalPath.create(schema).append("array").appendArrayIndex(5).appendArrayIndex(2);
+        assertEquals(expected, cursor.toPath());
+        assertEquals(expected.last().getSchema(), cursor.toPath().last().getSchema());
+
+        cursor.append(1, "map", 2, schema.getField("map").schema());
+        cursor.appendMapEntry(2, "key1");
+        assertEquals("/map/key1", cursor.toString());
+        assertEquals(2, cursor.getDepth());
+    }
+
+    @Test
+    public void testNotIndexedArrayItem() {
+        TraversalPathCursor cursor = new TraversalPathCursor(schema);
+        Schema array = schema.getField("array").schema();
+        cursor.append(1, "array", 1, array);
+        cursor.appendArrayItem(2);
+        cursor.appendArrayItem(3);
+
+        assertEquals("/array", cursor.toPath(1).toString());
+        assertEquals("/array", cursor.toPath(2).toString());
+        assertEquals(array.getElementType(), cursor.toPath(2).last().getSchema());
+        assertEquals("/array", cursor.toString());
+        assertEquals(array.getElementType().getElementType(), cursor.toPath().last().getSchema());
+        assertEquals(2, cursor.toPath().size());
+    }
+
+    @Test
+    public void testPathsAreReused() {
+        TraversalPathCursor cursor = new TraversalPathCursor(schema);
+        cursor.append(1, "step1", 0, schema.getField("step1").schema());
+        TraversalPath step1 = cursor.toPath();
+        cursor.append(2, "step2", 0, Schema.create(Schema.Type.STRING));
+        TraversalPath step2 = cursor.toPath();
+
+        assertSame(step1, step2.parent());
+        assertSame(step2, cursor.toPath());
+        cursor.append(1, "step1", 0, schema.getField("step1").schema());
+        assertNotSame(step1, cursor.toPath());
+        assertEquals(step1, cursor.toPath());
+
+        // Same root for records of the same schema
+        TraversalPath root = cursor.toPath(0);
+        cursor.reset(schema);
+        assertSame(root, cursor.toPath());
+        cursor.reset(schema.getField("step1").schema());
+        assertEquals(schema.getField("step1").schema(), cursor.toPath().root().getSchema());
+    }
+
+    @Test
+    public void testInvalidDepth() {
+        TraversalPathCursor cursor = new TraversalPathCursor(schema);
+        cursor.append(1, "step1", 0, schema.getField("step1").schema());
+        assertThrows(IllegalArgumentException.class, () -> cursor.append(3, "step2", 0, Schema.create(Schema.Type.STRING)));
+        assertThrows(IllegalArgumentException.class, () -> cursor.append(0, "step2", 0, Schema.create(Schema.Type.STRING)));
+        assertThrows(IllegalArgumentException.class, () -> cursor.toPath(2));
+    }
+
+    @Test
+    public void testDeepPath() {
+        TraversalPathCursor cursor = new TraversalPathCursor(schema);
+        TraversalPath expected = TraversalPath.create(schema);
+        for (int depth = 1; depth <= 100; depth++) {
+            cursor.append(depth, "f" + depth, 0, schema);
+            expected = expected.append("f" + depth, 0, schema);
+        }
+        assertEquals(expected, cursor.toPath());
+        assertEquals(101, cursor.toPath().size());
+    }
+}
@@ -18,6 +18,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -31,6 +32,8 @@ import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.Decoder;
 import org.apache.avro.io.DecoderFactory;
 import org.junit.jupiter.api.Test;
+import org.talend.daikon.avro.visitor.path.TraversalPath;
+import org.talend.daikon.avro.visitor.path.TraversalPathCursor;
 
 public class TestRecordVisit {
 
@@ -293,6 +296,29 @@ public class TestRecordVisit {
         assertTrue(visitor.isVerified(), "Visitor not verified");
     }
 
+    @Test
+    public void testVisitWithCursor() throws Exception {
+        String[][] records = { { "simpleTypes", "simpleTypes" }, { "nestedRecord", "nestedRecord" },
+                { "arrayOfSimpleType", "arrayOfSimpleType" }, { "arrayOfArrayOfSimpleType", "arrayOfArrayOfSimpleType" },
+                { "arrayOfRecords", "arrayOfRecords" }, { "optionalSimpleTypePresent", "optionalSimpleType" },
+                { "optionalSimpleTypeNull", "optionalSimpleType" }, { "mapOfSimpleType", "mapOfSimpleType" },
+                { "mapOfRecords", "mapOfRecords" }, { "mapOfArrays", "mapOfArrays" } };
+        // a single cursor for all visits
+        TraversalPathCursor cursor = new TraversalPathCursor(Schema.create(Schema.Type.NULL));
+        for (VisitableArray.ArrayItemsPathType arraysPathType : VisitableArray.ArrayItemsPathType.values()) {
+            for (String[] names : records) {
+                IndexedRecord record = loadRecord(names[0], names[1]);
+
+                PathRecordingVisitor expected = new PathRecordingVisitor(arraysPathType);
+                new VisitableRecord(record).accept(expected);
+                PathRecordingVisitor actual = new PathRecordingVisitor(arraysPathType);
+                new VisitableRecord(record, cursor).accept(actual);
+
+                assertEquals(expected.paths, actual.paths, names[0] + " " + arraysPathType);
+            }
+        }
+    }
+
     private Schema loadSchema(String name) throws IOException {
         String filename = name + "_schema.json";
         try (InputStream schemaInputStream = this.getClass().getResourceAsStream(filename)) {
@@ -318,6 +344,94 @@ public class TestRecordVisit {
         return Arrays.asList(Arrays.asList(123, 456, 789), Arrays.asList(987, 654, 321));
     }
 
+    /**
+     * Records the path (and its schema) of structures while they are visited, before and after the visit of their
+     * content.
+     */
+    private static class PathRecordingVisitor implements RecordVisitor {
+
+        private final List<String> paths = new ArrayList<>();
+
+        private final VisitableArray.ArrayItemsPathType arraysPathType;
+
+        private PathRecordingVisitor(VisitableArray.ArrayItemsPathType arraysPathType) {
+            this.arraysPathType = arraysPathType;
+        }
+
+        private void record(VisitableStructure structure) {
+            TraversalPath path = structure.getPath();
+            paths.add(path + " " + path.last().getSchema() + " " + path.size());
+        }
+
+        private void visit(VisitableStructure structure, Iterator<VisitableStructure> content) {
+            record(structure);
+            while (content.hasNext()) {
+                content.next().accept(this);
+            }
+            record(structure);
+        }
+
+        @Override
+        public void visit(VisitableRecord record) {
+            visit(record, record.getFields());
+        }
+
+        @Override
+        public void visit(VisitableArray array) {
+            visit(array, array.getItems(arraysPathType));
+        }
+
+        @Override
+        public void visit(VisitableMap map) {
+            visit(map, map.getValues());
+        }
+
+        @Override
+        public void visit(VisitableInt field) {
+            record(field);
+        }
+
+        @Override
+        public void visit(VisitableLong field) {
+            record(field);
+        }
+
+        @Override
+        public void visit(VisitableString field) {
+            record(field);
+        }
+
+        @Override
+        public void visit(VisitableBoolean field) {
+            record(field);
+        }
+
+        @Override
+        public void visit(VisitableFloat field) {
+            record(field);
+        }
+
+        @Override
+        public void visit(VisitableDouble field) {
+            record(field);
+        }
+
+        @Override
+        public void visit(VisitableNull field) {
+            record(field);
+        }
+
+        @Override
+        public void visit(VisitableFixed field) {
+            record(field);
+        }
+
+        @Override
+        public void visit(VisitableBytes field) {
+            record(field);
+        }
+    }
+
     private static class RecordingVisitor implements RecordVisitor {
 
         private final LinkedList<VisitableStructure> visit = new LinkedList<>();
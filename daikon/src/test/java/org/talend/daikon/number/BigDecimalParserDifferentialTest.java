@@ -0,0 +1,130 @@
+package org.talend.daikon.number;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormatSymbols;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link BigDecimalParser} has the same results as the previous, regular expression based,
+ * {@link RegexBigDecimalParser}.
+ */
+public class BigDecimalParserDifferentialTest {
+
+    private static final String[] VALUES = { "0", "0012.5", "1'012.5", "10,012.5", "10,012", "-12.5", "(12.5)", "0012,5",
+            "10 012,5", "10.012,5", "12,5678", "10\u00A0012,5", "268 435 000 000 000 000", "1.23E+3", "1 E+4", "1 e+4", "36%",
+            "29.98%", "15.98 %", "2.5E-2%", "1\u00A0%", "1,045.5", "1'045,5", "2.051.045,5", "2,051,045.5", "2'051'045",
+            ".045", ",045", "-,045", "(,045)", "1234,888", "45,5555", "5 555,555", "3 000.0", "111 111 111", "(5%)", "(5)%",
+            "()", "(", ")", "-", "%", "1.2.3", "1 2,3", "a1.2,3", "\n1.2,3", "1\n.2,3", "1\t000", "1\u2009000\u2009000",
+            "1\u3000234,5", "12,", "12,)", "-1234.", "1.000.00", "5.5k", "tagada", "1e", "+12", "--1", "((1))", "1_000",
+            "\uD83D\uDE001.5", "\u0661\u0662\u0663" };
+
+    // no exponent: "1E99999%" is a (very) long computation for both parsers.
+    private static final char[] ALPHABET = { '0', '1', '5', '9', '.', ',', '\'', ' ', '\u00A0', '\t', '\u202F', '(', ')',
+            '-', '+', '%', 'x', '\n' };
+
+    @Test
+    public void shouldGuessSameSeparators() {
+        for (String value : VALUES) {
+            assertSameSeparators(value);
+        }
+        assertSameSeparators("");
+    }
+
+    @Test
+    public void shouldParseSameValues() {
+        for (String value : VALUES) {
+            assertSameResult(value);
+        }
+        assertSameResult("");
+        assertSameResult(null);
+    }
+
+    @Test
+    public void shouldParseSameValuesWithSeparators() {
+        for (String value : VALUES) {
+            for (char separator = 1; separator < 128; separator++) {
+                assertSameResult(value, separator, '.');
+                assertSameResult(value, ',', separator);
+            }
+            assertSameResult(value, (char) -1, (char) -1);
+            assertSameResult(value, '\u00A0', ' ');
+        }
+    }
+
+    @Test
+    public void shouldParseSameRandomValues() {
+        final Random random = new Random(42L);
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            value.setLength(0);
+            final int length = 1 + random.nextInt(14);
+            for (int j = 0; j < length; j++) {
+                // mostly digits
+                value.append(random.nextInt(3) > 0 ? (char) ('0' + random.nextInt(10)) : ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+            assertSameSeparators(value.toString());
+            assertSameResult(value.toString());
+        }
+    }
+
+    @Test
+    public void shouldParseSameFormattedValues() {
+        final Random random = new Random(42L);
+        final char[][] separators = { { '.', ',' }, { ',', '.' }, { ',', ' ' }, { '.', '\'' }, { ',', '\u00A0' },
+                { '.', ' ' } };
+        for (int i = 0; i < 100_000; i++) {
+            final char[] pair = separators[random.nextInt(separators.length)];
+            final StringBuilder value = new StringBuilder(random.nextBoolean() ? "-" : "");
+            value.append(1 + random.nextInt(999));
+            for (int groups = random.nextInt(4); groups > 0; groups--) {
+                value.append(pair[1]).append(String.format("%03d", random.nextInt(1000)));
+            }
+            if (random.nextBoolean()) {
+                value.append(pair[0]).append(random.nextInt(100_000));
+            }
+            final String formatted = random.nextInt(5) == 0 ? "(" + value + ")" : value.toString();
+            assertSameSeparators(formatted);
+            assertSameResult(formatted);
+            assertSameResult(formatted, pair[0], pair[1]);
+        }
+    }
+
+    private static void assertSameSeparators(String value) {
+        final DecimalFormatSymbols expected = RegexBigDecimalParser.guessSeparators(value);
+        final DecimalFormatSymbols actual = BigDecimalParser.guessSeparators(value);
+        assertEquals(expected.getDecimalSeparator(), actual.getDecimalSeparator(), "decimal separator of '" + value + "'");
+        assertEquals(expected.getGroupingSeparator(), actual.getGroupingSeparator(), "grouping separator of '" + value + "'");
+    }
+
+    private static void assertSameResult(String value) {
+        assertSameResult(() -> RegexBigDecimalParser.toBigDecimal(value), () -> BigDecimalParser.toBigDecimal(value),
+                "'" + value + "'");
+    }
+
+    private static void assertSameResult(String value, char decimalSeparator, char groupingSeparator) {
+        assertSameResult(() -> RegexBigDecimalParser.toBigDecimal(value, decimalSeparator, groupingSeparator),
+                () -> BigDecimalParser.toBigDecimal(value, decimalSeparator, groupingSeparator),
+                "'" + value + "' with '" + decimalSeparator + "' and '" + groupingSeparator + "'");
+    }
+
+    private static void assertSameResult(Supplier<BigDecimal> expected, Supplier<BigDecimal> actual, String message) {
+        assertEquals(result(expected), result(actual), message);
+    }
+
+    /**
+     * @return The parsed value (with its scale) or the exception.
+     */
+    private static String result(Supplier<BigDecimal> parse) {
+        try {
+            final BigDecimal value = parse.get();
+            return value.unscaledValue() + "E" + -value.scale();
+        } catch (RuntimeException e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+}
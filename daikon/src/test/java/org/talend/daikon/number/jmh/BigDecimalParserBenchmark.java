@@ -0,0 +1,61 @@
+package org.talend.daikon.number.jmh;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.daikon.number.BigDecimalParser;
+import org.talend.daikon.number.RegexBigDecimalParser;
+
+/**
+ * Parse numbers of various formats with {@link BigDecimalParser} or with the previous (regular expression based)
+ * implementation.
+ * Run with main method (not part of unit tests).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(BigDecimalParserBenchmark.NB_VALUES)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BigDecimalParserBenchmark {
+
+    static final int NB_VALUES = 12;
+
+    private final String[] values = { "42", "0012.5", "-12.5", "(12.5)", "10,012.5", "1'012.5", "10 012,5",
+            "2.051.045,5", "268 435 000 000 000", "12,5678", "1.23E+3", "29.98%" };
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        for (String value : values) {
+            BigDecimal parsed = BigDecimalParser.toBigDecimal(value);
+            blackhole.consume(parsed);
+        }
+    }
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        for (String value : values) {
+            BigDecimal parsed = RegexBigDecimalParser.toBigDecimal(value);
+            blackhole.consume(parsed);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BigDecimalParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,89 @@
+package org.talend.daikon.pattern.character;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.pattern.PatternMatcher;
+
+public class CharPatternToMatcherTest {
+
+    // one or more code points of each class, and some other characters.
+    private static final String[] VALUE_CODE_POINTS = { "a", "z", "ß", "ÿ", "ｚ", "A", "Z", "À", "Þ", "Ａ", "0", "9", "０",
+            "あ", "ゝ", "ー", "ｦ", "ア", "ヽ", "ㇰ", "一", "々", "㐀", "𠀀", "가", "힯", "×", "÷", " ", ".", "@",
+            "-", "\n" };
+
+    private static final String PATTERN_CHARS = "aA9HkKCG .@-";
+
+    @Test
+    public void shouldMatch() {
+        assertMatches("Aaaa99", "Taln17");
+        assertMatches("Aaaa99", "Ｔａｌｅ１７");
+        assertMatches("aaaa@aaaaa.aaa", "john@talen.com");
+        assertMatches("CC", "一𠀀");
+        assertMatches("HKkG", "あアｦ가");
+        assertMatches("", "");
+    }
+
+    @Test
+    public void shouldNotMatch() {
+        assertNoMatches("Aaaa99", "Talend1");
+        assertNoMatches("Aaaa99", "Talend177");
+        assertNoMatches("aaa", "aAa");
+        assertNoMatches("a", "a\n");
+        assertNoMatches("9", null);
+        assertNoMatches("", "a");
+    }
+
+    @Test
+    public void shouldMatchSurrogatesInPatternAsRegex() {
+        for (String value : new String[] { "b𠀀", "bb", "b\uDC00" }) {
+            assertEquals(value.matches(CharPatternToRegex.toRegex("a𠀀")), CharPatternToMatcher.toMatcher("a𠀀").matches(value));
+        }
+    }
+
+    @Test
+    public void shouldMatchSameValuesThanRegex() {
+        final Random random = new Random(42L);
+        for (int i = 0; i < 20_000; i++) {
+            final String pattern = randomPattern(random);
+            final String value = randomValue(random);
+            final boolean expected = value.matches(CharPatternToRegex.toRegex(pattern));
+            assertEquals(expected, CharPatternToMatcher.toMatcher(pattern).matches(value),
+                    "'" + value + "' complies '" + pattern + "'");
+        }
+    }
+
+    private static String randomPattern(Random random) {
+        final StringBuilder pattern = new StringBuilder();
+        final int length = random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            pattern.append(PATTERN_CHARS.charAt(random.nextInt(PATTERN_CHARS.length())));
+        }
+        return pattern.toString();
+    }
+
+    private static String randomValue(Random random) {
+        final StringBuilder value = new StringBuilder();
+        final int length = random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            value.append(VALUE_CODE_POINTS[random.nextInt(VALUE_CODE_POINTS.length)]);
+        }
+        return value.toString();
+    }
+
+    private static void assertMatches(String pattern, String value) {
+        final PatternMatcher matcher = CharPatternToMatcher.toMatcher(pattern);
+        assertTrue(matcher.matches(value), "'" + value + "' should comply '" + pattern + "'");
+        assertTrue(Pattern.compile(CharPatternToRegex.toRegex(pattern)).matcher(value).matches());
+    }
+
+    private static void assertNoMatches(String pattern, String value) {
+        final PatternMatcher matcher = CharPatternToMatcher.toMatcher(pattern);
+        assertFalse(matcher.matches(value), "'" + value + "' should not comply '" + pattern + "'");
+    }
+}
@@ -0,0 +1,84 @@
+package org.talend.daikon.pattern.word;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.pattern.PatternMatcher;
+
+public class WordPatternToMatcherTest {
+
+    private static final String[] VALUE_CODE_POINTS = { "a", "b", "é", "A", "B", "É", "0", "7", "٣", "一", "𠀀",
+            "가", "あ", "ア", "ｦ", "|", " ", "-", "[", "]" };
+
+    private static final String[] PATTERN_TOKENS = { "[Word]", "[word]", "[WORD]", "[char]", "[Char]", "[number]",
+            "[digit]", "[alnum]", "[Ideogram]", "[IdeogramSeq]", "[hangul]", "[hangulSeq]", "[hira]", "[hiraSeq]", "[kata]",
+            "[kataSeq]", " ", "-", "a", "[", "]", "[unknown]" };
+
+    @Test
+    public void shouldMatch() {
+        assertMatches("[Word] [number]", "Talend 2006");
+        assertMatches("[word]-[alnum]", "talend-a1b2");
+        assertMatches("[alnum][digit]", "ab1");
+        assertMatches("[WORD][Word]", "TALENDTalend");
+        assertMatches("[IdeogramSeq]", "一𠀀");
+        assertMatches("[char]][char]", "a]b");
+    }
+
+    @Test
+    public void shouldNotMatch() {
+        assertNoMatches("[Word]", "TAlend");
+        assertNoMatches("[number]", "1");
+        assertNoMatches("[alnum][digit]", "a1");
+        assertNoMatches("[word]", null);
+    }
+
+    @Test
+    public void shouldMatchLongPatterns() {
+        final StringBuilder pattern = new StringBuilder();
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            pattern.append("[word] ");
+            value.append("talend ");
+        }
+        assertMatches(pattern.toString(), value.toString());
+        assertNoMatches(pattern.toString(), value.append('x').toString());
+    }
+
+    @Test
+    public void shouldMatchSameValuesThanRegex() {
+        final Random random = new Random(42L);
+        for (int i = 0; i < 20_000; i++) {
+            final String pattern = random(random, PATTERN_TOKENS, 3);
+            final String value = random(random, VALUE_CODE_POINTS, 6);
+            for (boolean caseSensitive : new boolean[] { true, false }) {
+                final boolean expected = value.matches(WordPatternToRegex.toRegex(pattern, caseSensitive));
+                assertEquals(expected, WordPatternToMatcher.toMatcher(pattern, caseSensitive).matches(value),
+                        "'" + value + "' wordComplies '" + pattern + "' (case sensitive: " + caseSensitive + ")");
+            }
+        }
+    }
+
+    private static String random(Random random, String[] parts, int maxLength) {
+        final StringBuilder builder = new StringBuilder();
+        final int length = random.nextInt(maxLength + 1);
+        for (int i = 0; i < length; i++) {
+            builder.append(parts[random.nextInt(parts.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static void assertMatches(String pattern, String value) {
+        final PatternMatcher matcher = WordPatternToMatcher.toMatcher(pattern, true);
+        assertTrue(matcher.matches(value), "'" + value + "' should comply '" + pattern + "'");
+        assertTrue(value.matches(WordPatternToRegex.toRegex(pattern, true)));
+    }
+
+    private static void assertNoMatches(String pattern, String value) {
+        final PatternMatcher matcher = WordPatternToMatcher.toMatcher(pattern, true);
+        assertFalse(matcher.matches(value), "'" + value + "' should not comply '" + pattern + "'");
+    }
+}